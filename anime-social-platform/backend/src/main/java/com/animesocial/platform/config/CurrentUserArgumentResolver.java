@@ -0,0 +1,29 @@
+package com.animesocial.platform.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.animesocial.platform.model.CurrentUser;
+
+/**
+ * 控制器方法中 CurrentUser 类型参数的解析器
+ * 读取 CurrentUserFilter 放入请求属性的当前用户，未经过滤器（如测试中直接调用）或未登录时返回匿名用户
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object currentUser = webRequest.getAttribute(CurrentUser.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return currentUser instanceof CurrentUser ? currentUser : CurrentUser.ANONYMOUS;
+    }
+}
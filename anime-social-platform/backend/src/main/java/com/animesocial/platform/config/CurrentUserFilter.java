@@ -0,0 +1,38 @@
+package com.animesocial.platform.config;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.animesocial.platform.model.CurrentUser;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * 当前用户过滤器
+ * 每个请求只读取一次会话中的用户ID和管理员标记，解析为 CurrentUser 存入请求属性，
+ * 之后由 CurrentUserArgumentResolver 注入控制器方法
+ */
+@Component
+public class CurrentUserFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CurrentUser currentUser = CurrentUser.ANONYMOUS;
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            Integer userId = (Integer) session.getAttribute("userId");
+            if (userId != null) {
+                currentUser = new CurrentUser(userId, Boolean.TRUE.equals(session.getAttribute("isAdmin")));
+            }
+        }
+        request.setAttribute(CurrentUser.REQUEST_ATTRIBUTE, currentUser);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,13 @@
+package com.animesocial.platform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ * 开启Spring定时任务支持，用于统计对账等后台任务
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
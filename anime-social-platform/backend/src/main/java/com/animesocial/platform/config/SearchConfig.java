@@ -0,0 +1,31 @@
+package com.animesocial.platform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 搜索配置类
+ * 提供综合搜索并行查询各索引所用的有界线程池
+ */
+@Configuration
+public class SearchConfig {
+    
+    /**
+     * 综合搜索线程池
+     * 队列满时直接拒绝，被拒绝的类型按失败处理并返回部分结果，不阻塞请求线程
+     */
+    @Bean(name = "searchExecutor")
+    public ThreadPoolTaskExecutor searchExecutor(
+            @Value("${app.search.threads:16}") int threads,
+            @Value("${app.search.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("search-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.animesocial.platform.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import com.animesocial.platform.service.EsCatchUpService;
+
+/**
+ * 搜索索引健康检查
+ * 启动追赶完成前报告DEGRADED：应用可以正常服务，但搜索结果可能缺少停机期间的数据
+ */
+@Component
+public class SearchIndexHealthIndicator implements HealthIndicator {
+    
+    public static final Status DEGRADED = new Status("DEGRADED", "搜索索引尚未追赶完成");
+    
+    @Autowired
+    private EsCatchUpService esCatchUpService;
+    
+    @Override
+    public Health health() {
+        Health.Builder builder = esCatchUpService.isCaughtUp() ? Health.up() : Health.status(DEGRADED);
+        return builder.withDetails(esCatchUpService.getStatus()).build();
+    }
+}
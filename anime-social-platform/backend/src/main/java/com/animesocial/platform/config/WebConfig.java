@@ -1,7 +1,10 @@
 package com.animesocial.platform.config;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -12,7 +15,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * 该类用于配置Web相关的设置，包括：
  * 1. CORS（跨域资源共享）配置
  * 2. 静态资源映射配置
- * 3. 其他Web MVC相关配置
+ * 3. 当前用户参数解析
+ * 4. 其他Web MVC相关配置
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -35,6 +39,16 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(3600); // 预检请求的有效期，单位为秒
     }
     
+    /**
+     * 注册当前用户参数解析器，控制器方法可直接声明 CurrentUser 参数
+     * 
+     * @param resolvers 参数解析器列表
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+    
     /**
      * 配置静态资源映射
      * 将上传目录映射到/files/**路径
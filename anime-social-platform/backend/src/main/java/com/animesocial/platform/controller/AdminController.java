@@ -1,14 +1,17 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
 import com.animesocial.platform.model.dto.CreateEventRequest;
 import com.animesocial.platform.model.dto.EventDTO;
 import com.animesocial.platform.model.dto.PostDTO;
 import com.animesocial.platform.model.dto.PostListResponse;
+import com.animesocial.platform.model.dto.ReindexProgress;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.Tag;
+import com.animesocial.platform.service.EsReindexService;
 import com.animesocial.platform.service.EventService;
 import com.animesocial.platform.service.PostService;
 import com.animesocial.platform.service.ResourceService;
@@ -18,7 +21,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.format.annotation.DateTimeFormat;
 
-import jakarta.servlet.http.HttpSession;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -51,30 +53,23 @@ public class AdminController {
     @Autowired
     private TagService tagService;
     
-    /**
-     * 检查管理员权限
-     * @param session HTTP会话
-     * @return 是否有管理员权限
-     */
-    private boolean checkAdminPermission(HttpSession session) {
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        return isAdmin != null && isAdmin;
-    }
+    @Autowired
+    private EsReindexService esReindexService;
     
     /**
      * 获取所有用户列表
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 用户列表
      */
     @GetMapping("/users")
     public ApiResponse<List<UserDTO>> getAllUsers(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -87,12 +82,12 @@ public class AdminController {
     
     /**
      * 获取所有管理员列表
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 管理员列表
      */
     @GetMapping("/admins")
-    public ApiResponse<List<UserDTO>> getAllAdmins(HttpSession session) {
-        if (!checkAdminPermission(session)) {
+    public ApiResponse<List<UserDTO>> getAllAdmins(CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -108,7 +103,7 @@ public class AdminController {
      * @param keyword 搜索关键词
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 匹配的用户列表
      */
     @GetMapping("/users/search")
@@ -116,9 +111,9 @@ public class AdminController {
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -134,7 +129,7 @@ public class AdminController {
      * @param keyword 搜索关键词
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 匹配的帖子列表
      */
     @GetMapping("/posts/search")
@@ -142,14 +137,14 @@ public class AdminController {
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
         try {
-            return ApiResponse.success(postService.searchPosts(keyword, page, size));
+            return ApiResponse.success(postService.searchPostsForAdmin(keyword, page, size));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -160,7 +155,7 @@ public class AdminController {
      * @param keyword 搜索关键词
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 匹配的资源列表
      */
     @GetMapping("/resources/search")
@@ -168,14 +163,15 @@ public class AdminController {
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
         try {
-            return ApiResponse.success(resourceService.searchResources(keyword, page, size));
+            // 管理后台不需要当前用户的点赞、收藏状态
+            return ApiResponse.success(resourceService.searchResources(keyword, page, size, null));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -185,16 +181,16 @@ public class AdminController {
      * 管理员禁用/启用用户
      * @param id 用户ID
      * @param status 状态(0禁用,1正常)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/users/{id}/status")
     public ApiResponse<Void> updateUserStatus(
             @PathVariable Integer id,
             @RequestParam Integer status,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -213,12 +209,12 @@ public class AdminController {
     /**
      * 管理员删除帖子
      * @param id 帖子ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/posts/{id}")
-    public ApiResponse<Void> deletePost(@PathVariable Integer id, HttpSession session) {
-        if (!checkAdminPermission(session)) {
+    public ApiResponse<Void> deletePost(@PathVariable Integer id, CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -234,16 +230,16 @@ public class AdminController {
      * 管理员置顶/取消置顶帖子
      * @param id 帖子ID
      * @param isTop 是否置顶(1置顶,0取消置顶)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/posts/{id}/top")
     public ApiResponse<Void> topPost(
             @PathVariable Integer id,
             @RequestParam Integer isTop,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -262,12 +258,12 @@ public class AdminController {
     /**
      * 管理员删除资源
      * @param id 资源ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/resources/{id}")
-    public ApiResponse<Void> deleteResource(@PathVariable Integer id, HttpSession session) {
-        if (!checkAdminPermission(session)) {
+    public ApiResponse<Void> deleteResource(@PathVariable Integer id, CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -282,17 +278,17 @@ public class AdminController {
     /**
      * 管理员创建活动
      * @param eventRequest 活动信息
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 创建的活动
      */
     @PostMapping("/events")
-    public ApiResponse<EventDTO> createEvent(@RequestBody CreateEventRequest eventRequest, HttpSession session) {
-        if (!checkAdminPermission(session)) {
+    public ApiResponse<EventDTO> createEvent(@RequestBody CreateEventRequest eventRequest, CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
         // 获取当前用户ID
-        Integer currentUserId = (Integer) session.getAttribute("userId");
+        Integer currentUserId = currentUser.getId();
         
         try {
             return ApiResponse.success("活动创建成功", eventService.createEvent(currentUserId, eventRequest));
@@ -305,16 +301,16 @@ public class AdminController {
      * 管理员更新活动
      * @param id 活动ID
      * @param eventRequest 活动信息
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 更新的活动
      */
     @PutMapping("/events/{id}")
     public ApiResponse<EventDTO> updateEvent(
             @PathVariable Integer id,
             @RequestBody CreateEventRequest eventRequest,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -328,12 +324,12 @@ public class AdminController {
     /**
      * 管理员删除活动
      * @param id 活动ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/events/{id}")
-    public ApiResponse<Void> deleteEvent(@PathVariable Integer id, HttpSession session) {
-        if (!checkAdminPermission(session)) {
+    public ApiResponse<Void> deleteEvent(@PathVariable Integer id, CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -349,16 +345,16 @@ public class AdminController {
      * 管理员更新活动状态
      * @param id 活动ID
      * @param status 状态(0下线,1上线)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/events/{id}/status")
     public ApiResponse<Void> updateEventStatus(
             @PathVariable Integer id,
             @RequestParam Integer status,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -377,12 +373,12 @@ public class AdminController {
     /**
      * 获取系统统计信息
      * 包括用户总数、帖子总数、资源总数、活动总数等
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 统计信息
      */
     @GetMapping("/statistics")
-    public ApiResponse<Map<String, Object>> getSystemStatistics(HttpSession session) {
-        if (!checkAdminPermission(session)) {
+    public ApiResponse<Map<String, Object>> getSystemStatistics(CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -417,7 +413,7 @@ public class AdminController {
             statistics.put("latestUsers", latestUsers);
             
             // 获取置顶帖子
-            List<PostDTO> topPosts = postService.getTopPosts();
+            List<PostDTO> topPosts = postService.getTopPosts(null);
             statistics.put("topPosts", topPosts);
             
             // 获取当前活动
@@ -438,7 +434,7 @@ public class AdminController {
      * 获取所有帖子列表
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 帖子列表
      */
     @GetMapping("/posts")
@@ -447,14 +443,14 @@ public class AdminController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Integer tagId,
             @RequestParam(defaultValue = "latest") String sort,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
         try {
-            return ApiResponse.success(postService.getAllPosts(page, size, tagId, sort));
+            return ApiResponse.success(postService.getAllPostsForAdmin(page, size, tagId, sort));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -464,7 +460,7 @@ public class AdminController {
      * 获取所有资源列表
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 资源列表
      */
     @GetMapping("/resources")
@@ -473,14 +469,15 @@ public class AdminController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Integer tagId,
             @RequestParam(defaultValue = "latest") String sort,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
         try {
-            return ApiResponse.success(resourceService.getAllResources(page, size, tagId, sort));
+            // 管理后台不需要当前用户的点赞、收藏状态
+            return ApiResponse.success(resourceService.getAllResources(page, size, tagId, sort, null));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -490,7 +487,7 @@ public class AdminController {
      * 获取所有活动列表
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 活动列表
      */
     @GetMapping("/events")
@@ -498,9 +495,9 @@ public class AdminController {
             @RequestParam(required = false) Integer status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endTime,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -514,15 +511,15 @@ public class AdminController {
     /**
      * 获取所有标签列表
      * @param type 标签类型(post/resource/user，可选)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 标签列表
      */
     @GetMapping("/tags")
     public ApiResponse<List<TagDTO>> getAllTags(
             @RequestParam(required = false) String type,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -540,15 +537,15 @@ public class AdminController {
     /**
      * 获取标签详情
      * @param id 标签ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 标签详情
      */
     @GetMapping("/tags/{id}")
     public ApiResponse<TagDTO> getTagById(
             @PathVariable Integer id,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -566,15 +563,15 @@ public class AdminController {
     /**
      * 创建标签
      * @param tagDTO 标签信息
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 创建的标签
      */
     @PostMapping("/tags")
     public ApiResponse<TagDTO> createTag(
             @RequestBody TagDTO tagDTO,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -608,16 +605,16 @@ public class AdminController {
      * 更新标签
      * @param id 标签ID
      * @param tagDTO 标签信息
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 更新后的标签
      */
     @PutMapping("/tags/{id}")
     public ApiResponse<TagDTO> updateTag(
             @PathVariable Integer id,
             @RequestBody TagDTO tagDTO,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -648,15 +645,15 @@ public class AdminController {
     /**
      * 删除标签
      * @param id 标签ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/tags/{id}")
     public ApiResponse<Void> deleteTag(
             @PathVariable Integer id,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -677,12 +674,12 @@ public class AdminController {
     
     /**
      * 获取标签统计信息
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 标签统计信息
      */
     @GetMapping("/tags/statistics")
-    public ApiResponse<Map<String, Object>> getTagStatistics(HttpSession session) {
-        if (!checkAdminPermission(session)) {
+    public ApiResponse<Map<String, Object>> getTagStatistics(CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -718,16 +715,16 @@ public class AdminController {
      * 搜索标签
      * @param keyword 搜索关键词
      * @param type 标签类型(post/resource/user，可选)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 匹配的标签列表
      */
     @GetMapping("/tags/search")
     public ApiResponse<List<TagDTO>> searchTags(
             @RequestParam String keyword,
             @RequestParam(required = false) String type,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
-        if (!checkAdminPermission(session)) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -756,4 +753,37 @@ public class AdminController {
             return ApiResponse.failed(e.getMessage());
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 管理员启动搜索索引重建
+     * 重建在后台执行，完成前搜索仍使用旧索引
+     * @param currentUser 当前用户
+     * @return 重建进度
+     */
+    @PostMapping("/search/reindex")
+    public ApiResponse<ReindexProgress> startReindex(CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
+            return ApiResponse.forbidden();
+        }
+        
+        try {
+            return ApiResponse.success("索引重建任务已启动", esReindexService.startReindex());
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+    
+    /**
+     * 管理员查看搜索索引重建进度
+     * @param currentUser 当前用户
+     * @return 重建进度
+     */
+    @GetMapping("/search/reindex")
+    public ApiResponse<ReindexProgress> getReindexProgress(CurrentUser currentUser) {
+        if (!currentUser.isAdmin()) {
+            return ApiResponse.forbidden();
+        }
+        
+        return ApiResponse.success(esReindexService.getProgress());
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.User;
 import com.animesocial.platform.model.dto.ApiResponse;
 import com.animesocial.platform.model.dto.LoginRequest;
@@ -117,19 +118,16 @@ public class AuthController {
     /**
      * 获取当前用户信息接口
      * 
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 当前登录用户的信息，如果未登录则返回未授权错误
      */
     @GetMapping("/info")
-    public ApiResponse<UserDTO> info(HttpSession session) {
-        // 输出会话ID，用于调试
-        System.out.println("获取用户信息，会话ID: " + session.getId());
-        
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+    public ApiResponse<UserDTO> info(CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
             System.out.println("会话中没有userId属性");
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             UserDTO userDTO = userService.getUserDTOById(userId);
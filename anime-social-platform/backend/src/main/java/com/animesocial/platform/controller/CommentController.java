@@ -1,14 +1,15 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
 import com.animesocial.platform.model.dto.CommentDTO;
+import com.animesocial.platform.model.dto.CommentListResponse;
 import com.animesocial.platform.model.dto.CreateCommentRequest;
 import com.animesocial.platform.service.CommentService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import java.util.List;
 
@@ -40,19 +41,40 @@ public class CommentController {
         }
     }
 
+    /**
+     * 分页获取帖子评论
+     * @param postId 帖子ID
+     * @param page 页码
+     * @param size 每页一级评论数量
+     * @param replyLimit 每条一级评论内联的回复数量
+     * @return 评论列表及一级评论总数
+     */
+    @GetMapping("/post/{postId}/threads")
+    public ApiResponse<CommentListResponse> getCommentThreads(
+            @PathVariable Integer postId,
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "3") Integer replyLimit) {
+        try {
+            return ApiResponse.success(commentService.getCommentThreads(postId, page, size, replyLimit));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
     /**
      * 添加评论
      * @param request 评论请求对象
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 新创建的评论对象
      */
     @PostMapping
-    public ApiResponse<CommentDTO> addComment(@Valid @RequestBody CreateCommentRequest request, HttpSession session) {
+    public ApiResponse<CommentDTO> addComment(@Valid @RequestBody CreateCommentRequest request, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             CommentDTO comment = commentService.createComment(userId, request);
@@ -65,22 +87,21 @@ public class CommentController {
     /**
      * 删除评论
      * @param id 评论ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deleteComment(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Void> deleteComment(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             // 验证当前用户是否是评论的作者或管理员
             CommentDTO comment = commentService.getCommentById(id);
-            Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-            if (!comment.getUserId().equals(userId) && (isAdmin == null || !isAdmin)) {
+            if (!comment.getUserId().equals(userId) && !currentUser.isAdmin()) {
                 return ApiResponse.forbidden();
             }
             
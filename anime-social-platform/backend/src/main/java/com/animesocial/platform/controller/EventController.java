@@ -1,5 +1,6 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
 import com.animesocial.platform.model.dto.EventDTO;
 import com.animesocial.platform.model.dto.CreateEventRequest;
@@ -10,7 +11,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
@@ -97,15 +97,15 @@ public class EventController {
 
     /**
      * 获取用户参加的活动列表
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 用户参加的活动列表
      */
     @GetMapping("/user-events")
-    public ApiResponse<List<EventDTO>> getUserEvents(HttpSession session) {
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+    public ApiResponse<List<EventDTO>> getUserEvents(CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success(eventService.getUserEvents(userId));
@@ -117,21 +117,20 @@ public class EventController {
     /**
      * 创建新活动(仅管理员)
      * @param request 创建活动请求对象
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 新创建的活动对象
      */
     @PostMapping
-    public ApiResponse<EventDTO> createEvent(@Valid @RequestBody CreateEventRequest request, HttpSession session) {
+    public ApiResponse<EventDTO> createEvent(@Valid @RequestBody CreateEventRequest request, CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             EventDTO event = eventService.createEvent(userId, request);
@@ -144,15 +143,15 @@ public class EventController {
     /**
      * 创建新活动(前端用户创建的端点)
      * @param request 创建活动请求对象
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 新创建的活动对象
      */
     @PostMapping("/create")
-    public ApiResponse<EventDTO> createUserEvent(@Valid @RequestBody CreateEventRequest request, HttpSession session) {
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+    public ApiResponse<EventDTO> createUserEvent(@Valid @RequestBody CreateEventRequest request, CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             // 创建状态为待审核(0)的活动
@@ -166,15 +165,15 @@ public class EventController {
     /**
      * 参加活动
      * @param requestBody 请求体，包含eventId
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PostMapping("/participate")
-    public ApiResponse<Void> participateEvent(@RequestBody Map<String, Integer> requestBody, HttpSession session) {
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+    public ApiResponse<Void> participateEvent(@RequestBody Map<String, Integer> requestBody, CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         Integer eventId = requestBody.get("eventId");
         if (eventId == null) {
@@ -192,15 +191,15 @@ public class EventController {
     /**
      * 取消参加活动
      * @param requestBody 请求体，包含eventId
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PostMapping("/cancel-participation")
-    public ApiResponse<Void> cancelParticipation(@RequestBody Map<String, Integer> requestBody, HttpSession session) {
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+    public ApiResponse<Void> cancelParticipation(@RequestBody Map<String, Integer> requestBody, CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         Integer eventId = requestBody.get("eventId");
         if (eventId == null) {
@@ -218,15 +217,15 @@ public class EventController {
     /**
      * 检查用户是否已参加活动
      * @param eventId 活动ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 是否已参加
      */
     @GetMapping("/check-participation")
-    public ApiResponse<Boolean> checkParticipation(@RequestParam Integer eventId, HttpSession session) {
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+    public ApiResponse<Boolean> checkParticipation(@RequestParam Integer eventId, CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             boolean participated = eventService.checkParticipation(userId, eventId);
@@ -240,17 +239,16 @@ public class EventController {
      * 更新活动(仅管理员)
      * @param id 活动ID
      * @param request 更新活动请求对象
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 更新后的活动对象
      */
     @PutMapping("/{id}")
     public ApiResponse<EventDTO> updateEvent(
             @PathVariable Integer id,
             @Valid @RequestBody CreateEventRequest request,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -266,17 +264,16 @@ public class EventController {
      * 修改活动状态(仅管理员)
      * @param id 活动ID
      * @param status 活动状态(0下线，1上线)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/{id}/status")
     public ApiResponse<Void> updateEventStatus(
             @PathVariable Integer id,
             @RequestParam Integer status,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -295,14 +292,13 @@ public class EventController {
     /**
      * 删除活动(仅管理员)
      * @param id 活动ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deleteEvent(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Void> deleteEvent(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -330,15 +326,15 @@ public class EventController {
     
     /**
      * 获取用户参与的活动记录
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 用户参与的活动记录列表
      */
     @GetMapping("/participations")
-    public ApiResponse<List<EventParticipationDTO>> getUserParticipations(HttpSession session) {
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+    public ApiResponse<List<EventParticipationDTO>> getUserParticipations(CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success(eventService.getUserParticipations(userId));
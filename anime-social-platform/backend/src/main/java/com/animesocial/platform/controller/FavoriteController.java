@@ -2,6 +2,8 @@ package com.animesocial.platform.controller;
 
 import com.animesocial.platform.model.Favorite;
 import com.animesocial.platform.model.dto.ApiResponse;
+import com.animesocial.platform.model.dto.CursorPage;
+import com.animesocial.platform.model.dto.ResourceDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
 import com.animesocial.platform.service.FavoriteService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -60,6 +62,7 @@ public class FavoriteController {
     
     /**
      * 获取用户收藏列表
+     * 只返回最近收藏的最多100条，完整列表请使用分页或游标接口
      * @param userId 用户ID
      * @return 收藏列表
      */
@@ -86,6 +89,22 @@ public class FavoriteController {
         return ApiResponse.success(favorites);
     }
     
+    /**
+     * 按游标获取用户收藏列表
+     * @param userId 用户ID
+     * @param cursor 上一页返回的nextCursor，第一页不传
+     * @param size 每页数量
+     * @return 收藏列表和下一页游标
+     */
+    @GetMapping("/user/{userId}/cursor")
+    public ApiResponse<CursorPage<ResourceDTO>> getUserFavoritesByCursor(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        CursorPage<ResourceDTO> favorites = favoriteService.getUserFavoritesByCursor(userId, cursor, size);
+        return ApiResponse.success(favorites);
+    }
+    
     /**
      * 获取资源收藏次数
      * @param resourceId 资源ID
@@ -1,5 +1,6 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
 import com.animesocial.platform.util.FileStorageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,7 +8,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,20 +32,20 @@ public class FileController {
      * 
      * @param file 上传的文件
      * @param type 文件类型（avatar: 头像，resource: 资源文件等）
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 上传结果，包含文件URL
      */
     @PostMapping("/upload")
     public ApiResponse<Map<String, String>> uploadFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "type", defaultValue = "common") String type,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         // 检查文件是否为空
         if (file.isEmpty()) {
@@ -86,19 +86,19 @@ public class FileController {
      * 头像上传专用接口
      * 
      * @param file 上传的头像文件
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 上传结果，包含头像URL
      */
     @PostMapping("/upload/avatar")
     public ApiResponse<Map<String, String>> uploadAvatar(
             @RequestParam("file") MultipartFile file,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         // 检查文件是否为空
         if (file.isEmpty()) {
@@ -133,19 +133,19 @@ public class FileController {
      * 资源文件上传专用接口
      * 
      * @param file 上传的资源文件
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 上传结果，包含资源文件URL和类型
      */
     @PostMapping("/upload/resource")
     public ApiResponse<Map<String, String>> uploadResourceFile(
             @RequestParam("file") MultipartFile file,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         // 检查文件是否为空
         if (file.isEmpty()) {
@@ -179,19 +179,19 @@ public class FileController {
      * 资源封面图上传专用接口
      * 
      * @param file 上传的封面图文件
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 上传结果，包含封面图URL
      */
     @PostMapping("/upload/cover")
     public ApiResponse<Map<String, String>> uploadCoverImage(
             @RequestParam("file") MultipartFile file,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         // 检查文件是否为空
         if (file.isEmpty()) {
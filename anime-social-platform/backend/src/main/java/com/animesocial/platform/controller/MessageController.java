@@ -1,12 +1,13 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.MessageDTO;
 import com.animesocial.platform.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpSession;
 import java.util.List;
 /**
  * 消息控制器
@@ -26,20 +27,20 @@ public class MessageController {
      * 获取收件箱消息
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 收件箱消息列表
      */
     @GetMapping("/inbox")
     public ApiResponse<List<MessageDTO>> getInboxMessages(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success(messageService.getInboxMessages(userId, page, size));
@@ -52,20 +53,20 @@ public class MessageController {
      * 获取发件箱消息
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 发件箱消息列表
      */
     @GetMapping("/outbox")
     public ApiResponse<List<MessageDTO>> getOutboxMessages(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success(messageService.getOutboxMessages(userId, page, size));
@@ -79,7 +80,7 @@ public class MessageController {
      * @param friendId 好友用户ID
      * @param page 页码
      * @param size 每页数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 聊天记录列表
      */
     @GetMapping("/chat/{friendId}")
@@ -87,13 +88,13 @@ public class MessageController {
             @PathVariable Integer friendId,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             // 获取聊天记录的同时，标记来自好友的消息为已读
@@ -105,24 +106,109 @@ public class MessageController {
         }
     }
 
+    /**
+     * 按游标获取收件箱消息
+     * @param cursor 上一页返回的nextCursor，第一页不传
+     * @param size 每页数量
+     * @param currentUser 当前用户
+     * @return 收件箱消息列表和下一页游标
+     */
+    @GetMapping("/inbox/cursor")
+    public ApiResponse<CursorPage<MessageDTO>> getInboxMessagesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            CurrentUser currentUser) {
+        
+        // 检查用户是否登录
+        if (!currentUser.isAuthenticated()) {
+            return ApiResponse.unauthorized();
+        }
+        Integer userId = currentUser.getId();
+        
+        try {
+            return ApiResponse.success(messageService.getInboxMessagesByCursor(userId, cursor, size));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 按游标获取发件箱消息
+     * @param cursor 上一页返回的nextCursor，第一页不传
+     * @param size 每页数量
+     * @param currentUser 当前用户
+     * @return 发件箱消息列表和下一页游标
+     */
+    @GetMapping("/outbox/cursor")
+    public ApiResponse<CursorPage<MessageDTO>> getOutboxMessagesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            CurrentUser currentUser) {
+        
+        // 检查用户是否登录
+        if (!currentUser.isAuthenticated()) {
+            return ApiResponse.unauthorized();
+        }
+        Integer userId = currentUser.getId();
+        
+        try {
+            return ApiResponse.success(messageService.getOutboxMessagesByCursor(userId, cursor, size));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 按游标获取与指定用户的聊天记录
+     * @param friendId 好友用户ID
+     * @param cursor 上一页返回的nextCursor，第一页不传
+     * @param size 每页数量
+     * @param currentUser 当前用户
+     * @return 聊天记录列表和下一页游标
+     */
+    @GetMapping("/chat/{friendId}/cursor")
+    public ApiResponse<CursorPage<MessageDTO>> getChatHistoryByCursor(
+            @PathVariable Integer friendId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            CurrentUser currentUser) {
+        
+        // 检查用户是否登录
+        if (!currentUser.isAuthenticated()) {
+            return ApiResponse.unauthorized();
+        }
+        Integer userId = currentUser.getId();
+        
+        try {
+            // 仅在加载第一页时标记来自好友的消息为已读
+            if (cursor == null) {
+                messageService.batchMarkAsRead(userId, friendId);
+            }
+            
+            return ApiResponse.success(messageService.getChatHistoryByCursor(userId, friendId, cursor, size));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
     /**
      * 发送消息
      * @param receiverId 接收者ID
      * @param content 消息内容
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PostMapping("/send")
     public ApiResponse<Void> sendMessage(
             @RequestParam Integer receiverId,
             @RequestParam String content,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             messageService.sendMessage(userId, receiverId, content);
@@ -134,16 +220,16 @@ public class MessageController {
 
     /**
      * 获取聊天好友列表
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 聊天好友列表，每个好友附带最新一条消息
      */
     @GetMapping("/chat-friends")
-    public ApiResponse<List<MessageDTO>> getChatFriends(HttpSession session) {
+    public ApiResponse<List<MessageDTO>> getChatFriends(CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success(messageService.getChatFriends(userId));
@@ -155,19 +241,19 @@ public class MessageController {
     /**
      * 标记消息为已读
      * @param messageId 消息ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/{messageId}/read")
     public ApiResponse<Void> markAsRead(
             @PathVariable Integer messageId,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             messageService.markAsRead(messageId, userId);
@@ -180,19 +266,19 @@ public class MessageController {
     /**
      * 批量标记来自特定用户的消息为已读
      * @param senderId 发送者ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/read-all")
     public ApiResponse<Integer> batchMarkAsRead(
             @RequestParam Integer senderId,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             int count = messageService.batchMarkAsRead(userId, senderId);
@@ -205,19 +291,19 @@ public class MessageController {
     /**
      * 删除消息
      * @param messageId 消息ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{messageId}")
     public ApiResponse<Void> deleteMessage(
             @PathVariable Integer messageId,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             messageService.deleteMessage(messageId, userId);
@@ -229,16 +315,16 @@ public class MessageController {
 
     /**
      * 获取用户未读消息数量
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 未读消息数量
      */
     @GetMapping("/unread-count")
-    public ApiResponse<Integer> getUnreadCount(HttpSession session) {
+    public ApiResponse<Integer> getUnreadCount(CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success(messageService.getUnreadCount(userId));
@@ -1,5 +1,7 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.PostDTO;
 import com.animesocial.platform.model.dto.PostListResponse;
 import com.animesocial.platform.model.dto.CreatePostRequest;
@@ -8,7 +10,6 @@ import com.animesocial.platform.service.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import java.util.List;
 
@@ -29,12 +30,13 @@ public class PostController {
     /**
      * 获取指定ID的帖子详情
      * @param id 帖子ID
+     * @param currentUser 当前用户
      * @return 帖子详情
      */
     @GetMapping("/{id}")
-    public ApiResponse<PostDTO> getPost(@PathVariable Integer id) {
+    public ApiResponse<PostDTO> getPost(@PathVariable Integer id, CurrentUser currentUser) {
         try {
-            return ApiResponse.success(postService.getPostById(id));
+            return ApiResponse.success(postService.getPostById(id, currentUser.getId()));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -45,14 +47,16 @@ public class PostController {
      * @param userId 用户ID
      * @param page 页码
      * @param size 每页数量
+     * @param currentUser 当前用户
      * @return 帖子列表
      */
     @GetMapping("/user/{userId}")
     public ApiResponse<List<PostDTO>> getUserPosts(@PathVariable Integer userId,
                                                    @RequestParam(defaultValue = "1") Integer page,
-                                                   @RequestParam(defaultValue = "10") Integer size) {
+                                                   @RequestParam(defaultValue = "10") Integer size,
+                                                   CurrentUser currentUser) {
         try {
-            return ApiResponse.success(postService.getPostsByUserId(userId, page, size));
+            return ApiResponse.success(postService.getPostsByUserId(userId, page, size, currentUser.getId()));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -64,6 +68,7 @@ public class PostController {
      * @param size 每页数量(默认10)
      * @param tagId 标签ID（可选）
      * @param sort 排序方式（可选，支持：latest/views/likes）
+     * @param currentUser 当前用户
      * @return 帖子列表和总数
      */
     @GetMapping
@@ -71,9 +76,79 @@ public class PostController {
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Integer tagId,
-            @RequestParam(defaultValue = "latest") String sort) {
+            @RequestParam(defaultValue = "latest") String sort,
+            CurrentUser currentUser) {
         try {
-            return ApiResponse.success(postService.getAllPosts(page, size, tagId, sort));
+            return ApiResponse.success(postService.getAllPosts(page, size, tagId, sort, currentUser.getId()));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 按游标获取帖子列表（无限滚动）
+     * @param cursor 上一页返回的nextCursor，第一页不传
+     * @param size 每页数量(默认10)
+     * @param tagId 标签ID（可选）
+     * @param sort 排序方式（可选，支持：latest/views/likes）
+     * @param currentUser 当前用户
+     * @return 帖子列表和下一页游标
+     */
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPage<PostDTO>> getPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Integer tagId,
+            @RequestParam(defaultValue = "latest") String sort,
+            CurrentUser currentUser) {
+        try {
+            return ApiResponse.success(postService.getPostsByCursor(cursor, size, tagId, sort, currentUser.getId()));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 按游标获取关注时间线
+     * @param cursor 上一页返回的游标，第一页不传
+     * @param size 每页数量
+     * @param currentUser 当前用户
+     * @return 关注的人发布的帖子和下一页游标
+     */
+    @GetMapping("/following")
+    public ApiResponse<CursorPage<PostDTO>> getFollowingTimeline(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
+            return ApiResponse.unauthorized();
+        }
+        
+        try {
+            return ApiResponse.success(postService.getFollowingTimeline(currentUser.getId(), cursor, size));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 按游标获取"我的标签"信息流
+     * @param cursor 上一页返回的游标，第一页不传
+     * @param size 每页数量
+     * @param currentUser 当前用户
+     * @return 关注的标签下的帖子和下一页游标
+     */
+    @GetMapping("/my-tags")
+    public ApiResponse<CursorPage<PostDTO>> getTagFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            CurrentUser currentUser) {
+        if (!currentUser.isAuthenticated()) {
+            return ApiResponse.unauthorized();
+        }
+        
+        try {
+            return ApiResponse.success(postService.getTagFeed(currentUser.getId(), cursor, size));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -82,16 +157,16 @@ public class PostController {
     /**
      * 创建新帖子
      * @param request 创建帖子请求对象
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 新创建的帖子对象
      */
     @PostMapping
-    public ApiResponse<PostDTO> createPost(@Valid @RequestBody CreatePostRequest request, HttpSession session) {
+    public ApiResponse<PostDTO> createPost(@Valid @RequestBody CreatePostRequest request, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success("帖子发布成功", postService.createPost(userId, request));
@@ -104,26 +179,25 @@ public class PostController {
      * 更新指定ID的帖子
      * @param id 帖子ID
      * @param request 更新帖子请求对象
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 更新后的帖子对象
      */
     @PutMapping("/{id}")
-    public ApiResponse<PostDTO> updatePost(@PathVariable Integer id, @Valid @RequestBody CreatePostRequest request, HttpSession session) {
+    public ApiResponse<PostDTO> updatePost(@PathVariable Integer id, @Valid @RequestBody CreatePostRequest request, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             // 验证当前用户是否是帖子的作者或管理员
-            PostDTO post = postService.getPostById(id);
-            Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-            if (!post.getUserDTO().getId().equals(userId) && (isAdmin == null || !isAdmin)) {
+            PostDTO post = postService.getPostById(id, userId);
+            if (!post.getUserDTO().getId().equals(userId) && !currentUser.isAdmin()) {
                 return ApiResponse.forbidden();
             }
             
-            return ApiResponse.success("帖子更新成功", postService.updatePost(id, request));
+            return ApiResponse.success("帖子更新成功", postService.updatePost(id, request, userId));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -132,22 +206,21 @@ public class PostController {
     /**
      * 删除指定ID的帖子
      * @param id 帖子ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deletePost(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Void> deletePost(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             // 验证当前用户是否是帖子的作者或管理员
-            PostDTO post = postService.getPostById(id);
-            Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-            if (!post.getUserDTO().getId().equals(userId) && (isAdmin == null || !isAdmin)) {
+            PostDTO post = postService.getPostById(id, userId);
+            if (!post.getUserDTO().getId().equals(userId) && !currentUser.isAdmin()) {
                 return ApiResponse.forbidden();
             }
             
@@ -161,20 +234,20 @@ public class PostController {
     /**
      * 点赞帖子
      * @param id 帖子ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PostMapping("/{id}/like")
-    public ApiResponse<Void> likePost(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Integer> likePost(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
-            postService.likePost(id, userId);
-            return ApiResponse.success("已点赞", null);
+            Integer likeCount = postService.likePost(id, userId);
+            return ApiResponse.success("已点赞", likeCount);
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -183,20 +256,20 @@ public class PostController {
     /**
      * 取消点赞
      * @param id 帖子ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{id}/like")
-    public ApiResponse<Void> unlikePost(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Integer> unlikePost(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
-            postService.unlikePost(id, userId);
-            return ApiResponse.success("已取消点赞", null);
+            Integer likeCount = postService.unlikePost(id, userId);
+            return ApiResponse.success("已取消点赞", likeCount);
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -206,17 +279,16 @@ public class PostController {
      * 管理员置顶/取消置顶帖子
      * @param id 帖子ID
      * @param isTop 是否置顶(0不置顶,1置顶)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/{id}/top")
     public ApiResponse<Void> setPostTop(
             @PathVariable Integer id,
             @RequestParam Integer isTop,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -235,12 +307,17 @@ public class PostController {
     /**
      * 获取热门帖子
      * @param limit 获取数量，默认为12
+     * @param tagId 标签ID（可选）
+     * @param currentUser 当前用户
      * @return 热门帖子列表
      */
     @GetMapping("/hot")
-    public ApiResponse<PostListResponse> getHotPosts(@RequestParam(required = false) Integer limit) {
+    public ApiResponse<PostListResponse> getHotPosts(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer tagId,
+            CurrentUser currentUser) {
         try {
-            return ApiResponse.success(postService.getHotPosts(limit));
+            return ApiResponse.success(postService.getHotPosts(limit, tagId, currentUser.getId()));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -9,13 +9,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.service.TagService;
 import com.animesocial.platform.service.UserService;
 
-import jakarta.servlet.http.HttpSession;
 
 /**
  * 推荐控制器
@@ -37,19 +37,19 @@ public class RecommendController {
     /**
      * 获取推荐用户列表（基于用户标签相似度）
      * 
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @param limit 限制数量
      * @return 推荐用户列表
      */
     @GetMapping("/users")
     public ApiResponse<List<UserDTO>> getRecommendedUsers(
-            HttpSession session,
+            CurrentUser currentUser,
             @RequestParam(defaultValue = "10") Integer limit) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
 
         try {
             return ApiResponse.success(userService.getRecommendedUsers(userId, limit));
@@ -111,19 +111,19 @@ public class RecommendController {
     /**
      * 为用户推荐标签（基于用户已有标签）
      * 
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @param limit 限制数量
      * @return 推荐标签列表
      */
     @GetMapping("/tags/user")
     public ApiResponse<List<TagDTO>> getRecommendedTags(
-            HttpSession session,
+            CurrentUser currentUser,
             @RequestParam(defaultValue = "10") Integer limit) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
 
         try {
             return ApiResponse.success(tagService.getRecommendedTags(userId, limit));
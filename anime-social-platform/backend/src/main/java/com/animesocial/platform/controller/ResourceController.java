@@ -1,6 +1,8 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.ResourceDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
 import com.animesocial.platform.service.ResourceService;
@@ -10,7 +12,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import jakarta.servlet.http.HttpSession;
 import java.util.List;
 
 /**
@@ -30,12 +31,13 @@ public class ResourceController {
     /**
      * 获取指定ID的资源详情
      * @param id 资源ID
+     * @param currentUser 当前用户
      * @return 资源详情
      */
     @GetMapping("/{id}")
-    public ApiResponse<ResourceDTO> getResource(@PathVariable Integer id) {
+    public ApiResponse<ResourceDTO> getResource(@PathVariable Integer id, CurrentUser currentUser) {
         try {
-            return ApiResponse.success(resourceService.getResourceById(id));
+            return ApiResponse.success(resourceService.getResourceById(id, currentUser.getId()));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -47,6 +49,7 @@ public class ResourceController {
      * @param size 每页数量(默认10)
      * @param tagId 标签ID（可选）
      * @param sort 排序方式（可选，支持：latest/downloads/likes）
+     * @param currentUser 当前用户
      * @return 资源列表和总数
      */
     @GetMapping
@@ -54,9 +57,33 @@ public class ResourceController {
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Integer tagId,
-            @RequestParam(defaultValue = "latest") String sort) {
+            @RequestParam(defaultValue = "latest") String sort,
+            CurrentUser currentUser) {
         try {
-            return ApiResponse.success(resourceService.getAllResources(page, size, tagId, sort));
+            return ApiResponse.success(resourceService.getAllResources(page, size, tagId, sort, currentUser.getId()));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 按游标获取资源列表（无限滚动）
+     * @param cursor 上一页返回的nextCursor，第一页不传
+     * @param size 每页数量(默认10)
+     * @param tagId 标签ID（可选）
+     * @param sort 排序方式（可选，支持：latest/downloads/likes）
+     * @param currentUser 当前用户
+     * @return 资源列表和下一页游标
+     */
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPage<ResourceDTO>> getResourcesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Integer tagId,
+            @RequestParam(defaultValue = "latest") String sort,
+            CurrentUser currentUser) {
+        try {
+            return ApiResponse.success(resourceService.getResourcesByCursor(cursor, size, tagId, sort, currentUser.getId()));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -85,7 +112,7 @@ public class ResourceController {
      * @param description 资源描述
      * @param tagIds 标签ID列表
      * @param file 资源文件
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 新创建的资源对象
      */
     @PostMapping
@@ -95,12 +122,12 @@ public class ResourceController {
             @RequestParam(required = false) List<Integer> tagIds,
             @RequestParam MultipartFile file,
             @RequestParam(required = false) MultipartFile cover,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         ResourceDTO resource = null;
         try {
             if (cover != null && !cover.isEmpty()) {
@@ -120,7 +147,7 @@ public class ResourceController {
      * @param title 资源标题
      * @param description 资源描述
      * @param tagIds 标签ID列表
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 更新后的资源对象
      */
     @PutMapping("/{id}")
@@ -129,22 +156,21 @@ public class ResourceController {
             @RequestParam String title,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) List<Integer> tagIds,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             // 验证当前用户是否是资源的上传者或管理员
-            ResourceDTO resource = resourceService.getResourceById(id);
-            Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-            if (!resource.getUserId().equals(userId) && (isAdmin == null || !isAdmin)) {
+            ResourceDTO resource = resourceService.getResourceById(id, userId);
+            if (!resource.getUserId().equals(userId) && !currentUser.isAdmin()) {
                 return ApiResponse.forbidden();
             }
             
-            ResourceDTO updatedResource = resourceService.updateResource(id, title, description, tagIds);
+            ResourceDTO updatedResource = resourceService.updateResource(id, title, description, tagIds, userId);
             return ApiResponse.success("资源更新成功", updatedResource);
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
@@ -154,22 +180,21 @@ public class ResourceController {
     /**
      * 删除指定ID的资源
      * @param id 资源ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deleteResource(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Void> deleteResource(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             // 验证当前用户是否是资源的上传者或管理员
-            ResourceDTO resource = resourceService.getResourceById(id);
-            Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-            if (!resource.getUserId().equals(userId) && (isAdmin == null || !isAdmin)) {
+            ResourceDTO resource = resourceService.getResourceById(id, userId);
+            if (!resource.getUserId().equals(userId) && !currentUser.isAdmin()) {
                 return ApiResponse.forbidden();
             }
             
@@ -183,16 +208,16 @@ public class ResourceController {
     /**
      * 记录资源下载
      * @param id 资源ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 资源下载URL
      */
     @GetMapping("/{id}/download")
-    public ApiResponse<String> downloadResource(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<String> downloadResource(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             String downloadUrl = resourceService.getDownloadUrl(id, userId);
@@ -206,20 +231,20 @@ public class ResourceController {
     /**
      * 点赞资源
      * @param id 资源ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PostMapping("/{id}/like")
-    public ApiResponse<Void> likeResource(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Integer> likeResource(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
-            resourceService.likeResource(id, userId);
-            return ApiResponse.success("点赞成功", null);
+            Integer likeCount = resourceService.likeResource(id, userId);
+            return ApiResponse.success("点赞成功", likeCount);
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -228,20 +253,20 @@ public class ResourceController {
     /**
      * 取消点赞资源
      * @param id 资源ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{id}/like")
-    public ApiResponse<Void> unlikeResource(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Integer> unlikeResource(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
-            resourceService.unlikeResource(id, userId);
-            return ApiResponse.success("取消点赞成功", null);
+            Integer likeCount = resourceService.unlikeResource(id, userId);
+            return ApiResponse.success("取消点赞成功", likeCount);
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -251,19 +276,19 @@ public class ResourceController {
      * 获取用户点赞的资源列表
      * @param page 页码(默认1)
      * @param size 每页数量(默认10)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 资源列表和总数
      */
     @GetMapping("/liked")
     public ApiResponse<ResourceListResponse> getLikedResources(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             return ApiResponse.success(resourceService.getLikedResources(userId, page, size));
@@ -271,6 +296,31 @@ public class ResourceController {
             return ApiResponse.failed(e.getMessage());
         }
     }
+    
+    /**
+     * 按游标获取用户点赞的资源列表
+     * @param cursor 上一页返回的nextCursor，第一页不传
+     * @param size 每页数量(默认10)
+     * @param currentUser 当前用户
+     * @return 资源列表和下一页游标
+     */
+    @GetMapping("/liked/cursor")
+    public ApiResponse<CursorPage<ResourceDTO>> getLikedResourcesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            CurrentUser currentUser) {
+        // 检查用户是否登录
+        if (!currentUser.isAuthenticated()) {
+            return ApiResponse.unauthorized();
+        }
+        Integer userId = currentUser.getId();
+        
+        try {
+            return ApiResponse.success(resourceService.getLikedResourcesByCursor(userId, cursor, size));
+        } catch (Exception e) {
+            return ApiResponse.failed(e.getMessage());
+        }
+    }
 
     /**
      * 使用已上传的文件创建资源
@@ -279,7 +329,7 @@ public class ResourceController {
      * @param filePath 已上传的文件路径
      * @param coverPath 已上传的封面图路径（可选）
      * @param tagIds 标签ID列表
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 新创建的资源对象
      */
     @PostMapping("/create")
@@ -289,12 +339,12 @@ public class ResourceController {
             @RequestParam String filePath,
             @RequestParam(required = false) String coverPath,
             @RequestParam(required = false) List<Integer> tagIds,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer userId = currentUser.getId();
         
         try {
             ResourceDTO resource = resourceService.createResource(userId, title, description, filePath, coverPath, tagIds);
@@ -314,13 +364,13 @@ public class ResourceController {
             @RequestParam(value = "tagIds", required = false) List<Integer> tagIds,
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "cover", required = false) MultipartFile cover,
-            HttpSession session) {
+            CurrentUser currentUser) {
         
         // 获取当前登录用户
-        Integer userId = (Integer) session.getAttribute("userId");
-        if (userId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ResponseEntity.ok(ApiResponse.unauthorized());
         }
+        Integer userId = currentUser.getId();
         
         // 上传带封面的资源
         try {
@@ -334,12 +384,17 @@ public class ResourceController {
     /**
      * 获取热门资源
      * @param limit 获取数量，默认为12
+     * @param tagId 标签ID（可选）
+     * @param currentUser 当前用户
      * @return 热门资源列表
      */
     @GetMapping("/hot")
-    public ApiResponse<ResourceListResponse> getHotResources(@RequestParam(required = false) Integer limit) {
+    public ApiResponse<ResourceListResponse> getHotResources(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer tagId,
+            CurrentUser currentUser) {
         try {
-            return ApiResponse.success(resourceService.getHotResources(limit));
+            return ApiResponse.success(resourceService.getHotResources(limit, tagId, currentUser.getId()));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -12,7 +12,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
+import com.animesocial.platform.model.dto.SearchPages;
 import com.animesocial.platform.model.dto.SearchResult;
 import com.animesocial.platform.model.dto.SearchResultItem;
 import com.animesocial.platform.model.es.PostDocument;
@@ -61,13 +63,17 @@ public class SearchController {
         try {
             log.info("执行全文搜索: keyword={}, page={}, size={}", keyword, page, size);
             
-            // 分别搜索不同类型的内容
-            Page<PostDocument> postDocuments = elasticsearchService.searchPosts(keyword, page, size);
-            Page<ResourceDocument> resourceDocuments = elasticsearchService.searchResources(keyword, page, size);
-            Page<UserDocument> userDocuments = elasticsearchService.searchUsers(keyword, page, size);
+            // 并行搜索不同类型的内容，超时的类型返回空结果
+            SearchPages pages = elasticsearchService.searchAllTypes(keyword, page, size);
+            Page<PostDocument> postDocuments = pages.getPosts();
+            Page<ResourceDocument> resourceDocuments = pages.getResources();
+            Page<UserDocument> userDocuments = pages.getUsers();
             
             // 构建搜索结果
             SearchResult result = new SearchResult();
+            if (!pages.getFailedTypes().isEmpty()) {
+                result.setFailedTypes(pages.getFailedTypes());
+            }
             
             // 转换帖子结果
             List<SearchResultItem> postResults = new ArrayList<>();
@@ -135,13 +141,15 @@ public class SearchController {
      * @param keyword 关键词
      * @param page 页码
      * @param size 每页大小
+     * @param currentUser 当前用户
      * @return 搜索结果
      */
     @GetMapping("/posts")
     public ApiResponse<Map<String, Object>> searchPosts(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) {
+            @RequestParam(defaultValue = "10") Integer size,
+            CurrentUser currentUser) {
         try {
             log.info("搜索帖子: keyword={}, page={}, size={}", keyword, page, size);
             
@@ -153,7 +161,7 @@ public class SearchController {
             
             Map<String, Object> result = new HashMap<>();
             result.put("total", postDocuments.getTotalElements());
-            result.put("data", postService.findByIds(postIds));
+            result.put("data", postService.findByIds(postIds, currentUser.getId()));
             
             return ApiResponse.success(result);
         } catch (Exception e) {
@@ -167,13 +175,15 @@ public class SearchController {
      * @param keyword 关键词
      * @param page 页码
      * @param size 每页大小
+     * @param currentUser 当前用户
      * @return 搜索结果
      */
     @GetMapping("/resources")
     public ApiResponse<Map<String, Object>> searchResources(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) {
+            @RequestParam(defaultValue = "10") Integer size,
+            CurrentUser currentUser) {
         try {
             log.info("搜索资源: keyword={}, page={}, size={}", keyword, page, size);
             
@@ -185,7 +195,7 @@ public class SearchController {
             
             Map<String, Object> result = new HashMap<>();
             result.put("total", resourceDocuments.getTotalElements());
-            result.put("data", resourceService.findByIds(resourceIds));
+            result.put("data", resourceService.findByIds(resourceIds, currentUser.getId()));
             
             return ApiResponse.success(result);
         } catch (Exception e) {
@@ -235,7 +245,7 @@ public class SearchController {
         try {
             log.info("开始重建索引");
             elasticsearchService.rebuildIndices();
-            return ApiResponse.success("索引重建成功");
+            return ApiResponse.success("索引重建任务已启动");
         } catch (Exception e) {
             log.error("索引重建失败", e);
             return ApiResponse.failed(e.getMessage());
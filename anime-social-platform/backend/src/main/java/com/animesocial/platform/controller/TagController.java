@@ -12,12 +12,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.dto.ApiResponse;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.service.TagService;
 import com.animesocial.platform.service.UserTagService;
 
-import jakarta.servlet.http.HttpSession;
 import lombok.Data;
 
 /**
@@ -66,14 +66,13 @@ public class TagController {
     /**
      * 管理员创建新标签
      * @param tagDTO 标签数据
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 创建的标签
      */
     @PostMapping
-    public ApiResponse<TagDTO> createTag(@RequestBody TagDTO tagDTO, HttpSession session) {
+    public ApiResponse<TagDTO> createTag(@RequestBody TagDTO tagDTO, CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -87,14 +86,13 @@ public class TagController {
     /**
      * 管理员删除标签
      * @param id 标签ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deleteTag(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<Void> deleteTag(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
@@ -110,16 +108,16 @@ public class TagController {
      * 更新用户标签
      * @param userId 用户ID
      * @param tagIds 标签ID列表
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/user/{userId}")
-    public ApiResponse<Void> updateUserTags(@PathVariable Integer userId, @RequestBody UpdateUserTagsRequest request, HttpSession session) {
+    public ApiResponse<Void> updateUserTags(@PathVariable Integer userId, @RequestBody UpdateUserTagsRequest request, CurrentUser currentUser) {
         // 检查用户权限
-        Integer user = (Integer) session.getAttribute("userId");
-        if (user == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer user = currentUser.getId();
         
         try {
             // 分别更新不同类型的标签，而不是完全覆盖
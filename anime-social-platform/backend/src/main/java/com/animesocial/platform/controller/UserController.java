@@ -1,5 +1,6 @@
 package com.animesocial.platform.controller;
 
+import com.animesocial.platform.model.CurrentUser;
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.Resource;
 import com.animesocial.platform.model.dto.UserDTO;
@@ -10,7 +11,6 @@ import com.animesocial.platform.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpSession;
 import java.util.List;
 
 /**
@@ -30,12 +30,13 @@ public class UserController {
     /**
      * 获取用户详情和统计数据
      * @param id 用户ID
+     * @param currentUser 当前用户
      * @return 用户详情响应对象
      */
     @GetMapping("/{id}")
-    public ApiResponse<UserDetailResponse> getUserDetail(@PathVariable Integer id) {
+    public ApiResponse<UserDetailResponse> getUserDetail(@PathVariable Integer id, CurrentUser currentUser) {
         try {
-            return ApiResponse.success(userService.getUserDetail(id));
+            return ApiResponse.success(userService.getUserDetail(id, currentUser.getId()));
         } catch (Exception e) {
             return ApiResponse.failed(e.getMessage());
         }
@@ -155,18 +156,18 @@ public class UserController {
      * 更新用户信息
      * @param id 用户ID
      * @param request 更新用户信息请求对象
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 更新后的用户对象
      */
     @PutMapping("/{id}")
     public ApiResponse<UserDTO> updateUserInfo(@PathVariable Integer id, 
                              @RequestBody UpdateUserInfoRequest request,
-                             HttpSession session) {
+                             CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer currentUserId = (Integer) session.getAttribute("userId");
-        if (currentUserId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer currentUserId = currentUser.getId();
         
         // 检查权限
         if (!currentUserId.equals(id)) {
@@ -183,16 +184,16 @@ public class UserController {
     /**
      * 关注/取消关注用户
      * @param id 被关注用户ID
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PostMapping("/{id}/follow")
-    public ApiResponse<String> followUser(@PathVariable Integer id, HttpSession session) {
+    public ApiResponse<String> followUser(@PathVariable Integer id, CurrentUser currentUser) {
         // 检查用户是否登录
-        Integer currentUserId = (Integer) session.getAttribute("userId");
-        if (currentUserId == null) {
+        if (!currentUser.isAuthenticated()) {
             return ApiResponse.unauthorized();
         }
+        Integer currentUserId = currentUser.getId();
         
         // 不能关注自己
         if (currentUserId.equals(id)) {
@@ -211,17 +212,16 @@ public class UserController {
      * 管理员禁用/启用用户
      * @param id 用户ID
      * @param status 状态(0禁用,1正常)
-     * @param session HTTP会话
+     * @param currentUser 当前用户
      * @return 操作结果
      */
     @PutMapping("/{id}/status")
     public ApiResponse<Void> updateUserStatus(
             @PathVariable Integer id,
             @RequestParam Integer status,
-            HttpSession session) {
+            CurrentUser currentUser) {
         // 检查管理员权限
-        Boolean isAdmin = (Boolean) session.getAttribute("isAdmin");
-        if (isAdmin == null || !isAdmin) {
+        if (!currentUser.isAdmin()) {
             return ApiResponse.forbidden();
         }
         
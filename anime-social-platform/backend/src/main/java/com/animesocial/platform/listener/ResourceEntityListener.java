@@ -3,8 +3,9 @@ package com.animesocial.platform.listener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.animesocial.platform.model.EsOutboxEvent;
 import com.animesocial.platform.model.Resource;
-import com.animesocial.platform.service.ElasticsearchService;
+import com.animesocial.platform.service.EsOutboxService;
 import com.animesocial.platform.util.SpringContextHolder;
 
 import jakarta.persistence.PostPersist;
@@ -14,37 +15,37 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Resource实体监听器
- * 用于在Resource增删改时自动同步ES索引
+ * 用于在Resource增删改时登记ES同步记录，由后台任务批量同步
  */
 @Slf4j
 public class ResourceEntityListener {
     
     /**
-     * 保存或更新后同步到ES
+     * 保存或更新后登记ES同步
      */
     @PostPersist
     @PostUpdate
     public void postPersistOrUpdate(Resource resource) {
         try {
             log.debug("触发Resource实体监听：保存/更新, ID: {}", resource.getId());
-            ElasticsearchService elasticsearchService = SpringContextHolder.getBean(ElasticsearchService.class);
-            elasticsearchService.syncResourceToEs(resource.getId());
+            EsOutboxService esOutboxService = SpringContextHolder.getBean(EsOutboxService.class);
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_RESOURCE, resource.getId());
         } catch (Exception e) {
-            log.error("Resource监听器同步ES失败: {}", resource.getId(), e);
+            log.error("Resource监听器登记ES同步失败: {}", resource.getId(), e);
         }
     }
     
     /**
-     * 删除后从ES移除
+     * 删除后登记ES删除
      */
     @PostRemove
     public void postRemove(Resource resource) {
         try {
             log.debug("触发Resource实体监听：删除, ID: {}", resource.getId());
-            ElasticsearchService elasticsearchService = SpringContextHolder.getBean(ElasticsearchService.class);
-            elasticsearchService.deleteResourceFromEs(resource.getId());
+            EsOutboxService esOutboxService = SpringContextHolder.getBean(EsOutboxService.class);
+            esOutboxService.enqueueDelete(EsOutboxEvent.TYPE_RESOURCE, resource.getId());
         } catch (Exception e) {
-            log.error("Resource监听器从ES删除失败: {}", resource.getId(), e);
+            log.error("Resource监听器登记ES删除失败: {}", resource.getId(), e);
         }
     }
 } 
\ No newline at end of file
@@ -2,8 +2,9 @@ package com.animesocial.platform.listener;
 
 import org.springframework.stereotype.Component;
 
+import com.animesocial.platform.model.EsOutboxEvent;
 import com.animesocial.platform.model.User;
-import com.animesocial.platform.service.ElasticsearchService;
+import com.animesocial.platform.service.EsOutboxService;
 import com.animesocial.platform.util.SpringContextHolder;
 
 import jakarta.persistence.PostPersist;
@@ -13,37 +14,37 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * User实体监听器
- * 用于在User增删改时自动同步ES索引
+ * 用于在User增删改时登记ES同步记录，由后台任务批量同步
  */
 @Slf4j
 public class UserEntityListener {
     
     /**
-     * 保存或更新后同步到ES
+     * 保存或更新后登记ES同步
      */
     @PostPersist
     @PostUpdate
     public void postPersistOrUpdate(User user) {
         try {
             log.debug("触发User实体监听：保存/更新, ID: {}", user.getId());
-            ElasticsearchService elasticsearchService = SpringContextHolder.getBean(ElasticsearchService.class);
-            elasticsearchService.syncUserToEs(user.getId());
+            EsOutboxService esOutboxService = SpringContextHolder.getBean(EsOutboxService.class);
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, user.getId());
         } catch (Exception e) {
-            log.error("User监听器同步ES失败: {}", user.getId(), e);
+            log.error("User监听器登记ES同步失败: {}", user.getId(), e);
         }
     }
     
     /**
-     * 删除后从ES移除
+     * 删除后登记ES删除
      */
     @PostRemove
     public void postRemove(User user) {
         try {
             log.debug("触发User实体监听：删除, ID: {}", user.getId());
-            ElasticsearchService elasticsearchService = SpringContextHolder.getBean(ElasticsearchService.class);
-            elasticsearchService.deleteUserFromEs(user.getId());
+            EsOutboxService esOutboxService = SpringContextHolder.getBean(EsOutboxService.class);
+            esOutboxService.enqueueDelete(EsOutboxEvent.TYPE_USER, user.getId());
         } catch (Exception e) {
-            log.error("User监听器从ES删除失败: {}", user.getId(), e);
+            log.error("User监听器登记ES删除失败: {}", user.getId(), e);
         }
     }
 } 
\ No newline at end of file
@@ -45,4 +45,9 @@ public class Comment {
      * 如果是对评论的回复，则此字段不为空
      */
     private Integer parentId;
+    
+    /**
+     * 直接回复数
+     */
+    private Integer replyCount;
 } 
\ No newline at end of file
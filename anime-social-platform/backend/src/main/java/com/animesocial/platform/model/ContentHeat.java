@@ -0,0 +1,53 @@
+package com.animesocial.platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 内容热度原始数据
+ * 热门排行任务读取帖子或资源的互动计数，用于计算随时间衰减的热度分数；
+ * 帖子使用浏览数和评论数，资源使用下载数和收藏数，未使用的字段为null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentHeat {
+    
+    /**
+     * 内容ID（帖子ID或资源ID）
+     */
+    private Integer id;
+    
+    /**
+     * 发布时间（帖子创建时间或资源上传时间）
+     */
+    private LocalDateTime createdAt;
+    
+    /**
+     * 点赞数
+     */
+    private Integer likeCount;
+    
+    /**
+     * 浏览数（帖子）
+     */
+    private Integer viewCount;
+    
+    /**
+     * 评论数（帖子）
+     */
+    private Integer commentCount;
+    
+    /**
+     * 下载数（资源）
+     */
+    private Integer downloadCount;
+    
+    /**
+     * 收藏数（资源）
+     */
+    private Integer favoriteCount;
+}
@@ -0,0 +1,45 @@
+package com.animesocial.platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 内容标签关联实体类
+ * 用于表示帖子/资源与标签的关联关系，批量查询时携带标签详情
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentTag {
+    
+    /**
+     * 内容类型(post/resource)
+     */
+    private String contentType;
+    
+    /**
+     * 内容ID
+     */
+    private Integer contentId;
+    
+    /**
+     * 标签ID
+     */
+    private Integer tagId;
+    
+    /**
+     * 标签名称 (非数据库字段，来自关联查询)
+     */
+    private String tagName;
+    
+    /**
+     * 标签分类 (非数据库字段，来自关联查询)
+     */
+    private String tagCategory;
+    
+    /**
+     * 标签类型 (非数据库字段，来自关联查询)
+     */
+    private String tagType;
+}
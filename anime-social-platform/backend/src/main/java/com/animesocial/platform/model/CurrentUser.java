@@ -0,0 +1,41 @@
+package com.animesocial.platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 当前请求的用户身份
+ * 由 CurrentUserFilter 在每个请求开始时从会话中解析一次，
+ * 控制器通过方法参数获取并将用户ID显式传给服务层，服务层不再读取会话
+ */
+@Getter
+@AllArgsConstructor
+public class CurrentUser {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+
+    /**
+     * 未登录用户
+     */
+    public static final CurrentUser ANONYMOUS = new CurrentUser(null, false);
+
+    /**
+     * 用户ID，未登录时为null
+     */
+    private final Integer id;
+
+    /**
+     * 是否为管理员
+     */
+    private final boolean admin;
+
+    /**
+     * 是否已登录
+     */
+    public boolean isAuthenticated() {
+        return id != null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.animesocial.platform.model;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ES同步发件箱实体类
+ * 对应es_outbox表，记录一次待同步到ElasticSearch的实体变更
+ */
+@Data
+@NoArgsConstructor
+public class EsOutboxEvent {
+    
+    public static final String TYPE_POST = "post";
+    public static final String TYPE_RESOURCE = "resource";
+    public static final String TYPE_USER = "user";
+    
+    public static final String OP_UPSERT = "upsert";
+    public static final String OP_DELETE = "delete";
+    
+    /**
+     * 记录ID，按写入顺序递增
+     */
+    private Long id;
+    
+    /**
+     * 实体类型：post/resource/user
+     */
+    private String entityType;
+    
+    /**
+     * 实体ID
+     */
+    private Integer entityId;
+    
+    /**
+     * 操作类型：upsert/delete
+     */
+    private String operation;
+    
+    /**
+     * 已失败的同步次数
+     */
+    private Integer attempts;
+    
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+    
+    /**
+     * 写入时间
+     */
+    private LocalDateTime createdAt;
+    
+    /**
+     * 下次可同步的时间
+     */
+    private LocalDateTime nextAttemptAt;
+}
@@ -0,0 +1,32 @@
+package com.animesocial.platform.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ES同步水位实体类
+ * 对应es_sync_state表，记录每类实体已同步到ElasticSearch的进度
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EsSyncState {
+    
+    /**
+     * 实体类型（post/resource/user）
+     */
+    private String entityType;
+    
+    /**
+     * 已同步的最大实体ID
+     */
+    private Integer maxId;
+    
+    /**
+     * 同步时间，此前的修改均已同步
+     */
+    private LocalDateTime syncedAt;
+}
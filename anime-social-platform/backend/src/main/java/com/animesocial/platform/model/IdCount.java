@@ -0,0 +1,25 @@
+package com.animesocial.platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分组计数结果
+ * 用于承接 GROUP BY 批量统计查询的结果（如按用户/标签/资源分组计数）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdCount {
+    
+    /**
+     * 分组键ID（用户ID、标签ID、资源ID等）
+     */
+    private Integer id;
+    
+    /**
+     * 计数值
+     */
+    private Integer count;
+}
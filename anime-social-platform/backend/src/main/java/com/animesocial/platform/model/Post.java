@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
 
 import java.time.LocalDateTime;
 
@@ -20,9 +21,19 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_posts_views_id", columnList = "view_count, id"),
+    @Index(name = "idx_posts_likes_id", columnList = "like_count, id"),
+    @Index(name = "idx_posts_updated_at", columnList = "updated_at")
+})
 @EntityListeners(PostEntityListener.class)
 public class Post {
+    /**
+     * 摘要最大长度，与posts.excerpt和post_feed_view.excerpt的列宽一致
+     */
+    public static final int EXCERPT_MAX_LENGTH = 300;
+    
     /**
      * 帖子ID
      */
@@ -48,6 +59,12 @@ public class Post {
     @Column
     private String content;
     
+    /**
+     * 正文摘要，列表查询只返回摘要不返回正文
+     */
+    @Column(length = EXCERPT_MAX_LENGTH)
+    private String excerpt;
+    
     /**
      * 创建时间
      */
@@ -72,6 +89,12 @@ public class Post {
     @Column(name = "like_count")
     private Integer likeCount;
     
+    /**
+     * 评论数（含回复）
+     */
+    @Column(name = "comment_count")
+    private Integer commentCount;
+    
     /**
      * 是否置顶
      */
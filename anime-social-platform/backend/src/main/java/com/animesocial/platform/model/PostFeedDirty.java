@@ -0,0 +1,25 @@
+package com.animesocial.platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 帖子读模型待重算记录
+ * 对应数据库中的post_feed_dirty表
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostFeedDirty {
+
+    /**
+     * 帖子ID
+     */
+    private Integer postId;
+
+    /**
+     * 登记版本号，每次重复登记递增
+     */
+    private Integer version;
+}
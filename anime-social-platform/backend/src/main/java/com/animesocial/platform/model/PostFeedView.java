@@ -0,0 +1,78 @@
+package com.animesocial.platform.model;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * 帖子列表读模型实体类
+ * 对应数据库中的post_feed_view表，由后台任务根据帖子、作者、标签和评论数据重算
+ */
+@Data
+public class PostFeedView {
+
+    /**
+     * 帖子ID
+     */
+    private Integer postId;
+
+    /**
+     * 作者ID
+     */
+    private Integer userId;
+
+    /**
+     * 作者用户名
+     */
+    private String username;
+
+    /**
+     * 作者头像
+     */
+    private String avatar;
+
+    /**
+     * 帖子标题
+     */
+    private String title;
+
+    /**
+     * 正文摘要
+     */
+    private String excerpt;
+
+    /**
+     * 标签列表，JSON数组，元素包含id、name、category
+     */
+    private String tags;
+
+    /**
+     * 浏览次数
+     */
+    private Integer viewCount;
+
+    /**
+     * 点赞次数
+     */
+    private Integer likeCount;
+
+    /**
+     * 评论数量
+     */
+    private Integer commentCount;
+
+    /**
+     * 是否置顶
+     */
+    private Boolean isTop;
+
+    /**
+     * 发布时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 import com.animesocial.platform.listener.ResourceEntityListener;
@@ -25,7 +26,11 @@ import lombok.Data;
  */
 @Data
 @Entity
-@Table(name = "resources")
+@Table(name = "resources", indexes = {
+    @Index(name = "idx_resources_upload_id", columnList = "upload_time, id"),
+    @Index(name = "idx_resources_downloads_id", columnList = "download_count, id"),
+    @Index(name = "idx_resources_likes_id", columnList = "like_count, id")
+})
 @EntityListeners(ResourceEntityListener.class)
 public class Resource {
     /**
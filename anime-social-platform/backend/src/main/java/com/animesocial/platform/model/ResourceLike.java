@@ -0,0 +1,36 @@
+package com.animesocial.platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 资源点赞实体类
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceLike {
+    
+    /**
+     * 点赞记录ID
+     */
+    private Integer id;
+    
+    /**
+     * 资源ID
+     */
+    private Integer resourceId;
+    
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+    
+    /**
+     * 点赞时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,47 @@
+package com.animesocial.platform.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户统计实体类
+ * 对应user_stats表，冗余存储用户的各项计数，避免每次构建用户信息时实时COUNT
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+    
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+    
+    /**
+     * 帖子数量
+     */
+    private Integer postCount;
+    
+    /**
+     * 关注数量
+     */
+    private Integer followingCount;
+    
+    /**
+     * 粉丝数量
+     */
+    private Integer followerCount;
+    
+    /**
+     * 收藏数量
+     */
+    private Integer favoriteCount;
+    
+    /**
+     * 最后更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -56,4 +56,10 @@ public class CommentDTO {
      * 子评论/回复列表
      */
     private List<CommentDTO> replies;
+    
+    /**
+     * 直接回复总数
+     * 分页获取评论时回复只内联前若干条，其余通过回复列表接口加载
+     */
+    private Integer replyCount;
 } 
\ No newline at end of file
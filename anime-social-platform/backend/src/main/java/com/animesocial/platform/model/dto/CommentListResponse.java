@@ -0,0 +1,19 @@
+package com.animesocial.platform.model.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * 评论列表响应对象
+ * items为当前页的一级评论及其内联回复，total为一级评论总数
+ */
+@Data
+public class CommentListResponse {
+    private List<CommentDTO> items;
+    private Integer total;
+    
+    public CommentListResponse(List<CommentDTO> items, Integer total) {
+        this.items = items;
+        this.total = total;
+    }
+}
@@ -0,0 +1,53 @@
+package com.animesocial.platform.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页响应对象
+ * 客户端将nextCursor原样传回即可获取下一页，无需计算偏移量
+ * @param <T> 列表元素类型
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    /**
+     * 当前页数据
+     */
+    private List<T> items;
+    
+    /**
+     * 下一页游标，没有更多数据时为null
+     */
+    private String nextCursor;
+    
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore;
+    
+    /**
+     * 将多查询一条的结果截断为一页，并用本页最后一条记录生成下一页游标
+     * 查询时读取 size + 1 条记录，多出的一条只用于判断是否还有下一页
+     * @param rows 按分页顺序排列的查询结果，最多 size + 1 条
+     * @param size 每页数量，必须大于0（见 {@link com.animesocial.platform.util.CursorUtil#clampSize}）
+     * @param cursorOf 根据本页最后一条记录生成下一页游标
+     * @param converter 将本页记录转换为响应元素
+     * @return 游标分页响应
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int size,
+                                          Function<R, String> cursorOf,
+                                          Function<List<R>, List<T>> converter) {
+        if (size < 1) {
+            throw new IllegalArgumentException("每页数量必须大于0");
+        }
+        boolean hasMore = rows.size() > size;
+        List<R> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(converter.apply(page), nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,83 @@
+package com.animesocial.platform.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ES索引重建进度
+ */
+@Data
+@NoArgsConstructor
+public class ReindexProgress {
+    
+    public static final String STATUS_IDLE = "IDLE";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    
+    /**
+     * 任务状态：IDLE/RUNNING/COMPLETED/FAILED
+     */
+    private String status = STATUS_IDLE;
+    
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startedAt;
+    
+    /**
+     * 结束时间
+     */
+    private LocalDateTime finishedAt;
+    
+    /**
+     * 失败原因
+     */
+    private String error;
+    
+    /**
+     * 各类实体的重建进度
+     */
+    private List<EntityProgress> entities = new ArrayList<>();
+    
+    /**
+     * 单类实体的重建进度
+     */
+    @Data
+    @NoArgsConstructor
+    public static class EntityProgress {
+        /**
+         * 实体类型：post/resource/user
+         */
+        private String entityType;
+        
+        /**
+         * 对外提供搜索的索引别名
+         */
+        private String alias;
+        
+        /**
+         * 正在写入的新版本索引
+         */
+        private String targetIndex;
+        
+        /**
+         * 开始时的记录总数（重建期间新增的记录可能使已处理数超过该值）
+         */
+        private long total;
+        
+        /**
+         * 已写入的文档数
+         */
+        private long indexed;
+        
+        /**
+         * 状态：IDLE/RUNNING/COMPLETED/FAILED
+         */
+        private String status = STATUS_IDLE;
+    }
+}
@@ -0,0 +1,55 @@
+package com.animesocial.platform.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+import com.animesocial.platform.model.es.PostDocument;
+import com.animesocial.platform.model.es.ResourceDocument;
+import com.animesocial.platform.model.es.UserDocument;
+
+import lombok.Data;
+
+/**
+ * 综合搜索的分页结果
+ * 各类型独立查询，超时或失败的类型返回空页并记录在failedTypes中
+ */
+@Data
+public class SearchPages {
+    
+    /**
+     * 搜索类型：帖子
+     */
+    public static final String TYPE_POST = "post";
+    
+    /**
+     * 搜索类型：资源
+     */
+    public static final String TYPE_RESOURCE = "resource";
+    
+    /**
+     * 搜索类型：用户
+     */
+    public static final String TYPE_USER = "user";
+    
+    /**
+     * 帖子搜索结果
+     */
+    private Page<PostDocument> posts = Page.empty();
+    
+    /**
+     * 资源搜索结果
+     */
+    private Page<ResourceDocument> resources = Page.empty();
+    
+    /**
+     * 用户搜索结果
+     */
+    private Page<UserDocument> users = Page.empty();
+    
+    /**
+     * 超时或失败的类型（post/resource/user），非空表示结果不完整
+     */
+    private List<String> failedTypes = new ArrayList<>();
+}
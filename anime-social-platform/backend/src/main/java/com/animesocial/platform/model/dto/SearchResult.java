@@ -49,4 +49,9 @@ public class SearchResult {
      * 用户结果总数
      */
     private Integer totalUsers;
-} 
\ No newline at end of file
+    
+    /**
+     * 超时或失败而未返回结果的类型，为空时不输出
+     */
+    private List<String> failedTypes;
+}
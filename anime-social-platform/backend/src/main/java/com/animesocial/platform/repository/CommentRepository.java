@@ -41,6 +41,14 @@ public interface CommentRepository {
     })
     List<Comment> findByPostId(@Param("postId") Integer postId, @Param("parentId") Integer parentId);
     
+    /**
+     * 查询帖子的全部评论（包括回复），用于在内存中组装评论树
+     * @param postId 帖子ID
+     * @return 评论列表，按创建时间升序排序
+     */
+    @Select("SELECT * FROM comments WHERE post_id = #{postId} ORDER BY created_at ASC, id ASC")
+    List<Comment> findAllByPostId(Integer postId);
+    
     /**
      * 根据用户ID查询评论
      * @param userId 用户ID
@@ -73,10 +81,47 @@ public interface CommentRepository {
      * @return 删除成功返回1，失败返回0
      */
     @Delete("DELETE FROM comments WHERE id = #{id}")
-    void delete(Integer id);
+    int delete(Integer id);
+    
+    /**
+     * 删除评论的所有直接回复
+     * @param parentId 父评论ID
+     * @return 删除的回复数量
+     */
+    @Delete("DELETE FROM comments WHERE parent_id = #{parentId}")
+    int deleteByParentId(Integer parentId);
+    
+    /**
+     * 原子调整评论的回复数，结果不会小于0
+     * @param id 评论ID
+     * @param delta 增量，可为负数
+     */
+    @Update("UPDATE comments SET reply_count = GREATEST(COALESCE(reply_count, 0) + #{delta}, 0) WHERE id = #{id}")
+    void adjustReplyCount(@Param("id") Integer id, @Param("delta") int delta);
+    
+    /**
+     * 根据评论表重算ID区间内评论的回复数（用于定时对账）
+     * @param minId 起始评论ID（包含）
+     * @param maxId 结束评论ID（包含）
+     * @return 影响行数
+     */
+    @Update("UPDATE comments c " +
+            "LEFT JOIN (SELECT parent_id, COUNT(*) AS cnt FROM comments " +
+            "           WHERE parent_id BETWEEN #{minId} AND #{maxId} GROUP BY parent_id) r ON r.parent_id = c.id " +
+            "SET c.reply_count = COALESCE(r.cnt, 0) " +
+            "WHERE c.id BETWEEN #{minId} AND #{maxId} AND NOT (c.reply_count <=> COALESCE(r.cnt, 0))")
+    int rebuildReplyCountsByIdRange(@Param("minId") Integer minId, @Param("maxId") Integer maxId);
+    
+    /**
+     * 查询最大评论ID（对账任务的遍历上界）
+     * @return 最大评论ID，没有评论时返回0
+     */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM comments")
+    int findMaxId();
     
     /**
      * 统计帖子评论数量
+     * 直接对评论表计数，日常读取请使用posts.comment_count
      * @param postId 帖子ID
      * @return 评论数量
      */
@@ -0,0 +1,105 @@
+package com.animesocial.platform.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import com.animesocial.platform.model.EsOutboxEvent;
+
+/**
+ * ES同步发件箱数据访问接口
+ * 写入方法在业务写操作的事务中调用，与业务数据一同提交或回滚
+ */
+@Mapper
+public interface EsOutboxRepository {
+    
+    /**
+     * 写入一条同步记录
+     * @param entityType 实体类型
+     * @param entityId 实体ID
+     * @param operation 操作类型
+     */
+    @Insert("INSERT INTO es_outbox (entity_type, entity_id, operation, attempts, created_at, next_attempt_at) " +
+            "VALUES (#{entityType}, #{entityId}, #{operation}, 0, NOW(), NOW())")
+    void insert(@Param("entityType") String entityType, @Param("entityId") Integer entityId, @Param("operation") String operation);
+    
+    /**
+     * 为带有指定标签的所有帖子、资源和用户写入同步记录
+     * 用于标签改名或删除后刷新文档中的标签名
+     * @param tagId 标签ID
+     * @return 写入的记录数
+     */
+    @Insert({
+        "INSERT INTO es_outbox (entity_type, entity_id, operation, attempts, created_at, next_attempt_at)",
+        "SELECT content_type, content_id, 'upsert', 0, NOW(), NOW() FROM content_tags WHERE tag_id = #{tagId}",
+        "UNION ALL",
+        "SELECT 'user', user_id, 'upsert', 0, NOW(), NOW() FROM user_tags WHERE tag_id = #{tagId}"
+    })
+    int insertByTagId(@Param("tagId") Integer tagId);
+    
+    /**
+     * 按写入顺序获取已到重试时间的同步记录
+     * @param limit 最大数量
+     * @return 同步记录列表
+     */
+    @Select("SELECT * FROM es_outbox WHERE next_attempt_at <= NOW() ORDER BY id LIMIT #{limit}")
+    List<EsOutboxEvent> findDue(@Param("limit") int limit);
+    
+    /**
+     * 删除已同步的记录
+     * @param ids 记录ID列表
+     * @return 删除的记录数
+     */
+    @Delete({
+        "<script>",
+        "DELETE FROM es_outbox WHERE id IN",
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 记录同步失败，并按指数退避推迟下次重试：min(基础间隔 * 2^失败次数, 最大间隔) 秒
+     * @param ids 记录ID列表
+     * @param error 失败原因
+     * @param baseDelaySeconds 基础重试间隔（秒）
+     * @param maxDelaySeconds 最大重试间隔（秒）
+     */
+    @Update({
+        "<script>",
+        "UPDATE es_outbox SET",
+        "  next_attempt_at = DATE_ADD(NOW(), INTERVAL LEAST(#{baseDelaySeconds} * POW(2, attempts), #{maxDelaySeconds}) SECOND),",
+        "  attempts = attempts + 1,",
+        "  last_error = #{error}",
+        "WHERE id IN",
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    void markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error,
+                    @Param("baseDelaySeconds") int baseDelaySeconds, @Param("maxDelaySeconds") int maxDelaySeconds);
+    
+    /**
+     * 统计待同步记录数量
+     * @return 记录数量
+     */
+    @Select("SELECT COUNT(*) FROM es_outbox")
+    long countPending();
+    
+    /**
+     * 获取最早一条待同步记录的写入时间，用于计算同步延迟
+     * @return 写入时间，没有待同步记录时返回null
+     */
+    @Select("SELECT MIN(created_at) FROM es_outbox")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -0,0 +1,35 @@
+package com.animesocial.platform.repository;
+
+import java.time.LocalDateTime;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import com.animesocial.platform.model.EsSyncState;
+
+/**
+ * ES同步水位数据访问接口
+ */
+@Mapper
+public interface EsSyncStateRepository {
+    
+    /**
+     * 获取实体类型的同步水位
+     * @param entityType 实体类型
+     * @return 同步水位，从未同步过则返回null
+     */
+    @Select("SELECT * FROM es_sync_state WHERE entity_type = #{entityType}")
+    EsSyncState findByEntityType(@Param("entityType") String entityType);
+    
+    /**
+     * 写入实体类型的同步水位，已存在则覆盖
+     * @param entityType 实体类型
+     * @param maxId 已同步的最大实体ID
+     * @param syncedAt 同步时间
+     */
+    @Insert("INSERT INTO es_sync_state (entity_type, max_id, synced_at) VALUES (#{entityType}, #{maxId}, #{syncedAt}) " +
+            "ON DUPLICATE KEY UPDATE max_id = VALUES(max_id), synced_at = VALUES(synced_at)")
+    void save(@Param("entityType") String entityType, @Param("maxId") Integer maxId, @Param("syncedAt") LocalDateTime syncedAt);
+}
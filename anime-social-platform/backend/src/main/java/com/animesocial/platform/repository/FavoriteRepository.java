@@ -1,9 +1,12 @@
 package com.animesocial.platform.repository;
 
 import com.animesocial.platform.model.Favorite;
+import com.animesocial.platform.model.IdCount;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -80,6 +83,22 @@ public interface FavoriteRepository {
      */
     List<Integer> findResourceIdsByUserIdWithPagination(@Param("userId") Integer userId, @Param("offset") Integer offset, @Param("size") Integer size);
     
+    /**
+     * 查询用户收藏的资源ID，不排序，最多返回limit个
+     * @param userId 用户ID
+     * @param limit 最大数量
+     * @return 资源ID列表
+     */
+    List<Integer> findResourceIdsByUserIdLimit(@Param("userId") Integer userId, @Param("limit") Integer limit);
+    
+    /**
+     * 在给定资源中查询用户已收藏的资源ID
+     * @param userId 用户ID
+     * @param resourceIds 资源ID列表
+     * @return 已收藏的资源ID列表
+     */
+    List<Integer> findFavoritedResourceIds(@Param("userId") Integer userId, @Param("resourceIds") Collection<Integer> resourceIds);
+    
     /**
      * 统计用户收藏数量
      * @param userId 用户ID
@@ -87,6 +106,32 @@ public interface FavoriteRepository {
      */
     int countByUserId(Integer userId);
     
+    /**
+     * 按游标(键集)分页查询用户的收藏记录
+     * 以 (收藏时间, 收藏ID) 作为键集定位，配合 (user_id, created_at, id) 复合索引
+     * @param userId 用户ID
+     * @param cursorTime 游标中的收藏时间
+     * @param cursorId 游标中的收藏ID，为null表示第一页
+     * @param limit 查询数量
+     * @return 收藏列表，按 (收藏时间, ID) 降序排序
+     */
+    List<Favorite> findByUserIdByCursor(@Param("userId") Integer userId, @Param("cursorTime") LocalDateTime cursorTime,
+                                        @Param("cursorId") Integer cursorId, @Param("limit") Integer limit);
+    
+    /**
+     * 统计资源被收藏的次数
+     * @param resourceId 资源ID
+     * @return 收藏次数
+     */
+    int countByResourceId(Integer resourceId);
+    
+    /**
+     * 批量统计多个资源被收藏的次数
+     * @param resourceIds 资源ID列表
+     * @return 资源ID与收藏次数（未被收藏的资源不返回）
+     */
+    List<IdCount> countByResourceIds(@Param("resourceIds") Collection<Integer> resourceIds);
+    
     /**
      * 根据资源ID删除所有收藏记录
      * @param resourceId 资源ID
@@ -66,9 +66,10 @@ public interface FriendshipRepository {
      * 取消关注关系
      * @param userId 用户ID
      * @param friendId 好友ID
+     * @return 删除的行数，关系已被并发删除时为0
      */
     @Delete("DELETE FROM friendships WHERE user_id = #{userId} AND friend_id = #{friendId}")
-    void delete(@Param("userId") Integer userId, @Param("friendId") Integer friendId);
+    int delete(@Param("userId") Integer userId, @Param("friendId") Integer friendId);
     
     /**
      * 获取用户关注的用户ID列表
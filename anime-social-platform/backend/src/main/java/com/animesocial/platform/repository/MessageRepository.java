@@ -3,6 +3,7 @@ package com.animesocial.platform.repository;
 import com.animesocial.platform.model.Message;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -58,6 +59,40 @@ public interface MessageRepository {
      */
     List<Message> getChatHistory(Integer userId, Integer friendId, Integer offset, Integer limit);
     
+    /**
+     * 按游标获取用户的收件箱消息
+     * 
+     * @param userId 用户ID
+     * @param cursorTime 游标中的发送时间
+     * @param cursorId 游标中的消息ID，为null表示第一页
+     * @param limit 查询数量
+     * @return 消息列表，按 (发送时间, ID) 降序排序
+     */
+    List<Message> getInboxMessagesByCursor(Integer userId, LocalDateTime cursorTime, Integer cursorId, Integer limit);
+    
+    /**
+     * 按游标获取用户的发件箱消息
+     * 
+     * @param userId 用户ID
+     * @param cursorTime 游标中的发送时间
+     * @param cursorId 游标中的消息ID，为null表示第一页
+     * @param limit 查询数量
+     * @return 消息列表，按 (发送时间, ID) 降序排序
+     */
+    List<Message> getOutboxMessagesByCursor(Integer userId, LocalDateTime cursorTime, Integer cursorId, Integer limit);
+    
+    /**
+     * 按游标获取两个用户之间的聊天记录
+     * 
+     * @param userId 当前用户ID
+     * @param friendId 好友用户ID
+     * @param cursorTime 游标中的发送时间
+     * @param cursorId 游标中的消息ID，为null表示第一页
+     * @param limit 查询数量
+     * @return 消息列表，按 (发送时间, ID) 降序排序
+     */
+    List<Message> getChatHistoryByCursor(Integer userId, Integer friendId, LocalDateTime cursorTime, Integer cursorId, Integer limit);
+    
     /**
      * 标记消息为已读
      * 
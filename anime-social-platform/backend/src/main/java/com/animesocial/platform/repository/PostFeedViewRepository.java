@@ -0,0 +1,226 @@
+package com.animesocial.platform.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import com.animesocial.platform.model.PostFeedDirty;
+import com.animesocial.platform.model.PostFeedView;
+
+/**
+ * 帖子列表读模型数据访问接口
+ * 登记操作均为 INSERT ... ON DUPLICATE KEY UPDATE，可直接在业务写操作的事务中调用；
+ * 重算使用一条 INSERT ... SELECT 从源表生成读模型行
+ */
+@Mapper
+public interface PostFeedViewRepository {
+
+    /**
+     * 登记需要重算的帖子
+     * @param postIds 帖子ID列表
+     */
+    @Insert({
+        "<script>",
+        "INSERT INTO post_feed_dirty (post_id, version, marked_at) VALUES",
+        "<foreach collection='postIds' item='postId' separator=','>",
+        "(#{postId}, 1, NOW())",
+        "</foreach>",
+        "ON DUPLICATE KEY UPDATE version = version + 1, marked_at = NOW()",
+        "</script>"
+    })
+    void markDirty(@Param("postIds") Collection<Integer> postIds);
+
+    /**
+     * 登记用户发布的全部帖子，用于作者头像等信息变化
+     * @param userId 用户ID
+     */
+    @Insert("INSERT INTO post_feed_dirty (post_id, version, marked_at) " +
+            "SELECT id, 1, NOW() FROM posts WHERE user_id = #{userId} " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, marked_at = NOW()")
+    void markDirtyByUserId(Integer userId);
+
+    /**
+     * 登记带有指定标签的全部帖子，用于标签改名
+     * @param tagId 标签ID
+     */
+    @Insert("INSERT INTO post_feed_dirty (post_id, version, marked_at) " +
+            "SELECT content_id, 1, NOW() FROM content_tags WHERE tag_id = #{tagId} AND content_type = 'post' " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, marked_at = NOW()")
+    void markDirtyByTagId(Integer tagId);
+
+    /**
+     * 登记读模型中缺失的帖子，用于首次部署或数据修复
+     * @return 登记的记录数
+     */
+    @Insert("INSERT INTO post_feed_dirty (post_id, version, marked_at) " +
+            "SELECT p.id, 1, NOW() FROM posts p LEFT JOIN post_feed_view v ON v.post_id = p.id WHERE v.post_id IS NULL " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, marked_at = NOW()")
+    int markMissing();
+
+    /**
+     * 按登记时间读取一批待重算记录
+     * @param limit 读取数量
+     * @return 待重算记录
+     */
+    @Select("SELECT post_id, version FROM post_feed_dirty ORDER BY marked_at LIMIT #{limit}")
+    List<PostFeedDirty> findDirty(int limit);
+
+    /**
+     * 删除已重算的记录，只删除版本号未变化的记录
+     * @param entries 已重算的记录
+     * @return 删除的记录数
+     */
+    @Delete({
+        "<script>",
+        "DELETE FROM post_feed_dirty WHERE",
+        "<foreach collection='entries' item='entry' separator=' OR '>",
+        "(post_id = #{entry.postId} AND version = #{entry.version})",
+        "</foreach>",
+        "</script>"
+    })
+    int deleteDirty(@Param("entries") Collection<PostFeedDirty> entries);
+
+    /**
+     * 统计待重算的帖子数量
+     * @return 待重算数量
+     */
+    @Select("SELECT COUNT(*) FROM post_feed_dirty")
+    long countDirty();
+
+    /**
+     * 获取最早的待重算登记时间
+     * @return 登记时间，没有待重算记录时返回null
+     */
+    @Select("SELECT MIN(marked_at) FROM post_feed_dirty")
+    LocalDateTime findOldestMarkedAt();
+
+    /**
+     * 根据源表重算帖子的读模型行，已删除的帖子不会生成记录（其读模型行随帖子级联删除）
+     * @param postIds 帖子ID列表
+     * @return 影响的行数
+     */
+    @Insert({
+        "<script>",
+        "INSERT INTO post_feed_view (post_id, user_id, username, avatar, title, excerpt, tags,",
+        "  view_count, like_count, comment_count, is_top, created_at, updated_at, projected_at)",
+        "SELECT p.id, p.user_id, u.username, u.avatar, p.title, p.excerpt,",
+        "  (SELECT JSON_ARRAYAGG(JSON_OBJECT('id', t.id, 'name', t.name, 'category', t.category))",
+        "     FROM content_tags ct JOIN tags t ON t.id = ct.tag_id",
+        "    WHERE ct.content_type = 'post' AND ct.content_id = p.id),",
+        "  COALESCE(p.view_count, 0), COALESCE(p.like_count, 0),",
+        "  COALESCE(p.comment_count, 0),",
+        "  COALESCE(p.is_top, 0), p.created_at, p.updated_at, NOW()",
+        "FROM posts p JOIN users u ON u.id = p.user_id",
+        "WHERE p.id IN",
+        "<foreach collection='postIds' item='postId' open='(' separator=',' close=')'>",
+        "#{postId}",
+        "</foreach>",
+        "ON DUPLICATE KEY UPDATE user_id = VALUES(user_id), username = VALUES(username), avatar = VALUES(avatar),",
+        "  title = VALUES(title), excerpt = VALUES(excerpt), tags = VALUES(tags),",
+        "  view_count = VALUES(view_count), like_count = VALUES(like_count), comment_count = VALUES(comment_count),",
+        "  is_top = VALUES(is_top), created_at = VALUES(created_at), updated_at = VALUES(updated_at),",
+        "  projected_at = VALUES(projected_at)",
+        "</script>"
+    })
+    int project(@Param("postIds") Collection<Integer> postIds);
+
+    /**
+     * 根据排序方式分页查询帖子列表
+     * @param tagId 标签ID（可选）
+     * @param offset 偏移量
+     * @param limit 每页数量
+     * @param sort 排序方式 (latest/views/likes)
+     * @return 读模型列表
+     */
+    @Select({
+        "<script>",
+        "SELECT v.* FROM post_feed_view v",
+        "<if test=\"tagId != null\">",
+        "  JOIN content_tags ct ON ct.content_id = v.post_id AND ct.content_type = 'post' AND ct.tag_id = #{tagId}",
+        "</if>",
+        "ORDER BY",
+        "<choose>",
+        "  <when test=\"sort == 'views'\">v.view_count DESC, v.post_id DESC</when>",
+        "  <when test=\"sort == 'likes'\">v.like_count DESC, v.post_id DESC</when>",
+        "  <otherwise>v.created_at DESC, v.post_id DESC</otherwise>",
+        "</choose>",
+        "LIMIT #{offset}, #{limit}",
+        "</script>"
+    })
+    List<PostFeedView> findPage(@Param("tagId") Integer tagId, @Param("offset") Integer offset,
+                                @Param("limit") Integer limit, @Param("sort") String sort);
+
+    /**
+     * 统计读模型中的帖子数量，与 findPage 的查询条件一致
+     * @param tagId 标签ID（可选）
+     * @return 帖子数量
+     */
+    @Select({
+        "<script>",
+        "SELECT COUNT(*) FROM post_feed_view v",
+        "<if test=\"tagId != null\">",
+        "  JOIN content_tags ct ON ct.content_id = v.post_id AND ct.content_type = 'post' AND ct.tag_id = #{tagId}",
+        "</if>",
+        "</script>"
+    })
+    int count(@Param("tagId") Integer tagId);
+
+    /**
+     * 按游标(键集)分页查询帖子列表
+     * @param tagId 标签ID（可选）
+     * @param sort 排序方式 (latest/views/likes)
+     * @param cursorTime 游标中的发布时间（latest排序时使用）
+     * @param cursorCount 游标中的计数值（views/likes排序时使用）
+     * @param cursorId 游标中的帖子ID，为null表示第一页
+     * @param limit 查询数量
+     * @return 读模型列表
+     */
+    @Select({
+        "<script>",
+        "SELECT v.* FROM post_feed_view v",
+        "<where>",
+        "  <if test=\"tagId != null\">",
+        "    EXISTS (SELECT 1 FROM content_tags ct WHERE ct.content_id = v.post_id AND ct.content_type = 'post' AND ct.tag_id = #{tagId})",
+        "  </if>",
+        "  <if test=\"cursorId != null\">",
+        "    <choose>",
+        "      <when test=\"sort == 'views'\">AND (v.view_count &lt; #{cursorCount} OR (v.view_count = #{cursorCount} AND v.post_id &lt; #{cursorId}))</when>",
+        "      <when test=\"sort == 'likes'\">AND (v.like_count &lt; #{cursorCount} OR (v.like_count = #{cursorCount} AND v.post_id &lt; #{cursorId}))</when>",
+        "      <otherwise>AND (v.created_at &lt; #{cursorTime} OR (v.created_at = #{cursorTime} AND v.post_id &lt; #{cursorId}))</otherwise>",
+        "    </choose>",
+        "  </if>",
+        "</where>",
+        "ORDER BY",
+        "<choose>",
+        "  <when test=\"sort == 'views'\">v.view_count DESC, v.post_id DESC</when>",
+        "  <when test=\"sort == 'likes'\">v.like_count DESC, v.post_id DESC</when>",
+        "  <otherwise>v.created_at DESC, v.post_id DESC</otherwise>",
+        "</choose>",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<PostFeedView> findByCursor(@Param("tagId") Integer tagId, @Param("sort") String sort,
+                                    @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorCount") Integer cursorCount,
+                                    @Param("cursorId") Integer cursorId, @Param("limit") Integer limit);
+
+    /**
+     * 根据帖子ID列表批量查询
+     * @param postIds 帖子ID列表
+     * @return 读模型列表（顺序不保证）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM post_feed_view WHERE post_id IN",
+        "<foreach collection='postIds' item='postId' open='(' separator=',' close=')'>",
+        "#{postId}",
+        "</foreach>",
+        "</script>"
+    })
+    List<PostFeedView> findByIds(@Param("postIds") Collection<Integer> postIds);
+}
@@ -2,6 +2,7 @@ package com.animesocial.platform.repository;
 
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,13 +19,25 @@ public interface PostLikeRepository {
     @Insert("INSERT INTO post_likes (post_id, user_id, created_at) VALUES (#{postId}, #{userId}, NOW())")
     void save(@Param("postId") Integer postId, @Param("userId") Integer userId);
     
+    /**
+     * 帖子存在且未点赞时保存点赞记录
+     * 依赖 (post_id, user_id) 唯一键，重复点赞被 INSERT IGNORE 忽略；帖子不存在时 SELECT 不返回行
+     * @param postId 帖子ID
+     * @param userId 用户ID
+     * @return 新增的记录数，已点赞或帖子不存在时为0
+     */
+    @Insert("INSERT IGNORE INTO post_likes (post_id, user_id, created_at) " +
+            "SELECT id, #{userId}, NOW() FROM posts WHERE id = #{postId}")
+    int saveIfAbsent(@Param("postId") Integer postId, @Param("userId") Integer userId);
+    
     /**
      * 删除点赞记录
      * @param postId 帖子ID
      * @param userId 用户ID
+     * @return 删除的记录数，未点赞时为0
      */
     @Delete("DELETE FROM post_likes WHERE post_id = #{postId} AND user_id = #{userId}")
-    void delete(@Param("postId") Integer postId, @Param("userId") Integer userId);
+    int delete(@Param("postId") Integer postId, @Param("userId") Integer userId);
     
     /**
      * 删除帖子的所有点赞记录
@@ -66,6 +79,15 @@ public interface PostLikeRepository {
     @Select("SELECT post_id FROM post_likes WHERE user_id = #{userId}")
     List<Integer> findPostIdsByUserId(Integer userId);
     
+    /**
+     * 获取用户点赞的帖子ID，最多返回limit个
+     * @param userId 用户ID
+     * @param limit 最大数量
+     * @return 帖子ID列表
+     */
+    @Select("SELECT post_id FROM post_likes WHERE user_id = #{userId} LIMIT #{limit}")
+    List<Integer> findPostIdsByUserIdLimit(@Param("userId") Integer userId, @Param("limit") Integer limit);
+    
     /**
      * 统计用户的点赞数量
      * @param userId 用户ID
@@ -73,4 +95,20 @@ public interface PostLikeRepository {
      */
     @Select("SELECT COUNT(*) FROM post_likes WHERE user_id = #{userId}")
     int countByUserId(Integer userId);
+    
+    /**
+     * 在给定帖子中查询用户已点赞的帖子ID
+     * @param userId 用户ID
+     * @param postIds 帖子ID列表
+     * @return 已点赞的帖子ID列表
+     */
+    @Select({
+        "<script>",
+        "SELECT post_id FROM post_likes WHERE user_id = #{userId} AND post_id IN",
+        "<foreach collection='postIds' item='postId' open='(' separator=',' close=')'>",
+        "#{postId}",
+        "</foreach>",
+        "</script>"
+    })
+    List<Integer> findLikedPostIds(@Param("userId") Integer userId, @Param("postIds") Collection<Integer> postIds);
 } 
\ No newline at end of file
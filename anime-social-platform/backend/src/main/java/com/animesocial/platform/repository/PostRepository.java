@@ -1,6 +1,9 @@
 package com.animesocial.platform.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
@@ -10,6 +13,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import com.animesocial.platform.model.ContentHeat;
 import com.animesocial.platform.model.Post;
 
 /**
@@ -19,6 +23,12 @@ import com.animesocial.platform.model.Post;
 @Mapper
 public interface PostRepository {
     
+    /**
+     * 列表摘要投影的查询列，不包含正文content
+     */
+    String SUMMARY_COLUMNS = "p.id, p.user_id, p.title, p.excerpt, " +
+            "p.created_at, p.updated_at, p.view_count, p.like_count, p.comment_count, p.is_top";
+    
     /**
      * 根据ID查询帖子
      * @param id 帖子ID
@@ -27,14 +37,22 @@ public interface PostRepository {
     @Select("SELECT * FROM posts WHERE id = #{id}")
     Post findById(Integer id);
 
+    /**
+     * 判断帖子是否存在，只走主键索引不读取整行
+     * @param id 帖子ID
+     * @return 存在返回true
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM posts WHERE id = #{id})")
+    boolean existsById(Integer id);
+
     /**
      * 分页查询指定用户的所有帖子
      * @param userId 用户ID
      * @param offset 偏移量
      * @param limit 每页数量
-     * @return 帖子列表，按创建时间降序排序
+     * @return 帖子摘要列表（不含正文），按创建时间降序排序
      */
-    @Select("SELECT * FROM posts WHERE user_id = #{userId} ORDER BY created_at DESC LIMIT #{offset}, #{limit}")
+    @Select("SELECT " + SUMMARY_COLUMNS + " FROM posts p WHERE p.user_id = #{userId} ORDER BY p.created_at DESC LIMIT #{offset}, #{limit}")
     List<Post> findByUserId(Integer userId, Integer offset, Integer limit);
 
     /**
@@ -106,6 +124,54 @@ public interface PostRepository {
     @Select("SELECT COUNT(*) FROM posts")
     int count();
 
+    /**
+     * 按主键顺序分块读取帖子，用于全量重建索引时流式遍历
+     * @param lastId 上一块最后一条记录的ID，第一块传0
+     * @param limit 每块数量
+     * @return ID大于lastId的帖子，按ID升序
+     */
+    @Select("SELECT * FROM posts WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Post> findAfterId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
+    /**
+     * 按主键顺序分块读取ID大于lastId的帖子 ID，用于启动时增量追赶索引
+     * @param lastId 上一块最后一条记录的ID
+     * @param limit 每块数量
+     * @return 帖子ID列表，按ID升序
+     */
+    @Select("SELECT id FROM posts WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Integer> findIdsAfterId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
+    /**
+     * 按主键顺序分块读取指定时间之后修改过的帖子ID，用于启动时增量追赶索引
+     * @param since 起始时间（不含）
+     * @param lastId 上一块最后一条记录的ID，第一块传0
+     * @param limit 每块数量
+     * @return 帖子ID列表，按ID升序
+     */
+    @Select("SELECT id FROM posts WHERE updated_at > #{since} AND id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Integer> findIdsUpdatedAfter(@Param("since") LocalDateTime since, @Param("lastId") Integer lastId, @Param("limit") Integer limit);
+
+    /**
+     * 按键集分页读取多个作者的帖子ID，用于时间线中不写扩散的作者
+     * @param userIds 作者ID列表
+     * @param beforeId 上一页最后一个帖子ID，第一页传null
+     * @param limit 读取数量
+     * @return 帖子ID列表，按ID降序
+     */
+    @Select({
+        "<script>",
+        "SELECT id FROM posts WHERE user_id IN",
+        "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>",
+        "#{userId}",
+        "</foreach>",
+        "<if test='beforeId != null'>AND id &lt; #{beforeId}</if>",
+        "ORDER BY id DESC LIMIT #{limit}",
+        "</script>"
+    })
+    List<Integer> findIdsByUserIdsBeforeId(@Param("userIds") Collection<Integer> userIds,
+                                           @Param("beforeId") Integer beforeId, @Param("limit") int limit);
+
     /**
      * 统计指定标签的帖子数量
      * @param tagId 标签ID
@@ -118,8 +184,8 @@ public interface PostRepository {
      * 保存新帖子
      * @param post 帖子对象，包含标题、内容等信息
      */
-    @Insert("INSERT INTO posts (user_id, title, content, created_at, updated_at, view_count, like_count, is_top) " +
-            "VALUES (#{userId}, #{title}, #{content}, NOW(), NOW(), 0, 0, false)")
+    @Insert("INSERT INTO posts (user_id, title, content, excerpt, created_at, updated_at, view_count, like_count, comment_count, is_top) " +
+            "VALUES (#{userId}, #{title}, #{content}, #{excerpt}, NOW(), NOW(), 0, 0, 0, false)")
     @Options(useGeneratedKeys = true, keyProperty = "id")
     void save(Post post);
 
@@ -127,7 +193,7 @@ public interface PostRepository {
      * 更新帖子
      * @param post 帖子对象，包含需要更新的字段
      */
-    @Update("UPDATE posts SET title = #{title}, content = #{content}, updated_at = NOW() WHERE id = #{id}")
+    @Update("UPDATE posts SET title = #{title}, content = #{content}, excerpt = #{excerpt}, updated_at = NOW() WHERE id = #{id}")
     void update(Post post);
 
     /**
@@ -141,15 +207,93 @@ public interface PostRepository {
      * 减少帖子点赞数
      * @param id 帖子ID
      */
-    @Update("UPDATE posts SET like_count = like_count - 1 WHERE id = #{id}")
+    @Update("UPDATE posts SET like_count = GREATEST(like_count - 1, 0) WHERE id = #{id}")
     void decreaseLikeCount(Integer id);
 
     /**
-     * 增加帖子浏览量
+     * 查询帖子点赞数
      * @param id 帖子ID
+     * @return 点赞数，帖子不存在时返回null
+     */
+    @Select("SELECT like_count FROM posts WHERE id = #{id}")
+    Integer findLikeCount(Integer id);
+
+    /**
+     * 为摘要为空的历史帖子补齐摘要
+     * @param length 摘要长度
+     * @param limit 本批最多处理的帖子数
+     * @return 补齐的帖子数
      */
-    @Update("UPDATE posts SET view_count = view_count + 1 WHERE id = #{id}")
-    void increaseViewCount(Integer id);
+    @Update("UPDATE posts SET excerpt = LEFT(content, #{length}) WHERE excerpt IS NULL LIMIT #{limit}")
+    int backfillExcerpts(@Param("length") int length, @Param("limit") int limit);
+
+    /**
+     * 原子调整帖子评论数，结果不会小于0
+     * @param id 帖子ID
+     * @param delta 增量，可为负数
+     */
+    @Update("UPDATE posts SET comment_count = GREATEST(COALESCE(comment_count, 0) + #{delta}, 0) WHERE id = #{id}")
+    void adjustCommentCount(@Param("id") Integer id, @Param("delta") int delta);
+
+    /**
+     * 查询帖子评论数
+     * @param id 帖子ID
+     * @return 评论数，帖子不存在时返回null
+     */
+    @Select("SELECT comment_count FROM posts WHERE id = #{id}")
+    Integer findCommentCount(Integer id);
+
+    /**
+     * 根据评论表重算ID区间内帖子的评论数（用于定时对账）
+     * @param minId 起始帖子ID（包含）
+     * @param maxId 结束帖子ID（包含）
+     * @return 实际发生变化的帖子ID列表
+     */
+    @Select("SELECT p.id FROM posts p " +
+            "WHERE p.id BETWEEN #{minId} AND #{maxId} " +
+            "AND COALESCE(p.comment_count, -1) <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)")
+    List<Integer> findCommentCountDriftByIdRange(@Param("minId") Integer minId, @Param("maxId") Integer maxId);
+
+    /**
+     * 根据评论表重算指定帖子的评论数
+     * @param ids 帖子ID列表
+     * @return 影响行数
+     */
+    @Update({
+        "<script>",
+        "UPDATE posts p SET p.comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)",
+        "WHERE p.id IN",
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int rebuildCommentCounts(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 查询最大帖子ID（对账任务的遍历上界）
+     * @return 最大帖子ID，没有帖子时返回0
+     */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM posts")
+    int findMaxId();
+
+    /**
+     * 批量增加帖子浏览量
+     * 使用一条 UPDATE ... CASE 语句写回多个帖子的累计增量
+     * @param deltas 帖子ID到浏览量增量的映射
+     */
+    @Update({
+        "<script>",
+        "UPDATE posts SET view_count = view_count + CASE id",
+        "<foreach collection='deltas' index='id' item='delta' separator=' '>",
+        "  WHEN #{id} THEN #{delta}",
+        "</foreach>",
+        "ELSE 0 END",
+        "WHERE id IN",
+        "<foreach collection='deltas' index='id' open='(' separator=',' close=')'>#{id}</foreach>",
+        "</script>"
+    })
+    void batchIncreaseViewCount(@Param("deltas") Map<Integer, Long> deltas);
 
     /**
      * 删除帖子
@@ -182,9 +326,9 @@ public interface PostRepository {
      * @param userId 用户ID
      * @param offset 偏移量
      * @param limit 每页数量
-     * @return 帖子列表
+     * @return 帖子摘要列表（不含正文）
      */
-    @Select("SELECT p.* FROM posts p " +
+    @Select("SELECT " + SUMMARY_COLUMNS + " FROM posts p " +
             "JOIN post_likes pl ON p.id = pl.post_id " +
             "WHERE pl.user_id = #{userId} " +
             "ORDER BY pl.created_at DESC " +
@@ -209,9 +353,9 @@ public interface PostRepository {
 
     /**
      * 获取置顶帖子列表
-     * @return 置顶帖子列表
+     * @return 置顶帖子摘要列表（不含正文）
      */
-    @Select("SELECT * FROM posts WHERE is_top = 1 ORDER BY created_at DESC")
+    @Select("SELECT " + SUMMARY_COLUMNS + " FROM posts p WHERE p.is_top = 1 ORDER BY p.created_at DESC")
     List<Post> findTopPosts();
 
     /**
@@ -219,11 +363,24 @@ public interface PostRepository {
      * @param keyword 搜索关键词
      * @param offset 偏移量
      * @param limit 每页数量
-     * @return 匹配的帖子列表
+     * @return 匹配的帖子摘要列表（不含正文）
+     */
+    @Select("SELECT " + SUMMARY_COLUMNS + " FROM posts p " +
+            "WHERE p.title LIKE CONCAT('%', #{keyword}, '%') OR p.content LIKE CONCAT('%', #{keyword}, '%') " +
+            "ORDER BY p.created_at DESC LIMIT #{offset}, #{limit}")
+    List<Post> searchPosts(@Param("keyword") String keyword, @Param("offset") Integer offset, @Param("limit") Integer limit);
+
+    /**
+     * 按关键词搜索帖子（管理后台）
+     * 管理后台预览需要完整正文，查询整行
+     * @param keyword 搜索关键词
+     * @param offset 偏移量
+     * @param limit 每页数量
+     * @return 匹配的帖子列表（含正文）
      */
     @Select("SELECT * FROM posts WHERE title LIKE CONCAT('%', #{keyword}, '%') OR content LIKE CONCAT('%', #{keyword}, '%') " +
             "ORDER BY created_at DESC LIMIT #{offset}, #{limit}")
-    List<Post> searchPosts(@Param("keyword") String keyword, @Param("offset") Integer offset, @Param("limit") Integer limit);
+    List<Post> searchPostsForAdmin(@Param("keyword") String keyword, @Param("offset") Integer offset, @Param("limit") Integer limit);
 
     /**
      * 统计搜索结果总数
@@ -234,10 +391,43 @@ public interface PostRepository {
     int countSearchPosts(@Param("keyword") String keyword);
     
     /**
-     * 获取热门帖子（按照点赞数除以浏览数的比例排序）
-     * @param limit 获取数量
-     * @return 热门帖子列表
+     * 按主键顺序分块读取指定时间之后发布的帖子热度数据，用于计算热门排行
+     * @param since 最早发布时间
+     * @param lastId 上一块最后一条记录的ID，第一块传0
+     * @param limit 每块数量
+     * @return 帖子热度数据（点赞数、浏览数、评论数），按ID升序
      */
-    @Select("SELECT * FROM posts WHERE view_count > 0 ORDER BY (like_count / view_count) DESC, like_count DESC LIMIT #{limit}")
-    List<Post> findHotPosts(@Param("limit") Integer limit);
-} 
\ No newline at end of file
+    @Select("SELECT p.id, p.created_at, p.like_count, p.view_count, p.comment_count " +
+            "FROM posts p WHERE p.created_at >= #{since} AND p.id > #{lastId} ORDER BY p.id LIMIT #{limit}")
+    List<ContentHeat> findHeatAfterId(@Param("since") LocalDateTime since, @Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
+    /**
+     * 根据ID列表批量查询帖子
+     * @param ids 帖子ID列表
+     * @return 帖子列表（顺序不保证与传入顺序一致）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM posts WHERE id IN",
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    List<Post> findByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 根据ID列表批量查询帖子摘要，用于列表展示
+     * @param ids 帖子ID列表
+     * @return 帖子摘要列表（不含正文，顺序不保证与传入顺序一致）
+     */
+    @Select({
+        "<script>",
+        "SELECT " + SUMMARY_COLUMNS + " FROM posts p WHERE p.id IN",
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    List<Post> findSummariesByIds(@Param("ids") Collection<Integer> ids);
+} 
@@ -1,7 +1,10 @@
 package com.animesocial.platform.repository;
 
+import com.animesocial.platform.model.ResourceLike;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,13 +21,25 @@ public interface ResourceLikeRepository {
     @Insert("INSERT INTO resource_likes (resource_id, user_id, created_at) VALUES (#{resourceId}, #{userId}, NOW())")
     void save(@Param("resourceId") Integer resourceId, @Param("userId") Integer userId);
     
+    /**
+     * 资源存在且未点赞时保存点赞记录
+     * 依赖 (resource_id, user_id) 唯一键，重复点赞被 INSERT IGNORE 忽略；资源不存在时 SELECT 不返回行
+     * @param resourceId 资源ID
+     * @param userId 用户ID
+     * @return 新增的记录数，已点赞或资源不存在时为0
+     */
+    @Insert("INSERT IGNORE INTO resource_likes (resource_id, user_id, created_at) " +
+            "SELECT id, #{userId}, NOW() FROM resources WHERE id = #{resourceId}")
+    int saveIfAbsent(@Param("resourceId") Integer resourceId, @Param("userId") Integer userId);
+    
     /**
      * 删除点赞记录
      * @param resourceId 资源ID
      * @param userId 用户ID
+     * @return 删除的记录数，未点赞时为0
      */
     @Delete("DELETE FROM resource_likes WHERE resource_id = #{resourceId} AND user_id = #{userId}")
-    void delete(@Param("resourceId") Integer resourceId, @Param("userId") Integer userId);
+    int delete(@Param("resourceId") Integer resourceId, @Param("userId") Integer userId);
     
     /**
      * 删除资源的所有点赞记录
@@ -66,6 +81,31 @@ public interface ResourceLikeRepository {
     @Select("SELECT resource_id FROM resource_likes WHERE user_id = #{userId}")
     List<Integer> findResourceIdsByUserId(Integer userId);
     
+    /**
+     * 获取用户点赞的资源ID，最多返回limit个
+     * @param userId 用户ID
+     * @param limit 最大数量
+     * @return 资源ID列表
+     */
+    @Select("SELECT resource_id FROM resource_likes WHERE user_id = #{userId} LIMIT #{limit}")
+    List<Integer> findResourceIdsByUserIdLimit(@Param("userId") Integer userId, @Param("limit") Integer limit);
+    
+    /**
+     * 在给定资源中查询用户已点赞的资源ID
+     * @param userId 用户ID
+     * @param resourceIds 资源ID列表
+     * @return 已点赞的资源ID列表
+     */
+    @Select({
+        "<script>",
+        "SELECT resource_id FROM resource_likes WHERE user_id = #{userId} AND resource_id IN",
+        "<foreach collection='resourceIds' item='resourceId' open='(' separator=',' close=')'>",
+        "#{resourceId}",
+        "</foreach>",
+        "</script>"
+    })
+    List<Integer> findLikedResourceIds(@Param("userId") Integer userId, @Param("resourceIds") Collection<Integer> resourceIds);
+    
     /**
      * 统计用户的点赞数量
      * @param userId 用户ID
@@ -73,4 +113,27 @@ public interface ResourceLikeRepository {
      */
     @Select("SELECT COUNT(*) FROM resource_likes WHERE user_id = #{userId}")
     int countByUserId(Integer userId);
-} 
\ No newline at end of file
+    
+    /**
+     * 按游标(键集)分页查询用户的点赞记录
+     * 以 (点赞时间, 点赞记录ID) 作为键集定位，配合 (user_id, created_at, id) 复合索引
+     * @param userId 用户ID
+     * @param cursorTime 游标中的点赞时间
+     * @param cursorId 游标中的点赞记录ID，为null表示第一页
+     * @param limit 查询数量
+     * @return 点赞记录列表，按 (点赞时间, ID) 降序排序
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM resource_likes",
+        "WHERE user_id = #{userId}",
+        "<if test=\"cursorId != null\">",
+        "  AND (created_at &lt; #{cursorTime} OR (created_at = #{cursorTime} AND id &lt; #{cursorId}))",
+        "</if>",
+        "ORDER BY created_at DESC, id DESC",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<ResourceLike> findByUserIdByCursor(@Param("userId") Integer userId, @Param("cursorTime") LocalDateTime cursorTime,
+                                            @Param("cursorId") Integer cursorId, @Param("limit") Integer limit);
+}
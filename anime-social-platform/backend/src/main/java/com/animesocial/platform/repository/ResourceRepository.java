@@ -1,6 +1,8 @@
 package com.animesocial.platform.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
@@ -10,6 +12,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import com.animesocial.platform.model.ContentHeat;
 import com.animesocial.platform.model.Resource;
 
 /**
@@ -47,9 +50,23 @@ public interface ResourceRepository {
     @Select("SELECT r.* FROM resources r " +
             "JOIN favorites f ON r.id = f.resource_id " +
             "WHERE f.user_id = #{userId} " +
-            "ORDER BY f.created_at DESC " +
+            "ORDER BY f.created_at DESC, f.id DESC " +
             "LIMIT #{offset}, #{limit}")
-    List<Resource> findFavoritesByUserId(Integer userId, int offset, int limit);
+    List<Resource> findFavoritesByUserId(@Param("userId") Integer userId, @Param("offset") int offset, @Param("limit") int limit);
+    
+    /**
+     * 根据用户ID分页查询点赞的资源
+     * @param userId 用户ID
+     * @param offset 偏移量
+     * @param limit 每页数量
+     * @return 资源列表，按点赞时间降序排序
+     */
+    @Select("SELECT r.* FROM resources r " +
+            "JOIN resource_likes rl ON r.id = rl.resource_id " +
+            "WHERE rl.user_id = #{userId} " +
+            "ORDER BY rl.created_at DESC, rl.id DESC " +
+            "LIMIT #{offset}, #{limit}")
+    List<Resource> findLikedByUserIdPaged(@Param("userId") Integer userId, @Param("offset") Integer offset, @Param("limit") Integer limit);
     
     /**
      * 分页查询所有资源
@@ -75,6 +92,45 @@ public interface ResourceRepository {
             "ORDER BY ${orderBy} LIMIT #{offset}, #{limit}")
     List<Resource> findByTagId(@Param("tagId") Integer tagId, @Param("orderBy") String orderBy, @Param("offset") int offset, @Param("limit") Integer limit);
     
+    /**
+     * 按游标(键集)分页查询资源
+     * 以 (排序字段, id) 作为键集定位，配合 (排序字段, id) 复合索引，深度翻页不再扫描前面的记录
+     * @param tagId 标签ID（可选）
+     * @param sort 排序方式 (latest/downloads/likes)
+     * @param cursorTime 游标中的上传时间（latest排序时使用）
+     * @param cursorCount 游标中的计数值（downloads/likes排序时使用）
+     * @param cursorId 游标中的资源ID，为null表示第一页
+     * @param limit 查询数量
+     * @return 资源列表
+     */
+    @Select({
+        "<script>",
+        "SELECT r.* FROM resources r",
+        "<where>",
+        "  <if test=\"tagId != null\">",
+        "    EXISTS (SELECT 1 FROM content_tags ct WHERE ct.content_id = r.id AND ct.content_type = 'resource' AND ct.tag_id = #{tagId})",
+        "  </if>",
+        "  <if test=\"cursorId != null\">",
+        "    <choose>",
+        "      <when test=\"sort == 'downloads'\">AND (r.download_count &lt; #{cursorCount} OR (r.download_count = #{cursorCount} AND r.id &lt; #{cursorId}))</when>",
+        "      <when test=\"sort == 'likes'\">AND (r.like_count &lt; #{cursorCount} OR (r.like_count = #{cursorCount} AND r.id &lt; #{cursorId}))</when>",
+        "      <otherwise>AND (r.upload_time &lt; #{cursorTime} OR (r.upload_time = #{cursorTime} AND r.id &lt; #{cursorId}))</otherwise>",
+        "    </choose>",
+        "  </if>",
+        "</where>",
+        "ORDER BY",
+        "<choose>",
+        "  <when test=\"sort == 'downloads'\">r.download_count DESC, r.id DESC</when>",
+        "  <when test=\"sort == 'likes'\">r.like_count DESC, r.id DESC</when>",
+        "  <otherwise>r.upload_time DESC, r.id DESC</otherwise>",
+        "</choose>",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<Resource> findByCursor(@Param("tagId") Integer tagId, @Param("sort") String sort,
+                                @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorCount") Integer cursorCount,
+                                @Param("cursorId") Integer cursorId, @Param("limit") int limit);
+    
     /**
      * 统计标签下的资源数量
      * @param tagId 标签ID
@@ -92,6 +148,24 @@ public interface ResourceRepository {
     @Select("SELECT COUNT(*) FROM resources")
     int count();
     
+    /**
+     * 按主键顺序分块读取资源，用于全量重建索引时流式遍历
+     * @param lastId 上一块最后一条记录的ID，第一块传0
+     * @param limit 每块数量
+     * @return ID大于lastId的资源，按ID升序
+     */
+    @Select("SELECT * FROM resources WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Resource> findAfterId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
+    /**
+     * 按主键顺序分块读取ID大于lastId的资源 ID，用于启动时增量追赶索引
+     * @param lastId 上一块最后一条记录的ID
+     * @param limit 每块数量
+     * @return 资源ID列表，按ID升序
+     */
+    @Select("SELECT id FROM resources WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Integer> findIdsAfterId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
     /**
      * 插入资源
      * @param resource 资源对象
@@ -119,12 +193,22 @@ public interface ResourceRepository {
     void delete(Integer id);
     
     /**
-     * 增加下载次数
-     * @param id 资源ID
-     * @return 更新成功返回1，失败返回0
+     * 批量增加下载次数
+     * 使用一条 UPDATE ... CASE 语句写回多个资源的累计增量
+     * @param deltas 资源ID到下载次数增量的映射
      */
-    @Update("UPDATE resources SET download_count = download_count + 1 WHERE id = #{id}")
-    void incrementDownloadCount(Integer id);
+    @Update({
+        "<script>",
+        "UPDATE resources SET download_count = download_count + CASE id",
+        "<foreach collection='deltas' index='id' item='delta' separator=' '>",
+        "  WHEN #{id} THEN #{delta}",
+        "</foreach>",
+        "ELSE 0 END",
+        "WHERE id IN",
+        "<foreach collection='deltas' index='id' open='(' separator=',' close=')'>#{id}</foreach>",
+        "</script>"
+    })
+    void batchIncrementDownloadCount(@Param("deltas") Map<Integer, Long> deltas);
     
     /**
      * 增加收藏次数
@@ -142,6 +226,14 @@ public interface ResourceRepository {
     @Update("UPDATE resources SET like_count = GREATEST(like_count - 1, 0) WHERE id = #{id}")
     void decrementLikeCount(Integer id);
     
+    /**
+     * 查询资源点赞数
+     * @param id 资源ID
+     * @return 点赞数，资源不存在时返回null
+     */
+    @Select("SELECT like_count FROM resources WHERE id = #{id}")
+    Integer findLikeCount(Integer id);
+    
     /**
      * 搜索资源
      * @param keyword 关键词
@@ -170,22 +262,14 @@ public interface ResourceRepository {
     int countSearch(String keyword);
     
     /**
-     * 获取热门资源（按照点赞数除以下载数和收藏数除以下载数的总和排序）
-     * @param limit 获取数量
-     * @return 热门资源列表
+     * 按主键顺序分块读取指定时间之后上传的资源热度数据，用于计算热门排行
+     * @param since 最早上传时间
+     * @param lastId 上一块最后一条记录的ID，第一块传0
+     * @param limit 每块数量
+     * @return 资源热度数据（点赞数、下载数、收藏数），按ID升序
      */
-    @Select({
-        "<script>",
-        "SELECT r.*, ",
-        "COALESCE(r.like_count / NULLIF(r.download_count, 0), 0) AS like_ratio, ",
-        "(SELECT COUNT(*) FROM favorites f WHERE f.resource_id = r.id) AS favorite_count ",
-        "FROM resources r ",
-        "WHERE r.download_count > 0 ",
-        "ORDER BY (COALESCE(r.like_count / NULLIF(r.download_count, 0), 0) + ",
-        "COALESCE((SELECT COUNT(*) FROM favorites f WHERE f.resource_id = r.id) / NULLIF(r.download_count, 0), 0)) DESC, ",
-        "r.like_count DESC, r.download_count DESC ",
-        "LIMIT #{limit}",
-        "</script>"
-    })
-    List<Resource> findHotResources(@Param("limit") Integer limit);
+    @Select("SELECT r.id, r.upload_time AS created_at, r.like_count, r.download_count, " +
+            "(SELECT COUNT(*) FROM favorites f WHERE f.resource_id = r.id) AS favorite_count " +
+            "FROM resources r WHERE r.upload_time >= #{since} AND r.id > #{lastId} ORDER BY r.id LIMIT #{limit}")
+    List<ContentHeat> findHeatAfterId(@Param("since") LocalDateTime since, @Param("lastId") Integer lastId, @Param("limit") Integer limit);
 } 
\ No newline at end of file
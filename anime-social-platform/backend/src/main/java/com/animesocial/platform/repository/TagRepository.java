@@ -1,8 +1,11 @@
 package com.animesocial.platform.repository;
 
+import com.animesocial.platform.model.ContentTag;
+import com.animesocial.platform.model.IdCount;
 import com.animesocial.platform.model.Tag;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -192,6 +195,16 @@ public interface TagRepository {
      */
     @Select("SELECT content_id FROM content_tags WHERE content_type = 'post' AND tag_id = #{tagId}")
     List<Integer> findPostIdsByTagId(Integer tagId);
+
+    /**
+     * 获取标签下最近的帖子ID，走 (tag_id, content_type, content_id) 唯一索引倒序扫描
+     * @param tagId 标签ID
+     * @param limit 获取数量
+     * @return 帖子ID列表，按ID降序
+     */
+    @Select("SELECT content_id FROM content_tags WHERE tag_id = #{tagId} AND content_type = 'post' " +
+            "ORDER BY content_id DESC LIMIT #{limit}")
+    List<Integer> findRecentPostIdsByTagId(@Param("tagId") Integer tagId, @Param("limit") int limit);
     
     /**
      * 根据标签ID查询与之关联的资源ID列表
@@ -215,4 +228,41 @@ public interface TagRepository {
      */
     @Select("SELECT COUNT(*) FROM tags WHERE type = #{type}")
     int countByType(String type);
+    
+    /**
+     * 批量查询多个内容的标签（一次IN查询）
+     * @param contentType 内容类型(post/resource)
+     * @param contentIds 内容ID列表
+     * @return 内容标签关联列表（含标签详情）
+     */
+    @Select({
+        "<script>",
+        "SELECT ct.content_type, ct.content_id, t.id AS tag_id, t.name AS tag_name,",
+        "t.category AS tag_category, t.type AS tag_type",
+        "FROM content_tags ct JOIN tags t ON t.id = ct.tag_id",
+        "WHERE ct.content_type = #{contentType} AND ct.content_id IN",
+        "<foreach collection='contentIds' item='contentId' open='(' separator=',' close=')'>",
+        "#{contentId}",
+        "</foreach>",
+        "ORDER BY ct.id",
+        "</script>"
+    })
+    List<ContentTag> findContentTags(@Param("contentType") String contentType, @Param("contentIds") Collection<Integer> contentIds);
+    
+    /**
+     * 批量统计多个标签的内容使用数量
+     * @param tagIds 标签ID列表
+     * @return 标签ID与内容数量（未被使用的标签不返回）
+     */
+    @Select({
+        "<script>",
+        "SELECT tag_id AS id, COUNT(*) AS count FROM content_tags",
+        "WHERE tag_id IN",
+        "<foreach collection='tagIds' item='tagId' open='(' separator=',' close=')'>",
+        "#{tagId}",
+        "</foreach>",
+        "GROUP BY tag_id",
+        "</script>"
+    })
+    List<IdCount> countContentByTagIds(@Param("tagIds") Collection<Integer> tagIds);
 } 
\ No newline at end of file
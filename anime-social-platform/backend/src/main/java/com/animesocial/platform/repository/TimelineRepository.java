@@ -0,0 +1,149 @@
+package com.animesocial.platform.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 关注时间线收件箱数据访问接口
+ * 收件箱按 (user_id, post_id) 主键存储，写入均使用 INSERT IGNORE，重复推送同一帖子不会报错；
+ * 未写扩散的作者登记在 timeline_pull_authors 中，读取时合并其帖子
+ */
+@Mapper
+public interface TimelineRepository {
+
+    /**
+     * 把帖子批量写入多个用户的收件箱
+     * @param userIds 收件用户ID列表
+     * @param postId 帖子ID
+     * @param authorId 帖子作者ID
+     * @param createdAt 帖子发布时间
+     * @return 实际写入的记录数
+     */
+    @Insert({
+        "<script>",
+        "INSERT IGNORE INTO timeline_inbox (user_id, post_id, author_id, created_at) VALUES",
+        "<foreach collection='userIds' item='userId' separator=','>",
+        "(#{userId}, #{postId}, #{authorId}, #{createdAt})",
+        "</foreach>",
+        "</script>"
+    })
+    int insertBatch(@Param("userIds") List<Integer> userIds, @Param("postId") Integer postId,
+                    @Param("authorId") Integer authorId, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * 把作者最近的帖子补入用户的收件箱，用于新关注后时间线立即可见对方的帖子
+     * @param userId 收件用户ID
+     * @param authorId 作者ID
+     * @param limit 补入的帖子数量
+     * @return 实际写入的记录数
+     */
+    @Insert("INSERT IGNORE INTO timeline_inbox (user_id, post_id, author_id, created_at) " +
+            "SELECT #{userId}, id, user_id, created_at FROM posts WHERE user_id = #{authorId} ORDER BY id DESC LIMIT #{limit}")
+    int backfill(@Param("userId") Integer userId, @Param("authorId") Integer authorId, @Param("limit") int limit);
+
+    /**
+     * 把作者的帖子补入一批粉丝的收件箱，用于作者从读扩散切回写扩散
+     * @param userIds 粉丝ID列表
+     * @param authorId 作者ID
+     * @param sincePostId 只补入ID不小于此值的帖子
+     * @param limit 每个粉丝最多补入的帖子数量
+     * @return 实际写入的记录数
+     */
+    @Insert({
+        "<script>",
+        "INSERT IGNORE INTO timeline_inbox (user_id, post_id, author_id, created_at)",
+        "SELECT f.user_id, p.id, p.user_id, p.created_at FROM friendships f",
+        "JOIN (SELECT id, user_id, created_at FROM posts WHERE user_id = #{authorId} AND id &gt;= #{sincePostId}",
+        "      ORDER BY id DESC LIMIT #{limit}) p ON p.user_id = f.friend_id",
+        "WHERE f.friend_id = #{authorId} AND f.user_id IN",
+        "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>",
+        "#{userId}",
+        "</foreach>",
+        "</script>"
+    })
+    int backfillFollowers(@Param("userIds") List<Integer> userIds, @Param("authorId") Integer authorId,
+                          @Param("sincePostId") Integer sincePostId, @Param("limit") int limit);
+
+    /**
+     * 登记读扩散作者，已登记时保留原来的起始帖子ID
+     * @param authorId 作者ID
+     * @param sincePostId 第一篇未写扩散的帖子ID
+     */
+    @Insert("INSERT IGNORE INTO timeline_pull_authors (author_id, since_post_id, created_at) VALUES (#{authorId}, #{sincePostId}, NOW())")
+    void markPullAuthor(@Param("authorId") Integer authorId, @Param("sincePostId") Integer sincePostId);
+
+    /**
+     * 查询读扩散作者登记的起始帖子ID
+     * @param authorId 作者ID
+     * @return 起始帖子ID，未登记时返回null
+     */
+    @Select("SELECT since_post_id FROM timeline_pull_authors WHERE author_id = #{authorId}")
+    Integer findPullSincePostId(Integer authorId);
+
+    /**
+     * 移除读扩散作者登记
+     * @param authorId 作者ID
+     */
+    @Delete("DELETE FROM timeline_pull_authors WHERE author_id = #{authorId}")
+    void deletePullAuthor(Integer authorId);
+
+    /**
+     * 获取用户关注的读扩散作者ID列表
+     * @param userId 用户ID
+     * @return 作者ID列表
+     */
+    @Select("SELECT f.friend_id FROM friendships f JOIN timeline_pull_authors a ON a.author_id = f.friend_id " +
+            "WHERE f.user_id = #{userId}")
+    List<Integer> findFollowingPullAuthorIds(Integer userId);
+
+    /**
+     * 按键集分页读取用户收件箱中的帖子ID
+     * @param userId 用户ID
+     * @param beforeId 上一页最后一个帖子ID，第一页传null
+     * @param limit 读取数量
+     * @return 帖子ID列表，按ID降序
+     */
+    @Select({
+        "<script>",
+        "SELECT post_id FROM timeline_inbox WHERE user_id = #{userId}",
+        "<if test='beforeId != null'>AND post_id &lt; #{beforeId}</if>",
+        "ORDER BY post_id DESC LIMIT #{limit}",
+        "</script>"
+    })
+    List<Integer> findPostIds(@Param("userId") Integer userId, @Param("beforeId") Integer beforeId, @Param("limit") int limit);
+
+    /**
+     * 删除收件箱中某个作者的全部帖子，用于取消关注
+     * @param userId 收件用户ID
+     * @param authorId 作者ID
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM timeline_inbox WHERE user_id = #{userId} AND author_id = #{authorId}")
+    int deleteByAuthor(@Param("userId") Integer userId, @Param("authorId") Integer authorId);
+
+    /**
+     * 查找收件箱记录数超过容量的用户
+     * @param capacity 每个用户的收件箱容量
+     * @param limit 最多返回的用户数
+     * @return 用户ID列表
+     */
+    @Select("SELECT user_id FROM timeline_inbox GROUP BY user_id HAVING COUNT(*) > #{capacity} LIMIT #{limit}")
+    List<Integer> findUserIdsOverCapacity(@Param("capacity") int capacity, @Param("limit") int limit);
+
+    /**
+     * 裁剪用户收件箱，删除比第 offset+1 新的记录更早的全部记录，即只保留最新的 offset+1 条
+     * @param userId 用户ID
+     * @param offset 保留的最早一条记录在倒序中的偏移量（收件箱容量减1）
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM timeline_inbox WHERE user_id = #{userId} AND post_id < (" +
+            "SELECT post_id FROM (SELECT post_id FROM timeline_inbox WHERE user_id = #{userId} " +
+            "ORDER BY post_id DESC LIMIT 1 OFFSET #{offset}) AS boundary)")
+    int trim(@Param("userId") Integer userId, @Param("offset") int offset);
+}
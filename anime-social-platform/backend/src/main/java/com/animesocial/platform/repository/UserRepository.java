@@ -1,5 +1,7 @@
 package com.animesocial.platform.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Insert;
@@ -158,6 +160,24 @@ public interface UserRepository {
     @Select("SELECT COUNT(*) FROM users")
     int count();
     
+    /**
+     * 按主键顺序分块读取用户，用于全量重建索引时流式遍历
+     * @param lastId 上一块最后一条记录的ID，第一块传0
+     * @param limit 每块数量
+     * @return ID大于lastId的用户，按ID升序
+     */
+    @Select("SELECT * FROM users WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<User> findAfterId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
+    /**
+     * 按主键顺序分块读取ID大于lastId的用户 ID，用于启动时增量追赶索引
+     * @param lastId 上一块最后一条记录的ID
+     * @param limit 每块数量
+     * @return 用户ID列表，按ID升序
+     */
+    @Select("SELECT id FROM users WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Integer> findIdsAfterId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
     /**
      * 根据用户名或个人简介模糊查询用户
      * 
@@ -170,13 +190,23 @@ public interface UserRepository {
     List<User> findByUsernameOrBioLike(@Param("pattern") String pattern, @Param("offset") int offset, @Param("limit") int limit);
     
     /**
-     * 随机获取指定数量的用户
+     * 查询最近登录过的正常状态用户ID
      * 
+     * @param since 最早登录时间
      * @param limit 限制数量
-     * @return 用户列表
+     * @return 用户ID列表，按最近登录时间降序
+     */
+    @Select("SELECT id FROM users WHERE status = 1 AND last_login_time >= #{since} ORDER BY last_login_time DESC LIMIT #{limit}")
+    List<Integer> findRecentlyActiveIds(@Param("since") LocalDateTime since, @Param("limit") int limit);
+    
+    /**
+     * 查询最新注册的正常状态用户ID
+     * 
+     * @param limit 限制数量
+     * @return 用户ID列表，按ID降序
      */
-    @Select("SELECT * FROM users ORDER BY RAND() LIMIT #{limit}")
-    List<User> findRandomUsers(@Param("limit") int limit);
+    @Select("SELECT id FROM users WHERE status = 1 ORDER BY id DESC LIMIT #{limit}")
+    List<Integer> findNewestIds(@Param("limit") int limit);
     
     /**
      * 获取所有用户ID
@@ -185,4 +215,37 @@ public interface UserRepository {
      */
     @Select("SELECT id FROM users")
     List<Integer> findAllIds();
+    
+    /**
+     * 根据ID列表批量查询用户
+     * 
+     * @param ids 用户ID列表
+     * @return 用户列表（顺序不保证与传入顺序一致）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM users WHERE id IN",
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    List<User> findByIds(@Param("ids") Collection<Integer> ids);
+    
+    /**
+     * 根据ID列表批量查询用户摘要（仅ID、用户名、头像）
+     * 用于在评论、资源、消息等列表中嵌入作者信息，避免加载完整用户数据
+     * 
+     * @param ids 用户ID列表
+     * @return 仅填充了id、username、avatar的用户列表
+     */
+    @Select({
+        "<script>",
+        "SELECT id, username, avatar FROM users WHERE id IN",
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    List<User> findSummariesByIds(@Param("ids") Collection<Integer> ids);
 } 
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.animesocial.platform.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import com.animesocial.platform.model.UserStats;
+
+/**
+ * 用户统计数据访问接口
+ * 计数更新均采用 INSERT ... ON DUPLICATE KEY UPDATE，统计行不存在时自动创建，
+ * 可直接在业务写操作的事务中调用
+ */
+@Mapper
+public interface UserStatsRepository {
+    
+    /**
+     * 根据用户ID查询统计数据
+     * @param userId 用户ID
+     * @return 统计数据，如果不存在则返回null
+     */
+    @Select("SELECT * FROM user_stats WHERE user_id = #{userId}")
+    UserStats findByUserId(Integer userId);
+    
+    /**
+     * 根据用户ID列表批量查询统计数据
+     * @param userIds 用户ID列表
+     * @return 统计数据列表（没有统计行的用户不返回）
+     */
+    @Select({
+        "<script>",
+        "SELECT * FROM user_stats WHERE user_id IN",
+        "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>",
+        "#{userId}",
+        "</foreach>",
+        "</script>"
+    })
+    List<UserStats> findByUserIds(@Param("userIds") Collection<Integer> userIds);
+    
+    /**
+     * 调整用户帖子数量
+     * @param userId 用户ID
+     * @param delta 变化量（正数增加，负数减少）
+     */
+    @Insert("INSERT INTO user_stats (user_id, post_count, updated_at) VALUES (#{userId}, GREATEST(#{delta}, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE post_count = GREATEST(post_count + #{delta}, 0), updated_at = NOW()")
+    void adjustPostCount(@Param("userId") Integer userId, @Param("delta") int delta);
+    
+    /**
+     * 调整用户关注数量
+     * @param userId 用户ID
+     * @param delta 变化量（正数增加，负数减少）
+     */
+    @Insert("INSERT INTO user_stats (user_id, following_count, updated_at) VALUES (#{userId}, GREATEST(#{delta}, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE following_count = GREATEST(following_count + #{delta}, 0), updated_at = NOW()")
+    void adjustFollowingCount(@Param("userId") Integer userId, @Param("delta") int delta);
+    
+    /**
+     * 调整用户粉丝数量
+     * @param userId 用户ID
+     * @param delta 变化量（正数增加，负数减少）
+     */
+    @Insert("INSERT INTO user_stats (user_id, follower_count, updated_at) VALUES (#{userId}, GREATEST(#{delta}, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE follower_count = GREATEST(follower_count + #{delta}, 0), updated_at = NOW()")
+    void adjustFollowerCount(@Param("userId") Integer userId, @Param("delta") int delta);
+    
+    /**
+     * 调整用户收藏数量
+     * @param userId 用户ID
+     * @param delta 变化量（正数增加，负数减少）
+     */
+    @Insert("INSERT INTO user_stats (user_id, favorite_count, updated_at) VALUES (#{userId}, GREATEST(#{delta}, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE favorite_count = GREATEST(favorite_count + #{delta}, 0), updated_at = NOW()")
+    void adjustFavoriteCount(@Param("userId") Integer userId, @Param("delta") int delta);
+    
+    /**
+     * 资源被删除前，为所有收藏了该资源的用户减少收藏数量
+     * @param resourceId 资源ID
+     * @return 影响行数
+     */
+    @Update("UPDATE user_stats s JOIN favorites f ON s.user_id = f.user_id " +
+            "SET s.favorite_count = GREATEST(s.favorite_count - 1, 0), s.updated_at = NOW() " +
+            "WHERE f.resource_id = #{resourceId}")
+    int decrementFavoriteCountByResourceId(Integer resourceId);
+    
+    /**
+     * 根据源表重建ID区间内用户的统计数据（用于定时对账）
+     * @param minId 起始用户ID（包含）
+     * @param maxId 结束用户ID（包含）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO user_stats (user_id, post_count, following_count, follower_count, favorite_count, updated_at) " +
+            "SELECT u.id, " +
+            "(SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id), " +
+            "(SELECT COUNT(*) FROM friendships f WHERE f.user_id = u.id), " +
+            "(SELECT COUNT(*) FROM friendships f WHERE f.friend_id = u.id), " +
+            "(SELECT COUNT(*) FROM favorites fa WHERE fa.user_id = u.id), " +
+            "NOW() " +
+            "FROM users u WHERE u.id BETWEEN #{minId} AND #{maxId} " +
+            "ON DUPLICATE KEY UPDATE post_count = VALUES(post_count), following_count = VALUES(following_count), " +
+            "follower_count = VALUES(follower_count), favorite_count = VALUES(favorite_count), updated_at = NOW()")
+    int rebuildByUserIdRange(@Param("minId") Integer minId, @Param("maxId") Integer maxId);
+    
+    /**
+     * 查询最大用户ID（对账任务的遍历上界）
+     * @return 最大用户ID，没有用户时返回0
+     */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM users")
+    int findMaxUserId();
+    
+    /**
+     * 查询粉丝数最多的正常状态用户ID
+     * @param limit 限制数量
+     * @return 用户ID列表，按粉丝数降序
+     */
+    @Select("SELECT s.user_id FROM user_stats s JOIN users u ON u.id = s.user_id " +
+            "WHERE u.status = 1 AND s.follower_count > 0 " +
+            "ORDER BY s.follower_count DESC LIMIT #{limit}")
+    List<Integer> findTopFollowedUserIds(@Param("limit") int limit);
+}
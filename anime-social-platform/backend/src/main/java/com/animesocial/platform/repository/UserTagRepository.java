@@ -1,5 +1,6 @@
 package com.animesocial.platform.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -123,6 +124,23 @@ public interface UserTagRepository {
     @Select("SELECT user_id FROM user_tags WHERE tag_id = #{tagId}")
     List<Integer> findUserIdsByTagId(Integer tagId);
     
+    /**
+     * 查询用户关联的标签ID
+     * @param userId 用户ID
+     * @return 标签ID列表
+     */
+    @Select("SELECT tag_id FROM user_tags WHERE user_id = #{userId}")
+    List<Integer> findTagIdsByUserId(Integer userId);
+    
+    /**
+     * 按主键顺序分块读取用户标签关联，用于全量构建标签倒排索引
+     * @param lastId 上一块最后一条记录的ID，第一块传0
+     * @param limit 每块数量
+     * @return ID大于lastId的关联记录（只包含id、user_id、tag_id），按ID升序
+     */
+    @Select("SELECT id, user_id, tag_id FROM user_tags WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<UserTag> findAfterId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
+    
     /**
      * 统计使用某标签的用户数量
      * 
@@ -143,4 +161,31 @@ public interface UserTagRepository {
         @Result(property = "count", column = "user_count")
     })
     List<Map<String, Object>> getTagUsageStats();
+    
+    /**
+     * 批量获取多个用户的标签关联信息
+     * 
+     * @param userIds 用户ID列表
+     * @return 用户标签关联信息列表
+     */
+    @Select({
+        "<script>",
+        "SELECT ut.id, ut.user_id, ut.tag_id, ut.created_at, t.name, t.category, t.type",
+        "FROM user_tags ut JOIN tags t ON ut.tag_id = t.id",
+        "WHERE ut.user_id IN",
+        "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>",
+        "#{userId}",
+        "</foreach>",
+        "</script>"
+    })
+    @Results({
+        @Result(property = "id", column = "id"),
+        @Result(property = "userId", column = "user_id"),
+        @Result(property = "tagId", column = "tag_id"),
+        @Result(property = "createdAt", column = "created_at"),
+        @Result(property = "tagName", column = "name"),
+        @Result(property = "tagCategory", column = "category"),
+        @Result(property = "tagType", column = "type")
+    })
+    List<UserTag> findDetailsByUserIds(@Param("userIds") Collection<Integer> userIds);
 } 
\ No newline at end of file
@@ -16,22 +16,6 @@ import com.animesocial.platform.model.es.PostDocument;
 @Repository
 public interface PostDocumentRepository extends ElasticsearchRepository<PostDocument, Integer> {
 
-    /**
-     * 根据标题或内容搜索帖子
-     * @param keyword 关键词
-     * @param pageable 分页参数
-     * @return 搜索结果
-     */
-    @Query("""
-        {
-            "multi_match": {
-                "query": "?0",
-                "fields": ["title", "content"]
-            }
-        }
-        """)
-    Page<PostDocument> findByTitleOrContentOrderByCreateTimeDesc(String keyword, Pageable pageable);
-
     /**
      * 根据标签搜索帖子
      * @param tag 标签名
@@ -14,22 +14,6 @@ import com.animesocial.platform.model.es.ResourceDocument;
 @Repository
 public interface ResourceDocumentRepository extends ElasticsearchRepository<ResourceDocument, Integer> {
 
-    /**
-     * 根据标题或描述搜索资源
-     * @param keyword 关键词
-     * @param pageable 分页参数
-     * @return 搜索结果
-     */
-    @Query("""
-        {
-            "multi_match": {
-                "query": "?0",
-                "fields": ["title", "description"]
-            }
-        }
-        """)
-    Page<ResourceDocument> findByTitleOrDescriptionOrderByUploadTimeDesc(String keyword, Pageable pageable);
-
     /**
      * 根据标签搜索资源
      * @param tag 标签名
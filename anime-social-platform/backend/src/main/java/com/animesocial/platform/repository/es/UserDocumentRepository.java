@@ -14,22 +14,6 @@ import com.animesocial.platform.model.es.UserDocument;
 @Repository
 public interface UserDocumentRepository extends ElasticsearchRepository<UserDocument, Integer> {
 
-    /**
-     * 根据用户名或个人简介搜索用户
-     * @param keyword 关键词
-     * @param pageable 分页参数
-     * @return 搜索结果
-     */
-    @Query("""
-        {
-            "multi_match": {
-                "query": "?0",
-                "fields": ["username", "bio"]
-            }
-        }
-        """)
-    Page<UserDocument> findByUsernameOrBioOrderByCreateTimeDesc(String keyword, Pageable pageable);
-
     /**
      * 根据标签搜索用户
      * @param tag 标签名
@@ -0,0 +1,25 @@
+package com.animesocial.platform.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 活跃用户池服务接口
+ * 在内存中维护定期刷新的活跃用户池，为没有兴趣标签的用户提供冷启动推荐
+ */
+public interface ActiveUserPoolService {
+
+    /**
+     * 从活跃用户池中随机抽取用户
+     * @param count 抽取数量
+     * @param excludeUserIds 需要排除的用户ID（如用户本人和已关注的用户）
+     * @return 随机用户ID列表，池中可选用户不足时返回全部可选用户
+     */
+    List<Integer> sample(int count, Collection<Integer> excludeUserIds);
+
+    /**
+     * 从数据库重新加载活跃用户池
+     * @return 池中的用户数量
+     */
+    int refresh();
+}
@@ -1,6 +1,7 @@
 package com.animesocial.platform.service;
 
 import com.animesocial.platform.model.dto.CommentDTO;
+import com.animesocial.platform.model.dto.CommentListResponse;
 import com.animesocial.platform.model.dto.CreateCommentRequest;
 
 import java.util.List;
@@ -25,6 +26,17 @@ public interface CommentService {
      */
     List<CommentDTO> getCommentsByPostId(Integer postId);
     
+    /**
+     * 分页获取帖子的评论
+     * 按一级评论分页，每条一级评论最多内联replyLimit条直接回复
+     * @param postId 帖子ID
+     * @param page 页码
+     * @param size 每页一级评论数量
+     * @param replyLimit 每条一级评论内联的回复数量
+     * @return 评论列表及一级评论总数
+     */
+    CommentListResponse getCommentThreads(Integer postId, int page, int size, int replyLimit);
+    
     /**
      * 获取用户的评论列表
      * @param userId 用户ID
@@ -53,6 +65,12 @@ public interface CommentService {
      */
     Integer getCommentCountByPostId(Integer postId);
     
+    /**
+     * 根据评论表对账帖子评论数和评论回复数
+     * @return 修正的行数
+     */
+    int reconcileCounts();
+    
     /**
      * 检查是否是回复评论
      * @param id 评论ID
@@ -0,0 +1,28 @@
+package com.animesocial.platform.service;
+
+/**
+ * 计数缓冲服务接口
+ * 在内存中累积帖子浏览量、资源下载量等高频计数，定期合并后批量写回数据库，
+ * 避免热点数据每次访问都争抢同一行的行锁
+ */
+public interface CounterBufferService {
+    
+    /**
+     * 记录一次帖子浏览
+     * @param postId 帖子ID
+     */
+    void incrementPostView(Integer postId);
+    
+    /**
+     * 记录一次资源下载
+     * @param resourceId 资源ID
+     */
+    void incrementResourceDownload(Integer resourceId);
+    
+    /**
+     * 将缓冲中的计数增量批量写回数据库
+     * 由定时任务和应用关闭时调用
+     * @return 本次写回的增量总数
+     */
+    long flush();
+}
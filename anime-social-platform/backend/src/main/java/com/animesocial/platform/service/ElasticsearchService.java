@@ -1,9 +1,14 @@
 package com.animesocial.platform.service;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 
+import com.animesocial.platform.model.Post;
+import com.animesocial.platform.model.Resource;
+import com.animesocial.platform.model.User;
+import com.animesocial.platform.model.dto.SearchPages;
 import com.animesocial.platform.model.es.PostDocument;
 import com.animesocial.platform.model.es.ResourceDocument;
 import com.animesocial.platform.model.es.UserDocument;
@@ -21,44 +26,41 @@ public interface ElasticsearchService {
 
     /**
      * 重建所有索引
+     * 在后台异步执行，进度通过 EsReindexService 查询
      */
     void rebuildIndices();
 
     /**
-     * 同步单个帖子到ES
-     * @param postId 帖子ID
+     * 批量同步一类实体到ES
+     * 按ID批量重建文档并通过_bulk请求写入，数据库中已不存在的实体从ES删除。
+     * 写入失败时直接抛出异常，由调用方负责重试。
+     * 业务代码不应直接调用，而是通过 EsOutboxService 登记变更，由发件箱任务批量同步
+     * @param entityType 实体类型（post/resource/user）
+     * @param upsertIds 需要新建或更新文档的实体ID
+     * @param deleteIds 需要删除文档的实体ID
      */
-    void syncPostToEs(Integer postId);
+    void bulkSync(String entityType, Collection<Integer> upsertIds, Collection<Integer> deleteIds);
 
     /**
-     * 同步单个资源到ES
-     * @param resourceId 资源ID
+     * 批量构建帖子文档，作者与标签按批加载
+     * @param posts 帖子列表
+     * @return 帖子文档列表
      */
-    void syncResourceToEs(Integer resourceId);
+    List<PostDocument> buildPostDocuments(List<Post> posts);
 
     /**
-     * 同步单个用户到ES
-     * @param userId 用户ID
+     * 批量构建资源文档，作者与标签按批加载
+     * @param resources 资源列表
+     * @return 资源文档列表
      */
-    void syncUserToEs(Integer userId);
+    List<ResourceDocument> buildResourceDocuments(List<Resource> resources);
 
     /**
-     * 从ES中删除帖子
-     * @param postId 帖子ID
+     * 批量构建用户文档，用户标签按批加载
+     * @param users 用户列表
+     * @return 用户文档列表
      */
-    void deletePostFromEs(Integer postId);
-
-    /**
-     * 从ES中删除资源
-     * @param resourceId 资源ID
-     */
-    void deleteResourceFromEs(Integer resourceId);
-
-    /**
-     * 从ES中删除用户
-     * @param userId 用户ID
-     */
-    void deleteUserFromEs(Integer userId);
+    List<UserDocument> buildUserDocuments(List<User> users);
 
     /**
      * 搜索帖子
@@ -87,6 +89,16 @@ public interface ElasticsearchService {
      */
     Page<UserDocument> searchUsers(String keyword, Integer page, Integer size);
 
+    /**
+     * 并行搜索帖子、资源和用户
+     * 三类查询同时发出并共用一个超时时间，超时或失败的类型返回空页，其余类型照常返回
+     * @param keyword 关键词
+     * @param page 页码
+     * @param size 每页大小
+     * @return 各类型的分页结果
+     */
+    SearchPages searchAllTypes(String keyword, Integer page, Integer size);
+
     /**
      * 全文搜索（帖子、资源、用户）
      * @param keyword 关键词
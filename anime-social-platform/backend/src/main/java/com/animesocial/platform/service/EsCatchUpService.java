@@ -0,0 +1,29 @@
+package com.animesocial.platform.service;
+
+import java.util.Map;
+
+/**
+ * ES启动追赶服务接口
+ * 应用就绪后在后台把停机期间新增或修改的数据同步到ElasticSearch，
+ * 追赶完成前搜索结果可能不完整
+ */
+public interface EsCatchUpService {
+    
+    /**
+     * 执行一次追赶
+     * 索引或同步水位不存在时执行全量重建，否则只同步水位之后新增的实体和修改过的帖子
+     */
+    void catchUp();
+    
+    /**
+     * 追赶是否已完成
+     * @return 完成返回true
+     */
+    boolean isCaughtUp();
+    
+    /**
+     * 获取追赶状态，用于健康检查展示
+     * @return 状态信息
+     */
+    Map<String, Object> getStatus();
+}
@@ -0,0 +1,36 @@
+package com.animesocial.platform.service;
+
+/**
+ * ES同步发件箱服务接口
+ * 业务写操作只需在事务内登记变更，由后台任务批量同步到ElasticSearch，
+ * 请求线程不再等待ES，ES不可用时变更也会保留到恢复后再同步
+ */
+public interface EsOutboxService {
+    
+    /**
+     * 登记实体新增或更新
+     * @param entityType 实体类型（post/resource/user）
+     * @param entityId 实体ID
+     */
+    void enqueueUpsert(String entityType, Integer entityId);
+    
+    /**
+     * 登记实体删除
+     * @param entityType 实体类型（post/resource/user）
+     * @param entityId 实体ID
+     */
+    void enqueueDelete(String entityType, Integer entityId);
+    
+    /**
+     * 登记带有指定标签的所有实体，用于标签改名或删除后刷新文档
+     * @param tagId 标签ID
+     */
+    void enqueueByTag(Integer tagId);
+    
+    /**
+     * 处理一批到期的同步记录
+     * 同一实体的多条记录合并为一次同步，每类实体发送一次批量请求
+     * @return 本批处理的记录数
+     */
+    int drain();
+}
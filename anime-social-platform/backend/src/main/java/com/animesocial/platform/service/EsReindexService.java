@@ -0,0 +1,39 @@
+package com.animesocial.platform.service;
+
+import java.util.Collection;
+
+import com.animesocial.platform.model.dto.ReindexProgress;
+
+/**
+ * ES索引重建服务接口
+ * 按主键分块流式读取数据，并行批量写入新版本索引，完成后原子切换别名
+ */
+public interface EsReindexService {
+    
+    /**
+     * 在后台启动全量重建
+     * @return 启动时的进度
+     * @throws com.animesocial.platform.exception.BusinessException 已有重建任务在运行
+     */
+    ReindexProgress startReindex();
+    
+    /**
+     * 在当前线程执行全量重建，完成后返回
+     * @throws com.animesocial.platform.exception.BusinessException 已有重建任务在运行
+     */
+    void reindexNow();
+    
+    /**
+     * 获取当前（或最近一次）重建进度
+     * @return 进度快照
+     */
+    ReindexProgress getProgress();
+    
+    /**
+     * 记录增量同步涉及的实体，重建期间这些实体会在切换别名前后补写到新索引
+     * 调用方必须在读取数据库和写入索引之前调用，否则切换别名前后的写入可能丢失
+     * @param entityType 实体类型（post/resource/user）
+     * @param entityIds 实体ID
+     */
+    void recordChange(String entityType, Collection<Integer> entityIds);
+}
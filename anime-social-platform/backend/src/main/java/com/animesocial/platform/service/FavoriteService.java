@@ -1,6 +1,8 @@
 package com.animesocial.platform.service;
 
 import com.animesocial.platform.model.Favorite;
+import com.animesocial.platform.model.dto.CursorPage;
+import com.animesocial.platform.model.dto.ResourceDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
 
 /**
@@ -38,6 +40,7 @@ public interface FavoriteService {
     
     /**
      * 获取用户收藏列表
+     * 只返回最近收藏的一页（最多100条），总数为全部收藏数
      * 
      * @param userId 用户ID
      * @return 收藏DTO列表
@@ -54,6 +57,17 @@ public interface FavoriteService {
      */
     ResourceListResponse getUserFavoritesWithPagination(Integer userId, Integer page, Integer size);
     
+    /**
+     * 按游标获取用户收藏列表
+     * 翻页开销与页码无关
+     * 
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 收藏列表和下一页游标
+     */
+    CursorPage<ResourceDTO> getUserFavoritesByCursor(Integer userId, String cursor, Integer size);
+    
     /**
      * 获取资源被收藏次数
      * 
@@ -0,0 +1,31 @@
+package com.animesocial.platform.service;
+
+import java.util.List;
+
+/**
+ * 热门排行服务接口
+ * 定时计算帖子与资源随时间衰减的热度分数，在内存中保存全站及各标签的热门排行快照
+ */
+public interface HotRankingService {
+
+    /**
+     * 获取热门帖子ID
+     * @param tagId 标签ID，为null表示全站排行
+     * @param limit 获取数量
+     * @return 帖子ID列表，按热度降序
+     */
+    List<Integer> getHotPostIds(Integer tagId, int limit);
+
+    /**
+     * 获取热门资源ID
+     * @param tagId 标签ID，为null表示全站排行
+     * @param limit 获取数量
+     * @return 资源ID列表，按热度降序
+     */
+    List<Integer> getHotResourceIds(Integer tagId, int limit);
+
+    /**
+     * 重新计算全部热门排行
+     */
+    void recompute();
+}
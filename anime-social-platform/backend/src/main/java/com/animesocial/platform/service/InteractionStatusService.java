@@ -0,0 +1,54 @@
+package com.animesocial.platform.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 互动状态服务接口
+ * 批量判断当前用户是否已点赞、收藏列表中的内容，供列表接口设置 isLiked / isFavorited，
+ * 一页内容只需一次查询（或直接命中缓存），不再每条内容查询一次
+ */
+public interface InteractionStatusService {
+
+    /**
+     * 在给定帖子中查询用户已点赞的帖子
+     * @param userId 用户ID，为null时返回空集合
+     * @param postIds 帖子ID列表
+     * @return 已点赞的帖子ID集合
+     */
+    Set<Integer> getLikedPostIds(Integer userId, Collection<Integer> postIds);
+
+    /**
+     * 在给定资源中查询用户已点赞的资源
+     * @param userId 用户ID，为null时返回空集合
+     * @param resourceIds 资源ID列表
+     * @return 已点赞的资源ID集合
+     */
+    Set<Integer> getLikedResourceIds(Integer userId, Collection<Integer> resourceIds);
+
+    /**
+     * 在给定资源中查询用户已收藏的资源
+     * @param userId 用户ID，为null时返回空集合
+     * @param resourceIds 资源ID列表
+     * @return 已收藏的资源ID集合
+     */
+    Set<Integer> getFavoritedResourceIds(Integer userId, Collection<Integer> resourceIds);
+
+    /**
+     * 用户点赞或取消点赞帖子后调用，失效该用户的帖子点赞缓存
+     * @param userId 用户ID
+     */
+    void evictPostLikes(Integer userId);
+
+    /**
+     * 用户点赞或取消点赞资源后调用，失效该用户的资源点赞缓存
+     * @param userId 用户ID
+     */
+    void evictResourceLikes(Integer userId);
+
+    /**
+     * 用户收藏或取消收藏资源后调用，失效该用户的收藏缓存
+     * @param userId 用户ID
+     */
+    void evictFavorites(Integer userId);
+}
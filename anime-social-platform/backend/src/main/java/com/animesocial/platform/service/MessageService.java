@@ -3,6 +3,7 @@ package com.animesocial.platform.service;
 import java.util.List;
 
 import com.animesocial.platform.model.Message;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.MessageDTO;
 
 /**
@@ -52,6 +53,37 @@ public interface MessageService {
      */
     List<MessageDTO> getChatHistory(Integer userId, Integer friendId, Integer page, Integer size);
     
+    /**
+     * 按游标获取用户的收件箱消息
+     * 
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 收件箱消息列表和下一页游标
+     */
+    CursorPage<MessageDTO> getInboxMessagesByCursor(Integer userId, String cursor, Integer size);
+    
+    /**
+     * 按游标获取用户的发件箱消息
+     * 
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 发件箱消息列表和下一页游标
+     */
+    CursorPage<MessageDTO> getOutboxMessagesByCursor(Integer userId, String cursor, Integer size);
+    
+    /**
+     * 按游标获取与指定用户的聊天记录
+     * 
+     * @param userId 当前用户ID
+     * @param friendId 聊天对象用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 聊天记录列表和下一页游标
+     */
+    CursorPage<MessageDTO> getChatHistoryByCursor(Integer userId, Integer friendId, String cursor, Integer size);
+    
     /**
      * 标记消息为已读
      * 
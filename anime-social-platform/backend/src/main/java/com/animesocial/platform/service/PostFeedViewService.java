@@ -0,0 +1,47 @@
+package com.animesocial.platform.service;
+
+import java.util.Collection;
+
+/**
+ * 帖子列表读模型服务接口
+ * 业务写操作只需在事务内登记受影响的帖子，由后台任务从源表重算 post_feed_view，
+ * 列表接口直接读取读模型，不再为每页分别查询作者、标签和计数
+ */
+public interface PostFeedViewService {
+
+    /**
+     * 登记需要重算的帖子
+     * @param postId 帖子ID
+     */
+    void markPostDirty(Integer postId);
+
+    /**
+     * 批量登记需要重算的帖子
+     * @param postIds 帖子ID列表
+     */
+    void markPostsDirty(Collection<Integer> postIds);
+
+    /**
+     * 登记用户发布的全部帖子，用于作者信息变化
+     * @param userId 用户ID
+     */
+    void markAuthorDirty(Integer userId);
+
+    /**
+     * 登记带有指定标签的全部帖子，用于标签改名
+     * @param tagId 标签ID
+     */
+    void markTagDirty(Integer tagId);
+
+    /**
+     * 重算一批已登记的帖子
+     * @return 本批处理的帖子数
+     */
+    int drain();
+
+    /**
+     * 补齐历史帖子的摘要，并登记读模型中缺失的帖子，交由后台任务补齐
+     * @return 登记的帖子数
+     */
+    int catchUp();
+}
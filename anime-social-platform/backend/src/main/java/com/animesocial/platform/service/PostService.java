@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.animesocial.platform.model.dto.CreatePostRequest;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.PostDTO;
 import com.animesocial.platform.model.dto.PostListResponse;
 
@@ -16,18 +17,20 @@ public interface PostService {
     /**
      * 根据ID获取帖子
      * @param id 帖子ID
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 帖子详情
      */
-    PostDTO getPostById(Integer id);
+    PostDTO getPostById(Integer id, Integer currentUserId);
     
     /**
      * 分页获取用户的帖子列表
      * @param userId 用户ID
      * @param page 页码
      * @param size 每页数量
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 帖子列表
      */
-    List<PostDTO> getPostsByUserId(Integer userId, Integer page, Integer size);
+    List<PostDTO> getPostsByUserId(Integer userId, Integer page, Integer size, Integer currentUserId);
     
     /**
      * 分页获取帖子列表
@@ -35,9 +38,53 @@ public interface PostService {
      * @param size 每页数量
      * @param tagId 标签ID（可选）
      * @param sort 排序方式（latest/views/likes）
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 帖子列表和总数
      */
-    PostListResponse getAllPosts(Integer page, Integer size, Integer tagId, String sort);
+    PostListResponse getAllPosts(Integer page, Integer size, Integer tagId, String sort, Integer currentUserId);
+
+    /**
+     * 分页获取所有帖子（管理后台）
+     * 返回完整正文，不设置点赞状态
+     * @param page 页码
+     * @param size 每页数量
+     * @param tagId 标签ID（可选）
+     * @param sort 排序方式（latest/views/likes）
+     * @return 帖子列表和总数
+     */
+    PostListResponse getAllPostsForAdmin(Integer page, Integer size, Integer tagId, String sort);
+    
+    /**
+     * 按游标获取帖子列表
+     * 翻页开销与页码无关，适用于无限滚动的信息流
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @param tagId 标签ID（可选）
+     * @param sort 排序方式（latest/views/likes）
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
+     * @return 帖子列表和下一页游标
+     */
+    CursorPage<PostDTO> getPostsByCursor(String cursor, Integer size, Integer tagId, String sort, Integer currentUserId);
+
+    /**
+     * 按游标获取关注时间线
+     * 返回当前用户关注的人发布的帖子，按发布顺序倒序
+     * @param userId 当前用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 帖子列表和下一页游标
+     */
+    CursorPage<PostDTO> getFollowingTimeline(Integer userId, String cursor, Integer size);
+
+    /**
+     * 按游标获取"我的标签"信息流
+     * 返回当前用户关注的标签下的帖子，按发布顺序倒序
+     * @param userId 当前用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 帖子列表和下一页游标
+     */
+    CursorPage<PostDTO> getTagFeed(Integer userId, String cursor, Integer size);
     
     /**
      * 创建帖子
@@ -51,9 +98,10 @@ public interface PostService {
      * 更新帖子
      * @param id 帖子ID
      * @param request 更新帖子请求
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 更新后的帖子
      */
-    PostDTO updatePost(Integer id, CreatePostRequest request);
+    PostDTO updatePost(Integer id, CreatePostRequest request, Integer currentUserId);
     
     /**
      * 删除帖子
@@ -62,22 +110,22 @@ public interface PostService {
     void deletePost(Integer id);
     
     /**
-     * 点赞帖子
+     * 点赞帖子，重复点赞不会重复计数
      * @param postId 帖子ID
      * @param userId 用户ID
-     * @return 操作结果描述
-     * @throws RuntimeException 如果帖子不存在或已点赞
+     * @return 点赞后的点赞数
+     * @throws RuntimeException 如果帖子不存在
      */
-    String likePost(Integer postId, Integer userId);
+    Integer likePost(Integer postId, Integer userId);
     
     /**
-     * 取消点赞
+     * 取消点赞，未点赞时不会重复扣减
      * @param postId 帖子ID
      * @param userId 用户ID
-     * @return 操作结果描述
-     * @throws RuntimeException 如果帖子不存在或未点赞
+     * @return 取消点赞后的点赞数
+     * @throws RuntimeException 如果帖子不存在
      */
-    String unlikePost(Integer postId, Integer userId);
+    Integer unlikePost(Integer postId, Integer userId);
     
     /**
      * 检查用户是否已点赞帖子
@@ -98,6 +146,7 @@ public interface PostService {
     
     /**
      * 增加帖子浏览量
+     * 浏览量先计入内存缓冲，每隔几秒批量写回数据库
      * @param postId 帖子ID
      * @throws RuntimeException 如果帖子不存在
      */
@@ -113,18 +162,30 @@ public interface PostService {
     
     /**
      * 获取置顶帖子列表
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 置顶帖子列表
      */
-    List<PostDTO> getTopPosts();
+    List<PostDTO> getTopPosts(Integer currentUserId);
     
     /**
      * 搜索帖子
      * @param keyword 搜索关键词
      * @param page 页码
      * @param size 每页大小
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
+     * @return 匹配的帖子列表和总数
+     */
+    PostListResponse searchPosts(String keyword, Integer page, Integer size, Integer currentUserId);
+
+    /**
+     * 搜索帖子（管理后台）
+     * 返回完整正文，不设置点赞状态
+     * @param keyword 搜索关键词
+     * @param page 页码
+     * @param size 每页大小
      * @return 匹配的帖子列表和总数
      */
-    PostListResponse searchPosts(String keyword, Integer page, Integer size);
+    PostListResponse searchPostsForAdmin(String keyword, Integer page, Integer size);
     
     /**
      * 获取帖子总数
@@ -135,14 +196,18 @@ public interface PostService {
     /**
      * 根据ID列表批量查询帖子
      * @param ids 帖子ID列表
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 帖子列表
      */
-    List<PostDTO> findByIds(List<Integer> ids);
+    List<PostDTO> findByIds(List<Integer> ids, Integer currentUserId);
     
     /**
      * 获取热门帖子
+     * 读取定时计算的热门排行快照
      * @param limit 获取数量，默认为12
+     * @param tagId 标签ID（可选），为null表示全站排行
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 热门帖子列表
      */
-    PostListResponse getHotPosts(Integer limit);
+    PostListResponse getHotPosts(Integer limit, Integer tagId, Integer currentUserId);
 } 
\ No newline at end of file
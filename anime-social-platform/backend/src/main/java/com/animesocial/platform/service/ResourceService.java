@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.ResourceDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
 
@@ -16,9 +17,10 @@ public interface ResourceService {
     /**
      * 根据ID获取资源
      * @param id 资源ID
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 资源详情
      */
-    ResourceDTO getResourceById(Integer id);
+    ResourceDTO getResourceById(Integer id, Integer currentUserId);
     
     /**
      * 分页获取用户上传的资源列表
@@ -35,9 +37,22 @@ public interface ResourceService {
      * @param size 每页数量
      * @param tagId 标签ID（可选）
      * @param sort 排序方式（latest/downloads/likes）
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 资源列表和总数
      */
-    ResourceListResponse getAllResources(Integer page, Integer size, Integer tagId, String sort);
+    ResourceListResponse getAllResources(Integer page, Integer size, Integer tagId, String sort, Integer currentUserId);
+    
+    /**
+     * 按游标获取资源列表
+     * 翻页开销与页码无关，适用于无限滚动的信息流
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @param tagId 标签ID（可选）
+     * @param sort 排序方式（latest/downloads/likes）
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
+     * @return 资源列表和下一页游标
+     */
+    CursorPage<ResourceDTO> getResourcesByCursor(String cursor, Integer size, Integer tagId, String sort, Integer currentUserId);
     
     /**
      * 上传资源
@@ -68,9 +83,10 @@ public interface ResourceService {
      * @param title 资源标题
      * @param description 资源描述（可选）
      * @param tagIds 标签ID列表（可选）
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 更新后的资源信息
      */
-    ResourceDTO updateResource(Integer id, String title, String description, List<Integer> tagIds);
+    ResourceDTO updateResource(Integer id, String title, String description, List<Integer> tagIds, Integer currentUserId);
     
     /**
      * 删除资源
@@ -88,6 +104,7 @@ public interface ResourceService {
     
     /**
      * 增加资源下载计数
+     * 下载量先计入内存缓冲，每隔几秒批量写回数据库
      * @param resourceId 资源ID
      */
     void incrementDownloadCount(Integer resourceId);
@@ -97,9 +114,10 @@ public interface ResourceService {
      * @param keyword 搜索关键词
      * @param page 页码
      * @param size 每页大小
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 匹配的资源列表和总数
      */
-    ResourceListResponse searchResources(String keyword, Integer page, Integer size);
+    ResourceListResponse searchResources(String keyword, Integer page, Integer size, Integer currentUserId);
     
     /**
      * 获取资源总数
@@ -108,22 +126,22 @@ public interface ResourceService {
     int countResources();
     
     /**
-     * 点赞资源
+     * 点赞资源，重复点赞不会重复计数
      * @param resourceId 资源ID
      * @param userId 用户ID
-     * @return 操作结果描述
-     * @throws RuntimeException 如果资源不存在或已点赞
+     * @return 点赞后的点赞数
+     * @throws RuntimeException 如果资源不存在
      */
-    String likeResource(Integer resourceId, Integer userId);
+    Integer likeResource(Integer resourceId, Integer userId);
     
     /**
-     * 取消点赞
+     * 取消点赞，未点赞时不会重复扣减
      * @param resourceId 资源ID
      * @param userId 用户ID
-     * @return 操作结果描述
-     * @throws RuntimeException 如果资源不存在或未点赞
+     * @return 取消点赞后的点赞数
+     * @throws RuntimeException 如果资源不存在
      */
-    String unlikeResource(Integer resourceId, Integer userId);
+    Integer unlikeResource(Integer resourceId, Integer userId);
     
     /**
      * 检查用户是否已点赞资源
@@ -142,12 +160,33 @@ public interface ResourceService {
      */
     ResourceListResponse getLikedResources(Integer userId, Integer page, Integer size);
     
+    /**
+     * 按游标获取用户点赞的资源列表
+     * 翻页开销与页码无关，点赞数量很多的用户也不会全量加载
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 资源列表和下一页游标
+     */
+    CursorPage<ResourceDTO> getLikedResourcesByCursor(Integer userId, String cursor, Integer size);
+    
+    /**
+     * 获取用户收藏的资源列表
+     * 收藏与资源在数据库中联表分页，额外信息批量补充
+     * @param userId 用户ID
+     * @param page 页码
+     * @param size 每页数量
+     * @return 资源列表和收藏总数
+     */
+    ResourceListResponse getFavoritedResources(Integer userId, Integer page, Integer size);
+    
     /**
      * 根据ID列表批量查询资源
      * @param ids 资源ID列表
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 资源列表
      */
-    List<ResourceDTO> findByIds(List<Integer> ids);
+    List<ResourceDTO> findByIds(List<Integer> ids, Integer currentUserId);
     
     /**
      * 使用已上传的文件路径创建资源
@@ -163,8 +202,11 @@ public interface ResourceService {
     
     /**
      * 获取热门资源
+     * 读取定时计算的热门排行快照
      * @param limit 获取数量，默认为12
+     * @param tagId 标签ID（可选），为null表示全站排行
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 热门资源列表
      */
-    ResourceListResponse getHotResources(Integer limit);
+    ResourceListResponse getHotResources(Integer limit, Integer tagId, Integer currentUserId);
 } 
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.animesocial.platform.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 标签订阅信息流服务接口
+ * 在内存中为每个帖子标签保存最近的帖子ID列表，按用户关注的标签归并生成"我的标签"信息流
+ */
+public interface TagFeedService {
+
+    /**
+     * 按键集分页获取用户关注标签下的帖子ID
+     * 多个标签下的同一帖子只返回一次
+     * @param userId 用户ID
+     * @param beforeId 上一页最后一个帖子ID，第一页传null
+     * @param limit 获取数量
+     * @return 帖子ID列表，按ID降序
+     */
+    List<Integer> getPostIds(Integer userId, Integer beforeId, int limit);
+
+    /**
+     * 帖子标签变化后更新各标签的帖子列表
+     * @param postId 帖子ID
+     * @param removedTagIds 移除的标签ID
+     * @param addedTagIds 新增的标签ID
+     */
+    void onPostTagsChanged(Integer postId, Collection<Integer> removedTagIds, Collection<Integer> addedTagIds);
+
+    /**
+     * 从数据库重新加载全部标签的帖子列表
+     */
+    void rebuild();
+}
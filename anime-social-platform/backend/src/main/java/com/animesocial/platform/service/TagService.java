@@ -3,7 +3,9 @@ package com.animesocial.platform.service;
 import com.animesocial.platform.model.Tag;
 import com.animesocial.platform.model.dto.TagDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 标签服务接口
@@ -78,6 +80,20 @@ public interface TagService {
      */
     List<TagDTO> getResourceTags(Integer resourceId);
     
+    /**
+     * 批量获取多个帖子的标签
+     * @param postIds 帖子ID列表
+     * @return 帖子ID到标签列表的映射，没有标签的帖子对应空列表
+     */
+    Map<Integer, List<TagDTO>> getPostTagsMap(Collection<Integer> postIds);
+    
+    /**
+     * 批量获取多个资源的标签
+     * @param resourceIds 资源ID列表
+     * @return 资源ID到标签列表的映射，没有标签的资源对应空列表
+     */
+    Map<Integer, List<TagDTO>> getResourceTagsMap(Collection<Integer> resourceIds);
+    
     /**
      * 更新帖子标签
      * @param postId 帖子ID
@@ -135,6 +151,13 @@ public interface TagService {
      */
     TagDTO convertToDTO(Tag tag);
     
+    /**
+     * 批量将Tag实体转换为DTO，标签使用次数通过一次分组查询获取
+     * @param tags Tag实体列表
+     * @return TagDTO列表
+     */
+    List<TagDTO> convertToDTOList(List<Tag> tags);
+    
     /**
      * 将TagDTO转换为Tag实体
      * @param tagDTO TagDTO对象
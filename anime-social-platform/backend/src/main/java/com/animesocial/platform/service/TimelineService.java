@@ -0,0 +1,50 @@
+package com.animesocial.platform.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 关注时间线服务接口
+ * 普通作者发帖时把帖子写入粉丝的收件箱（写扩散），发帖时粉丝数超过阈值的作者登记为读扩散作者，在读取时合并其帖子
+ */
+public interface TimelineService {
+
+    /**
+     * 把新帖子推送到作者所有粉丝的收件箱
+     * 粉丝数超过阈值的作者不推送，改为登记为读扩散作者；已登记的作者回落到阈值以内时补推登记以来的帖子并移除登记
+     * @param postId 帖子ID
+     * @param authorId 作者ID
+     * @param createdAt 发布时间
+     */
+    void fanOut(Integer postId, Integer authorId, LocalDateTime createdAt);
+
+    /**
+     * 按键集分页获取用户关注时间线中的帖子ID
+     * 合并收件箱与已登记读扩散作者的帖子，去重后按ID降序
+     * @param userId 用户ID
+     * @param beforeId 上一页最后一个帖子ID，第一页传null
+     * @param limit 获取数量
+     * @return 帖子ID列表，按ID降序
+     */
+    List<Integer> getTimelinePostIds(Integer userId, Integer beforeId, int limit);
+
+    /**
+     * 关注后把对方最近的帖子补入收件箱
+     * @param userId 用户ID
+     * @param authorId 被关注的用户ID
+     */
+    void onFollow(Integer userId, Integer authorId);
+
+    /**
+     * 取消关注后从收件箱移除对方的帖子
+     * @param userId 用户ID
+     * @param authorId 被取消关注的用户ID
+     */
+    void onUnfollow(Integer userId, Integer authorId);
+
+    /**
+     * 裁剪超过容量的收件箱
+     * @return 删除的记录数
+     */
+    int trimInboxes();
+}
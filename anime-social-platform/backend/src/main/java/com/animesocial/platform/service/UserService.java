@@ -1,6 +1,8 @@
 package com.animesocial.platform.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.Resource;
@@ -70,19 +72,21 @@ public interface UserService {
     /**
      * 获取当前登录用户信息
      * 
+     * @param currentUserId 当前用户ID，未登录时为null
      * @return 当前登录用户的信息DTO，如果未登录则返回null
      */
-    UserDTO getCurrentUser();
+    UserDTO getCurrentUser(Integer currentUserId);
     
     /**
      * 获取用户详情和统计数据
      * 包括用户基本信息、帖子数量、收藏数量、关注数量等
      * 
      * @param id 用户ID
+     * @param currentUserId 当前用户ID，用于判断是否已关注，未登录时为null
      * @return 用户详情和统计信息
      * @throws RuntimeException 如果用户不存在
      */
-    UserDetailResponse getUserDetail(Integer id);
+    UserDetailResponse getUserDetail(Integer id, Integer currentUserId);
     
     /**
      * 分页获取用户的帖子列表
@@ -233,4 +237,34 @@ public interface UserService {
      * @return 用户DTO列表
      */
     List<UserDTO> findByIds(List<Integer> ids);
+    
+    /**
+     * 根据ID集合批量获取用户DTO
+     * 用户、标签及各项统计均通过固定次数的批量查询获取，适用于列表组装
+     * @param ids 用户ID集合
+     * @return 用户ID到用户DTO的映射，不存在的用户不包含在内
+     */
+    Map<Integer, UserDTO> getUserDTOMapByIds(Collection<Integer> ids);
+    
+    /**
+     * 批量获取用户摘要（仅ID、用户名、头像）
+     * 一次查询完成，不加载标签和统计数据，适用于在列表中嵌入作者信息
+     * @param ids 用户ID集合
+     * @return 用户ID到用户摘要的映射，不存在的用户不包含在内
+     */
+    Map<Integer, UserDTO> getUserSummaries(Collection<Integer> ids);
+    
+    /**
+     * 获取单个用户摘要（仅ID、用户名、头像）
+     * @param id 用户ID
+     * @return 用户摘要，如果不存在则返回null
+     */
+    UserDTO getUserSummaryById(Integer id);
+    
+    /**
+     * 为用户DTO批量填充统计数据（帖子数、关注数、粉丝数、收藏数）
+     * 按需调用，与用户摘要配合使用
+     * @param users 需要填充统计数据的用户DTO集合
+     */
+    void fillUserStats(Collection<UserDTO> users);
 } 
\ No newline at end of file
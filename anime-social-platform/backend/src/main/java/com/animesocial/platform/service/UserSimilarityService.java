@@ -0,0 +1,34 @@
+package com.animesocial.platform.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户相似度服务接口
+ * 在内存中维护"标签 → 用户ID位图"的倒排索引，按共同标签计算相似用户
+ */
+public interface UserSimilarityService {
+
+    /**
+     * 获取与指定用户标签最相似的用户
+     * 先按共同标签数量降序，再按Jaccard系数降序，最后按用户ID升序
+     * @param userId 用户ID
+     * @param limit 返回数量
+     * @param excludeUserIds 需要排除的用户ID（如已关注的用户），用户本人总是被排除
+     * @return 相似用户ID列表，按相似度排序
+     */
+    List<Integer> getSimilarUsers(Integer userId, int limit, Collection<Integer> excludeUserIds);
+
+    /**
+     * 用户标签变化后，按数据库中的最新标签更新该用户在索引中的位置
+     * 在事务中调用时，提交后会再更新一次，保证读到已提交的数据
+     * @param userId 用户ID
+     */
+    void refreshUser(Integer userId);
+
+    /**
+     * 从数据库全量重建索引
+     * @return 索引中的用户数量
+     */
+    int rebuild();
+}
@@ -0,0 +1,55 @@
+package com.animesocial.platform.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.animesocial.platform.model.UserStats;
+
+/**
+ * 用户统计服务接口
+ * 维护user_stats表中的冗余计数，并提供批量读取与定时对账
+ */
+public interface UserStatsService {
+    
+    /**
+     * 调整用户帖子数量
+     * @param userId 用户ID
+     * @param delta 变化量（正数增加，负数减少）
+     */
+    void adjustPostCount(Integer userId, int delta);
+    
+    /**
+     * 调整关注关系计数：关注者的关注数与被关注者的粉丝数同时变化
+     * @param userId 关注者ID
+     * @param targetId 被关注者ID
+     * @param delta 变化量（关注为1，取消关注为-1）
+     */
+    void adjustFollowCount(Integer userId, Integer targetId, int delta);
+    
+    /**
+     * 调整用户收藏数量
+     * @param userId 用户ID
+     * @param delta 变化量（正数增加，负数减少）
+     */
+    void adjustFavoriteCount(Integer userId, int delta);
+    
+    /**
+     * 资源删除前调用，为所有收藏了该资源的用户减少收藏数量
+     * @param resourceId 资源ID
+     */
+    void onResourceDeleted(Integer resourceId);
+    
+    /**
+     * 批量获取用户统计数据
+     * 只读取统计表，没有统计行的用户不在结果中，调用方应按计数为0处理
+     * @param userIds 用户ID集合
+     * @return 用户ID到统计数据的映射
+     */
+    Map<Integer, UserStats> getStatsMap(Collection<Integer> userIds);
+    
+    /**
+     * 根据源表对账全部用户的统计数据
+     * @return 数据库影响行数
+     */
+    int reconcileAll();
+}
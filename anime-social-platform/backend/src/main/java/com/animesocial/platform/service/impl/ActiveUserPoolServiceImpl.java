@@ -0,0 +1,173 @@
+package com.animesocial.platform.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.repository.UserRepository;
+import com.animesocial.platform.repository.UserStatsRepository;
+import com.animesocial.platform.service.ActiveUserPoolService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 活跃用户池服务实现类
+ * 用户池由最近登录的用户和粉丝数最多的用户组成（都没有时取最新注册的用户），
+ * 定期从数据库刷新；抽样使用跳跃式蓄水池抽样(Algorithm L)，
+ * 只需 O(k·log(n/k)) 次随机数即可从n个用户中等概率抽出k个，不再对users表做 ORDER BY RAND()。
+ */
+@Service
+@Slf4j
+public class ActiveUserPoolServiceImpl implements ActiveUserPoolService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 用户池容量
+     */
+    @Value("${app.active-user-pool.size:1000}")
+    private int poolSize;
+
+    /**
+     * 最近多少天内登录过的用户视为活跃用户
+     */
+    @Value("${app.active-user-pool.active-days:30}")
+    private int activeDays;
+
+    /**
+     * 当前用户池快照，刷新时整体替换
+     */
+    private volatile Pool pool;
+
+    /**
+     * 注册用户池规模的监控指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("active.user.pool.size", this, service -> {
+            Pool current = service.pool;
+            return current != null ? current.ids.length : 0;
+        });
+    }
+
+    @Override
+    public List<Integer> sample(int count, Collection<Integer> excludeUserIds) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        Pool current = pool;
+        if (current == null) {
+            refresh();
+            current = pool;
+        }
+
+        // 多抽取池中被排除的用户数量，过滤后仍能凑满count个
+        int excludedInPool = 0;
+        RoaringBitmap excluded = new RoaringBitmap();
+        if (excludeUserIds != null) {
+            for (Integer id : excludeUserIds) {
+                if (id != null && current.members.contains(id) && !excluded.contains(id)) {
+                    excluded.add(id);
+                    excludedInPool++;
+                }
+            }
+        }
+
+        int[] reservoir = reservoirSample(current.ids, count + excludedInPool);
+        List<Integer> result = new ArrayList<>(count);
+        for (int id : reservoir) {
+            if (!excluded.contains(id)) {
+                result.add(id);
+            }
+        }
+        // 蓄水池中前面的位置保留的是较早的元素，打乱后再截取
+        Collections.shuffle(result, ThreadLocalRandom.current());
+        return result.size() > count ? result.subList(0, count) : result;
+    }
+
+    /**
+     * 定期刷新用户池，默认每10分钟一次
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.active-user-pool.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.active-user-pool.refresh-interval-ms:600000}")
+    public synchronized int refresh() {
+        Set<Integer> ids = new LinkedHashSet<>(
+                userRepository.findRecentlyActiveIds(LocalDateTime.now().minusDays(activeDays), poolSize));
+        if (ids.size() < poolSize) {
+            ids.addAll(userStatsRepository.findTopFollowedUserIds(poolSize - ids.size()));
+        }
+        if (ids.isEmpty()) {
+            // 没有近期活跃用户时（如新部署的站点）退回最新注册的用户
+            ids.addAll(userRepository.findNewestIds(poolSize));
+        }
+
+        int[] array = ids.stream().mapToInt(Integer::intValue).toArray();
+        pool = new Pool(array, RoaringBitmap.bitmapOf(array));
+        log.debug("活跃用户池已刷新: {}个用户", array.length);
+        return array.length;
+    }
+
+    /**
+     * 跳跃式蓄水池抽样(Algorithm L)
+     * 不逐个遍历元素，而是按几何分布直接跳到下一个进入蓄水池的位置
+     * @param source 候选元素
+     * @param size 抽样数量
+     * @return 抽样结果，size不小于候选数量时返回全部候选
+     */
+    static int[] reservoirSample(int[] source, int size) {
+        int n = source.length;
+        int k = Math.min(size, n);
+        int[] reservoir = new int[k];
+        System.arraycopy(source, 0, reservoir, 0, k);
+        if (k == 0 || k == n) {
+            return reservoir;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double w = Math.exp(Math.log(1.0 - random.nextDouble()) / k);
+        long i = k - 1;
+        while (true) {
+            i += (long) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - w)) + 1;
+            if (i >= n) {
+                break;
+            }
+            reservoir[random.nextInt(k)] = source[(int) i];
+            w *= Math.exp(Math.log(1.0 - random.nextDouble()) / k);
+        }
+        return reservoir;
+    }
+
+    /**
+     * 用户池快照：有序的用户ID数组及用于成员判断的位图
+     */
+    private static final class Pool {
+        private final int[] ids;
+        private final RoaringBitmap members;
+
+        private Pool(int[] ids, RoaringBitmap members) {
+            this.ids = ids;
+            this.members = members;
+        }
+    }
+}
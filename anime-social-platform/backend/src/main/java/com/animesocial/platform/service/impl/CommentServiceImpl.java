@@ -5,14 +5,17 @@ import com.animesocial.platform.model.Comment;
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.model.dto.CommentDTO;
+import com.animesocial.platform.model.dto.CommentListResponse;
 import com.animesocial.platform.model.dto.CreateCommentRequest;
 import com.animesocial.platform.repository.CommentRepository;
 import com.animesocial.platform.repository.PostRepository;
 import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.service.CommentService;
+import com.animesocial.platform.service.PostFeedViewService;
 import com.animesocial.platform.service.UserService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,7 +23,11 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +37,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CommentServiceImpl implements CommentService {
 
+    /**
+     * 对账时每批处理的ID跨度
+     */
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
     @Autowired
     private CommentRepository commentRepository;
     
@@ -42,6 +54,9 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PostFeedViewService postFeedViewService;
+
     /**
      * 根据ID获取评论
      */
@@ -57,6 +72,7 @@ public class CommentServiceImpl implements CommentService {
 
     /**
      * 根据帖子ID获取评论列表
+     * 一次查询取出帖子的全部评论，在内存中组装为评论树
      */
     @Override
     public List<CommentDTO> getCommentsByPostId(Integer postId) {
@@ -66,22 +82,89 @@ public class CommentServiceImpl implements CommentService {
             throw new BusinessException("帖子不存在");
         }
         
-        // 获取一级评论（不包括回复）
-        List<Comment> comments = commentRepository.findByPostId(postId, null);
-        List<CommentDTO> dtoList = comments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        CommentTree tree = new CommentTree(commentRepository.findAllByPostId(postId));
+        return tree.toThreads(tree.topLevel, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 分页获取帖子的评论
+     * 全部评论一次查询后在内存中分页，只为当前页可见的评论加载作者信息
+     */
+    @Override
+    public CommentListResponse getCommentThreads(Integer postId, int page, int size, int replyLimit) {
+        // 验证帖子是否存在
+        Post post = postRepository.findById(postId);
+        if (post == null) {
+            throw new BusinessException("帖子不存在");
+        }
+        
+        CommentTree tree = new CommentTree(commentRepository.findAllByPostId(postId));
+        int total = tree.topLevel.size();
+        int from = Math.min(Math.max(page - 1, 0) * size, total);
+        int to = Math.min(from + size, total);
+        List<CommentDTO> items = tree.toThreads(tree.topLevel.subList(from, to), Math.max(replyLimit, 0));
+        return new CommentListResponse(items, total);
+    }
+
+    /**
+     * 帖子的评论树
+     * 父评论不在本帖评论中的评论按一级评论处理
+     */
+    private class CommentTree {
+        private final List<Comment> topLevel = new ArrayList<>();
+        private final Map<Integer, List<Comment>> repliesByParent = new HashMap<>();
         
-        // 获取每个评论的回复
-        for (CommentDTO dto : dtoList) {
-            List<Comment> replies = commentRepository.findByPostId(postId, dto.getId());
-            List<CommentDTO> replyDtos = replies.stream()
-                    .map(this::convertToDTO)
+        CommentTree(List<Comment> comments) {
+            Set<Integer> ids = comments.stream()
+                    .map(Comment::getId)
+                    .collect(Collectors.toSet());
+            for (Comment comment : comments) {
+                if (comment.getParentId() == null || !ids.contains(comment.getParentId())) {
+                    topLevel.add(comment);
+                } else {
+                    repliesByParent.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>()).add(comment);
+                }
+            }
+        }
+        
+        /**
+         * 将一级评论转换为带回复的DTO，每条一级评论最多保留replyLimit条直接回复，
+         * 回复下的子回复全部保留
+         */
+        List<CommentDTO> toThreads(List<Comment> threads, int replyLimit) {
+            List<Comment> visible = new ArrayList<>();
+            for (Comment thread : threads) {
+                visible.add(thread);
+                replies(thread).stream().limit(replyLimit).forEach(reply -> collect(reply, visible));
+            }
+            Map<Integer, UserDTO> authors = loadAuthors(visible);
+            
+            return threads.stream()
+                    .map(thread -> toDTO(thread, replyLimit, authors))
                     .collect(Collectors.toList());
-            dto.setReplies(replyDtos);
         }
         
-        return dtoList;
+        private List<Comment> replies(Comment comment) {
+            return repliesByParent.getOrDefault(comment.getId(), Collections.emptyList());
+        }
+        
+        private void collect(Comment comment, List<Comment> visible) {
+            visible.add(comment);
+            for (Comment reply : replies(comment)) {
+                collect(reply, visible);
+            }
+        }
+        
+        private CommentDTO toDTO(Comment comment, int replyLimit, Map<Integer, UserDTO> authors) {
+            CommentDTO dto = convertToDTO(comment, authors);
+            List<Comment> replies = replies(comment);
+            dto.setReplyCount(replies.size());
+            dto.setReplies(replies.stream()
+                    .limit(replyLimit)
+                    .map(reply -> toDTO(reply, Integer.MAX_VALUE, authors))
+                    .collect(Collectors.toList()));
+            return dto;
+        }
     }
 
     /**
@@ -95,9 +178,7 @@ public class CommentServiceImpl implements CommentService {
         }
         
         List<Comment> comments = commentRepository.findByUserId(userId);
-        return comments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOList(comments);
     }
 
     /**
@@ -137,9 +218,15 @@ public class CommentServiceImpl implements CommentService {
         comment.setContent(request.getContent());
         comment.setCreatedAt(LocalDateTime.now());
         comment.setParentId(request.getParentId());
+        comment.setReplyCount(0);
         
-        // 保存评论
+        // 保存评论，并在同一事务内维护帖子评论数和父评论回复数
         commentRepository.insert(comment);
+        postRepository.adjustCommentCount(comment.getPostId(), 1);
+        if (comment.getParentId() != null) {
+            commentRepository.adjustReplyCount(comment.getParentId(), 1);
+        }
+        postFeedViewService.markPostDirty(comment.getPostId());
         
         // 转换为DTO并返回
         CommentDTO dto = convertToDTO(comment);
@@ -164,24 +251,64 @@ public class CommentServiceImpl implements CommentService {
             throw new BusinessException("评论不存在");
         }
         
-        // 如果是父评论，同时删除其所有回复
+        // 如果是父评论，同时删除其所有回复；如果是回复，扣减父评论的回复数
+        int deleted = 0;
         if (comment.getParentId() == null) {
-            List<Comment> replies = commentRepository.findByParentId(id);
-            for (Comment reply : replies) {
-                commentRepository.delete(reply.getId());
-            }
+            deleted += commentRepository.deleteByParentId(id);
+        } else {
+            commentRepository.adjustReplyCount(comment.getParentId(), -1);
         }
         
-        // 删除评论
-        commentRepository.delete(id);
+        // 删除评论，按实际删除的条数扣减帖子评论数
+        deleted += commentRepository.delete(id);
+        postRepository.adjustCommentCount(comment.getPostId(), -deleted);
+        postFeedViewService.markPostDirty(comment.getPostId());
     }
 
     /**
      * 获取帖子的评论数量
+     * 读取帖子表上维护的评论数，不再对评论表计数
      */
     @Override
     public Integer getCommentCountByPostId(Integer postId) {
-        return commentRepository.countByPostId(postId);
+        Integer count = postRepository.findCommentCount(postId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 定时对账，默认每天凌晨4点执行
+     * 修正帖子评论数与评论回复数的漂移，评论数有变化的帖子同步刷新列表读模型
+     */
+    @Override
+    @Scheduled(cron = "${app.comment-count.reconcile-cron:0 0 4 * * ?}")
+    public int reconcileCounts() {
+        long start = System.currentTimeMillis();
+        int fixedPosts = 0;
+        int maxPostId = postRepository.findMaxId();
+        for (int minId = 1; minId <= maxPostId; minId += RECONCILE_BATCH_SIZE) {
+            try {
+                List<Integer> drifted = postRepository.findCommentCountDriftByIdRange(minId, minId + RECONCILE_BATCH_SIZE - 1);
+                if (!drifted.isEmpty()) {
+                    fixedPosts += postRepository.rebuildCommentCounts(drifted);
+                    postFeedViewService.markPostsDirty(drifted);
+                }
+            } catch (Exception e) {
+                log.error("帖子评论数对账失败, 区间: [{}, {}]", minId, minId + RECONCILE_BATCH_SIZE - 1, e);
+            }
+        }
+        
+        int fixedComments = 0;
+        int maxCommentId = commentRepository.findMaxId();
+        for (int minId = 1; minId <= maxCommentId; minId += RECONCILE_BATCH_SIZE) {
+            try {
+                fixedComments += commentRepository.rebuildReplyCountsByIdRange(minId, minId + RECONCILE_BATCH_SIZE - 1);
+            } catch (Exception e) {
+                log.error("评论回复数对账失败, 区间: [{}, {}]", minId, minId + RECONCILE_BATCH_SIZE - 1, e);
+            }
+        }
+        log.info("评论计数对账完成, 修正帖子: {}, 修正评论: {}, 耗时: {}ms",
+                fixedPosts, fixedComments, System.currentTimeMillis() - start);
+        return fixedPosts + fixedComments;
     }
 
     /**
@@ -214,9 +341,7 @@ public class CommentServiceImpl implements CommentService {
         }
         
         List<Comment> replies = commentRepository.findByParentId(commentId);
-        return replies.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOList(replies);
     }
     
     /**
@@ -226,8 +351,8 @@ public class CommentServiceImpl implements CommentService {
         CommentDTO dto = new CommentDTO();
         BeanUtils.copyProperties(comment, dto);
         
-        // 加载用户信息
-        UserDTO user = userService.getUserDTOById(comment.getUserId());
+        // 加载用户摘要信息
+        UserDTO user = userService.getUserSummaryById(comment.getUserId());
         if (user != null) {
             dto.setUsername(user.getUsername());
             dto.setUserAvatar(user.getAvatar());
@@ -235,4 +360,40 @@ public class CommentServiceImpl implements CommentService {
         
         return dto;
     }
+    
+    /**
+     * 批量将Comment实体转换为CommentDTO，作者信息一次查询获取
+     */
+    private List<CommentDTO> convertToDTOList(List<Comment> comments) {
+        Map<Integer, UserDTO> authors = loadAuthors(comments);
+        return comments.stream()
+                .map(comment -> convertToDTO(comment, authors))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 使用预先加载的作者信息将Comment实体转换为CommentDTO
+     */
+    private CommentDTO convertToDTO(Comment comment, Map<Integer, UserDTO> authors) {
+        CommentDTO dto = new CommentDTO();
+        BeanUtils.copyProperties(comment, dto);
+        
+        UserDTO user = authors.get(comment.getUserId());
+        if (user != null) {
+            dto.setUsername(user.getUsername());
+            dto.setUserAvatar(user.getAvatar());
+        }
+        
+        return dto;
+    }
+    
+    /**
+     * 批量加载评论作者的摘要信息
+     */
+    private Map<Integer, UserDTO> loadAuthors(List<Comment> comments) {
+        Set<Integer> userIds = comments.stream()
+                .map(Comment::getUserId)
+                .collect(Collectors.toSet());
+        return userService.getUserSummaries(userIds);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.animesocial.platform.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.service.CounterBufferService;
+import com.animesocial.platform.service.PostFeedViewService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 计数缓冲服务实现类
+ * 每个ID对应一个LongAdder，递增操作只落在分段计数单元上，互不阻塞；
+ * 定时任务取出各ID的累计增量，按批生成 UPDATE ... CASE 语句一次写回。
+ * 写回失败的增量会重新放回缓冲，等待下一次刷新。
+ */
+@Service
+@Slf4j
+public class CounterBufferServiceImpl implements CounterBufferService {
+    
+    /**
+     * 每条批量更新语句包含的最大ID数量
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+    
+    private final Map<Integer, LongAdder> postViews = new ConcurrentHashMap<>();
+    
+    private final Map<Integer, LongAdder> resourceDownloads = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private PostFeedViewService postFeedViewService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter flushedCounter;
+    
+    private Counter flushFailureCounter;
+    
+    /**
+     * 注册待写回增量的监控指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("counter.buffer.pending", List.of(Tag.of("type", "post_view")),
+                postViews, CounterBufferServiceImpl::pendingSum);
+        meterRegistry.gauge("counter.buffer.pending", List.of(Tag.of("type", "resource_download")),
+                resourceDownloads, CounterBufferServiceImpl::pendingSum);
+        flushedCounter = meterRegistry.counter("counter.buffer.flushed");
+        flushFailureCounter = meterRegistry.counter("counter.buffer.flush.failures");
+    }
+    
+    @Override
+    public void incrementPostView(Integer postId) {
+        if (postId == null) {
+            return;
+        }
+        postViews.computeIfAbsent(postId, id -> new LongAdder()).increment();
+    }
+    
+    @Override
+    public void incrementResourceDownload(Integer resourceId) {
+        if (resourceId == null) {
+            return;
+        }
+        resourceDownloads.computeIfAbsent(resourceId, id -> new LongAdder()).increment();
+    }
+    
+    /**
+     * 定时刷新，默认每5秒一次
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.counter-buffer.flush-interval-ms:5000}")
+    public synchronized long flush() {
+        long total = flushBuffer(postViews, postRepository::batchIncreaseViewCount,
+                postFeedViewService::markPostsDirty, "帖子浏览量");
+        total += flushBuffer(resourceDownloads, resourceRepository::batchIncrementDownloadCount, ids -> { }, "资源下载量");
+        if (total > 0) {
+            flushedCounter.increment(total);
+        }
+        return total;
+    }
+    
+    /**
+     * 应用关闭前写回剩余增量
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        long total = flush();
+        log.info("应用关闭，已写回缓冲计数: {}", total);
+    }
+    
+    /**
+     * 取出缓冲中的增量并分批写回
+     * 本轮没有新增量的ID会从缓冲中移除，避免冷数据长期占用内存。
+     * 只有写回语句失败才把增量放回缓冲；写回成功后的后续处理失败不重试写回，避免重复计数
+     */
+    private long flushBuffer(Map<Integer, LongAdder> buffer, Consumer<Map<Integer, Long>> writer,
+            Consumer<Set<Integer>> afterWrite, String name) {
+        Map<Integer, Long> deltas = new LinkedHashMap<>();
+        for (Map.Entry<Integer, LongAdder> entry : buffer.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            } else if (buffer.remove(entry.getKey(), entry.getValue())) {
+                // 移除期间可能有并发递增落在旧的计数单元上，将其并回缓冲
+                long late = entry.getValue().sumThenReset();
+                if (late > 0) {
+                    buffer.computeIfAbsent(entry.getKey(), id -> new LongAdder()).add(late);
+                }
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        
+        long written = 0;
+        List<Integer> ids = new ArrayList<>(deltas.keySet());
+        for (int from = 0; from < ids.size(); from += FLUSH_BATCH_SIZE) {
+            Map<Integer, Long> batch = new LinkedHashMap<>();
+            for (Integer id : ids.subList(from, Math.min(from + FLUSH_BATCH_SIZE, ids.size()))) {
+                batch.put(id, deltas.get(id));
+            }
+            try {
+                writer.accept(batch);
+                written += batch.values().stream().mapToLong(Long::longValue).sum();
+            } catch (Exception e) {
+                // 写回失败时把增量放回缓冲，下次刷新重试
+                log.error("批量写回{}失败，{}条记录将在下次刷新时重试", name, batch.size(), e);
+                flushFailureCounter.increment();
+                batch.forEach((id, delta) -> buffer.computeIfAbsent(id, key -> new LongAdder()).add(delta));
+                continue;
+            }
+            try {
+                afterWrite.accept(batch.keySet());
+            } catch (Exception e) {
+                log.error("{}已写回，后续处理失败，涉及{}条记录", name, batch.size(), e);
+            }
+        }
+        return written;
+    }
+    
+    private static double pendingSum(Map<Integer, LongAdder> buffer) {
+        return buffer.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
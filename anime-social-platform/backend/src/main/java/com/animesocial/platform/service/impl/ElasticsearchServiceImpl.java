@@ -1,35 +1,61 @@
 package com.animesocial.platform.service.impl;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitSupport;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.stereotype.Service;
 
+import com.animesocial.platform.model.EsOutboxEvent;
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.Resource;
+import com.animesocial.platform.model.dto.SearchPages;
 import com.animesocial.platform.model.dto.UserDTO;
-import com.animesocial.platform.model.Tag;
+import com.animesocial.platform.model.User;
+import com.animesocial.platform.model.UserTag;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.es.PostDocument;
 import com.animesocial.platform.model.es.ResourceDocument;
 import com.animesocial.platform.model.es.UserDocument;
 import com.animesocial.platform.repository.PostRepository;
 import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.repository.UserTagRepository;
 import com.animesocial.platform.repository.es.PostDocumentRepository;
 import com.animesocial.platform.repository.es.ResourceDocumentRepository;
 import com.animesocial.platform.repository.es.UserDocumentRepository;
 import com.animesocial.platform.service.ElasticsearchService;
+import com.animesocial.platform.service.EsReindexService;
 import com.animesocial.platform.service.TagService;
 import com.animesocial.platform.service.UserService;
 
-import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -64,19 +90,29 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     @Autowired
     private UserTagRepository userTagRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     /**
-     * 应用启动时初始化索引
+     * 重建索引服务依赖本服务构建文档，延迟注入以避免循环依赖
      */
-    @PostConstruct
-    public void init() {
-        try {
-            log.info("正在初始化ElasticSearch索引...");
-            initIndices();
-            log.info("ElasticSearch索引初始化完成");
-        } catch (Exception e) {
-            log.error("初始化ElasticSearch索引失败", e);
-        }
-    }
+    @Lazy
+    @Autowired
+    private EsReindexService esReindexService;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    @Qualifier("searchExecutor")
+    private Executor searchExecutor;
+
+    /**
+     * 搜索超时时间（毫秒）
+     * 同时作为ES查询的超时参数和综合搜索的等待时间，超时的类型返回空结果
+     */
+    @Value("${app.search.timeout-ms:2000}")
+    private long searchTimeoutMs;
 
     /**
      * 初始化所有索引
@@ -85,12 +121,9 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     @Override
     public void initIndices() {
         try {
-            log.info("创建ElasticSearch索引结构");
-            // 默认情况下，Spring Data Elasticsearch会自动创建索引
-            
             log.info("开始从MySQL迁移数据到ElasticSearch...");
-            // 同步所有数据
-            syncAllData();
+            // 流式重建到新版本索引并切换别名
+            esReindexService.reindexNow();
             log.info("ElasticSearch索引数据同步完成");
         } catch (Exception e) {
             log.error("ElasticSearch索引初始化失败", e);
@@ -100,232 +133,181 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
 
     /**
      * 重建所有索引
-     * 清空当前索引并重新同步数据
+     * 在后台写入新版本索引，完成后原子切换别名，重建期间旧索引继续提供搜索
      */
     @Override
     public void rebuildIndices() {
         log.info("开始重建ElasticSearch索引");
-        
-        try {
-            // 清空现有索引
-            clearAllIndices();
-            
-            // 同步所有数据
-            syncAllData();
-            
-            log.info("ElasticSearch索引重建完成");
-        } catch (Exception e) {
-            log.error("ElasticSearch索引重建失败", e);
-            throw new RuntimeException("ElasticSearch索引重建失败", e);
-        }
-    }
-    
-    /**
-     * 清空所有索引数据
-     */
-    private void clearAllIndices() {
-        log.info("清空所有ElasticSearch索引数据");
-        postDocumentRepository.deleteAll();
-        resourceDocumentRepository.deleteAll();
-        userDocumentRepository.deleteAll();
-    }
-    
-    /**
-     * 同步所有MySQL数据到ElasticSearch
-     */
-    private void syncAllData() {
-        log.info("开始同步所有MySQL数据到ElasticSearch");
-        
-        // 同步帖子数据
-        List<Post> allPosts = postRepository.findAllPosts(0, Integer.MAX_VALUE);
-        log.info("开始同步{}条帖子数据", allPosts.size());
-        for (Post post : allPosts) {
-            syncPostToEs(post.getId());
-        }
-        
-        // 同步资源数据 - 修复: 提供默认排序字段
-        List<Resource> allResources = resourceRepository.findAll("upload_time DESC", 0, Integer.MAX_VALUE);
-        log.info("开始同步{}条资源数据", allResources.size());
-        for (Resource resource : allResources) {
-            syncResourceToEs(resource.getId());
-        }
-        
-        // 同步用户数据
-        List<UserDTO> allUsers = userService.getAllUsers(1, Integer.MAX_VALUE);
-        log.info("开始同步{}条用户数据", allUsers.size());
-        for (UserDTO user : allUsers) {
-            syncUserToEs(user.getId());
-        }
-        
-        log.info("所有数据同步完成");
+        esReindexService.startReindex();
     }
 
     /**
-     * 同步单个帖子到ES
+     * 批量同步一类实体到ES
      */
     @Override
-    public void syncPostToEs(Integer postId) {
-        try {
-            Post post = postRepository.findById(postId);
-            if (post == null) {
-                log.warn("帖子不存在，无法同步到ElasticSearch: {}", postId);
-                return;
+    public void bulkSync(String entityType, Collection<Integer> upsertIds, Collection<Integer> deleteIds) {
+        // 全量重建期间的变更需要补写到新索引。必须在读取数据库和写入别名之前记录：
+        // 若先写后记，写入可能落在切换别名前的旧索引，而记录晚于最后一次补写，变更就会丢失
+        Set<Integer> changedIds = new HashSet<>(upsertIds);
+        changedIds.addAll(deleteIds);
+        esReindexService.recordChange(entityType, changedIds);
+        
+        Set<Integer> toDelete = new HashSet<>(deleteIds);
+        switch (entityType) {
+            case EsOutboxEvent.TYPE_POST: {
+                List<PostDocument> documents = upsertIds.isEmpty()
+                        ? Collections.emptyList()
+                        : buildPostDocuments(postRepository.findByIds(upsertIds));
+                collectMissing(upsertIds, documents.stream().map(PostDocument::getId), toDelete);
+                if (!documents.isEmpty()) {
+                    postDocumentRepository.saveAll(documents);
+                }
+                if (!toDelete.isEmpty()) {
+                    postDocumentRepository.deleteAllById(toDelete);
+                }
+                break;
             }
-
-            UserDTO author = userService.getUserDTOById(post.getUserId());
-            String username = author != null ? author.getUsername() : "未知用户";
-
-            // 获取帖子标签
-            List<TagDTO> tagEntities = tagService.getPostTags(postId);
-            List<String> tags = tagEntities.stream()
-                    .map(TagDTO::getName)
-                    .collect(Collectors.toList());
-
-            // 创建文档
-            PostDocument document = PostDocument.builder()
-                    .id(post.getId())
-                    .userId(post.getUserId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .createdAt(post.getCreatedAt())
-                    .updatedAt(post.getUpdatedAt())
-                    .viewCount(post.getViewCount())
-                    .likeCount(post.getLikeCount())
-                    .isTop(post.getIsTop())
-                    .username(username)
-                    .tags(tags)
-                    .build();
-
-            // 保存到ES
-            postDocumentRepository.save(document);
-            log.info("帖子同步到ElasticSearch成功: {}", postId);
-        } catch (Exception e) {
-            log.error("帖子同步到ElasticSearch失败: {}", postId, e);
+            case EsOutboxEvent.TYPE_RESOURCE: {
+                List<ResourceDocument> documents = upsertIds.isEmpty()
+                        ? Collections.emptyList()
+                        : buildResourceDocuments(resourceRepository.findByIds(new ArrayList<>(upsertIds)));
+                collectMissing(upsertIds, documents.stream().map(ResourceDocument::getId), toDelete);
+                if (!documents.isEmpty()) {
+                    resourceDocumentRepository.saveAll(documents);
+                }
+                if (!toDelete.isEmpty()) {
+                    resourceDocumentRepository.deleteAllById(toDelete);
+                }
+                break;
+            }
+            case EsOutboxEvent.TYPE_USER: {
+                List<UserDocument> documents = upsertIds.isEmpty()
+                        ? Collections.emptyList()
+                        : buildUserDocuments(userRepository.findByIds(upsertIds));
+                collectMissing(upsertIds, documents.stream().map(UserDocument::getId), toDelete);
+                if (!documents.isEmpty()) {
+                    userDocumentRepository.saveAll(documents);
+                }
+                if (!toDelete.isEmpty()) {
+                    userDocumentRepository.deleteAllById(toDelete);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("不支持的实体类型: " + entityType);
         }
+        log.debug("批量同步{}到ElasticSearch完成，更新{}条，删除{}条", entityType, upsertIds.size(), toDelete.size());
     }
 
     /**
-     * 同步单个资源到ES
+     * 需要更新但在数据库中已不存在的实体，改为从ES删除
      */
-    @Override
-    public void syncResourceToEs(Integer resourceId) {
-        try {
-            Resource resource = resourceRepository.findById(resourceId);
-            if (resource == null) {
-                log.warn("资源不存在，无法同步到ElasticSearch: {}", resourceId);
-                return;
+    private void collectMissing(Collection<Integer> requestedIds, Stream<Integer> builtIds, Set<Integer> toDelete) {
+        Set<Integer> built = builtIds.collect(Collectors.toSet());
+        for (Integer id : requestedIds) {
+            if (!built.contains(id)) {
+                toDelete.add(id);
             }
-
-            UserDTO author = userService.getUserDTOById(resource.getUserId());
-            String username = author != null ? author.getUsername() : "未知用户";
-
-            // 获取资源标签
-            List<TagDTO> tagEntities = tagService.getResourceTags(resourceId);
-            List<String> tags = tagEntities.stream()
-                    .map(TagDTO::getName)
-                    .collect(Collectors.toList());
-
-            // 创建文档
-            ResourceDocument document = ResourceDocument.builder()
-                    .id(resource.getId())
-                    .userId(resource.getUserId())
-                    .title(resource.getTitle())
-                    .description(resource.getDescription())
-                    .fileUrl(resource.getFileUrl())
-                    .coverUrl(resource.getCoverUrl())
-                    .fileType(resource.getFileType())
-                    .fileSize(resource.getFileSize())
-                    .uploadTime(resource.getUploadTime())
-                    .downloadCount(resource.getDownloadCount())
-                    .likeCount(resource.getLikeCount())
-                    .username(username)
-                    .tags(tags)
-                    .build();
-
-            // 保存到ES
-            resourceDocumentRepository.save(document);
-            log.info("资源同步到ElasticSearch成功: {}", resourceId);
-        } catch (Exception e) {
-            log.error("资源同步到ElasticSearch失败: {}", resourceId, e);
         }
     }
 
     /**
-     * 同步单个用户到ES
+     * 批量构建帖子文档，作者与标签各用一次查询加载
      */
     @Override
-    public void syncUserToEs(Integer userId) {
-        try {
-            UserDTO user = userService.getUserDTOById(userId);
-            if (user == null) {
-                log.warn("用户不存在，无法同步到ElasticSearch: {}", userId);
-                return;
-            }
-
-            // 获取用户标签
-            List<Tag> tagEntities = userTagRepository.findTagsByUserId(userId);
-            List<String> tags = tagEntities.stream()
-                    .map(Tag::getName)
-                    .collect(Collectors.toList());
-
-            // 创建文档
-            UserDocument document = UserDocument.builder()
-                    .id(user.getId())
-                    .username(user.getUsername())
-                    .bio(user.getBio())
-                    .avatar(user.getAvatar())
-                    .isAdmin(user.getIsAdmin())
-                    .status(user.getStatus())
-                    .registerTime(user.getRegisterTime())
-                    .lastLoginTime(user.getLastLoginTime())
-                    .tags(tags)
-                    .build();
-
-            // 保存到ES
-            userDocumentRepository.save(document);
-            log.info("用户同步到ElasticSearch成功: {}", userId);
-        } catch (Exception e) {
-            log.error("用户同步到ElasticSearch失败: {}", userId, e);
+    public List<PostDocument> buildPostDocuments(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return Collections.emptyList();
         }
+        Map<Integer, UserDTO> authors = userService.getUserSummaries(
+                posts.stream().map(Post::getUserId).collect(Collectors.toSet()));
+        Map<Integer, List<TagDTO>> tags = tagService.getPostTagsMap(
+                posts.stream().map(Post::getId).collect(Collectors.toList()));
+
+        return posts.stream().map(post -> PostDocument.builder()
+                .id(post.getId())
+                .userId(post.getUserId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .viewCount(post.getViewCount())
+                .likeCount(post.getLikeCount())
+                .isTop(post.getIsTop())
+                .username(usernameOf(authors.get(post.getUserId())))
+                .tags(tagNames(tags.get(post.getId())))
+                .build())
+                .collect(Collectors.toList());
     }
 
     /**
-     * 从ES中删除帖子
+     * 批量构建资源文档，作者与标签各用一次查询加载
      */
     @Override
-    public void deletePostFromEs(Integer postId) {
-        try {
-            postDocumentRepository.deleteById(postId);
-            log.info("帖子从ElasticSearch中删除成功: {}", postId);
-        } catch (Exception e) {
-            log.error("帖子从ElasticSearch中删除失败: {}", postId, e);
+    public List<ResourceDocument> buildResourceDocuments(List<Resource> resources) {
+        if (resources.isEmpty()) {
+            return Collections.emptyList();
         }
+        Map<Integer, UserDTO> authors = userService.getUserSummaries(
+                resources.stream().map(Resource::getUserId).collect(Collectors.toSet()));
+        Map<Integer, List<TagDTO>> tags = tagService.getResourceTagsMap(
+                resources.stream().map(Resource::getId).collect(Collectors.toList()));
+
+        return resources.stream().map(resource -> ResourceDocument.builder()
+                .id(resource.getId())
+                .userId(resource.getUserId())
+                .title(resource.getTitle())
+                .description(resource.getDescription())
+                .fileUrl(resource.getFileUrl())
+                .coverUrl(resource.getCoverUrl())
+                .fileType(resource.getFileType())
+                .fileSize(resource.getFileSize())
+                .uploadTime(resource.getUploadTime())
+                .downloadCount(resource.getDownloadCount())
+                .likeCount(resource.getLikeCount())
+                .username(usernameOf(authors.get(resource.getUserId())))
+                .tags(tagNames(tags.get(resource.getId())))
+                .build())
+                .collect(Collectors.toList());
     }
 
     /**
-     * 从ES中删除资源
+     * 批量构建用户文档，用户标签用一次查询加载
      */
     @Override
-    public void deleteResourceFromEs(Integer resourceId) {
-        try {
-            resourceDocumentRepository.deleteById(resourceId);
-            log.info("资源从ElasticSearch中删除成功: {}", resourceId);
-        } catch (Exception e) {
-            log.error("资源从ElasticSearch中删除失败: {}", resourceId, e);
+    public List<UserDocument> buildUserDocuments(List<User> users) {
+        if (users.isEmpty()) {
+            return Collections.emptyList();
         }
+        Map<Integer, List<String>> tags = new HashMap<>();
+        for (UserTag userTag : userTagRepository.findDetailsByUserIds(
+                users.stream().map(User::getId).collect(Collectors.toList()))) {
+            tags.computeIfAbsent(userTag.getUserId(), id -> new ArrayList<>()).add(userTag.getTagName());
+        }
+
+        return users.stream().map(user -> UserDocument.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .bio(user.getBio())
+                .avatar(user.getAvatar())
+                .isAdmin(user.getIsAdmin())
+                .status(user.getStatus())
+                .registerTime(user.getRegisterTime())
+                .lastLoginTime(user.getLastLoginTime())
+                .tags(tags.getOrDefault(user.getId(), Collections.emptyList()))
+                .build())
+                .collect(Collectors.toList());
     }
 
-    /**
-     * 从ES中删除用户
-     */
-    @Override
-    public void deleteUserFromEs(Integer userId) {
-        try {
-            userDocumentRepository.deleteById(userId);
-            log.info("用户从ElasticSearch中删除成功: {}", userId);
-        } catch (Exception e) {
-            log.error("用户从ElasticSearch中删除失败: {}", userId, e);
+    private String usernameOf(UserDTO author) {
+        return author != null ? author.getUsername() : "未知用户";
+    }
+
+    private List<String> tagNames(List<TagDTO> tags) {
+        if (tags == null) {
+            return Collections.emptyList();
         }
+        return tags.stream().map(TagDTO::getName).collect(Collectors.toList());
     }
 
     /**
@@ -333,9 +315,8 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
      */
     @Override
     public Page<PostDocument> searchPosts(String keyword, Integer page, Integer size) {
-        PageRequest pageRequest = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         try {
-            return postDocumentRepository.findByTitleOrContentOrderByCreateTimeDesc(keyword, pageRequest);
+            return doSearchPosts(keyword, page, size);
         } catch (Exception e) {
             log.error("搜索帖子失败", e);
             return Page.empty();
@@ -347,9 +328,8 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
      */
     @Override
     public Page<ResourceDocument> searchResources(String keyword, Integer page, Integer size) {
-        PageRequest pageRequest = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "uploadTime"));
         try {
-            return resourceDocumentRepository.findByTitleOrDescriptionOrderByUploadTimeDesc(keyword, pageRequest);
+            return doSearchResources(keyword, page, size);
         } catch (Exception e) {
             log.error("搜索资源失败", e);
             return Page.empty();
@@ -361,39 +341,103 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
      */
     @Override
     public Page<UserDocument> searchUsers(String keyword, Integer page, Integer size) {
-        PageRequest pageRequest = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "registerTime"));
         try {
-            return userDocumentRepository.findByUsernameOrBioOrderByCreateTimeDesc(keyword, pageRequest);
+            return doSearchUsers(keyword, page, size);
         } catch (Exception e) {
             log.error("搜索用户失败", e);
             return Page.empty();
         }
     }
 
+    private Page<PostDocument> doSearchPosts(String keyword, Integer page, Integer size) {
+        PageRequest pageRequest = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return search(keyword, pageRequest, PostDocument.class, "title", "content");
+    }
+
+    private Page<ResourceDocument> doSearchResources(String keyword, Integer page, Integer size) {
+        PageRequest pageRequest = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "uploadTime"));
+        return search(keyword, pageRequest, ResourceDocument.class, "title", "description");
+    }
+
+    private Page<UserDocument> doSearchUsers(String keyword, Integer page, Integer size) {
+        PageRequest pageRequest = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "registerTime"));
+        return search(keyword, pageRequest, UserDocument.class, "username", "bio");
+    }
+
     /**
-     * 综合搜索（包括帖子、资源和用户）
+     * 按关键词多字段匹配搜索
+     * 超时作为查询参数发给ES，到期后由ES停止查询并返回已收集的结果，
+     * 不依赖调用方取消线程（取消线程无法中止已发出的HTTP请求）
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Page<T> search(String keyword, PageRequest pageRequest, Class<T> type, String... fields) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.multiMatch(m -> m.query(keyword).fields(Arrays.asList(fields))))
+                .withPageable(pageRequest)
+                .withTimeout(Duration.ofMillis(searchTimeoutMs))
+                .build();
+        SearchHits<T> hits = elasticsearchOperations.search(query, type);
+        return (Page<T>) SearchHitSupport.unwrapSearchHits(SearchHitSupport.searchPageFor(hits, pageRequest));
+    }
+
+    /**
+     * 并行搜索帖子、资源和用户
+     * 总耗时取决于最慢的一个索引且不超过超时时间，而不是三次往返之和
      */
     @Override
-    public List<Object> searchAll(String keyword, Integer page, Integer size) {
+    public SearchPages searchAllTypes(String keyword, Integer page, Integer size) {
+        CompletableFuture<Page<PostDocument>> posts = submitSearch(() -> doSearchPosts(keyword, page, size));
+        CompletableFuture<Page<ResourceDocument>> resources = submitSearch(() -> doSearchResources(keyword, page, size));
+        CompletableFuture<Page<UserDocument>> users = submitSearch(() -> doSearchUsers(keyword, page, size));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(searchTimeoutMs);
+        SearchPages result = new SearchPages();
+        result.setPosts(awaitSearch(SearchPages.TYPE_POST, posts, deadline, result));
+        result.setResources(awaitSearch(SearchPages.TYPE_RESOURCE, resources, deadline, result));
+        result.setUsers(awaitSearch(SearchPages.TYPE_USER, users, deadline, result));
+        return result;
+    }
+
+    /**
+     * 提交一个搜索任务，线程池已满时直接视为失败
+     */
+    private <T> CompletableFuture<Page<T>> submitSearch(Supplier<Page<T>> search) {
         try {
-            List<Object> results = new ArrayList<>();
-            
-            // 搜索帖子
-            Page<PostDocument> posts = searchPosts(keyword, page, size);
-            results.addAll(posts.getContent());
-            
-            // 搜索资源
-            Page<ResourceDocument> resources = searchResources(keyword, page, size);
-            results.addAll(resources.getContent());
-            
-            // 搜索用户
-            Page<UserDocument> users = searchUsers(keyword, page, size);
-            results.addAll(users.getContent());
-            
-            return results;
-        } catch (Exception e) {
-            log.error("综合搜索失败", e);
-            return Collections.emptyList();
+            return CompletableFuture.supplyAsync(search, searchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 在截止时间前等待搜索结果，超时或失败时返回空页并记录类型
+     * 超时后不再等待，查询本身会在ES端按超时参数结束
+     */
+    private <T> Page<T> awaitSearch(String type, CompletableFuture<Page<T>> future, long deadline, SearchPages result) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("搜索{}超时，返回部分结果", type);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("搜索{}被中断", type);
+        } catch (ExecutionException e) {
+            log.error("搜索{}失败", type, e.getCause());
         }
+        result.getFailedTypes().add(type);
+        return Page.empty();
+    }
+
+    /**
+     * 综合搜索（包括帖子、资源和用户）
+     */
+    @Override
+    public List<Object> searchAll(String keyword, Integer page, Integer size) {
+        SearchPages pages = searchAllTypes(keyword, page, size);
+        List<Object> results = new ArrayList<>();
+        results.addAll(pages.getPosts().getContent());
+        results.addAll(pages.getResources().getContent());
+        results.addAll(pages.getUsers().getContent());
+        return results;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,226 @@
+package com.animesocial.platform.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.EsOutboxEvent;
+import com.animesocial.platform.model.EsSyncState;
+import com.animesocial.platform.model.es.PostDocument;
+import com.animesocial.platform.model.es.ResourceDocument;
+import com.animesocial.platform.model.es.UserDocument;
+import com.animesocial.platform.repository.EsSyncStateRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.UserRepository;
+import com.animesocial.platform.service.ElasticsearchService;
+import com.animesocial.platform.service.EsCatchUpService;
+import com.animesocial.platform.service.EsReindexService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ES启动追赶服务实现类
+ * 运行期间的变更由发件箱增量同步，这里只处理停机期间绕过发件箱写入的数据：
+ * 按同步水位找出ID更大的实体和水位时间之后修改过的帖子，分批交给bulkSync写入
+ */
+@Service
+@Slf4j
+public class EsCatchUpServiceImpl implements EsCatchUpService {
+    
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+    
+    @Autowired
+    private ElasticsearchService elasticsearchService;
+    
+    @Autowired
+    private EsReindexService esReindexService;
+    
+    @Autowired
+    private EsSyncStateRepository esSyncStateRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    /**
+     * 每批同步的实体数量
+     */
+    @Value("${app.es-catch-up.batch-size:500}")
+    private int batchSize;
+    
+    private volatile String status = STATUS_PENDING;
+    
+    private volatile String mode;
+    
+    private volatile String error;
+    
+    private volatile LocalDateTime startedAt;
+    
+    private volatile LocalDateTime finishedAt;
+    
+    /**
+     * 实体类型 -> 本次追赶同步的数量
+     */
+    private final Map<String, Integer> synced = new ConcurrentHashMap<>();
+    
+    /**
+     * 应用就绪后在后台线程中追赶，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::catchUp, "es-catch-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void catchUp() {
+        status = STATUS_RUNNING;
+        error = null;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        synced.clear();
+        try {
+            if (needsFullReindex()) {
+                mode = "reindex";
+                log.info("ElasticSearch索引或同步水位不存在，执行全量重建");
+                esReindexService.reindexNow();
+            } else {
+                mode = "incremental";
+                catchUpEntity(EsOutboxEvent.TYPE_POST, postRepository::findIdsAfterId);
+                catchUpEntity(EsOutboxEvent.TYPE_RESOURCE, resourceRepository::findIdsAfterId);
+                catchUpEntity(EsOutboxEvent.TYPE_USER, userRepository::findIdsAfterId);
+            }
+            status = STATUS_COMPLETED;
+            log.info("ElasticSearch索引追赶完成: {}", synced);
+        } catch (Exception e) {
+            status = STATUS_FAILED;
+            error = e.getMessage();
+            log.error("ElasticSearch索引追赶失败", e);
+        } finally {
+            finishedAt = LocalDateTime.now();
+        }
+    }
+    
+    @Override
+    public boolean isCaughtUp() {
+        return STATUS_COMPLETED.equals(status);
+    }
+    
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", status);
+        if (mode != null) {
+            result.put("mode", mode);
+        }
+        if (startedAt != null) {
+            result.put("startedAt", startedAt);
+        }
+        if (finishedAt != null) {
+            result.put("finishedAt", finishedAt);
+        }
+        if (!synced.isEmpty()) {
+            result.put("synced", new LinkedHashMap<>(synced));
+        }
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
+    }
+    
+    /**
+     * 任一索引或同步水位缺失时只能全量重建
+     */
+    private boolean needsFullReindex() {
+        return !elasticsearchOperations.indexOps(PostDocument.class).exists()
+                || !elasticsearchOperations.indexOps(ResourceDocument.class).exists()
+                || !elasticsearchOperations.indexOps(UserDocument.class).exists()
+                || esSyncStateRepository.findByEntityType(EsOutboxEvent.TYPE_POST) == null
+                || esSyncStateRepository.findByEntityType(EsOutboxEvent.TYPE_RESOURCE) == null
+                || esSyncStateRepository.findByEntityType(EsOutboxEvent.TYPE_USER) == null;
+    }
+    
+    /**
+     * 追赶一类实体：同步水位之后新增的实体，帖子还需同步水位时间之后修改过的记录
+     * @param entityType 实体类型
+     * @param idLoader 按主键分块读取ID的方法
+     */
+    private void catchUpEntity(String entityType, BiFunction<Integer, Integer, List<Integer>> idLoader) {
+        EsSyncState state = esSyncStateRepository.findByEntityType(entityType);
+        LocalDateTime catchUpStartedAt = LocalDateTime.now();
+        int count = 0;
+        
+        Integer lastId = state.getMaxId();
+        while (true) {
+            List<Integer> ids = idLoader.apply(lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            elasticsearchService.bulkSync(entityType, ids, Collections.emptyList());
+            lastId = ids.get(ids.size() - 1);
+            count += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        
+        if (EsOutboxEvent.TYPE_POST.equals(entityType)) {
+            count += catchUpUpdatedPosts(state);
+        }
+        
+        esSyncStateRepository.save(entityType, lastId, catchUpStartedAt);
+        synced.put(entityType, count);
+    }
+    
+    /**
+     * 同步水位时间之后修改过的帖子，水位ID之后的帖子已作为新增同步，这里跳过
+     * @return 同步的帖子数量
+     */
+    private int catchUpUpdatedPosts(EsSyncState state) {
+        if (state.getSyncedAt() == null) {
+            return 0;
+        }
+        int count = 0;
+        Integer lastId = 0;
+        while (lastId < state.getMaxId()) {
+            List<Integer> ids = postRepository.findIdsUpdatedAfter(state.getSyncedAt(), lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            List<Integer> existing = ids.stream().filter(id -> id <= state.getMaxId()).toList();
+            if (!existing.isEmpty()) {
+                elasticsearchService.bulkSync(EsOutboxEvent.TYPE_POST, existing, Collections.emptyList());
+                count += existing.size();
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,190 @@
+package com.animesocial.platform.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.EsOutboxEvent;
+import com.animesocial.platform.repository.EsOutboxRepository;
+import com.animesocial.platform.service.ElasticsearchService;
+import com.animesocial.platform.service.EsOutboxService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ES同步发件箱服务实现类
+ * 后台任务按写入顺序取出到期记录，按实体合并后以最后一次操作为准：
+ * 删除直接从ES移除，更新则从数据库读取当前数据重建文档。
+ * 同步成功的记录被删除，失败的记录按指数退避推迟重试，不会丢失。
+ */
+@Service
+@Slf4j
+public class EsOutboxServiceImpl implements EsOutboxService {
+    
+    @Autowired
+    private EsOutboxRepository esOutboxRepository;
+    
+    /**
+     * ElasticsearchService依赖的用户、标签服务会登记同步记录，延迟注入以避免循环依赖
+     */
+    @Lazy
+    @Autowired
+    private ElasticsearchService elasticsearchService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * 每批处理的最大记录数
+     */
+    @Value("${app.es-outbox.batch-size:500}")
+    private int batchSize;
+    
+    /**
+     * 失败重试的基础间隔（秒）
+     */
+    @Value("${app.es-outbox.retry-base-seconds:5}")
+    private int retryBaseSeconds;
+    
+    /**
+     * 失败重试的最大间隔（秒）
+     */
+    @Value("${app.es-outbox.retry-max-seconds:600}")
+    private int retryMaxSeconds;
+    
+    private final AtomicLong pendingCount = new AtomicLong();
+    
+    private final AtomicLong lagSeconds = new AtomicLong();
+    
+    private Counter syncedCounter;
+    
+    private Counter failureCounter;
+    
+    /**
+     * 注册同步积压与延迟的监控指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("es.outbox.pending", pendingCount);
+        meterRegistry.gauge("es.outbox.lag.seconds", lagSeconds);
+        syncedCounter = meterRegistry.counter("es.outbox.synced");
+        failureCounter = meterRegistry.counter("es.outbox.failures");
+    }
+    
+    @Override
+    public void enqueueUpsert(String entityType, Integer entityId) {
+        if (entityId == null) {
+            return;
+        }
+        esOutboxRepository.insert(entityType, entityId, EsOutboxEvent.OP_UPSERT);
+    }
+    
+    @Override
+    public void enqueueDelete(String entityType, Integer entityId) {
+        if (entityId == null) {
+            return;
+        }
+        esOutboxRepository.insert(entityType, entityId, EsOutboxEvent.OP_DELETE);
+    }
+    
+    @Override
+    public void enqueueByTag(Integer tagId) {
+        if (tagId == null) {
+            return;
+        }
+        esOutboxRepository.insertByTagId(tagId);
+    }
+    
+    /**
+     * 定时处理，默认每秒一次
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.es-outbox.poll-interval-ms:1000}")
+    public synchronized int drain() {
+        List<EsOutboxEvent> events;
+        try {
+            events = esOutboxRepository.findDue(batchSize);
+        } catch (Exception e) {
+            log.error("读取ES同步发件箱失败", e);
+            return 0;
+        }
+        
+        if (!events.isEmpty()) {
+            // 按实体类型分组，同一实体只保留最后一次操作
+            Map<String, Map<Integer, String>> latestOps = new LinkedHashMap<>();
+            Map<String, List<Long>> eventIds = new LinkedHashMap<>();
+            for (EsOutboxEvent event : events) {
+                latestOps.computeIfAbsent(event.getEntityType(), type -> new LinkedHashMap<>())
+                        .put(event.getEntityId(), event.getOperation());
+                eventIds.computeIfAbsent(event.getEntityType(), type -> new ArrayList<>()).add(event.getId());
+            }
+            
+            for (Map.Entry<String, Map<Integer, String>> entry : latestOps.entrySet()) {
+                syncType(entry.getKey(), entry.getValue(), eventIds.get(entry.getKey()));
+            }
+        }
+        
+        refreshBacklogMetrics();
+        return events.size();
+    }
+    
+    /**
+     * 同步一类实体，成功后删除对应记录，失败时推迟重试
+     */
+    private void syncType(String entityType, Map<Integer, String> ops, List<Long> ids) {
+        Set<Integer> upsertIds = new LinkedHashSet<>();
+        Set<Integer> deleteIds = new LinkedHashSet<>();
+        ops.forEach((entityId, operation) -> {
+            if (EsOutboxEvent.OP_DELETE.equals(operation)) {
+                deleteIds.add(entityId);
+            } else {
+                upsertIds.add(entityId);
+            }
+        });
+        
+        try {
+            elasticsearchService.bulkSync(entityType, upsertIds, deleteIds);
+            esOutboxRepository.deleteByIds(ids);
+            syncedCounter.increment(ops.size());
+        } catch (Exception e) {
+            log.warn("同步{}到ElasticSearch失败，{}条记录将退避重试: {}", entityType, ids.size(), e.getMessage());
+            failureCounter.increment();
+            String error = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500)
+                    : e.getMessage();
+            try {
+                esOutboxRepository.markFailed(ids, error, retryBaseSeconds, retryMaxSeconds);
+            } catch (Exception markError) {
+                log.error("记录ES同步失败状态出错", markError);
+            }
+        }
+    }
+    
+    /**
+     * 更新积压数量与最早未同步记录的延迟
+     */
+    private void refreshBacklogMetrics() {
+        try {
+            pendingCount.set(esOutboxRepository.countPending());
+            LocalDateTime oldest = esOutboxRepository.findOldestCreatedAt();
+            lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()));
+        } catch (Exception e) {
+            log.debug("刷新ES同步积压指标失败", e);
+        }
+    }
+}
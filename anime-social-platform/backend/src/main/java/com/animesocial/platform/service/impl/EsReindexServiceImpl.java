@@ -0,0 +1,413 @@
+package com.animesocial.platform.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.exception.BusinessException;
+import com.animesocial.platform.model.EsOutboxEvent;
+import com.animesocial.platform.model.Post;
+import com.animesocial.platform.model.Resource;
+import com.animesocial.platform.model.User;
+import com.animesocial.platform.model.dto.ReindexProgress;
+import com.animesocial.platform.model.es.PostDocument;
+import com.animesocial.platform.model.es.ResourceDocument;
+import com.animesocial.platform.model.es.UserDocument;
+import com.animesocial.platform.repository.EsSyncStateRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.UserRepository;
+import com.animesocial.platform.service.ElasticsearchService;
+import com.animesocial.platform.service.EsReindexService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ES索引重建服务实现类
+ * 每类实体的重建流程：
+ * 1. 以"别名_v时间戳"创建新索引，别名即实体文档上声明的索引名；
+ * 2. 按主键分块读取数据，每块在有界线程池中批量加载作者、标签并通过_bulk写入新索引，
+ *    线程池队列满时由读取线程自己执行，避免读取速度远超写入速度时堆积在内存中；
+ * 3. 将重建期间增量同步过的实体补写到新索引；
+ * 4. 在一次别名请求中把别名从旧索引移到新索引，然后删除旧索引。
+ */
+@Service
+@Slf4j
+public class EsReindexServiceImpl implements EsReindexService {
+    
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+    
+    /**
+     * ElasticsearchService在增量同步时会回调本服务，延迟注入以避免循环依赖
+     */
+    @Lazy
+    @Autowired
+    private ElasticsearchService elasticsearchService;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EsSyncStateRepository esSyncStateRepository;
+    
+    /**
+     * 每块读取的记录数
+     */
+    @Value("${app.es-reindex.chunk-size:500}")
+    private int chunkSize;
+    
+    /**
+     * 并行写入的线程数
+     */
+    @Value("${app.es-reindex.threads:4}")
+    private int threads;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    private volatile ReindexProgress progress = new ReindexProgress();
+    
+    /**
+     * 正在重建的实体类型 -> 重建期间发生变更的实体ID
+     */
+    private final Map<String, Set<Integer>> changedDuringReindex = new ConcurrentHashMap<>();
+    
+    private final ExecutorService launcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "es-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @PreDestroy
+    public void shutdown() {
+        launcher.shutdownNow();
+    }
+    
+    @Override
+    public ReindexProgress startReindex() {
+        ReindexProgress current = begin();
+        launcher.execute(() -> {
+            try {
+                run(current);
+            } catch (Exception e) {
+                log.error("ElasticSearch索引重建失败", e);
+            }
+        });
+        return current;
+    }
+    
+    @Override
+    public void reindexNow() {
+        run(begin());
+    }
+    
+    @Override
+    public ReindexProgress getProgress() {
+        return progress;
+    }
+    
+    @Override
+    public void recordChange(String entityType, Collection<Integer> entityIds) {
+        Set<Integer> changed = changedDuringReindex.get(entityType);
+        if (changed != null) {
+            changed.addAll(entityIds);
+        }
+    }
+    
+    /**
+     * 占用重建任务并初始化进度
+     */
+    private ReindexProgress begin() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("索引重建正在进行中");
+        }
+        ReindexProgress current = new ReindexProgress();
+        current.setStatus(ReindexProgress.STATUS_RUNNING);
+        current.setStartedAt(LocalDateTime.now());
+        for (EntityIndexer<?, ?> indexer : indexers()) {
+            ReindexProgress.EntityProgress entity = new ReindexProgress.EntityProgress();
+            entity.setEntityType(indexer.entityType);
+            current.getEntities().add(entity);
+        }
+        progress = current;
+        return current;
+    }
+    
+    /**
+     * 依次重建帖子、资源、用户索引
+     */
+    private void run(ReindexProgress current) {
+        try {
+            List<EntityIndexer<?, ?>> indexers = indexers();
+            for (int i = 0; i < indexers.size(); i++) {
+                reindex(indexers.get(i), current.getEntities().get(i));
+            }
+            current.setStatus(ReindexProgress.STATUS_COMPLETED);
+            log.info("ElasticSearch索引重建完成");
+        } catch (Exception e) {
+            current.setStatus(ReindexProgress.STATUS_FAILED);
+            current.setError(e.getMessage());
+            throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+        } finally {
+            current.setFinishedAt(LocalDateTime.now());
+            running.set(false);
+        }
+    }
+    
+    /**
+     * 重建一类实体的索引
+     */
+    private <E, D> void reindex(EntityIndexer<E, D> indexer, ReindexProgress.EntityProgress entity) throws Exception {
+        String alias = elasticsearchOperations.getIndexCoordinatesFor(indexer.documentClass).getIndexName();
+        String target = alias + "_v" + LocalDateTime.now().format(VERSION_FORMAT);
+        IndexCoordinates targetIndex = IndexCoordinates.of(target);
+        
+        entity.setAlias(alias);
+        entity.setTargetIndex(target);
+        entity.setTotal(indexer.counter.getAsInt());
+        entity.setStatus(ReindexProgress.STATUS_RUNNING);
+        log.info("开始重建{}索引: {} -> {}，共{}条", indexer.entityType, alias, target, entity.getTotal());
+        
+        IndexOperations documentOps = elasticsearchOperations.indexOps(indexer.documentClass);
+        elasticsearchOperations.indexOps(targetIndex).create(documentOps.createSettings(), documentOps.createMapping());
+        changedDuringReindex.put(indexer.entityType, ConcurrentHashMap.newKeySet());
+        LocalDateTime streamStartedAt = LocalDateTime.now();
+        
+        try {
+            int maxId = streamInto(indexer, targetIndex, entity);
+            
+            // 补写重建期间发生变更的实体，此时别名仍指向旧索引
+            resyncChanged(indexer, targetIndex, false);
+            
+            elasticsearchOperations.indexOps(targetIndex).refresh();
+            swapAlias(alias, target);
+            
+            // 别名切换后增量同步直接写入新索引，最后补写切换前一刻的变更
+            resyncChanged(indexer, targetIndex, true);
+            
+            // 之后新增的实体由增量同步写入，下次启动时从此水位开始追赶
+            esSyncStateRepository.save(indexer.entityType, maxId, streamStartedAt);
+            entity.setStatus(ReindexProgress.STATUS_COMPLETED);
+            log.info("{}索引重建完成，共写入{}条", indexer.entityType, entity.getIndexed());
+        } catch (Exception e) {
+            changedDuringReindex.remove(indexer.entityType);
+            entity.setStatus(ReindexProgress.STATUS_FAILED);
+            try {
+                elasticsearchOperations.indexOps(targetIndex).delete();
+            } catch (Exception deleteError) {
+                log.warn("删除未完成的索引失败: {}", target, deleteError);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * 按主键分块读取并并行写入目标索引
+     * @return 写入的最大实体ID
+     */
+    private <E, D> int streamInto(EntityIndexer<E, D> indexer, IndexCoordinates targetIndex,
+                                   ReindexProgress.EntityProgress entity) throws Exception {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                runnable -> new Thread(runnable, "es-reindex-worker-" + threadIndex.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        AtomicLong indexed = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            Integer lastId = 0;
+            while (true) {
+                List<E> chunk = indexer.chunkLoader.apply(lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = indexer.idOf.apply(chunk.get(chunk.size() - 1));
+                futures.add(pool.submit(() -> {
+                    List<D> documents = indexer.builder.apply(chunk);
+                    if (!documents.isEmpty()) {
+                        elasticsearchOperations.save(documents, targetIndex);
+                    }
+                    entity.setIndexed(indexed.addAndGet(documents.size()));
+                }));
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            return lastId;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * 按当前数据库状态补写重建期间发生变更的实体，已删除的实体从目标索引移除
+     * 每轮先取出并移除一批ID再读取数据库，补写期间再次记录的ID留在集合中由下一轮处理。
+     * 停止记录时集合已从映射中移除，但此前取得集合引用的同步线程仍可能追加ID，
+     * 因此循环直到集合为空
+     * @param stopRecording 是否同时停止记录变更
+     */
+    private <E, D> void resyncChanged(EntityIndexer<E, D> indexer, IndexCoordinates targetIndex, boolean stopRecording) {
+        Set<Integer> changed = stopRecording
+                ? changedDuringReindex.remove(indexer.entityType)
+                : changedDuringReindex.get(indexer.entityType);
+        if (changed == null) {
+            return;
+        }
+        int replayed = 0;
+        while (!changed.isEmpty()) {
+            List<Integer> ids = new ArrayList<>(changed);
+            changed.removeAll(ids);
+            replay(indexer, targetIndex, ids);
+            replayed += ids.size();
+            if (!stopRecording) {
+                break;
+            }
+        }
+        if (replayed > 0) {
+            log.info("补写重建期间变更的{}文档{}条", indexer.entityType, replayed);
+        }
+    }
+    
+    /**
+     * 按当前数据库状态写入一组实体的文档，数据库中已不存在的实体从目标索引移除
+     */
+    private <E, D> void replay(EntityIndexer<E, D> indexer, IndexCoordinates targetIndex, List<Integer> ids) {
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Integer> batch = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            List<E> entities = indexer.idLoader.apply(batch);
+            List<D> documents = indexer.builder.apply(entities);
+            if (!documents.isEmpty()) {
+                elasticsearchOperations.save(documents, targetIndex);
+            }
+            Set<Integer> found = new HashSet<>();
+            entities.forEach(e -> found.add(indexer.idOf.apply(e)));
+            for (Integer id : batch) {
+                if (!found.contains(id)) {
+                    elasticsearchOperations.delete(String.valueOf(id), targetIndex);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 在一次别名请求中把别名指向新索引，并移除旧索引
+     * 早期版本直接以别名为名创建了实体索引，首次切换时一并删除该索引
+     */
+    private void swapAlias(String alias, String target) {
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(alias));
+        AliasActions actions = new AliasActions(new AliasAction.Add(
+                AliasActionParameters.builder().withIndices(target).withAliases(alias).build()));
+        
+        Set<String> oldIndices = new HashSet<>();
+        if (aliasOps.exists()) {
+            Map<String, Set<AliasData>> current = aliasOps.getAliasesForIndex(alias);
+            if (current.containsKey(alias)) {
+                actions.add(new AliasAction.RemoveIndex(
+                        AliasActionParameters.builder().withIndices(alias).build()));
+            } else {
+                oldIndices.addAll(current.keySet());
+                actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                        .withIndices(oldIndices.toArray(new String[0])).withAliases(alias).build()));
+            }
+        }
+        aliasOps.alias(actions);
+        log.info("索引别名{}已切换到{}", alias, target);
+        
+        for (String oldIndex : oldIndices) {
+            try {
+                elasticsearchOperations.indexOps(IndexCoordinates.of(oldIndex)).delete();
+            } catch (Exception e) {
+                log.warn("删除旧索引失败: {}", oldIndex, e);
+            }
+        }
+    }
+    
+    private List<EntityIndexer<?, ?>> indexers() {
+        return Arrays.asList(
+                new EntityIndexer<Post, PostDocument>(EsOutboxEvent.TYPE_POST, PostDocument.class,
+                        postRepository::findAfterId, postRepository::findByIds,
+                        elasticsearchService::buildPostDocuments, Post::getId, postRepository::count),
+                new EntityIndexer<Resource, ResourceDocument>(EsOutboxEvent.TYPE_RESOURCE, ResourceDocument.class,
+                        resourceRepository::findAfterId, ids -> resourceRepository.findByIds(new ArrayList<>(ids)),
+                        elasticsearchService::buildResourceDocuments, Resource::getId, resourceRepository::count),
+                new EntityIndexer<User, UserDocument>(EsOutboxEvent.TYPE_USER, UserDocument.class,
+                        userRepository::findAfterId, userRepository::findByIds,
+                        elasticsearchService::buildUserDocuments, User::getId, userRepository::count));
+    }
+    
+    /**
+     * 一类实体的读取与文档构建方式
+     */
+    private static class EntityIndexer<E, D> {
+        private final String entityType;
+        private final Class<D> documentClass;
+        private final BiFunction<Integer, Integer, List<E>> chunkLoader;
+        private final Function<Collection<Integer>, List<E>> idLoader;
+        private final Function<List<E>, List<D>> builder;
+        private final Function<E, Integer> idOf;
+        private final IntSupplier counter;
+        
+        EntityIndexer(String entityType, Class<D> documentClass,
+                      BiFunction<Integer, Integer, List<E>> chunkLoader,
+                      Function<Collection<Integer>, List<E>> idLoader,
+                      Function<List<E>, List<D>> builder,
+                      Function<E, Integer> idOf,
+                      IntSupplier counter) {
+            this.entityType = entityType;
+            this.documentClass = documentClass;
+            this.chunkLoader = chunkLoader;
+            this.idLoader = idLoader;
+            this.builder = builder;
+            this.idOf = idOf;
+            this.counter = counter;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.animesocial.platform.service.impl;
 
 import java.util.List;
-import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +15,11 @@ import com.animesocial.platform.repository.FavoriteRepository;
 import com.animesocial.platform.repository.ResourceRepository;
 import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.service.FavoriteService;
+import com.animesocial.platform.service.InteractionStatusService;
 import com.animesocial.platform.service.ResourceService;
+import com.animesocial.platform.service.UserStatsService;
+import com.animesocial.platform.util.CursorUtil;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.ResourceListResponse;
 import com.animesocial.platform.model.dto.ResourceDTO;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +34,11 @@ import java.time.LocalDateTime;
 @Slf4j
 public class FavoriteServiceImpl implements FavoriteService {
 
+    /**
+     * 收藏游标的排序方式，收藏列表只按收藏时间排序
+     */
+    private static final String CURSOR_SORT = "favorited";
+
     @Autowired
     private UserRepository userRepository;
     
@@ -43,6 +51,12 @@ public class FavoriteServiceImpl implements FavoriteService {
     @Autowired
     private ResourceService resourceService;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
+    @Autowired
+    private InteractionStatusService interactionStatusService;
+    
     /**
      * 添加收藏
      * 
@@ -79,6 +93,8 @@ public class FavoriteServiceImpl implements FavoriteService {
         
         // 保存收藏
         favoriteRepository.insert(favorite);
+        userStatsService.adjustFavoriteCount(userId, 1);
+        interactionStatusService.evictFavorites(userId);
         
         return favorite;
     }
@@ -113,6 +129,10 @@ public class FavoriteServiceImpl implements FavoriteService {
         
         // 删除收藏
         int result = favoriteRepository.deleteByUserIdAndResourceId(userId, resourceId);
+        if (result > 0) {
+            userStatsService.adjustFavoriteCount(userId, -result);
+            interactionStatusService.evictFavorites(userId);
+        }
         
         return result > 0;
     }
@@ -132,36 +152,14 @@ public class FavoriteServiceImpl implements FavoriteService {
     
     /**
      * 获取用户的收藏"资源"列表
+     * 只返回最近收藏的 MAX_PAGE_SIZE 条，总数仍为全部收藏数，更多记录请使用分页或游标接口
      * 
      * @param userId 用户ID
      * @return 收藏DTO列表
      */
     @Override
     public ResourceListResponse getUserFavorites(Integer userId) {
-        // 获取收藏的资源ID列表
-        List<Integer> resourceIds = favoriteRepository.findResourceIdsByUserId(userId);
-        
-        // 使用ResourceService获取资源详情
-        ResourceListResponse response = new ResourceListResponse();
-        List<ResourceDTO> resourceDTOs = new ArrayList<>();
-        
-        // 对每个资源ID调用resourceService.getResourceById
-        for (Integer resourceId : resourceIds) {
-            try {
-                ResourceDTO resourceDTO = resourceService.getResourceById(resourceId);
-                // 已收藏标记设为true
-                resourceDTO.setIsFavorited(true);
-                resourceDTOs.add(resourceDTO);
-            } catch (Exception e) {
-                log.error("获取资源详情失败，资源ID: " + resourceId, e);
-                // 忽略不存在的资源，继续处理其他资源
-            }
-        }
-        
-        response.setItems(resourceDTOs);
-        response.setTotal(resourceDTOs.size());
-        
-        return response;
+        return resourceService.getFavoritedResources(userId, 1, CursorUtil.MAX_PAGE_SIZE);
     }
     
     /**
@@ -170,37 +168,45 @@ public class FavoriteServiceImpl implements FavoriteService {
      * @param userId 用户ID
      * @param page 页码
      * @param size 每页数量
-     * @return 包含收藏列表和总数的Map
+     * @return 当前页的收藏列表和收藏总数
      */
     @Override
-    public ResourceListResponse getUserFavoritesWithPagination(Integer userId, Integer page, Integer size) {        
-        // 计算分页参数
-        int offset = (page - 1) * size;
-        
-        // 使用分页方法查询资源ID
-        List<Integer> resourceIds = favoriteRepository.findResourceIdsByUserIdWithPagination(userId, offset, size);
-        
-        // 使用ResourceService获取资源详情
-        ResourceListResponse response = new ResourceListResponse();
-        List<ResourceDTO> resourceDTOs = new ArrayList<>();
-        
-        // 对每个资源ID调用resourceService.getResourceById
-        for (Integer resourceId : resourceIds) {
-            try {
-                ResourceDTO resourceDTO = resourceService.getResourceById(resourceId);
-                // 已收藏标记设为true
-                resourceDTO.setIsFavorited(true);
-                resourceDTOs.add(resourceDTO);
-            } catch (Exception e) {
-                log.error("获取资源详情失败，资源ID: " + resourceId, e);
-                // 忽略不存在的资源，继续处理其他资源
-            }
-        }
-        
-        response.setItems(resourceDTOs);
-        response.setTotal(resourceDTOs.size());
-        
-        return response;
+    public ResourceListResponse getUserFavoritesWithPagination(Integer userId, Integer page, Integer size) {
+        return resourceService.getFavoritedResources(userId, page, size);
+    }
+    
+    /**
+     * 按游标获取用户的收藏"资源"列表
+     * 游标取自本页最后一条收藏记录的 (收藏时间, 收藏ID)
+     * 
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 收藏列表和下一页游标
+     */
+    @Override
+    public CursorPage<ResourceDTO> getUserFavoritesByCursor(Integer userId, String cursor, Integer size) {
+        int pageSize = CursorUtil.clampSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, CURSOR_SORT);
+        
+        // 多查询一条用于判断是否还有下一页
+        List<Favorite> favorites = favoriteRepository.findByUserIdByCursor(userId,
+                position != null ? position.getTimeValue() : null,
+                position != null ? position.getId() : null,
+                pageSize + 1);
+        return CursorPage.of(favorites, pageSize,
+                last -> CursorUtil.encode(CURSOR_SORT, last.getCreatedAt(), last.getId()),
+                page -> {
+                    // 按收藏顺序批量加载资源详情
+                    List<Integer> resourceIds = page.stream()
+                            .map(Favorite::getResourceId)
+                            .collect(Collectors.toList());
+                    List<ResourceDTO> resourceDTOs = resourceService.findByIds(resourceIds, userId);
+                    for (ResourceDTO resourceDTO : resourceDTOs) {
+                        resourceDTO.setIsFavorited(true);
+                    }
+                    return resourceDTOs;
+                });
     }
     
     /**
@@ -222,7 +228,6 @@ public class FavoriteServiceImpl implements FavoriteService {
      */
     @Override
     public int getResourceFavoriteCount(Integer resourceId) {
-        List<Favorite> favorites = favoriteRepository.findByResourceId(resourceId);
-        return favorites.size();
+        return favoriteRepository.countByResourceId(resourceId);
     }
 } 
\ No newline at end of file
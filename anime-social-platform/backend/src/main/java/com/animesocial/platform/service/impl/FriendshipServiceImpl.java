@@ -11,7 +11,9 @@ import com.animesocial.platform.exception.BusinessException;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.repository.FriendshipRepository;
 import com.animesocial.platform.service.FriendshipService;
+import com.animesocial.platform.service.TimelineService;
 import com.animesocial.platform.service.UserService;
+import com.animesocial.platform.service.UserStatsService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,6 +31,12 @@ public class FriendshipServiceImpl implements FriendshipService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
     /**
      * 关注用户
      * 
@@ -55,6 +63,8 @@ public class FriendshipServiceImpl implements FriendshipService {
         }
         
         friendshipRepository.insert(userId, targetId);
+        userStatsService.adjustFollowCount(userId, targetId, 1);
+        timelineService.onFollow(userId, targetId);
         
         // 检查是否为互相关注
         boolean isFollowedBy = friendshipRepository.exists(targetId, userId);
@@ -95,8 +105,11 @@ public class FriendshipServiceImpl implements FriendshipService {
             friendshipRepository.updateStatus(targetId, userId, 0);
         }
         
-        // 删除关注关系
-        friendshipRepository.delete(userId, targetId);
+        // 删除关注关系，只有真正删除了记录才减少计数，并发取消关注不会重复计数
+        if (friendshipRepository.delete(userId, targetId) > 0) {
+            userStatsService.adjustFollowCount(userId, targetId, -1);
+        }
+        timelineService.onUnfollow(userId, targetId);
         
         return "取消关注成功";
     }
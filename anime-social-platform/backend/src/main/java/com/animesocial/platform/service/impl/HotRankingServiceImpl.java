@@ -0,0 +1,288 @@
+package com.animesocial.platform.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.ContentHeat;
+import com.animesocial.platform.model.ContentTag;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.TagRepository;
+import com.animesocial.platform.service.HotRankingService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 热门排行服务实现类
+ * 热度分数 = 互动加权和 / (发布小时数 + 2)^gravity，越新的互动权重越高，旧内容自然下沉。
+ * 定时任务按主键分块读取时间窗口内的内容，用大小为N的最小堆保留全站和每个标签的前N名，
+ * 计算完成后整体替换快照；接口只读取快照，不再对全表按表达式排序。
+ */
+@Service
+@Slf4j
+public class HotRankingServiceImpl implements HotRankingService {
+
+    /**
+     * 每次读取的内容数量
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private static final double POST_LIKE_WEIGHT = 3.0;
+    private static final double POST_COMMENT_WEIGHT = 2.0;
+    private static final double POST_VIEW_WEIGHT = 0.1;
+
+    private static final double RESOURCE_LIKE_WEIGHT = 3.0;
+    private static final double RESOURCE_FAVORITE_WEIGHT = 4.0;
+    private static final double RESOURCE_DOWNLOAD_WEIGHT = 0.5;
+
+    private static final int[] EMPTY = new int[0];
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 每个排行保留的内容数量
+     */
+    @Value("${app.hot-ranking.size:100}")
+    private int rankingSize;
+
+    /**
+     * 参与排行的内容发布时间窗口（天）
+     */
+    @Value("${app.hot-ranking.window-days:90}")
+    private int windowDays;
+
+    /**
+     * 时间衰减指数，越大旧内容下沉越快
+     */
+    @Value("${app.hot-ranking.gravity:1.5}")
+    private double gravity;
+
+    private volatile Ranking postRanking;
+
+    private volatile Ranking resourceRanking;
+
+    private Timer recomputeTimer;
+
+    /**
+     * 注册排行计算耗时的监控指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        recomputeTimer = meterRegistry.timer("hot.ranking.recompute");
+    }
+
+    @Override
+    public List<Integer> getHotPostIds(Integer tagId, int limit) {
+        return ensureComputed(() -> postRanking).top(tagId, limit);
+    }
+
+    @Override
+    public List<Integer> getHotResourceIds(Integer tagId, int limit) {
+        return ensureComputed(() -> resourceRanking).top(tagId, limit);
+    }
+
+    /**
+     * 定时重新计算，默认每5分钟一次
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.hot-ranking.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.hot-ranking.refresh-interval-ms:300000}")
+    public synchronized void recompute() {
+        recomputeTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = now.minusDays(windowDays);
+            Ranking posts = compute("post",
+                    lastId -> postRepository.findHeatAfterId(since, lastId, LOAD_BATCH_SIZE),
+                    heat -> decay(POST_LIKE_WEIGHT * count(heat.getLikeCount())
+                            + POST_COMMENT_WEIGHT * count(heat.getCommentCount())
+                            + POST_VIEW_WEIGHT * count(heat.getViewCount()), heat, now));
+            Ranking resources = compute("resource",
+                    lastId -> resourceRepository.findHeatAfterId(since, lastId, LOAD_BATCH_SIZE),
+                    heat -> decay(RESOURCE_LIKE_WEIGHT * count(heat.getLikeCount())
+                            + RESOURCE_FAVORITE_WEIGHT * count(heat.getFavoriteCount())
+                            + RESOURCE_DOWNLOAD_WEIGHT * count(heat.getDownloadCount()), heat, now));
+            postRanking = posts;
+            resourceRanking = resources;
+            log.debug("热门排行已更新: 帖子{}个标签排行, 资源{}个标签排行", posts.byTag.size(), resources.byTag.size());
+        });
+    }
+
+    /**
+     * 首次读取时计算排行
+     */
+    private Ranking ensureComputed(Supplier<Ranking> ranking) {
+        Ranking current = ranking.get();
+        if (current == null) {
+            synchronized (this) {
+                if (ranking.get() == null) {
+                    recompute();
+                }
+            }
+            current = ranking.get();
+        }
+        return current;
+    }
+
+    /**
+     * 分块读取内容热度数据，计算全站和各标签的前N名
+     * @param contentType 内容类型(post/resource)
+     * @param loader 根据上一块最后的ID读取下一块数据
+     * @param scorer 热度分数计算函数
+     */
+    private Ranking compute(String contentType, ChunkLoader loader, ToDoubleFunction<ContentHeat> scorer) {
+        TopN global = new TopN(rankingSize);
+        Map<Integer, TopN> byTag = new HashMap<>();
+        int lastId = 0;
+        List<ContentHeat> chunk;
+        do {
+            chunk = loader.load(lastId);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Map<Integer, Double> scores = new HashMap<>(chunk.size() * 2);
+            for (ContentHeat heat : chunk) {
+                double score = scorer.applyAsDouble(heat);
+                scores.put(heat.getId(), score);
+                global.offer(heat.getId(), score);
+            }
+            for (ContentTag contentTag : tagRepository.findContentTags(contentType, scores.keySet())) {
+                Double score = scores.get(contentTag.getContentId());
+                if (score != null) {
+                    byTag.computeIfAbsent(contentTag.getTagId(), id -> new TopN(rankingSize))
+                            .offer(contentTag.getContentId(), score);
+                }
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == LOAD_BATCH_SIZE);
+
+        Map<Integer, int[]> tagRankings = new HashMap<>(byTag.size() * 2);
+        byTag.forEach((tagId, top) -> tagRankings.put(tagId, top.toSortedIds()));
+        return new Ranking(global.toSortedIds(), tagRankings);
+    }
+
+    /**
+     * 按发布时间对互动加权和做衰减
+     */
+    private double decay(double points, ContentHeat heat, LocalDateTime now) {
+        double ageHours = 0;
+        if (heat.getCreatedAt() != null) {
+            ageHours = Math.max(0, Duration.between(heat.getCreatedAt(), now).toMinutes() / 60.0);
+        }
+        return points / Math.pow(ageHours + 2, gravity);
+    }
+
+    private static int count(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * 按上一块最后的ID读取下一块热度数据
+     */
+    @FunctionalInterface
+    private interface ChunkLoader {
+        List<ContentHeat> load(int lastId);
+    }
+
+    /**
+     * 排行快照：全站排行及各标签排行，均为按热度降序的内容ID
+     */
+    private static final class Ranking {
+        private final int[] global;
+        private final Map<Integer, int[]> byTag;
+
+        private Ranking(int[] global, Map<Integer, int[]> byTag) {
+            this.global = global;
+            this.byTag = byTag;
+        }
+
+        private List<Integer> top(Integer tagId, int limit) {
+            int[] ids = tagId == null ? global : byTag.getOrDefault(tagId, EMPTY);
+            int size = Math.min(Math.max(limit, 0), ids.length);
+            if (size == 0) {
+                return Collections.emptyList();
+            }
+            List<Integer> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(ids[i]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 用最小堆保留分数最高的N个内容，分数相同时较新的（ID较大的）优先
+     */
+    private static final class TopN {
+        private static final Comparator<Entry> RANKING = Comparator
+                .comparingDouble((Entry e) -> e.score).reversed()
+                .thenComparing(Comparator.comparingInt((Entry e) -> e.id).reversed());
+
+        private final int capacity;
+        private final PriorityQueue<Entry> heap;
+
+        private TopN(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(capacity + 1, RANKING.reversed());
+        }
+
+        private void offer(int id, double score) {
+            Entry entry = new Entry(id, score);
+            if (heap.size() < capacity) {
+                heap.offer(entry);
+            } else if (capacity > 0 && RANKING.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(entry);
+            }
+        }
+
+        private int[] toSortedIds() {
+            List<Entry> entries = new ArrayList<>(heap);
+            entries.sort(RANKING);
+            int[] ids = new int[entries.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = entries.get(i).id;
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * 排行候选内容
+     */
+    private static final class Entry {
+        private final int id;
+        private final double score;
+
+        private Entry(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.animesocial.platform.service.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.repository.FavoriteRepository;
+import com.animesocial.platform.repository.PostLikeRepository;
+import com.animesocial.platform.repository.ResourceLikeRepository;
+import com.animesocial.platform.service.InteractionStatusService;
+import com.animesocial.platform.util.AfterCommit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 互动状态服务实现类
+ * 点赞、收藏数量不多的用户，其全部点赞/收藏ID以位图形式缓存在本地，列表页直接在内存中判断；
+ * 数量超过上限的用户不缓存，每页用一次 IN 查询只判断本页内容。
+ * 缓存由点赞、收藏的写操作在事务提交后失效。
+ */
+@Service
+public class InteractionStatusServiceImpl implements InteractionStatusService {
+
+    /**
+     * 表示该用户的ID数量超过上限、不做缓存的标记
+     */
+    private static final RoaringBitmap UNCACHED = new RoaringBitmap();
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private ResourceLikeRepository resourceLikeRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 每个缓存最多缓存的用户数
+     */
+    @Value("${app.interaction-cache.max-users:10000}")
+    private long maxUsers;
+
+    /**
+     * 单个用户最多缓存的点赞/收藏数量，超过后改为按页查询
+     */
+    @Value("${app.interaction-cache.max-ids-per-user:1000}")
+    private int maxIdsPerUser;
+
+    /**
+     * 缓存条目写入后的过期时间（秒），兜底绕过本服务直接修改数据库的情况
+     */
+    @Value("${app.interaction-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    /**
+     * 用户ID -> 点赞的帖子ID
+     */
+    private Cache<Integer, RoaringBitmap> postLikeCache;
+
+    /**
+     * 用户ID -> 点赞的资源ID
+     */
+    private Cache<Integer, RoaringBitmap> resourceLikeCache;
+
+    /**
+     * 用户ID -> 收藏的资源ID
+     */
+    private Cache<Integer, RoaringBitmap> favoriteCache;
+
+    /**
+     * 创建缓存并注册命中率等监控指标
+     */
+    @PostConstruct
+    public void initCaches() {
+        postLikeCache = buildCache("interaction.post-likes");
+        resourceLikeCache = buildCache("interaction.resource-likes");
+        favoriteCache = buildCache("interaction.favorites");
+    }
+
+    private <K, V> Cache<K, V> buildCache(String name) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    @Override
+    public Set<Integer> getLikedPostIds(Integer userId, Collection<Integer> postIds) {
+        return resolve(postLikeCache, userId, postIds,
+                postLikeRepository::findPostIdsByUserIdLimit, postLikeRepository::findLikedPostIds);
+    }
+
+    @Override
+    public Set<Integer> getLikedResourceIds(Integer userId, Collection<Integer> resourceIds) {
+        return resolve(resourceLikeCache, userId, resourceIds,
+                resourceLikeRepository::findResourceIdsByUserIdLimit, resourceLikeRepository::findLikedResourceIds);
+    }
+
+    @Override
+    public Set<Integer> getFavoritedResourceIds(Integer userId, Collection<Integer> resourceIds) {
+        return resolve(favoriteCache, userId, resourceIds,
+                favoriteRepository::findResourceIdsByUserIdLimit, favoriteRepository::findFavoritedResourceIds);
+    }
+
+    @Override
+    public void evictPostLikes(Integer userId) {
+        AfterCommit.evict(() -> postLikeCache.invalidate(userId));
+    }
+
+    @Override
+    public void evictResourceLikes(Integer userId) {
+        AfterCommit.evict(() -> resourceLikeCache.invalidate(userId));
+    }
+
+    @Override
+    public void evictFavorites(Integer userId) {
+        AfterCommit.evict(() -> favoriteCache.invalidate(userId));
+    }
+
+    /**
+     * 判断给定内容中哪些被用户点赞/收藏
+     * @param cache 用户ID -> 全部点赞/收藏ID的缓存
+     * @param userId 用户ID
+     * @param contentIds 本页内容ID
+     * @param loadAll 按 (用户ID, 最大数量) 读取用户的全部点赞/收藏ID
+     * @param loadPage 按 (用户ID, 内容ID列表) 只读取本页的点赞/收藏ID
+     */
+    private Set<Integer> resolve(Cache<Integer, RoaringBitmap> cache, Integer userId, Collection<Integer> contentIds,
+                                 BiFunction<Integer, Integer, List<Integer>> loadAll,
+                                 BiFunction<Integer, Collection<Integer>, List<Integer>> loadPage) {
+        if (userId == null || contentIds == null || contentIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        RoaringBitmap ids = cache.get(userId, id -> {
+            // 多读一个用于判断是否超过上限
+            List<Integer> all = loadAll.apply(id, maxIdsPerUser + 1);
+            if (all.size() > maxIdsPerUser) {
+                return UNCACHED;
+            }
+            RoaringBitmap bitmap = new RoaringBitmap();
+            all.forEach(bitmap::add);
+            bitmap.runOptimize();
+            return bitmap;
+        });
+
+        if (ids == UNCACHED) {
+            return new HashSet<>(loadPage.apply(userId, contentIds));
+        }
+        Set<Integer> result = new HashSet<>();
+        for (Integer contentId : contentIds) {
+            if (contentId != null && ids.contains(contentId)) {
+                result.add(contentId);
+            }
+        }
+        return result;
+    }
+}
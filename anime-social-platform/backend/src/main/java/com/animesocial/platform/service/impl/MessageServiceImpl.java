@@ -1,18 +1,25 @@
 package com.animesocial.platform.service.impl;
 
 import com.animesocial.platform.model.Message;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.MessageDTO;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.repository.MessageRepository;
 import com.animesocial.platform.service.MessageService;
 import com.animesocial.platform.service.UserService;
+import com.animesocial.platform.util.CursorUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +28,11 @@ import java.util.stream.Collectors;
 @Service
 public class MessageServiceImpl implements MessageService {
 
+    /**
+     * 消息游标的排序方式，消息只按发送时间排序
+     */
+    private static final String CURSOR_SORT = "time";
+
     @Autowired
     private MessageRepository messageRepository;
 
@@ -34,8 +46,9 @@ public class MessageServiceImpl implements MessageService {
     @Transactional
     public Message sendMessage(Integer senderId, Integer receiverId, String content) {
         // 验证发送者和接收者是否存在
-        UserDTO sender = userService.getUserDTOById(senderId);
-        UserDTO receiver = userService.getUserDTOById(receiverId);
+        Map<Integer, UserDTO> users = userService.getUserSummaries(Arrays.asList(senderId, receiverId));
+        UserDTO sender = users.get(senderId);
+        UserDTO receiver = users.get(receiverId);
         
         if (sender == null) {
             throw new RuntimeException("发送者不存在");
@@ -104,6 +117,57 @@ public class MessageServiceImpl implements MessageService {
         return convertToDTO(messages);
     }
 
+    /**
+     * 按游标获取用户的收件箱消息
+     */
+    @Override
+    public CursorPage<MessageDTO> getInboxMessagesByCursor(Integer userId, String cursor, Integer size) {
+        size = CursorUtil.clampSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, CURSOR_SORT);
+        List<Message> messages = messageRepository.getInboxMessagesByCursor(userId,
+                position != null ? position.getTimeValue() : null,
+                position != null ? position.getId() : null,
+                size + 1);
+        return toCursorPage(messages, size);
+    }
+
+    /**
+     * 按游标获取用户的发件箱消息
+     */
+    @Override
+    public CursorPage<MessageDTO> getOutboxMessagesByCursor(Integer userId, String cursor, Integer size) {
+        size = CursorUtil.clampSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, CURSOR_SORT);
+        List<Message> messages = messageRepository.getOutboxMessagesByCursor(userId,
+                position != null ? position.getTimeValue() : null,
+                position != null ? position.getId() : null,
+                size + 1);
+        return toCursorPage(messages, size);
+    }
+
+    /**
+     * 按游标获取与指定用户的聊天记录
+     */
+    @Override
+    public CursorPage<MessageDTO> getChatHistoryByCursor(Integer userId, Integer friendId, String cursor, Integer size) {
+        size = CursorUtil.clampSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, CURSOR_SORT);
+        List<Message> messages = messageRepository.getChatHistoryByCursor(userId, friendId,
+                position != null ? position.getTimeValue() : null,
+                position != null ? position.getId() : null,
+                size + 1);
+        return toCursorPage(messages, size);
+    }
+
+    /**
+     * 将多查询一条的结果截断为一页，并用最后一条消息的 (发送时间, id) 生成下一页游标
+     */
+    private CursorPage<MessageDTO> toCursorPage(List<Message> messages, int size) {
+        return CursorPage.of(messages, size,
+                last -> CursorUtil.encode(CURSOR_SORT, last.getSendTime(), last.getId()),
+                this::convertToDTO);
+    }
+
     /**
      * 标记消息为已读
      */
@@ -189,11 +253,25 @@ public class MessageServiceImpl implements MessageService {
     
     /**
      * 将消息实体转换为DTO
+     * 联表查询未带出的发送者/接收者信息，统一通过一次用户摘要查询补齐
      */
     private List<MessageDTO> convertToDTO(List<Message> messages) {
+        // 收集缺少用户信息的用户ID
+        Set<Integer> missingUserIds = new HashSet<>();
+        for (Message message : messages) {
+            if (message.getSender() == null) {
+                missingUserIds.add(message.getSenderId());
+            }
+            if (message.getReceiver() == null) {
+                missingUserIds.add(message.getReceiverId());
+            }
+        }
+        Map<Integer, UserDTO> users = missingUserIds.isEmpty()
+                ? Collections.emptyMap()
+                : userService.getUserSummaries(missingUserIds);
+        
         return messages.stream().map(message -> {
             MessageDTO dto = new MessageDTO();
-            
             dto.setId(message.getId());
             dto.setSenderId(message.getSenderId());
             dto.setReceiverId(message.getReceiverId());
@@ -206,7 +284,7 @@ public class MessageServiceImpl implements MessageService {
                 dto.setSenderName(message.getSender().getUsername());
                 dto.setSenderAvatar(message.getSender().getAvatar());
             } else {
-                UserDTO sender = userService.getUserDTOById(message.getSenderId());
+                UserDTO sender = users.get(message.getSenderId());
                 if (sender != null) {
                     dto.setSenderName(sender.getUsername());
                     dto.setSenderAvatar(sender.getAvatar());
@@ -218,7 +296,7 @@ public class MessageServiceImpl implements MessageService {
                 dto.setReceiverName(message.getReceiver().getUsername());
                 dto.setReceiverAvatar(message.getReceiver().getAvatar());
             } else {
-                UserDTO receiver = userService.getUserDTOById(message.getReceiverId());
+                UserDTO receiver = users.get(message.getReceiverId());
                 if (receiver != null) {
                     dto.setReceiverName(receiver.getUsername());
                     dto.setReceiverAvatar(receiver.getAvatar());
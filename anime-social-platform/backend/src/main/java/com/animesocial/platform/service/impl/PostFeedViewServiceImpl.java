@@ -0,0 +1,175 @@
+package com.animesocial.platform.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.Post;
+import com.animesocial.platform.model.PostFeedDirty;
+import com.animesocial.platform.repository.PostFeedViewRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.service.PostFeedViewService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 帖子列表读模型服务实现类
+ * 登记记录与业务数据在同一事务中提交，不会丢失；后台任务按登记时间取出一批帖子，
+ * 用一条 INSERT ... SELECT 从源表重算，再按版本号删除登记记录。
+ * 重算期间再次登记的帖子版本号已变化，记录会保留到下一轮，保证最终一致。
+ */
+@Service
+@Slf4j
+public class PostFeedViewServiceImpl implements PostFeedViewService {
+
+    @Autowired
+    private PostFeedViewRepository postFeedViewRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 每批重算的最大帖子数
+     */
+    @Value("${app.post-feed.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * 为历史帖子补齐摘要时使用的长度，与发帖时计算摘要的长度一致
+     */
+    @Value("${app.post-feed.excerpt-length:200}")
+    private int excerptLength;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private Counter projectedCounter;
+
+    /**
+     * 注册重算积压与延迟的监控指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("post.feed.pending", pendingCount);
+        meterRegistry.gauge("post.feed.lag.seconds", lagSeconds);
+        projectedCounter = meterRegistry.counter("post.feed.projected");
+    }
+
+    @Override
+    public void markPostDirty(Integer postId) {
+        if (postId == null) {
+            return;
+        }
+        postFeedViewRepository.markDirty(Set.of(postId));
+    }
+
+    @Override
+    public void markPostsDirty(Collection<Integer> postIds) {
+        if (postIds == null || postIds.isEmpty()) {
+            return;
+        }
+        postFeedViewRepository.markDirty(postIds);
+    }
+
+    @Override
+    public void markAuthorDirty(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        postFeedViewRepository.markDirtyByUserId(userId);
+    }
+
+    @Override
+    public void markTagDirty(Integer tagId) {
+        if (tagId == null) {
+            return;
+        }
+        postFeedViewRepository.markDirtyByTagId(tagId);
+    }
+
+    /**
+     * 定时处理，默认每秒一次
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.post-feed.poll-interval-ms:1000}")
+    public synchronized int drain() {
+        int processed = 0;
+        try {
+            List<PostFeedDirty> entries = postFeedViewRepository.findDirty(batchSize);
+            if (!entries.isEmpty()) {
+                postFeedViewRepository.project(entries.stream().map(PostFeedDirty::getPostId).toList());
+                postFeedViewRepository.deleteDirty(entries);
+                projectedCounter.increment(entries.size());
+                processed = entries.size();
+            }
+        } catch (Exception e) {
+            // 登记记录未删除，下一轮自动重试
+            log.warn("重算帖子读模型失败: {}", e.getMessage());
+        }
+        refreshBacklogMetrics();
+        return processed;
+    }
+
+    /**
+     * 应用就绪后补齐历史帖子的摘要和缺失的读模型行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            catchUp();
+        } catch (Exception e) {
+            log.error("登记缺失的帖子读模型失败", e);
+        }
+    }
+
+    @Override
+    public int catchUp() {
+        // 读模型直接复制posts.excerpt，先补齐摘要为空的历史帖子
+        int length = Math.min(excerptLength, Post.EXCERPT_MAX_LENGTH);
+        int backfilled = 0;
+        int updated;
+        do {
+            updated = postRepository.backfillExcerpts(length, batchSize);
+            backfilled += updated;
+        } while (updated >= batchSize);
+        if (backfilled > 0) {
+            log.info("为 {} 条历史帖子补齐了摘要", backfilled);
+        }
+        
+        int marked = postFeedViewRepository.markMissing();
+        if (marked > 0) {
+            log.info("帖子读模型缺失 {} 条，已登记重算", marked);
+        }
+        return marked;
+    }
+
+    /**
+     * 更新积压数量与最早未重算记录的延迟
+     */
+    private void refreshBacklogMetrics() {
+        try {
+            pendingCount.set(postFeedViewRepository.countDirty());
+            LocalDateTime oldest = postFeedViewRepository.findOldestMarkedAt();
+            lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()));
+        } catch (Exception e) {
+            log.debug("刷新帖子读模型积压指标失败", e);
+        }
+    }
+}
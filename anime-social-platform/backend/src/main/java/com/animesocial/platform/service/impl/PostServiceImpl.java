@@ -3,32 +3,52 @@ package com.animesocial.platform.service.impl;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.animesocial.platform.exception.BusinessException;
+import com.animesocial.platform.model.EsOutboxEvent;
 import com.animesocial.platform.model.Post;
-import com.animesocial.platform.model.Tag;
+import com.animesocial.platform.model.PostFeedView;
 import com.animesocial.platform.model.dto.CreatePostRequest;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.PostDTO;
 import com.animesocial.platform.model.dto.PostListResponse;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.dto.UserDTO;
+import com.animesocial.platform.repository.PostFeedViewRepository;
 import com.animesocial.platform.repository.PostLikeRepository;
 import com.animesocial.platform.repository.PostRepository;
-import com.animesocial.platform.repository.TagRepository;
+import com.animesocial.platform.service.CounterBufferService;
+import com.animesocial.platform.service.EsOutboxService;
+import com.animesocial.platform.service.HotRankingService;
+import com.animesocial.platform.service.InteractionStatusService;
+import com.animesocial.platform.service.PostFeedViewService;
 import com.animesocial.platform.service.PostService;
+import com.animesocial.platform.service.TagFeedService;
 import com.animesocial.platform.service.TagService;
+import com.animesocial.platform.service.TimelineService;
 import com.animesocial.platform.service.UserService;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
+import com.animesocial.platform.service.UserStatsService;
+import com.animesocial.platform.util.AfterCommit;
+import com.animesocial.platform.util.CursorUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
  * 帖子服务实现类
@@ -37,11 +57,16 @@ import jakarta.servlet.http.HttpSession;
 @Service
 public class PostServiceImpl implements PostService {
     
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
+    private static final TypeReference<List<TagDTO>> TAG_LIST_TYPE = new TypeReference<>() {
+    };
+    
     @Autowired
     private PostRepository postRepository;
     
     @Autowired
-    private TagRepository tagRepository;
+    private PostFeedViewRepository postFeedViewRepository;
     
     @Autowired
     private PostLikeRepository postLikeRepository;
@@ -51,37 +76,95 @@ public class PostServiceImpl implements PostService {
 
     @Autowired
     private UserService userService;
+    
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private CounterBufferService counterBufferService;
+
+    @Autowired
+    private EsOutboxService esOutboxService;
+    
+    @Autowired
+    private HotRankingService hotRankingService;
+
+    @Autowired
+    private InteractionStatusService interactionStatusService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private TagFeedService tagFeedService;
+
+    @Autowired
+    private PostFeedViewService postFeedViewService;
+
+    /**
+     * 已确认存在的帖子ID，浏览量计数时避免每次都查库
+     */
+    private final Cache<Integer, Boolean> knownPostIds = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 正文摘要长度，与帖子读模型的摘要长度保持一致
+     */
+    @Value("${app.post-feed.excerpt-length:200}")
+    private int excerptLength;
 
     /**
      * 根据ID获取帖子
      * @param id 帖子ID
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 帖子对象
      * @throws BusinessException 帖子不存在时抛出异常
      */
     @Override
-    public PostDTO getPostById(Integer id) {
+    public PostDTO getPostById(Integer id, Integer currentUserId) {
         Post post = postRepository.findById(id);
         if (post == null) {
             throw new BusinessException("帖子不存在");
         }
-        return convertToDTO(post);
+        return convertToDTO(post, currentUserId);
     }
 
     /**
      * 获取指定用户的所有帖子
      * @param userId 用户ID
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 帖子列表
      */
     @Override
-    public List<PostDTO> getPostsByUserId(Integer userId, Integer page, Integer size) {
+    public List<PostDTO> getPostsByUserId(Integer userId, Integer page, Integer size, Integer currentUserId) {
         int offset = (page - 1) * size;
-        return postRepository.findByUserId(userId, offset, size).stream()
-            .map(this::convertToDTO)
-            .toList();
+        return convertToDTOList(postRepository.findByUserId(userId, offset, size), currentUserId);
     }
 
     /**
      * 分页获取所有帖子
+     * 从帖子读模型单表查询，正文只返回摘要
+     * @param page 页码
+     * @param size 每页数量
+     * @param tagId 标签ID
+     * @param sort 排序方式
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
+     * @return 帖子列表和总数
+     */
+    @Override
+    public PostListResponse getAllPosts(Integer page, Integer size, Integer tagId, String sort, Integer currentUserId) {
+        int offset = (page - 1) * size;
+        List<PostFeedView> views = postFeedViewRepository.findPage(tagId, offset, size, sort);
+        // 总数与列表来自同一张读模型表，投影尚未追上时页数与实际行数保持一致
+        int total = postFeedViewRepository.count(tagId);
+        return new PostListResponse(convertFeedToDTOList(views, currentUserId), total);
+    }
+
+    /**
+     * 分页获取所有帖子（管理后台）
+     * 管理后台需要查看完整正文，直接查询帖子表
      * @param page 页码
      * @param size 每页数量
      * @param tagId 标签ID
@@ -89,7 +172,7 @@ public class PostServiceImpl implements PostService {
      * @return 帖子列表和总数
      */
     @Override
-    public PostListResponse getAllPosts(Integer page, Integer size, Integer tagId, String sort) {
+    public PostListResponse getAllPostsForAdmin(Integer page, Integer size, Integer tagId, String sort) {
         // 计算偏移量
         int offset = (page - 1) * size;
         
@@ -106,17 +189,89 @@ public class PostServiceImpl implements PostService {
             postRepository.countByTagId(tagId) : 
             postRepository.count();
         
-        // 获取当前用户ID，用于检查是否点赞
-        Integer currentUserId = getCurrentUserId();
-        
-        // 转换为DTO
-        List<PostDTO> postDTOs = posts.stream()
-            .map(post -> convertToDTO(post, currentUserId))
-            .toList();
+        // 批量转换为DTO，管理后台不需要当前用户的点赞状态
+        List<PostDTO> postDTOs = convertToDTOList(posts, null);
             
         return new PostListResponse(postDTOs, total);
     }
 
+    /**
+     * 按游标获取帖子列表
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
+     * 多查询一条记录用于判断是否还有下一页，游标取自本页最后一条记录的 (排序字段, id)
+     */
+    @Override
+    public CursorPage<PostDTO> getPostsByCursor(String cursor, Integer size, Integer tagId, String sort, Integer currentUserId) {
+        int pageSize = CursorUtil.clampSize(size);
+        String sortKey = "views".equals(sort) || "likes".equals(sort) ? sort : "latest";
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, sortKey);
+        
+        LocalDateTime cursorTime = null;
+        Integer cursorCount = null;
+        Integer cursorId = null;
+        if (position != null) {
+            cursorId = position.getId();
+            if ("latest".equals(sortKey)) {
+                cursorTime = position.getTimeValue();
+            } else {
+                cursorCount = position.getCountValue();
+            }
+        }
+        
+        List<PostFeedView> posts = postFeedViewRepository.findByCursor(tagId, sortKey, cursorTime, cursorCount, cursorId, pageSize + 1);
+        return CursorPage.of(posts, pageSize, last -> {
+            Object sortValue;
+            switch (sortKey) {
+                case "views":
+                    sortValue = last.getViewCount() != null ? last.getViewCount() : 0;
+                    break;
+                case "likes":
+                    sortValue = last.getLikeCount() != null ? last.getLikeCount() : 0;
+                    break;
+                default:
+                    sortValue = last.getCreatedAt();
+                    break;
+            }
+            return CursorUtil.encode(sortKey, sortValue, last.getPostId());
+        }, page -> convertFeedToDTOList(page, currentUserId));
+    }
+
+    /**
+     * 按游标获取关注时间线
+     * 帖子ID随发布时间递增，游标只需记录本页最后一个帖子ID；
+     * 先取出 size + 1 个ID判断是否还有下一页，再批量加载帖子
+     */
+    @Override
+    public CursorPage<PostDTO> getFollowingTimeline(Integer userId, String cursor, Integer size) {
+        return pageByPostId("following", cursor, size, userId,
+                (beforeId, limit) -> timelineService.getTimelinePostIds(userId, beforeId, limit));
+    }
+
+    /**
+     * 按游标获取"我的标签"信息流
+     * 帖子ID由标签信息流服务在内存中归并得到，与关注时间线使用相同的ID游标
+     */
+    @Override
+    public CursorPage<PostDTO> getTagFeed(Integer userId, String cursor, Integer size) {
+        return pageByPostId("tags", cursor, size, userId,
+                (beforeId, limit) -> tagFeedService.getPostIds(userId, beforeId, limit));
+    }
+
+    /**
+     * 按帖子ID键集分页：取出 size + 1 个按ID降序的帖子ID判断是否还有下一页，再批量加载帖子
+     * @param feed 信息流名称，写入游标防止不同信息流的游标混用
+     * @param idLoader 根据上一页最后一个帖子ID（第一页为null）和读取数量读取帖子ID
+     */
+    private CursorPage<PostDTO> pageByPostId(String feed, String cursor, Integer size, Integer userId,
+                                             BiFunction<Integer, Integer, List<Integer>> idLoader) {
+        int pageSize = CursorUtil.clampSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, feed);
+        List<Integer> postIds = idLoader.apply(position != null ? position.getId() : null, pageSize + 1);
+        return CursorPage.of(postIds, pageSize,
+                lastId -> CursorUtil.encode(feed, lastId, lastId),
+                page -> findByIds(page, userId));
+    }
+
     /**
      * 创建新帖子
      * @param userId 用户ID
@@ -136,6 +291,7 @@ public class PostServiceImpl implements PostService {
         post.setUserId(userId);
         post.setTitle(request.getTitle());
         post.setContent(request.getContent());
+        post.setExcerpt(excerptOf(request.getContent()));
         post.setCreatedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
         post.setViewCount(0);
@@ -144,18 +300,15 @@ public class PostServiceImpl implements PostService {
         
         // 保存帖子
         postRepository.save(post);
+        userStatsService.adjustPostCount(userId, 1);
         
-        // 保存标签关联
+        // 保存标签关联，由标签服务校验标签并维护标签缓存
         if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            // 验证标签是否合法
-            for (Integer tagId : request.getTagIds()) {
-                Tag tag = tagRepository.findById(tagId);
-                if (!"post".equals(tag.getType())) {
-                    throw new BusinessException("标签类型错误，不能用于帖子: " + tag.getName());
-                }
-            }
-            tagRepository.savePostTags(post.getId(), request.getTagIds());
+            tagService.updatePostTags(post.getId(), request.getTagIds());
         }
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_POST, post.getId());
+        postFeedViewService.markPostDirty(post.getId());
+        timelineService.fanOut(post.getId(), userId, post.getCreatedAt());
         
         return convertToDTO(post, userId);
     }
@@ -164,12 +317,13 @@ public class PostServiceImpl implements PostService {
      * 更新帖子
      * @param id 帖子ID
      * @param request 更新帖子请求对象
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 更新后的帖子对象
      * @throws BusinessException 帖子不存在时抛出异常
      */
     @Override
     @Transactional
-    public PostDTO updatePost(Integer id, CreatePostRequest request) {
+    public PostDTO updatePost(Integer id, CreatePostRequest request, Integer currentUserId) {
         Post post = postRepository.findById(id);
         if (post == null) {
             throw new BusinessException("帖子不存在");
@@ -177,6 +331,7 @@ public class PostServiceImpl implements PostService {
             
         post.setTitle(request.getTitle());
         post.setContent(request.getContent());
+        post.setExcerpt(excerptOf(request.getContent()));
         post.setUpdatedAt(LocalDateTime.now());
         
         // 更新帖子
@@ -184,20 +339,12 @@ public class PostServiceImpl implements PostService {
         
         // 更新标签关联
         if (request.getTagIds() != null) {
-            tagRepository.deletePostTags(id);
-            if (!request.getTagIds().isEmpty()) {
-                // 验证标签是否合法
-                for (Integer tagId : request.getTagIds()) {
-                    Tag tag = tagRepository.findById(tagId);
-                    if (!"post".equals(tag.getType())) {
-                        throw new BusinessException("标签类型错误，不能用于帖子: " + tag.getName());
-                    }
-                }
-                tagRepository.savePostTags(id, request.getTagIds());
-            }
+            tagService.updatePostTags(id, request.getTagIds());
         }
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_POST, id);
+        postFeedViewService.markPostDirty(id);
         
-        return convertToDTO(post, getCurrentUserId());
+        return convertToDTO(post, currentUserId);
     }
 
     /**
@@ -215,69 +362,72 @@ public class PostServiceImpl implements PostService {
         }
         
         // 删除标签关联
-        tagRepository.deletePostTags(id);
+        tagService.updatePostTags(id, new ArrayList<>());
         // 删除点赞记录
         postLikeRepository.deleteByPostId(id);
         // 删除帖子
         postRepository.deleteById(id);
+        AfterCommit.evict(() -> knownPostIds.invalidate(id));
+        userStatsService.adjustPostCount(post.getUserId(), -1);
+        esOutboxService.enqueueDelete(EsOutboxEvent.TYPE_POST, id);
     }
 
     /**
      * 点赞帖子
+     * 由唯一键保证幂等：只有真正插入了点赞记录才增加点赞数，并发或重复请求不会重复计数
      * @param postId 帖子ID
      * @param userId 用户ID
-     * @return 操作结果描述
+     * @return 点赞后的点赞数
      */
     @Override
     @Transactional
-    public String likePost(Integer postId, Integer userId) {
-        // 检查帖子是否存在
-        Post post = postRepository.findById(postId);
-        if (post == null) {
-            throw new BusinessException("帖子不存在");
-        }
-            
-        // 检查是否已点赞
-        if (postLikeRepository.exists(postId, userId)) {
-            throw new BusinessException("已经点赞过了");
+    public Integer likePost(Integer postId, Integer userId) {
+        if (postLikeRepository.saveIfAbsent(postId, userId) > 0) {
+            postRepository.increaseLikeCount(postId);
+            postFeedViewService.markPostDirty(postId);
+            interactionStatusService.evictPostLikes(userId);
         }
-        
-        // 保存点赞记录
-        postLikeRepository.save(postId, userId);
-        
-        // 更新点赞数
-        postRepository.increaseLikeCount(postId);
-        
-        return "点赞成功";
+        return getLikeCount(postId);
     }
     
     /**
      * 取消点赞帖子
+     * 只有真正删除了点赞记录才减少点赞数，重复请求不会重复扣减
      * @param postId 帖子ID
      * @param userId 用户ID
-     * @return 操作结果描述
+     * @return 取消点赞后的点赞数
      */
     @Override
     @Transactional
-    public String unlikePost(Integer postId, Integer userId) {
-        // 检查帖子是否存在
-        Post post = postRepository.findById(postId);
-        if (post == null) {
-            throw new BusinessException("帖子不存在");
+    public Integer unlikePost(Integer postId, Integer userId) {
+        if (postLikeRepository.delete(postId, userId) > 0) {
+            postRepository.decreaseLikeCount(postId);
+            postFeedViewService.markPostDirty(postId);
+            interactionStatusService.evictPostLikes(userId);
         }
-            
-        // 检查是否已点赞
-        if (!postLikeRepository.exists(postId, userId)) {
-            throw new BusinessException("未点赞该帖子");
+        return getLikeCount(postId);
+    }
+    
+    /**
+     * 截取正文摘要，按码点截断避免拆开代理对，与MySQL的LEFT()按字符截取一致
+     */
+    private String excerptOf(String content) {
+        int length = Math.min(excerptLength, Post.EXCERPT_MAX_LENGTH);
+        if (content == null || content.codePointCount(0, content.length()) <= length) {
+            return content;
         }
-        
-        // 删除点赞记录
-        postLikeRepository.delete(postId, userId);
-        
-        // 更新点赞数
-        postRepository.decreaseLikeCount(postId);
-        
-        return "取消点赞成功";
+        return content.substring(0, content.offsetByCodePoints(0, length));
+    }
+    
+    /**
+     * 查询帖子当前点赞数，同时校验帖子是否存在
+     */
+    private Integer getLikeCount(Integer postId) {
+        Integer likeCount = postRepository.findLikeCount(postId);
+        if (likeCount == null) {
+            throw new BusinessException("帖子不存在");
+        }
+        return likeCount;
     }
     
     /**
@@ -309,10 +459,8 @@ public class PostServiceImpl implements PostService {
         // 获取总数
         int total = postRepository.countLikedPostsByUserId(userId);
         
-        // 转换为DTO
-        List<PostDTO> postDTOs = posts.stream()
-            .map(post -> convertToDTO(post, userId))
-            .toList();
+        // 批量转换为DTO
+        List<PostDTO> postDTOs = convertToDTOList(posts, userId);
             
         return new PostListResponse(postDTOs, total);
     }
@@ -320,28 +468,21 @@ public class PostServiceImpl implements PostService {
     /**
      * 增加帖子浏览量
      * @param postId 帖子ID
+     * @throws BusinessException 帖子不存在时抛出异常
      */
     @Override
     public void increaseViewCount(Integer postId) {
-        // 检查帖子是否存在
-        Post post = postRepository.findById(postId);
-        if (post == null) {
-            throw new BusinessException("帖子不存在");
+        // 先查已知存在的帖子缓存，未命中时只按主键判断是否存在，不读取整行
+        if (postId == null || knownPostIds.getIfPresent(postId) == null) {
+            if (postId == null || !postRepository.existsById(postId)) {
+                throw new BusinessException("帖子不存在");
+            }
+            knownPostIds.put(postId, Boolean.TRUE);
         }
-        
-        // 增加浏览量
-        postRepository.increaseViewCount(postId);
+        // 计入内存缓冲，由定时任务批量写回
+        counterBufferService.incrementPostView(postId);
     }
 
-    /**
-     * 将Post实体转换为PostDTO
-     * @param post 帖子实体
-     * @return 帖子DTO
-     */
-    private PostDTO convertToDTO(Post post) {
-        return convertToDTO(post, getCurrentUserId());
-    }
-    
     /**
      * 将Post实体转换为PostDTO，并设置是否点赞
      * @param post 帖子实体
@@ -369,31 +510,140 @@ public class PostServiceImpl implements PostService {
         dto.setTags(tags != null ? tags : new ArrayList<>());
         
         // 设置是否点赞
-        if (currentUserId != null) {
-            dto.setIsLiked(postLikeRepository.exists(post.getId(), currentUserId));
-        } else {
-            dto.setIsLiked(false);
-        }
+        dto.setIsLiked(interactionStatusService.getLikedPostIds(currentUserId, List.of(post.getId()))
+                .contains(post.getId()));
         
         return dto;
     }
     
     /**
-     * 获取当前登录用户ID
-     * @return 用户ID，如果未登录则返回null
+     * 批量将帖子读模型转换为PostDTO
+     * 作者、标签和计数均已在读模型中，只需再批量查询当前用户的点赞状态；正文字段返回摘要
+     * @param views 读模型列表
+     * @param currentUserId 当前用户ID，未登录时为null
+     * @return 帖子DTO列表，顺序与输入一致
+     */
+    private List<PostDTO> convertFeedToDTOList(List<PostFeedView> views, Integer currentUserId) {
+        if (views == null || views.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<Integer> postIds = new LinkedHashSet<>();
+        for (PostFeedView view : views) {
+            postIds.add(view.getPostId());
+        }
+        Set<Integer> likedPostIds = interactionStatusService.getLikedPostIds(currentUserId, postIds);
+        
+        List<PostDTO> result = new ArrayList<>(views.size());
+        for (PostFeedView view : views) {
+            PostDTO dto = new PostDTO();
+            dto.setId(view.getPostId());
+            dto.setTitle(view.getTitle());
+            dto.setContent(view.getExcerpt());
+            dto.setCreatedAt(view.getCreatedAt());
+            dto.setUpdatedAt(view.getUpdatedAt());
+            dto.setViewCount(view.getViewCount());
+            dto.setLikeCount(view.getLikeCount());
+            dto.setCommentCount(view.getCommentCount());
+            dto.setIsTop(view.getIsTop());
+            dto.setIsLiked(likedPostIds.contains(view.getPostId()));
+            
+            UserDTO author = new UserDTO();
+            author.setId(view.getUserId());
+            author.setUsername(view.getUsername());
+            author.setAvatar(view.getAvatar());
+            dto.setUserDTO(author);
+            dto.setTags(parseTags(view.getTags()));
+            result.add(dto);
+        }
+        return result;
+    }
+    
+    /**
+     * 解析读模型中的标签JSON数组
      */
-    private Integer getCurrentUserId() {
-        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attributes != null) {
-            HttpServletRequest request = attributes.getRequest();
-            HttpSession session = request.getSession(false);
-            if (session != null) {
-                return (Integer) session.getAttribute("userId");
+    private static List<TagDTO> parseTags(String json) {
+        if (json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            List<TagDTO> tags = OBJECT_MAPPER.readValue(json, TAG_LIST_TYPE);
+            for (TagDTO tag : tags) {
+                tag.setType("post");
             }
+            return tags;
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("帖子标签数据格式错误");
         }
-        return null;
     }
-
+    
+    /**
+     * 按给定ID顺序排列批量查询的结果，不存在的ID被跳过
+     */
+    private static <T> List<T> orderByIds(List<T> items, Function<T, Integer> idGetter, List<Integer> ids) {
+        Map<Integer, T> byId = items.stream().collect(Collectors.toMap(idGetter, Function.identity(), (a, b) -> a));
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                ordered.add(item);
+            }
+        }
+        return ordered;
+    }
+    
+    /**
+     * 批量将Post实体转换为PostDTO
+     * 作者、标签（含使用次数）和点赞状态各用一次批量查询获取，
+     * 查询次数与帖子数量无关
+     * @param posts 帖子实体列表
+     * @param currentUserId 当前用户ID，未登录时为null
+     * @return 帖子DTO列表，顺序与传入顺序一致
+     */
+    private List<PostDTO> convertToDTOList(List<Post> posts, Integer currentUserId) {
+        if (posts == null || posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<Integer> postIds = new LinkedHashSet<>();
+        Set<Integer> userIds = new LinkedHashSet<>();
+        for (Post post : posts) {
+            postIds.add(post.getId());
+            userIds.add(post.getUserId());
+        }
+        
+        // 批量获取作者信息
+        Map<Integer, UserDTO> users = userService.getUserDTOMapByIds(userIds);
+        
+        // 批量获取标签信息
+        Map<Integer, List<TagDTO>> tagsByPost = tagService.getPostTagsMap(postIds);
+        
+        // 批量获取点赞状态
+        Set<Integer> likedPostIds = interactionStatusService.getLikedPostIds(currentUserId, postIds);
+        
+        List<PostDTO> result = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            PostDTO dto = new PostDTO();
+            BeanUtils.copyProperties(post, dto);
+            // 摘要投影不含正文，列表以摘要作为正文展示
+            if (dto.getContent() == null) {
+                dto.setContent(post.getExcerpt());
+            }
+            
+            UserDTO userDTO = users.get(post.getUserId());
+            if (userDTO == null) {
+                throw new BusinessException("用户不存在");
+            }
+            dto.setUserDTO(userDTO);
+            
+            List<TagDTO> tags = tagsByPost.get(post.getId());
+            dto.setTags(tags != null ? tags : new ArrayList<>());
+            dto.setIsLiked(likedPostIds.contains(post.getId()));
+            result.add(dto);
+        }
+        return result;
+    }
+    
     /**
      * 置顶帖子
      */
@@ -413,18 +663,18 @@ public class PostServiceImpl implements PostService {
         
         // 更新置顶状态
         postRepository.updateTopStatus(postId, isTop);
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_POST, postId);
+        postFeedViewService.markPostDirty(postId);
     }
 
     /**
      * 获取置顶帖子列表
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      */
     @Override
-    public List<PostDTO> getTopPosts() {
+    public List<PostDTO> getTopPosts(Integer currentUserId) {
         List<Post> posts = postRepository.findTopPosts();
-        Integer currentUserId = getCurrentUserId();
-        return posts.stream()
-                .map(post -> convertToDTO(post, currentUserId))
-                .toList();
+        return convertToDTOList(posts, currentUserId);
     }
 
     /**
@@ -432,10 +682,11 @@ public class PostServiceImpl implements PostService {
      * @param keyword 搜索关键词
      * @param page 页码
      * @param size 每页大小
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 匹配的帖子列表和总数
      */
     @Override
-    public PostListResponse searchPosts(String keyword, Integer page, Integer size) {
+    public PostListResponse searchPosts(String keyword, Integer page, Integer size, Integer currentUserId) {
         // 计算偏移量
         int offset = (page - 1) * size;
         
@@ -443,17 +694,31 @@ public class PostServiceImpl implements PostService {
         List<Post> posts = postRepository.searchPosts(keyword, offset, size);
         int total = postRepository.countSearchPosts(keyword);
         
-        // 获取当前用户ID，用于检查是否点赞
-        Integer currentUserId = getCurrentUserId();
-        
-        // 转换为DTO
-        List<PostDTO> postDTOs = posts.stream()
-            .map(post -> convertToDTO(post, currentUserId))
-            .collect(Collectors.toList());
+        // 批量转换为DTO
+        List<PostDTO> postDTOs = convertToDTOList(posts, currentUserId);
         
         return new PostListResponse(postDTOs, total);
     }
 
+    /**
+     * 搜索帖子（管理后台）
+     * 管理后台需要查看完整正文，查询整行而不是摘要投影
+     * @param keyword 搜索关键词
+     * @param page 页码
+     * @param size 每页大小
+     * @return 匹配的帖子列表和总数
+     */
+    @Override
+    public PostListResponse searchPostsForAdmin(String keyword, Integer page, Integer size) {
+        int offset = (page - 1) * size;
+        
+        List<Post> posts = postRepository.searchPostsForAdmin(keyword, offset, size);
+        int total = postRepository.countSearchPosts(keyword);
+        
+        // 管理后台不需要当前用户的点赞状态
+        return new PostListResponse(convertToDTOList(posts, null), total);
+    }
+
     /**
      * 获取帖子总数
      * @return 帖子总数
@@ -466,48 +731,39 @@ public class PostServiceImpl implements PostService {
     /**
      * 根据ID列表批量查询帖子
      * @param ids 帖子ID列表
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 帖子列表
      */
     @Override
-    public List<PostDTO> findByIds(List<Integer> ids) {
+    public List<PostDTO> findByIds(List<Integer> ids, Integer currentUserId) {
         if (ids == null || ids.isEmpty()) {
             return Collections.emptyList();
         }
         
-        // 获取当前用户ID，用于检查是否点赞
-        Integer currentUserId = getCurrentUserId();
-        
-        List<PostDTO> result = new ArrayList<>();
-        for (Integer id : ids) {
-            Post post = postRepository.findById(id);
-            if (post != null) {
-                result.add(convertToDTO(post, currentUserId));
-            }
-        }
+        // 一次查询取出所有帖子摘要，再按传入顺序（如搜索相关度）排列
+        List<Post> posts = orderByIds(postRepository.findSummariesByIds(ids), Post::getId, ids);
         
-        return result;
+        return convertToDTOList(posts, currentUserId);
     }
     
     /**
      * 获取热门帖子
      * @param limit 获取数量，默认为12
+     * @param tagId 标签ID（可选）
+     * @param currentUserId 当前用户ID，用于设置是否点赞，未登录时为null
      * @return 热门帖子列表
      */
     @Override
-    public PostListResponse getHotPosts(Integer limit) {
+    public PostListResponse getHotPosts(Integer limit, Integer tagId, Integer currentUserId) {
         if (limit == null || limit <= 0) {
             limit = 12; // 默认获取12个热门帖子
         }
         
-        List<Post> hotPosts = postRepository.findHotPosts(limit);
-        
-        // 获取当前用户ID，用于检查是否点赞
-        Integer currentUserId = getCurrentUserId();
-        
-        // 转换为DTO
-        List<PostDTO> dtoList = hotPosts.stream()
-                .map(post -> convertToDTO(post, currentUserId))
-                .toList();
+        // 从排行快照中取出帖子ID，再从读模型批量加载并保持排行顺序
+        List<Integer> ids = hotRankingService.getHotPostIds(tagId, limit);
+        List<PostDTO> dtoList = ids.isEmpty()
+            ? new ArrayList<>()
+            : convertFeedToDTOList(orderByIds(postFeedViewRepository.findByIds(ids), PostFeedView::getPostId, ids), currentUserId);
         
         return new PostListResponse(dtoList, dtoList.size());
     }
@@ -1,17 +1,28 @@
 package com.animesocial.platform.service.impl;
 
 import com.animesocial.platform.exception.BusinessException;
+import com.animesocial.platform.model.EsOutboxEvent;
+import com.animesocial.platform.model.IdCount;
 import com.animesocial.platform.model.Resource;
+import com.animesocial.platform.model.ResourceLike;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.ResourceDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
+import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.repository.FavoriteRepository;
 import com.animesocial.platform.repository.ResourceRepository;
 import com.animesocial.platform.repository.ResourceLikeRepository;
 import com.animesocial.platform.repository.UserRepository;
+import com.animesocial.platform.service.CounterBufferService;
+import com.animesocial.platform.service.EsOutboxService;
+import com.animesocial.platform.service.HotRankingService;
+import com.animesocial.platform.service.InteractionStatusService;
 import com.animesocial.platform.service.ResourceService;
 import com.animesocial.platform.service.TagService;
 import com.animesocial.platform.service.UserService;
+import com.animesocial.platform.service.UserStatsService;
+import com.animesocial.platform.util.CursorUtil;
 import com.animesocial.platform.util.FileStorageUtil;
 
 import org.springframework.beans.BeanUtils;
@@ -28,6 +39,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +50,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ResourceServiceImpl implements ResourceService {
 
+    /**
+     * 点赞资源游标的排序方式，点赞列表只按点赞时间排序
+     */
+    private static final String LIKED_CURSOR_SORT = "liked";
+
     @Autowired
     private ResourceRepository resourceRepository;
     
@@ -54,6 +72,21 @@ public class ResourceServiceImpl implements ResourceService {
 
     @Autowired
     private UserService userService;
+    
+    @Autowired
+    private UserStatsService userStatsService;
+    
+    @Autowired
+    private CounterBufferService counterBufferService;
+    
+    @Autowired
+    private EsOutboxService esOutboxService;
+    
+    @Autowired
+    private HotRankingService hotRankingService;
+    
+    @Autowired
+    private InteractionStatusService interactionStatusService;
 
     @Autowired
     private FileStorageUtil fileStorageUtil;
@@ -68,7 +101,7 @@ public class ResourceServiceImpl implements ResourceService {
      * 获取资源详情
      */
     @Override
-    public ResourceDTO getResourceById(Integer id) {
+    public ResourceDTO getResourceById(Integer id, Integer currentUserId) {
         Resource resource = resourceRepository.findById(id);
         if (resource == null) {
             throw new BusinessException("资源不存在");
@@ -77,7 +110,7 @@ public class ResourceServiceImpl implements ResourceService {
         ResourceDTO dto = convertToDTO(resource);
         
         // 加载用户信息
-        UserDTO user = userService.getUserDTOById(resource.getUserId());
+        UserDTO user = userService.getUserSummaryById(resource.getUserId());
         if (user != null) {
             dto.setUsername(user.getUsername());
             dto.setUserAvatar(user.getAvatar());
@@ -87,7 +120,10 @@ public class ResourceServiceImpl implements ResourceService {
         dto.setTags(tagService.getResourceTags(id));
 
         // 加载收藏次数
-        dto.setFavoriteCount(favoriteRepository.findByResourceId(id).size());
+        dto.setFavoriteCount(favoriteRepository.countByResourceId(id));
+        
+        // 当前用户的点赞、收藏状态
+        fillInteractionStatus(List.of(dto), currentUserId);
         
         return dto;
     }
@@ -108,7 +144,7 @@ public class ResourceServiceImpl implements ResourceService {
      * 分页获取资源列表
      */
     @Override
-    public ResourceListResponse getAllResources(Integer page, Integer size, Integer tagId, String sort) {
+    public ResourceListResponse getAllResources(Integer page, Integer size, Integer tagId, String sort, Integer currentUserId) {
         int offset = (page - 1) * size;
         String orderBy;
         
@@ -144,18 +180,56 @@ public class ResourceServiceImpl implements ResourceService {
                 .toList();
         
         // 补充额外信息
-        for (ResourceDTO dto : dtoList) {
-            UserDTO user = userService.getUserDTOById(dto.getUserId());
-            if (user != null) {
-                dto.setUsername(user.getUsername());
-                dto.setUserAvatar(user.getAvatar());
+        fillDetails(dtoList, currentUserId);
+        
+        return new ResourceListResponse(dtoList, total);
+    }
+    
+    /**
+     * 按游标获取资源列表
+     * 多查询一条记录用于判断是否还有下一页，游标取自本页最后一条记录的 (排序字段, id)
+     */
+    @Override
+    public CursorPage<ResourceDTO> getResourcesByCursor(String cursor, Integer size, Integer tagId, String sort, Integer currentUserId) {
+        int pageSize = CursorUtil.clampSize(size);
+        String sortKey = "downloads".equals(sort) || "likes".equals(sort) ? sort : "latest";
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, sortKey);
+        
+        LocalDateTime cursorTime = null;
+        Integer cursorCount = null;
+        Integer cursorId = null;
+        if (position != null) {
+            cursorId = position.getId();
+            if ("latest".equals(sortKey)) {
+                cursorTime = position.getTimeValue();
+            } else {
+                cursorCount = position.getCountValue();
             }
-            
-            dto.setTags(tagService.getResourceTags(dto.getId()));
-            dto.setFavoriteCount(favoriteRepository.findByResourceId(dto.getId()).size());
         }
         
-        return new ResourceListResponse(dtoList, total);
+        List<Resource> resources = resourceRepository.findByCursor(tagId, sortKey, cursorTime, cursorCount, cursorId, pageSize + 1);
+        return CursorPage.of(resources, pageSize, last -> {
+            Object sortValue;
+            switch (sortKey) {
+                case "downloads":
+                    sortValue = last.getDownloadCount() != null ? last.getDownloadCount() : 0;
+                    break;
+                case "likes":
+                    sortValue = last.getLikeCount() != null ? last.getLikeCount() : 0;
+                    break;
+                default:
+                    sortValue = last.getUploadTime();
+                    break;
+            }
+            return CursorUtil.encode(sortKey, sortValue, last.getId());
+        }, page -> {
+            // 转换为DTO并补充额外信息
+            List<ResourceDTO> dtoList = page.stream()
+                    .map(this::convertToDTO)
+                    .toList();
+            fillDetails(dtoList, currentUserId);
+            return dtoList;
+        });
     }
 
     /**
@@ -165,7 +239,7 @@ public class ResourceServiceImpl implements ResourceService {
     @Transactional
     public ResourceDTO uploadResource(Integer userId, String title, String description, List<Integer> tagIds, MultipartFile file) {
         // 验证用户
-        UserDTO user = userService.getUserDTOById(userId);
+        UserDTO user = userService.getUserSummaryById(userId);
         if (user == null) {
             throw new BusinessException("用户不存在");
         }
@@ -204,6 +278,7 @@ public class ResourceServiceImpl implements ResourceService {
             
             // 保存资源
             resourceRepository.insert(resource);
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_RESOURCE, resource.getId());
             
             // 处理标签
             if (tagIds != null && !tagIds.isEmpty()) {
@@ -244,7 +319,7 @@ public class ResourceServiceImpl implements ResourceService {
     public ResourceDTO uploadResourceWithCover(Integer userId, String title, String description, 
                                            List<Integer> tagIds, MultipartFile file, MultipartFile coverFile) {
         // 验证用户
-        UserDTO user = userService.getUserDTOById(userId);
+        UserDTO user = userService.getUserSummaryById(userId);
         if (user == null) {
             throw new BusinessException("用户不存在");
         }
@@ -297,6 +372,7 @@ public class ResourceServiceImpl implements ResourceService {
             
             // 保存资源
             resourceRepository.insert(resource);
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_RESOURCE, resource.getId());
             
             // 处理标签
             if (tagIds != null && !tagIds.isEmpty()) {
@@ -327,7 +403,7 @@ public class ResourceServiceImpl implements ResourceService {
      */
     @Override
     @Transactional
-    public ResourceDTO updateResource(Integer id, String title, String description, List<Integer> tagIds) {
+    public ResourceDTO updateResource(Integer id, String title, String description, List<Integer> tagIds, Integer currentUserId) {
         // 验证资源是否存在
         Resource resource = resourceRepository.findById(id);
         if (resource == null) {
@@ -340,6 +416,7 @@ public class ResourceServiceImpl implements ResourceService {
         
         // 保存更新
         resourceRepository.update(resource);
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_RESOURCE, id);
         
         // 更新标签
         if (tagIds != null) {
@@ -347,7 +424,7 @@ public class ResourceServiceImpl implements ResourceService {
         }
         
         // 获取完整信息
-        return getResourceById(id);
+        return getResourceById(id, currentUserId);
     }
 
     /**
@@ -365,11 +442,13 @@ public class ResourceServiceImpl implements ResourceService {
         // 删除关联的标签
         tagService.updateResourceTags(id, new ArrayList<>());
         
-        // 删除关联的收藏
+        // 删除关联的收藏（先扣减收藏者的收藏计数）
+        userStatsService.onResourceDeleted(id);
         favoriteRepository.deleteByResourceId(id);
         
         // 删除资源记录
         resourceRepository.delete(id);
+        esOutboxService.enqueueDelete(EsOutboxEvent.TYPE_RESOURCE, id);
         
         // 删除物理文件
         String fileName = resource.getFileUrl().replace(fileDomain, "");
@@ -415,19 +494,15 @@ public class ResourceServiceImpl implements ResourceService {
      */
     @Override
     public void incrementDownloadCount(Integer resourceId) {
-        Resource resource = resourceRepository.findById(resourceId);
-        if (resource == null) {
-            throw new BusinessException("资源不存在");
-        }
-        
-        resourceRepository.incrementDownloadCount(resourceId);
+        // 计入内存缓冲，由定时任务批量写回；资源是否存在已在获取下载链接时校验
+        counterBufferService.incrementResourceDownload(resourceId);
     }
 
     /**
      * 搜索资源
      */
     @Override
-    public ResourceListResponse searchResources(String keyword, Integer page, Integer size) {
+    public ResourceListResponse searchResources(String keyword, Integer page, Integer size, Integer currentUserId) {
         int offset = (page - 1) * size;
         
         List<Resource> resources = resourceRepository.search(keyword, offset, size);
@@ -439,16 +514,7 @@ public class ResourceServiceImpl implements ResourceService {
                 .collect(Collectors.toList());
         
         // 补充额外信息
-        for (ResourceDTO dto : dtoList) {
-            UserDTO user = userService.getUserDTOById(dto.getUserId());
-            if (user != null) {
-                dto.setUsername(user.getUsername());
-                dto.setUserAvatar(user.getAvatar());
-            }
-            
-            dto.setTags(tagService.getResourceTags(dto.getId()));
-            dto.setFavoriteCount(favoriteRepository.findByResourceId(dto.getId()).size());
-        }
+        fillDetails(dtoList, currentUserId);
         
         return new ResourceListResponse(dtoList, total);
     }
@@ -456,37 +522,29 @@ public class ResourceServiceImpl implements ResourceService {
     /**
      * 根据ID列表批量查询资源
      * @param ids 资源ID列表
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 资源列表
      */
     @Override
-    public List<ResourceDTO> findByIds(List<Integer> ids) {
+    public List<ResourceDTO> findByIds(List<Integer> ids, Integer currentUserId) {
         if (ids == null || ids.isEmpty()) {
             return Collections.emptyList();
         }
         
+        // 一次查询取出全部资源，再按传入ID的顺序排列（IN查询不保证顺序）
+        Map<Integer, Resource> resourceMap = resourceRepository.findByIds(ids).stream()
+                .collect(Collectors.toMap(Resource::getId, r -> r, (a, b) -> a));
         List<ResourceDTO> dtoList = new ArrayList<>();
         for (Integer id : ids) {
-            Resource resource = resourceRepository.findById(id);
+            Resource resource = resourceMap.get(id);
             if (resource != null) {
-                ResourceDTO dto = convertToDTO(resource);
-                
-                // 补充用户信息
-                UserDTO user = userService.getUserDTOById(resource.getUserId());
-                if (user != null) {
-                    dto.setUsername(user.getUsername());
-                    dto.setUserAvatar(user.getAvatar());
-                }
-                
-                // 补充标签信息
-                dto.setTags(tagService.getResourceTags(resource.getId()));
-                
-                // 补充收藏数量
-                dto.setFavoriteCount(favoriteRepository.findByResourceId(resource.getId()).size());
-                
-                dtoList.add(dto);
+                dtoList.add(convertToDTO(resource));
             }
         }
         
+        // 批量补充用户、标签和收藏数量
+        fillDetails(dtoList, currentUserId);
+        
         return dtoList;
     }
     
@@ -499,6 +557,66 @@ public class ResourceServiceImpl implements ResourceService {
         return dto;
     }
     
+    /**
+     * 批量补充资源列表的上传者、标签、收藏数量及当前用户的点赞、收藏状态
+     * 每类信息各一次批量查询，查询次数与列表长度无关
+     * @param dtoList 资源DTO列表
+     * @param currentUserId 当前用户ID，未登录时为null
+     */
+    private void fillDetails(List<ResourceDTO> dtoList, Integer currentUserId) {
+        if (dtoList.isEmpty()) {
+            return;
+        }
+        fillAuthors(dtoList);
+        
+        List<Integer> resourceIds = dtoList.stream()
+                .map(ResourceDTO::getId)
+                .toList();
+        Map<Integer, List<TagDTO>> tagsMap = tagService.getResourceTagsMap(resourceIds);
+        Map<Integer, Integer> favoriteCounts = favoriteRepository.countByResourceIds(resourceIds).stream()
+                .collect(Collectors.toMap(IdCount::getId, IdCount::getCount));
+        for (ResourceDTO dto : dtoList) {
+            dto.setTags(tagsMap.getOrDefault(dto.getId(), Collections.emptyList()));
+            dto.setFavoriteCount(favoriteCounts.getOrDefault(dto.getId(), 0));
+        }
+        fillInteractionStatus(dtoList, currentUserId);
+    }
+    
+    /**
+     * 批量设置当前用户是否已点赞、收藏列表中的资源
+     */
+    private void fillInteractionStatus(List<ResourceDTO> dtoList, Integer currentUserId) {
+        List<Integer> resourceIds = dtoList.stream()
+                .map(ResourceDTO::getId)
+                .toList();
+        Set<Integer> liked = interactionStatusService.getLikedResourceIds(currentUserId, resourceIds);
+        Set<Integer> favorited = interactionStatusService.getFavoritedResourceIds(currentUserId, resourceIds);
+        for (ResourceDTO dto : dtoList) {
+            dto.setIsLiked(liked.contains(dto.getId()));
+            dto.setIsFavorited(favorited.contains(dto.getId()));
+        }
+    }
+    
+    /**
+     * 批量填充资源上传者的用户名和头像（一次查询用户摘要）
+     */
+    private void fillAuthors(List<ResourceDTO> dtoList) {
+        if (dtoList.isEmpty()) {
+            return;
+        }
+        Set<Integer> userIds = dtoList.stream()
+                .map(ResourceDTO::getUserId)
+                .collect(Collectors.toSet());
+        Map<Integer, UserDTO> authors = userService.getUserSummaries(userIds);
+        for (ResourceDTO dto : dtoList) {
+            UserDTO user = authors.get(dto.getUserId());
+            if (user != null) {
+                dto.setUsername(user.getUsername());
+                dto.setUserAvatar(user.getAvatar());
+            }
+        }
+    }
+    
     /**
      * 从文件名获取文件类型
      */
@@ -541,60 +659,47 @@ public class ResourceServiceImpl implements ResourceService {
 
     /**
      * 点赞资源
+     * 由唯一键保证幂等：只有真正插入了点赞记录才增加点赞数，并发或重复请求不会重复计数
      * @param resourceId 资源ID
      * @param userId 用户ID
-     * @return 操作结果描述
+     * @return 点赞后的点赞数
      */
     @Override
     @Transactional
-    public String likeResource(Integer resourceId, Integer userId) {
-        // 检查资源是否存在
-        Resource resource = resourceRepository.findById(resourceId);
-        if (resource == null) {
-            throw new BusinessException("资源不存在");
+    public Integer likeResource(Integer resourceId, Integer userId) {
+        if (resourceLikeRepository.saveIfAbsent(resourceId, userId) > 0) {
+            resourceRepository.incrementLikeCount(resourceId);
+            interactionStatusService.evictResourceLikes(userId);
         }
-            
-        // 检查是否已点赞
-        if (resourceLikeRepository.exists(resourceId, userId)) {
-            throw new BusinessException("已经点赞过了");
-        }
-        
-        // 保存点赞记录
-        resourceLikeRepository.save(resourceId, userId);
-        
-        // 更新点赞数
-        resourceRepository.incrementLikeCount(resourceId);
-        
-        return "点赞成功";
+        return getLikeCount(resourceId);
     }
     
     /**
      * 取消点赞资源
+     * 只有真正删除了点赞记录才减少点赞数，重复请求不会重复扣减
      * @param resourceId 资源ID
      * @param userId 用户ID
-     * @return 操作结果描述
+     * @return 取消点赞后的点赞数
      */
     @Override
     @Transactional
-    public String unlikeResource(Integer resourceId, Integer userId) {
-        // 检查资源是否存在
-        Resource resource = resourceRepository.findById(resourceId);
-        if (resource == null) {
-            throw new BusinessException("资源不存在");
+    public Integer unlikeResource(Integer resourceId, Integer userId) {
+        if (resourceLikeRepository.delete(resourceId, userId) > 0) {
+            resourceRepository.decrementLikeCount(resourceId);
+            interactionStatusService.evictResourceLikes(userId);
         }
-            
-        // 检查是否已点赞
-        if (!resourceLikeRepository.exists(resourceId, userId)) {
-            throw new BusinessException("未点赞该资源");
+        return getLikeCount(resourceId);
+    }
+    
+    /**
+     * 查询资源当前点赞数，同时校验资源是否存在
+     */
+    private Integer getLikeCount(Integer resourceId) {
+        Integer likeCount = resourceRepository.findLikeCount(resourceId);
+        if (likeCount == null) {
+            throw new BusinessException("资源不存在");
         }
-        
-        // 删除点赞记录
-        resourceLikeRepository.delete(resourceId, userId);
-        
-        // 更新点赞数
-        resourceRepository.decrementLikeCount(resourceId);
-        
-        return "取消点赞成功";
+        return likeCount;
     }
     
     /**
@@ -620,49 +725,88 @@ public class ResourceServiceImpl implements ResourceService {
         // 计算偏移量
         int offset = (page - 1) * size;
         
-        // 获取用户点赞的资源ID列表
-        List<Integer> resourceIds = resourceLikeRepository.findResourceIdsByUserId(userId);
+        // 在数据库中联表分页，只取出当前页的资源
+        List<Resource> resources = resourceRepository.findLikedByUserIdPaged(userId, offset, size);
+        int total = resourceLikeRepository.countByUserId(userId);
         
-        // 如果没有点赞任何资源，直接返回空列表
-        if (resourceIds.isEmpty()) {
-            return new ResourceListResponse(new ArrayList<>(), 0);
-        }
+        // 转换为DTO
+        List<ResourceDTO> dtoList = resources.stream()
+                .map(this::convertToDTO)
+                .toList();
         
-        // 分页查询资源
-        List<Resource> resources = new ArrayList<>();
-        int total = resourceIds.size();
+        // 补充额外信息
+        fillDetails(dtoList, userId);
+        for (ResourceDTO dto : dtoList) {
+            dto.setIsLiked(true); // 这里肯定是已点赞的
+        }
         
-        // 如果有点赞的资源，获取分页数据
-        if (!resourceIds.isEmpty()) {
-            // 注：这里需要增加根据ID列表查询资源的方法，暂时使用已有方法模拟
-            resources = resourceIds.stream()
-                    .skip(offset)
-                    .limit(size)
-                    .map(resourceRepository::findById)
-                    .filter(r -> r != null)
-                    .toList();
+        return new ResourceListResponse(dtoList, total);
+    }
+    
+    /**
+     * 获取用户收藏的资源列表
+     * @param userId 用户ID
+     * @param page 页码
+     * @param size 每页数量
+     * @return 资源列表和收藏总数
+     */
+    @Override
+    public ResourceListResponse getFavoritedResources(Integer userId, Integer page, Integer size) {
+        int total = favoriteRepository.countByUserId(userId);
+        if (total == 0) {
+            return new ResourceListResponse(new ArrayList<>(), 0);
         }
         
+        // 在数据库中联表分页，只取出当前页的资源
+        int offset = (page - 1) * size;
+        List<Resource> resources = resourceRepository.findFavoritesByUserId(userId, offset, size);
+        
         // 转换为DTO
         List<ResourceDTO> dtoList = resources.stream()
                 .map(this::convertToDTO)
                 .toList();
         
         // 补充额外信息
+        fillDetails(dtoList, userId);
         for (ResourceDTO dto : dtoList) {
-            UserDTO user = userService.getUserDTOById(dto.getUserId());
-            if (user != null) {
-                dto.setUsername(user.getUsername());
-                dto.setUserAvatar(user.getAvatar());
-            }
-            
-            dto.setTags(tagService.getResourceTags(dto.getId()));
-            dto.setFavoriteCount(favoriteRepository.findByResourceId(dto.getId()).size());
-            dto.setIsLiked(true); // 这里肯定是已点赞的
+            dto.setIsFavorited(true); // 这里肯定是已收藏的
         }
         
         return new ResourceListResponse(dtoList, total);
     }
+    
+    /**
+     * 按游标获取用户点赞的资源列表
+     * 游标取自本页最后一条点赞记录的 (点赞时间, 点赞记录ID)
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页传null
+     * @param size 每页数量
+     * @return 资源列表和下一页游标
+     */
+    @Override
+    public CursorPage<ResourceDTO> getLikedResourcesByCursor(Integer userId, String cursor, Integer size) {
+        int pageSize = CursorUtil.clampSize(size);
+        CursorUtil.Cursor position = CursorUtil.decode(cursor, LIKED_CURSOR_SORT);
+        
+        // 多查询一条用于判断是否还有下一页
+        List<ResourceLike> likes = resourceLikeRepository.findByUserIdByCursor(userId,
+                position != null ? position.getTimeValue() : null,
+                position != null ? position.getId() : null,
+                pageSize + 1);
+        return CursorPage.of(likes, pageSize,
+                last -> CursorUtil.encode(LIKED_CURSOR_SORT, last.getCreatedAt(), last.getId()),
+                page -> {
+                    // 按点赞顺序批量加载资源并补充额外信息
+                    List<Integer> resourceIds = page.stream()
+                            .map(ResourceLike::getResourceId)
+                            .toList();
+                    List<ResourceDTO> dtoList = findByIds(resourceIds, userId);
+                    for (ResourceDTO dto : dtoList) {
+                        dto.setIsLiked(true);
+                    }
+                    return dtoList;
+                });
+    }
 
     /**
      * 使用已上传的文件路径创建资源
@@ -679,7 +823,7 @@ public class ResourceServiceImpl implements ResourceService {
     public ResourceDTO createResource(Integer userId, String title, String description, 
                                      String filePath, String coverPath, List<Integer> tagIds) {
         // 验证用户
-        UserDTO user = userService.getUserDTOById(userId);
+        UserDTO user = userService.getUserSummaryById(userId);
         if (user == null) {
             throw new BusinessException("用户不存在");
         }
@@ -723,6 +867,7 @@ public class ResourceServiceImpl implements ResourceService {
             
             // 保存资源
             resourceRepository.insert(resource);
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_RESOURCE, resource.getId());
             
             // 处理标签
             if (tagIds != null && !tagIds.isEmpty()) {
@@ -773,32 +918,18 @@ public class ResourceServiceImpl implements ResourceService {
     /**
      * 获取热门资源
      * @param limit 获取数量，默认为12
+     * @param tagId 标签ID（可选）
+     * @param currentUserId 当前用户ID，用于设置是否点赞、收藏，未登录时为null
      * @return 热门资源列表
      */
     @Override
-    public ResourceListResponse getHotResources(Integer limit) {
+    public ResourceListResponse getHotResources(Integer limit, Integer tagId, Integer currentUserId) {
         if (limit == null || limit <= 0) {
             limit = 12; // 默认获取12个热门资源
         }
         
-        List<Resource> hotResources = resourceRepository.findHotResources(limit);
-        
-        // 转换为DTO
-        List<ResourceDTO> dtoList = hotResources.stream()
-                .map(this::convertToDTO)
-                .toList();
-        
-        // 补充额外信息
-        for (ResourceDTO dto : dtoList) {
-            UserDTO user = userService.getUserDTOById(dto.getUserId());
-            if (user != null) {
-                dto.setUsername(user.getUsername());
-                dto.setUserAvatar(user.getAvatar());
-            }
-            
-            dto.setTags(tagService.getResourceTags(dto.getId()));
-            dto.setFavoriteCount(favoriteRepository.findByResourceId(dto.getId()).size());
-        }
+        // 从排行快照中取出资源ID，再批量加载并保持排行顺序
+        List<ResourceDTO> dtoList = findByIds(hotRankingService.getHotResourceIds(tagId, limit), currentUserId);
         
         return new ResourceListResponse(dtoList, dtoList.size());
     }
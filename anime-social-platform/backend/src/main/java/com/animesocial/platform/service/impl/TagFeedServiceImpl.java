@@ -0,0 +1,236 @@
+package com.animesocial.platform.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.Tag;
+import com.animesocial.platform.repository.TagRepository;
+import com.animesocial.platform.repository.UserTagRepository;
+import com.animesocial.platform.service.TagFeedService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 标签订阅信息流服务实现类
+ * 每个帖子标签在内存中保存最近 N 个帖子ID（降序数组，写时复制），发帖和修改标签时增量更新，
+ * 定时从 content_tags 整体重建以修正遗漏。读取时对用户关注的 k 个标签做 k 路堆归并：
+ * 每个标签先二分定位到游标之后的位置，再从大顶堆中依次弹出并去重，
+ * 开销为 O(k·log N + limit·log k)，与每个标签下的帖子总数无关。
+ * 重建期间到达的增量变更会记录下来，在切换到新数据前后重新应用，避免被重建覆盖。
+ */
+@Service
+@Slf4j
+public class TagFeedServiceImpl implements TagFeedService {
+
+    private static final int[] EMPTY = new int[0];
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserTagRepository userTagRepository;
+
+    /**
+     * 每个标签保留的最近帖子数量
+     */
+    @Value("${app.tag-feed.per-tag-size:500}")
+    private int perTagSize;
+
+    private volatile Map<Integer, int[]> postIdsByTag;
+
+    private volatile boolean rebuilding;
+
+    /**
+     * 全量重建期间到达的帖子标签变化，重建完成后按顺序重新应用
+     */
+    private final Queue<TagChange> changedDuringRebuild = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public List<Integer> getPostIds(Integer userId, Integer beforeId, int limit) {
+        List<Integer> tagIds = userTagRepository.findTagIdsByUserId(userId);
+        Map<Integer, int[]> lists = ensureLoaded();
+
+        // 堆中元素为 {当前帖子ID, 标签下标, 数组位置}，按帖子ID降序弹出
+        List<int[]> sources = new ArrayList<>(tagIds.size());
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(tagIds.size(), 1), (a, b) -> Integer.compare(b[0], a[0]));
+        for (Integer tagId : tagIds) {
+            int[] ids = lists.getOrDefault(tagId, EMPTY);
+            int start = beforeId == null ? 0 : firstBelow(ids, beforeId);
+            if (start < ids.length) {
+                heap.add(new int[] {ids[start], sources.size(), start});
+                sources.add(ids);
+            }
+        }
+
+        List<Integer> result = new ArrayList<>(limit);
+        int last = Integer.MAX_VALUE;
+        while (result.size() < limit && !heap.isEmpty()) {
+            int[] head = heap.poll();
+            if (head[0] != last) {
+                result.add(head[0]);
+                last = head[0];
+            }
+            int[] ids = sources.get(head[1]);
+            int next = head[2] + 1;
+            if (next < ids.length) {
+                heap.add(new int[] {ids[next], head[1], next});
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onPostTagsChanged(Integer postId, Collection<Integer> removedTagIds, Collection<Integer> addedTagIds) {
+        TagChange change = new TagChange(postId, removedTagIds, addedTagIds);
+        if (rebuilding) {
+            changedDuringRebuild.add(change);
+        }
+        Map<Integer, int[]> lists = postIdsByTag;
+        if (lists == null) {
+            // 尚未加载，首次读取时会从数据库加载到最新状态
+            return;
+        }
+        apply(lists, change);
+        // 重建恰好在此期间切换了数据时，变更也要写入新数据
+        Map<Integer, int[]> current = postIdsByTag;
+        if (current != lists) {
+            apply(current, change);
+        }
+    }
+
+    /**
+     * 定时重建，默认每30分钟一次
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.tag-feed.rebuild-interval-ms:1800000}",
+            fixedDelayString = "${app.tag-feed.rebuild-interval-ms:1800000}")
+    public synchronized void rebuild() {
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        Map<Integer, int[]> lists = new ConcurrentHashMap<>();
+        try {
+            for (Tag tag : tagRepository.findByType("post")) {
+                List<Integer> ids = tagRepository.findRecentPostIdsByTagId(tag.getId(), perTagSize);
+                if (!ids.isEmpty()) {
+                    lists.put(tag.getId(), ids.stream().mapToInt(Integer::intValue).toArray());
+                }
+            }
+            // 重建期间读到的可能是旧数据，切换前先应用期间记录的变更
+            replayChanges(lists);
+            postIdsByTag = lists;
+        } finally {
+            rebuilding = false;
+        }
+        // 最后一次补写与切换之间到达的变更只写入了旧数据，切换后再补写一次
+        replayChanges(lists);
+        log.info("标签信息流加载完成, 标签数: {}", lists.size());
+    }
+
+    /**
+     * 按到达顺序应用重建期间记录的变更，插入和移除都是幂等的，重复应用不影响结果
+     */
+    private void replayChanges(Map<Integer, int[]> lists) {
+        TagChange change;
+        while ((change = changedDuringRebuild.poll()) != null) {
+            apply(lists, change);
+        }
+    }
+
+    private void apply(Map<Integer, int[]> lists, TagChange change) {
+        for (Integer tagId : change.removedTagIds) {
+            lists.computeIfPresent(tagId, (k, ids) -> remove(ids, change.postId));
+        }
+        for (Integer tagId : change.addedTagIds) {
+            lists.compute(tagId, (k, ids) -> insert(ids == null ? EMPTY : ids, change.postId, perTagSize));
+        }
+    }
+
+    private Map<Integer, int[]> ensureLoaded() {
+        Map<Integer, int[]> current = postIdsByTag;
+        if (current == null) {
+            synchronized (this) {
+                if (postIdsByTag == null) {
+                    rebuild();
+                }
+            }
+            current = postIdsByTag;
+        }
+        return current;
+    }
+
+    /**
+     * 在降序数组中二分查找第一个小于 beforeId 的位置
+     */
+    private static int firstBelow(int[] ids, int beforeId) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < beforeId) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 按降序插入帖子ID并截断到容量，已存在时返回原数组
+     */
+    private static int[] insert(int[] ids, int postId, int capacity) {
+        int pos = firstBelow(ids, postId + 1);
+        if (pos < ids.length && ids[pos] == postId) {
+            return ids;
+        }
+        if (pos >= capacity) {
+            return ids;
+        }
+        int length = Math.min(ids.length + 1, capacity);
+        int[] result = new int[length];
+        System.arraycopy(ids, 0, result, 0, pos);
+        result[pos] = postId;
+        System.arraycopy(ids, pos, result, pos + 1, length - pos - 1);
+        return result;
+    }
+
+    /**
+     * 从降序数组中移除帖子ID，不存在时返回原数组
+     */
+    private static int[] remove(int[] ids, int postId) {
+        int pos = firstBelow(ids, postId + 1);
+        if (pos >= ids.length || ids[pos] != postId) {
+            return ids;
+        }
+        int[] result = new int[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, pos);
+        System.arraycopy(ids, pos + 1, result, pos, ids.length - pos - 1);
+        return result;
+    }
+
+    /**
+     * 一次帖子标签变化
+     */
+    private static final class TagChange {
+        private final int postId;
+        private final List<Integer> removedTagIds;
+        private final List<Integer> addedTagIds;
+
+        private TagChange(int postId, Collection<Integer> removedTagIds, Collection<Integer> addedTagIds) {
+            this.postId = postId;
+            this.removedTagIds = removedTagIds == null ? List.of() : new ArrayList<>(removedTagIds);
+            this.addedTagIds = addedTagIds == null ? List.of() : new ArrayList<>(addedTagIds);
+        }
+    }
+}
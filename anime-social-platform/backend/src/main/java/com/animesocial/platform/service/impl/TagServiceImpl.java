@@ -1,27 +1,51 @@
 package com.animesocial.platform.service.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import com.animesocial.platform.exception.BusinessException;
+import com.animesocial.platform.model.ContentTag;
+import com.animesocial.platform.model.EsOutboxEvent;
+import com.animesocial.platform.model.IdCount;
 import com.animesocial.platform.model.Tag;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.repository.TagRepository;
+import com.animesocial.platform.service.EsOutboxService;
+import com.animesocial.platform.service.PostFeedViewService;
+import com.animesocial.platform.service.TagFeedService;
 import com.animesocial.platform.service.TagService;
+import com.animesocial.platform.util.AfterCommit;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 标签服务实现类
  * 负责处理与标签相关的业务逻辑，包括标签的增删改查、
  * 标签与内容的关联等功能
+ * 标签很少变化，标签实体、标签使用次数和内容的标签列表均缓存在本地，
+ * 由标签及内容标签的写操作在事务提交后失效
  */
 @Service
 @Slf4j
@@ -29,6 +53,84 @@ public class TagServiceImpl implements TagService {
 
     @Autowired
     private TagRepository tagRepository;
+
+    @Autowired
+    private EsOutboxService esOutboxService;
+    
+    @Autowired
+    private TagFeedService tagFeedService;
+    
+    @Autowired
+    private PostFeedViewService postFeedViewService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * 每个缓存的最大条目数
+     */
+    @Value("${app.tag-cache.max-size:10000}")
+    private long cacheMaxSize;
+    
+    /**
+     * 缓存条目写入后的过期时间（秒），兜底绕过本服务直接修改数据库的情况
+     */
+    @Value("${app.tag-cache.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+    
+    /**
+     * 标签ID -> 标签实体
+     */
+    private Cache<Integer, Tag> tagCache;
+    
+    /**
+     * 标签类型（全部标签为"*"） -> 标签列表
+     */
+    private Cache<String, List<Tag>> tagListCache;
+    
+    /**
+     * 标签ID -> 使用该标签的内容数量
+     */
+    private Cache<Integer, Integer> contentCountCache;
+    
+    /**
+     * 内容类型:内容ID -> 内容的标签列表
+     */
+    private Cache<String, List<Tag>> contentTagsCache;
+    
+    /**
+     * 创建缓存并注册命中率等监控指标
+     */
+    @PostConstruct
+    public void initCaches() {
+        tagCache = buildCache("tag.entity");
+        tagListCache = buildCache("tag.list");
+        contentCountCache = buildCache("tag.content-count");
+        contentTagsCache = buildCache("tag.content-tags");
+    }
+    
+    private <K, V> Cache<K, V> buildCache(String name) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+    
+    private static String contentKey(String contentType, Integer contentId) {
+        return contentType + ":" + contentId;
+    }
+    
+    /**
+     * 从缓存获取标签实体
+     * @param id 标签ID
+     * @return 标签实体，不存在返回null
+     */
+    private Tag getTag(Integer id) {
+        return tagCache.get(id, tagRepository::findById);
+    }
     
     /**
      * 获取所有标签
@@ -36,7 +138,7 @@ public class TagServiceImpl implements TagService {
      */
     @Override
     public List<TagDTO> getAllTags() {
-        List<Tag> tags = tagRepository.findAll();
+        List<Tag> tags = tagListCache.get("*", k -> tagRepository.findAll());
         return convertToDTOList(tags);
     }
     
@@ -50,7 +152,7 @@ public class TagServiceImpl implements TagService {
         if (!StringUtils.hasText(type)) {
             return getAllTags();
         }
-        List<Tag> tags = tagRepository.findByType(type);
+        List<Tag> tags = tagListCache.get(type, tagRepository::findByType);
         return convertToDTOList(tags);
     }
     
@@ -64,7 +166,7 @@ public class TagServiceImpl implements TagService {
         if (id == null) {
             return null;
         }
-        Tag tag = tagRepository.findById(id);
+        Tag tag = getTag(id);
         return tag != null ? convertToDTO(tag) : null;
     }
     
@@ -104,6 +206,7 @@ public class TagServiceImpl implements TagService {
         
         // 保存标签
         tagRepository.save(tag);
+        AfterCommit.evict(tagListCache::invalidateAll);
         return convertToDTO(tag);
     }
     
@@ -141,6 +244,20 @@ public class TagServiceImpl implements TagService {
         // 更新标签
         tag.setId(id);
         tagRepository.update(tag);
+        // 内容的标签列表中带有标签名称和分类，一并失效
+        AfterCommit.evict(() -> {
+            tagCache.invalidate(id);
+            tagListCache.invalidateAll();
+            contentTagsCache.invalidateAll();
+        });
+        if (!Objects.equals(existingName, newName)) {
+            // 标签名写入了ES文档，改名后需要刷新所有关联的帖子、资源和用户
+            esOutboxService.enqueueByTag(id);
+        }
+        if (!Objects.equals(existingName, newName) || !Objects.equals(existingTag.getCategory(), tag.getCategory())) {
+            // 帖子读模型中冗余了标签名称和分类
+            postFeedViewService.markTagDirty(id);
+        }
         return convertToDTO(tag);
     }
     
@@ -168,8 +285,14 @@ public class TagServiceImpl implements TagService {
             throw new BusinessException("标签正在被内容使用，无法删除");
         }
         
-        // 删除标签
+        // 删除标签，关联该标签的用户文档需要刷新
+        esOutboxService.enqueueByTag(id);
         tagRepository.deleteById(id);
+        AfterCommit.evict(() -> {
+            tagCache.invalidate(id);
+            tagListCache.invalidateAll();
+            contentCountCache.invalidate(id);
+        });
     }
     
     /**
@@ -185,14 +308,17 @@ public class TagServiceImpl implements TagService {
             throw new BusinessException("帖子ID不能为空");
         }
         
-        // 删除帖子的所有标签
+        // 删除帖子的所有标签，原有标签的使用次数随之变化
+        Set<Integer> affectedTagIds = tagIdsOf(tagRepository.findByPostId(postId));
+        Set<Integer> removedTagIds = new HashSet<>(affectedTagIds);
+        Set<Integer> addedTagIds = new HashSet<>();
         tagRepository.deletePostTags(postId);
         
         // 如果有新标签，则添加
         if (tagIds != null && !tagIds.isEmpty()) {
             // 验证标签是否存在
             for (Integer tagId : tagIds) {
-                Tag tag = tagRepository.findById(tagId);
+                Tag tag = getTag(tagId);
                 if (tag == null) {
                     throw new BusinessException("标签不存在: " + tagId);
                 }
@@ -206,7 +332,19 @@ public class TagServiceImpl implements TagService {
             
             // 保存帖子标签
             tagRepository.savePostTags(postId, tagIds);
+            removedTagIds.removeAll(tagIds);
+            for (Integer tagId : tagIds) {
+                if (!affectedTagIds.contains(tagId)) {
+                    addedTagIds.add(tagId);
+                }
+            }
+            affectedTagIds.addAll(tagIds);
         }
+        evictContentTags("post", postId, affectedTagIds);
+        // 标签信息流只在提交后更新，避免回滚的帖子出现在列表中
+        AfterCommit.run(() -> tagFeedService.onPostTagsChanged(postId, removedTagIds, addedTagIds));
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_POST, postId);
+        postFeedViewService.markPostDirty(postId);
     }
     
     /**
@@ -222,14 +360,15 @@ public class TagServiceImpl implements TagService {
             throw new BusinessException("资源ID不能为空");
         }
         
-        // 删除资源的所有标签
+        // 删除资源的所有标签，原有标签的使用次数随之变化
+        Set<Integer> affectedTagIds = tagIdsOf(tagRepository.findByResourceId(resourceId));
         tagRepository.deleteResourceTags(resourceId);
         
         // 如果有新标签，则添加
         if (tagIds != null && !tagIds.isEmpty()) {
             // 验证标签是否存在
             for (Integer tagId : tagIds) {
-                Tag tag = tagRepository.findById(tagId);
+                Tag tag = getTag(tagId);
                 if (tag == null) {
                     throw new BusinessException("标签不存在: " + tagId);
                 }
@@ -243,7 +382,31 @@ public class TagServiceImpl implements TagService {
             
             // 保存资源标签
             tagRepository.saveResourceTags(resourceId, tagIds);
+            affectedTagIds.addAll(tagIds);
+        }
+        evictContentTags("resource", resourceId, affectedTagIds);
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_RESOURCE, resourceId);
+    }
+    
+    private static Set<Integer> tagIdsOf(List<Tag> tags) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        if (tags != null) {
+            for (Tag tag : tags) {
+                ids.add(tag.getId());
+            }
         }
+        return ids;
+    }
+    
+    /**
+     * 内容标签变更后失效该内容的标签列表及新旧标签的使用次数
+     */
+    private void evictContentTags(String contentType, Integer contentId, Set<Integer> tagIds) {
+        String key = contentKey(contentType, contentId);
+        AfterCommit.evict(() -> {
+            contentTagsCache.invalidate(key);
+            contentCountCache.invalidateAll(tagIds);
+        });
     }
     
     /**
@@ -280,7 +443,7 @@ public class TagServiceImpl implements TagService {
         if (postId == null) {
             return new ArrayList<>();
         }
-        List<Tag> tags = tagRepository.findByPostId(postId);
+        List<Tag> tags = contentTagsCache.get(contentKey("post", postId), k -> tagRepository.findByPostId(postId));
         return convertToDTOList(tags);
     }
     
@@ -294,10 +457,114 @@ public class TagServiceImpl implements TagService {
         if (resourceId == null) {
             return new ArrayList<>();
         }
-        List<Tag> tags = tagRepository.findByResourceId(resourceId);
+        List<Tag> tags = contentTagsCache.get(contentKey("resource", resourceId), k -> tagRepository.findByResourceId(resourceId));
         return convertToDTOList(tags);
     }
     
+    /**
+     * 批量获取多个帖子的标签
+     * @param postIds 帖子ID列表
+     * @return 帖子ID到标签列表的映射
+     */
+    @Override
+    public Map<Integer, List<TagDTO>> getPostTagsMap(Collection<Integer> postIds) {
+        return getContentTagsMap("post", postIds);
+    }
+    
+    /**
+     * 批量获取多个资源的标签
+     * @param resourceIds 资源ID列表
+     * @return 资源ID到标签列表的映射
+     */
+    @Override
+    public Map<Integer, List<TagDTO>> getResourceTagsMap(Collection<Integer> resourceIds) {
+        return getContentTagsMap("resource", resourceIds);
+    }
+    
+    /**
+     * 批量获取内容标签
+     * 缓存未命中的内容一次查询取出全部标签关联，标签使用次数同样批量读取，
+     * 查询次数与内容数量无关
+     * @param contentType 内容类型(post/resource)
+     * @param contentIds 内容ID列表
+     * @return 内容ID到标签列表的映射，保证每个传入的ID都有对应条目
+     */
+    private Map<Integer, List<TagDTO>> getContentTagsMap(String contentType, Collection<Integer> contentIds) {
+        Map<Integer, List<TagDTO>> result = new HashMap<>();
+        if (contentIds == null || contentIds.isEmpty()) {
+            return result;
+        }
+        
+        Map<String, Integer> keys = new HashMap<>();
+        for (Integer id : contentIds) {
+            if (id != null) {
+                keys.put(contentKey(contentType, id), id);
+            }
+        }
+        if (keys.isEmpty()) {
+            return result;
+        }
+        
+        Map<String, List<Tag>> cached = contentTagsCache.getAll(keys.keySet(),
+            missingKeys -> loadContentTags(contentType, missingKeys, keys));
+        
+        Set<Integer> tagIds = new LinkedHashSet<>();
+        cached.values().forEach(tags -> tagIds.addAll(tagIdsOf(tags)));
+        Map<Integer, Integer> contentCounts = countContentByTagIds(tagIds);
+        
+        keys.forEach((key, id) -> result.put(id, toDTOList(cached.getOrDefault(key, List.of()), contentCounts)));
+        return result;
+    }
+    
+    /**
+     * 一次查询加载多个内容的标签列表，没有标签的内容对应空列表
+     */
+    private Map<String, List<Tag>> loadContentTags(String contentType, Set<? extends String> missingKeys,
+                                                   Map<String, Integer> keys) {
+        Map<String, List<Tag>> loaded = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        for (String key : missingKeys) {
+            loaded.put(key, new ArrayList<>());
+            ids.add(keys.get(key));
+        }
+        List<ContentTag> contentTags = tagRepository.findContentTags(contentType, ids);
+        if (contentTags != null) {
+            for (ContentTag contentTag : contentTags) {
+                Tag tag = new Tag();
+                tag.setId(contentTag.getTagId());
+                tag.setName(contentTag.getTagName());
+                tag.setCategory(contentTag.getTagCategory());
+                tag.setType(contentTag.getTagType());
+                loaded.get(contentKey(contentType, contentTag.getContentId())).add(tag);
+            }
+        }
+        return loaded;
+    }
+    
+    /**
+     * 批量获取标签使用次数，缓存未命中的标签一次分组查询补齐
+     * @param tagIds 标签ID集合
+     * @return 标签ID到内容数量的映射
+     */
+    private Map<Integer, Integer> countContentByTagIds(Collection<Integer> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return contentCountCache.getAll(tagIds, missingIds -> {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (Integer id : missingIds) {
+                counts.put(id, 0);
+            }
+            List<IdCount> rows = tagRepository.countContentByTagIds(new ArrayList<>(missingIds));
+            if (rows != null) {
+                for (IdCount row : rows) {
+                    counts.put(row.getId(), row.getCount());
+                }
+            }
+            return counts;
+        });
+    }
+    
     /**
      * 为用户推荐标签（基于用户已有标签）
      * @param userId 用户ID
@@ -357,8 +624,7 @@ public class TagServiceImpl implements TagService {
         // 获取标签使用次数（只统计内容标签）
         Integer tagId = tag.getId();
         if (tagId != null) {
-            Integer contentCount = tagRepository.countContentByTagId(tagId);
-            dto.setContentCount(contentCount);
+            dto.setContentCount(countContentByTagIds(List.of(tagId)).getOrDefault(tagId, 0));
         } else {
             dto.setContentCount(0);
         }
@@ -411,14 +677,31 @@ public class TagServiceImpl implements TagService {
      * @param tags Tag实体列表
      * @return TagDTO对象列表
      */
-    private List<TagDTO> convertToDTOList(List<Tag> tags) {
+    @Override
+    public List<TagDTO> convertToDTOList(List<Tag> tags) {
         if (tags == null) {
             return new ArrayList<>();
         }
         
+        // 一次分组查询获取所有标签的使用次数，避免逐个统计
+        Set<Integer> tagIds = tags.stream()
+            .filter(Objects::nonNull)
+            .map(Tag::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        return toDTOList(tags, countContentByTagIds(tagIds));
+    }
+    
+    private List<TagDTO> toDTOList(List<Tag> tags, Map<Integer, Integer> contentCounts) {
         return tags.stream()
             .filter(Objects::nonNull)
-            .map(this::convertToDTO)
+            .map(tag -> {
+                TagDTO dto = new TagDTO();
+                BeanUtils.copyProperties(tag, dto);
+                dto.setContentCount(contentCounts.getOrDefault(tag.getId(), 0));
+                dto.setIsSelected(false);
+                return dto;
+            })
             .toList();
     }
     
@@ -435,7 +718,7 @@ public class TagServiceImpl implements TagService {
         }
         
         // 检查标签是否存在
-        Tag tag = tagRepository.findById(tagId);
+        Tag tag = getTag(tagId);
         if (tag == null) {
             throw new BusinessException("标签不存在");
         }
@@ -456,7 +739,7 @@ public class TagServiceImpl implements TagService {
         }
         
         // 检查标签是否存在
-        Tag tag = tagRepository.findById(tagId);
+        Tag tag = getTag(tagId);
         if (tag == null) {
             throw new BusinessException("标签不存在");
         }
@@ -0,0 +1,174 @@
+package com.animesocial.platform.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.UserStats;
+import com.animesocial.platform.repository.FriendshipRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.TimelineRepository;
+import com.animesocial.platform.repository.UserStatsRepository;
+import com.animesocial.platform.service.TimelineService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 关注时间线服务实现类
+ * 发帖时按粉丝ID分批写入收件箱，与帖子在同一事务中提交；收件箱只保留每个用户最新的若干条，
+ * 超出部分由定时任务裁剪。发帖时粉丝数超过阈值的作者不写入收件箱，并登记为读扩散作者，
+ * 读取时按帖子ID键集查询已登记作者的帖子，与收件箱的结果归并去重，两路都只读取 limit 条，任意深度翻页开销相同。
+ * 作者粉丝数回落后再次发帖时，先把登记以来的帖子补入粉丝收件箱再移除登记，阈值两侧切换时帖子不会从时间线消失。
+ */
+@Service
+@Slf4j
+public class TimelineServiceImpl implements TimelineService {
+
+    /**
+     * 每次批量写入收件箱的粉丝数量
+     */
+    private static final int FAN_OUT_BATCH_SIZE = 500;
+
+    /**
+     * 每轮裁剪处理的用户数量
+     */
+    private static final int TRIM_BATCH_SIZE = 200;
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    /**
+     * 每个用户收件箱保留的帖子数量
+     */
+    @Value("${app.timeline.inbox-capacity:500}")
+    private int inboxCapacity;
+
+    /**
+     * 写扩散的粉丝数上限，超过的作者改为读取时合并
+     */
+    @Value("${app.timeline.fan-out-max-followers:2000}")
+    private int fanOutMaxFollowers;
+
+    /**
+     * 新关注时补入收件箱的帖子数量
+     */
+    @Value("${app.timeline.backfill-size:20}")
+    private int backfillSize;
+
+    @Override
+    public void fanOut(Integer postId, Integer authorId, LocalDateTime createdAt) {
+        if (!isFannedOut(authorId)) {
+            timelineRepository.markPullAuthor(authorId, postId);
+            return;
+        }
+        List<Integer> followerIds = friendshipRepository.findFollowerIds(authorId);
+        Integer sincePostId = timelineRepository.findPullSincePostId(authorId);
+        for (int from = 0; from < followerIds.size(); from += FAN_OUT_BATCH_SIZE) {
+            List<Integer> batch = followerIds.subList(from, Math.min(from + FAN_OUT_BATCH_SIZE, followerIds.size()));
+            if (sincePostId != null) {
+                // 从读扩散切回写扩散：补入读扩散期间的帖子，最多补满收件箱容量
+                timelineRepository.backfillFollowers(batch, authorId, sincePostId, inboxCapacity);
+            }
+            timelineRepository.insertBatch(batch, postId, authorId, createdAt);
+        }
+        if (sincePostId != null) {
+            timelineRepository.deletePullAuthor(authorId);
+        }
+    }
+
+    @Override
+    public List<Integer> getTimelinePostIds(Integer userId, Integer beforeId, int limit) {
+        List<Integer> inboxIds = timelineRepository.findPostIds(userId, beforeId, limit);
+        List<Integer> pulledAuthorIds = timelineRepository.findFollowingPullAuthorIds(userId);
+        if (pulledAuthorIds.isEmpty()) {
+            return inboxIds;
+        }
+        List<Integer> pulledIds = postRepository.findIdsByUserIdsBeforeId(pulledAuthorIds, beforeId, limit);
+        return mergeDescending(inboxIds, pulledIds, limit);
+    }
+
+    @Override
+    public void onFollow(Integer userId, Integer authorId) {
+        // 读扩散作者的帖子在读取时合并，其余作者的帖子需要补入收件箱
+        if (timelineRepository.findPullSincePostId(authorId) == null) {
+            timelineRepository.backfill(userId, authorId, backfillSize);
+        }
+    }
+
+    @Override
+    public void onUnfollow(Integer userId, Integer authorId) {
+        timelineRepository.deleteByAuthor(userId, authorId);
+    }
+
+    /**
+     * 定时裁剪收件箱，默认每10分钟一次
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.timeline.trim-interval-ms:600000}",
+            fixedDelayString = "${app.timeline.trim-interval-ms:600000}")
+    public int trimInboxes() {
+        int removed = 0;
+        List<Integer> userIds;
+        do {
+            userIds = timelineRepository.findUserIdsOverCapacity(inboxCapacity, TRIM_BATCH_SIZE);
+            for (Integer userId : userIds) {
+                removed += timelineRepository.trim(userId, inboxCapacity - 1);
+            }
+        } while (userIds.size() == TRIM_BATCH_SIZE);
+        if (removed > 0) {
+            log.info("时间线收件箱裁剪完成, 删除 {} 条记录", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * 判断作者的新帖子是否写扩散到粉丝收件箱
+     * 只在发帖时判断，读取时以读扩散作者登记表为准
+     */
+    private boolean isFannedOut(Integer authorId) {
+        UserStats stats = userStatsRepository.findByUserId(authorId);
+        int followerCount = stats != null && stats.getFollowerCount() != null ? stats.getFollowerCount() : 0;
+        return followerCount <= fanOutMaxFollowers;
+    }
+
+    /**
+     * 归并两个按ID降序的列表，去重并截取前 limit 个
+     */
+    private static List<Integer> mergeDescending(List<Integer> a, List<Integer> b, int limit) {
+        if (b.isEmpty()) {
+            return a;
+        }
+        if (a.isEmpty()) {
+            return b.size() > limit ? b.subList(0, limit) : b;
+        }
+        List<Integer> merged = new ArrayList<>(Math.min(a.size() + b.size(), limit));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            int next;
+            if (j >= b.size() || (i < a.size() && a.get(i) >= b.get(j))) {
+                next = a.get(i++);
+            } else {
+                next = b.get(j++);
+            }
+            if (merged.isEmpty() || merged.get(merged.size() - 1) != next) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+}
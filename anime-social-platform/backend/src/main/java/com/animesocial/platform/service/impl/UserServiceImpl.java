@@ -5,21 +5,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.animesocial.platform.exception.BusinessException;
+import com.animesocial.platform.model.EsOutboxEvent;
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.Resource;
 import com.animesocial.platform.model.Tag;
 import com.animesocial.platform.model.User;
+import com.animesocial.platform.model.UserStats;
+import com.animesocial.platform.model.UserTag;
 import com.animesocial.platform.model.dto.LoginRequest;
 import com.animesocial.platform.model.dto.RegisterRequest;
 import com.animesocial.platform.model.dto.TagDTO;
@@ -27,13 +35,15 @@ import com.animesocial.platform.model.dto.UpdateUserInfoRequest;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.model.dto.UserDetailResponse;
 import com.animesocial.platform.repository.*;
+import com.animesocial.platform.service.ActiveUserPoolService;
+import com.animesocial.platform.service.EsOutboxService;
+import com.animesocial.platform.service.PostFeedViewService;
 import com.animesocial.platform.service.TagService;
+import com.animesocial.platform.service.TimelineService;
 import com.animesocial.platform.service.UserService;
-import com.animesocial.platform.service.UserTagService;
-import com.animesocial.platform.service.impl.UserTagServiceImpl;
+import com.animesocial.platform.service.UserStatsService;
+import com.animesocial.platform.service.UserSimilarityService;
 
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -64,11 +74,26 @@ public class UserServiceImpl implements UserService {
     private UserTagRepository userTagRepository;
     
     @Autowired
-    private UserTagService userTagService;
+    private UserSimilarityService userSimilarityService;
+    
+    @Autowired
+    private ActiveUserPoolService activeUserPoolService;
     
     @Autowired
     private TagService tagService;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
+    @Autowired
+    private EsOutboxService esOutboxService;
+    
+    @Autowired
+    private PostFeedViewService postFeedViewService;
+
+    @Autowired
+    private TimelineService timelineService;
+    
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     
     /**
@@ -103,6 +128,7 @@ public class UserServiceImpl implements UserService {
         
         // 保存用户
         userRepository.insert(user);
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, user.getId());
     }
 
     /**
@@ -139,26 +165,8 @@ public class UserServiceImpl implements UserService {
         user.setLastLoginTime(LocalDateTime.now());
         userRepository.updateLastLoginTime(user);
         
-        // 将用户信息存入session
-        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attributes != null) {
-            HttpServletRequest request = attributes.getRequest();
-            HttpSession session = request.getSession(true); // 确保创建新会话
-            session.setAttribute("user", user);
-            session.setAttribute("userId", user.getId());
-            session.setAttribute("username", user.getUsername());
-            session.setAttribute("isAdmin", user.getIsAdmin());
-            
-            // 输出调试信息
-            log.info("用户登录成功: {}, 会话ID: {}", user.getUsername(), session.getId());
-            log.info("会话中的属性: user={}, userId={}, username={}, isAdmin={}", 
-                     session.getAttribute("user") != null, 
-                     session.getAttribute("userId"), 
-                     session.getAttribute("username"), 
-                     session.getAttribute("isAdmin"));
-        } else {
-            log.warn("无法获取请求上下文，无法创建会话");
-        }
+        // 会话中只由控制器保存用户ID等少量标识，不再保存整个用户对象
+        log.info("用户登录成功: {}", user.getUsername());
         
         // 在返回前隐藏密码
         user.hideSensitiveInfo();
@@ -190,14 +198,107 @@ public class UserServiceImpl implements UserService {
         }
         
         // 获取统计数据
-        dto.setPostCount(postRepository.countByUserId(user.getId()));
-        dto.setFollowingCount(friendshipRepository.countFollowing(user.getId()));
-        dto.setFollowerCount(friendshipRepository.countFollowers(user.getId()));
-        dto.setFavoriteCount(favoriteRepository.countByUserId(user.getId()));
+        fillUserStats(Collections.singletonList(dto));
         
         return dto;
     }
 
+    /**
+     * 批量将User实体转换为UserDTO
+     * 标签与各项统计均按用户ID集合批量查询，查询次数与用户数量无关
+     * @param users 用户实体列表
+     * @return 用户DTO列表，顺序与传入顺序一致
+     */
+    private List<UserDTO> convertToDTOList(List<User> users) {
+        if (users == null || users.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<Integer> userIds = users.stream()
+            .filter(Objects::nonNull)
+            .map(User::getId)
+            .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // 批量获取用户标签
+        Map<Integer, List<TagDTO>> tagsByUser = new HashMap<>();
+        try {
+            List<UserTag> userTags = userTagRepository.findDetailsByUserIds(userIds);
+            Map<Integer, Tag> distinctTags = new LinkedHashMap<>();
+            for (UserTag userTag : userTags) {
+                distinctTags.computeIfAbsent(userTag.getTagId(), tagId -> {
+                    Tag tag = new Tag();
+                    tag.setId(tagId);
+                    tag.setName(userTag.getTagName());
+                    tag.setCategory(userTag.getTagCategory());
+                    tag.setType(userTag.getTagType());
+                    return tag;
+                });
+            }
+            Map<Integer, TagDTO> tagDTOs = tagService.convertToDTOList(new ArrayList<>(distinctTags.values())).stream()
+                .collect(Collectors.toMap(TagDTO::getId, Function.identity(), (a, b) -> a));
+            for (UserTag userTag : userTags) {
+                TagDTO tagDTO = tagDTOs.get(userTag.getTagId());
+                if (tagDTO != null) {
+                    tagsByUser.computeIfAbsent(userTag.getUserId(), k -> new ArrayList<>()).add(tagDTO);
+                }
+            }
+        } catch (Exception e) {
+            log.error("批量获取用户标签失败: {}", e.getMessage());
+        }
+        
+        List<UserDTO> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (user == null) {
+                continue;
+            }
+            UserDTO dto = new UserDTO();
+            BeanUtils.copyProperties(user, dto);
+            dto.setTags(tagsByUser.getOrDefault(user.getId(), new ArrayList<>()));
+            result.add(dto);
+        }
+        
+        // 批量获取统计数据
+        fillUserStats(result);
+        return result;
+    }
+    
+    /**
+     * 为用户DTO批量填充统计数据
+     * 从user_stats统计表一次读取，不再实时COUNT源表
+     * @param users 需要填充统计数据的用户DTO集合
+     */
+    @Override
+    public void fillUserStats(Collection<UserDTO> users) {
+        if (users == null || users.isEmpty()) {
+            return;
+        }
+        
+        Set<Integer> userIds = users.stream()
+            .filter(Objects::nonNull)
+            .map(UserDTO::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        
+        Map<Integer, UserStats> statsMap = userStatsService.getStatsMap(userIds);
+        
+        for (UserDTO dto : users) {
+            if (dto == null || dto.getId() == null) {
+                continue;
+            }
+            UserStats stats = statsMap.get(dto.getId());
+            dto.setPostCount(stats != null ? stats.getPostCount() : 0);
+            dto.setFollowingCount(stats != null ? stats.getFollowingCount() : 0);
+            dto.setFollowerCount(stats != null ? stats.getFollowerCount() : 0);
+            dto.setFavoriteCount(stats != null ? stats.getFavoriteCount() : 0);
+        }
+    }
+
     @Override
     public UserDTO getUserDTOById(Integer id) {
         User user = userRepository.findById(id);
@@ -224,11 +325,11 @@ public class UserServiceImpl implements UserService {
     /**
      * 获取当前登录用户信息
      * 
+     * @param currentUserId 当前用户ID，未登录时为null
      * @return 当前登录用户的信息DTO，如果未登录则返回null
      */
     @Override
-    public UserDTO getCurrentUser() {
-        Integer currentUserId = getCurrentUserId();
+    public UserDTO getCurrentUser(Integer currentUserId) {
         if (currentUserId == null) {
             return null;
         }
@@ -243,11 +344,12 @@ public class UserServiceImpl implements UserService {
      * 4. 统计关注数量
      * 
      * @param id 用户ID
+     * @param currentUserId 当前用户ID，用于判断是否已关注，未登录时为null
      * @return 用户详情响应对象
      * @throws BusinessException 如果用户不存在
      */
     @Override
-    public UserDetailResponse getUserDetail(Integer id) {
+    public UserDetailResponse getUserDetail(Integer id, Integer currentUserId) {
         // 验证用户是否存在
         UserDTO user = convertToDTO(userRepository.findById(id));
         if (user == null) {
@@ -258,32 +360,12 @@ public class UserServiceImpl implements UserService {
         UserDetailResponse response = new UserDetailResponse();
         BeanUtils.copyProperties(user, response);
         
-        // 获取用户标签
-        try {
-            List<Tag> tagEntities = userTagRepository.findTagsByUserId(id);
-            List<TagDTO> tags = tagEntities.stream()
-                .map(tagService::convertToDTO)
-                .toList();
-            response.setTags(tags);
-        } catch (Exception e) {
-            log.error("获取用户标签失败: {}", e.getMessage());
+        // 标签和统计数据已由convertToDTO加载并复制
+        if (response.getTags() == null) {
             response.setTags(new ArrayList<>());
         }
         
-        // 获取统计数据
-        int postCount = postRepository.countByUserId(id);
-        int favoriteCount = favoriteRepository.countByUserId(id);
-        int followerCount = friendshipRepository.countFollowers(id);
-        int followingCount = friendshipRepository.countFollowing(id);
-        
-        // 设置统计数据
-        response.setPostCount(postCount);
-        response.setFavoriteCount(favoriteCount);
-        response.setFollowerCount(followerCount);
-        response.setFollowingCount(followingCount);
-        
         // 检查当前用户是否已关注此用户
-        Integer currentUserId = getCurrentUserId();
         if (currentUserId != null && !currentUserId.equals(id)) {
             boolean isFollowing = friendshipRepository.exists(currentUserId, id);
             response.setIsFollowing(isFollowing);
@@ -310,7 +392,10 @@ public class UserServiceImpl implements UserService {
         }
         
         int offset = (page - 1) * size;
-        return postRepository.findByUserId(userId, offset, size);
+        List<Post> posts = postRepository.findByUserId(userId, offset, size);
+        // 摘要投影不含正文，列表以摘要作为正文展示
+        posts.forEach(post -> post.setContent(post.getExcerpt()));
+        return posts;
     }
 
     /**
@@ -373,6 +458,9 @@ public class UserServiceImpl implements UserService {
         user.setAvatar(request.getAvatar());
         user.setBio(request.getBio());
         userRepository.update(user);
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, id);
+        // 帖子读模型中冗余了作者头像
+        postFeedViewService.markAuthorDirty(id);
         
         // 返回更新后的用户信息
         return getUserDTOById(id);
@@ -386,6 +474,7 @@ public class UserServiceImpl implements UserService {
      * @throws BusinessException 如果用户不存在
      */
     @Override
+    @Transactional
     public void updateUserStatus(Integer id, Integer status) {
         // 验证用户是否存在
         if (!userRepository.existsByIdOrUsername(id, null)) {
@@ -399,6 +488,7 @@ public class UserServiceImpl implements UserService {
         
         // 更新用户状态
         userRepository.updateStatus(id, status);
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, id);
     }
     
     /**
@@ -412,9 +502,7 @@ public class UserServiceImpl implements UserService {
     public List<UserDTO> getAllUsers(Integer page, Integer size) {
         int offset = (page - 1) * size;
         List<User> users = userRepository.findAll(offset, size);
-        return users.stream()
-            .map(this::convertToDTO)
-            .toList();
+        return convertToDTOList(users);
     }
     
     /**
@@ -425,9 +513,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public List<UserDTO> getAllAdmins() {
         List<User> admins = userRepository.findAllAdmins();
-        return admins.stream()
-            .map(this::convertToDTO)
-            .toList();
+        return convertToDTOList(admins);
     }
     
     /**
@@ -445,58 +531,19 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException("用户不存在");
         }
         
-        // 获取用户的标签
-        List<Integer> userTagIds = userTagService.getUserTags(userId).stream()
-                .map(Tag::getId)
-                .toList();
-        
-        if (userTagIds.isEmpty()) {
-            // 如果用户没有标签，返回随机用户（排除已关注的用户）
-            List<User> randomUsers = userRepository.findRandomUsers(limit * 2); // 获取更多随机用户，以防过滤后数量不足
-            return filterFollowingUsers(userId, randomUsers, limit);
-        }
-        
-        // 获取与当前用户相似的用户
-        UserTagServiceImpl userTagServiceImpl = (UserTagServiceImpl) userTagService;
-        List<Integer> similarUserIds = userTagServiceImpl.getSimilarUsers(userId, limit * 2); // 获取更多相似用户，以防过滤后数量不足
+        // 从标签倒排索引中取出最相似的用户，已关注的用户在索引中直接排除
+        List<Integer> followingIds = friendshipRepository.findFollowingIds(userId);
+        List<Integer> similarUserIds = userSimilarityService.getSimilarUsers(userId, limit, followingIds);
         
-        // 如果没有找到相似用户，返回随机用户（排除已关注的用户）
+        // 如果用户没有标签或没有找到相似用户，从活跃用户池中随机抽取（排除自己和已关注的用户）
         if (similarUserIds.isEmpty()) {
-            List<User> randomUsers = userRepository.findRandomUsers(limit * 2);
-            return filterFollowingUsers(userId, randomUsers, limit);
+            List<Integer> excludeIds = new ArrayList<>(followingIds);
+            excludeIds.add(userId);
+            return findByIds(activeUserPoolService.sample(limit, excludeIds));
         }
         
-        // 获取用户详情，并排除已关注的用户
-        List<User> recommendedUsers = new ArrayList<>();
-        for (Integer recommendedUserId : similarUserIds) {
-            User recommendedUser = userRepository.findById(recommendedUserId);
-            if (recommendedUser != null) {
-                recommendedUsers.add(recommendedUser);
-            }
-        }
-        
-        return filterFollowingUsers(userId, recommendedUsers, limit);
-    }
-    
-    /**
-     * 过滤已关注的用户
-     * 
-     * @param userId 当前用户ID
-     * @param users 用户列表
-     * @param limit 限制数量
-     * @return 过滤后的用户DTO列表
-     */
-    private List<UserDTO> filterFollowingUsers(Integer userId, List<User> users, Integer limit) {
-        // 获取当前用户已关注的所有用户ID
-        List<Integer> followingIds = friendshipRepository.findFollowingIds(userId);
-        
-        // 过滤掉已关注的用户，并限制返回数量
-        return users.stream()
-                .filter(user -> !followingIds.contains(user.getId())) // 排除已关注的用户
-                .filter(user -> !user.getId().equals(userId)) // 排除自己
-                .limit(limit != null && limit > 0 ? limit : 10)
-                .map(this::convertToDTO)
-                .toList();
+        // 批量获取用户详情，保持相似度顺序
+        return findByIds(similarUserIds);
     }
     
     /**
@@ -518,30 +565,9 @@ public class UserServiceImpl implements UserService {
         
         // 在用户名和个人简介中搜索
         String searchPattern = "%" + keyword.trim() + "%";
-        return userRepository.findByUsernameOrBioLike(searchPattern, offset, size).stream()
-                .map(this::convertToDTO)
-                .toList();   
+        return convertToDTOList(userRepository.findByUsernameOrBioLike(searchPattern, offset, size));
     }
     
-    /**
-     * 获取当前登录用户ID
-     * @return 用户ID，如果未登录则返回null
-     */
-    private Integer getCurrentUserId() {
-        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attributes != null) {
-            HttpServletRequest request = attributes.getRequest();
-            HttpSession session = request.getSession(false);
-            if (session != null) {
-                User user = (User) session.getAttribute("user");
-                if (user != null) {
-                    return user.getId();
-                }
-            }
-        }
-        return null;
-    }
-
     /**
      * 检查用户名是否已存在（提供给控制器调用的方法）
      * @param username 用户名
@@ -591,12 +617,17 @@ public class UserServiceImpl implements UserService {
                 friendshipRepository.updateStatus(targetId, userId, 0);
             }
             
-            // 删除关注关系
-            friendshipRepository.delete(userId, targetId);
+            // 删除关注关系，只有真正删除了记录才减少计数，并发取消关注不会重复计数
+            if (friendshipRepository.delete(userId, targetId) > 0) {
+                userStatsService.adjustFollowCount(userId, targetId, -1);
+            }
+            timelineService.onUnfollow(userId, targetId);
             return "已取消关注";
         } else {
             // 未关注，执行关注操作
             friendshipRepository.insert(userId, targetId);
+            userStatsService.adjustFollowCount(userId, targetId, 1);
+            timelineService.onFollow(userId, targetId);
             
             // 检查对方是否已关注自己，如果是则互相关注
             boolean isFollowedBack = friendshipRepository.exists(targetId, userId);
@@ -622,9 +653,7 @@ public class UserServiceImpl implements UserService {
     public List<UserDTO> getUserFollowing(Integer userId, Integer page, Integer size) {
         int offset = (page - 1) * size;
         List<User> users = userRepository.findFollowingByUserId(userId, offset, size);
-        return users.stream()
-            .map(this::convertToDTO)
-            .toList();
+        return convertToDTOList(users);
     }
 
     /**
@@ -638,9 +667,7 @@ public class UserServiceImpl implements UserService {
     public List<UserDTO> getUserFollowers(Integer userId, Integer page, Integer size) {
         int offset = (page - 1) * size;
         List<User> users = userRepository.findFollowersByUserId(userId, offset, size);
-        return users.stream()
-            .map(this::convertToDTO)
-            .toList();
+        return convertToDTOList(users);
     }
 
     /**
@@ -652,9 +679,7 @@ public class UserServiceImpl implements UserService {
     public List<UserDTO> getMutualFriends(Integer userId, Integer page, Integer size) {
         int offset = (page - 1) * size;
         List<User> users = userRepository.findMutualFriendsByUserId(userId, offset, size);
-        return users.stream()
-            .map(this::convertToDTO)
-            .toList();
+        return convertToDTOList(users);
     }
 
     /**
@@ -688,16 +713,92 @@ public class UserServiceImpl implements UserService {
             return Collections.emptyList();
         }
         
+        // 批量查询后按传入顺序返回
+        Map<Integer, UserDTO> userMap = getUserDTOMapByIds(ids);
         List<UserDTO> users = new ArrayList<>();
         for (Integer id : ids) {
-            User user = userRepository.findById(id);
+            UserDTO user = userMap.get(id);
             if (user != null) {
-                users.add(convertToDTO(user));
+                users.add(user);
             }
         }
         
         return users;
     }
+    
+    /**
+     * 根据ID集合批量获取用户DTO
+     * @param ids 用户ID集合
+     * @return 用户ID到用户DTO的映射
+     */
+    @Override
+    public Map<Integer, UserDTO> getUserDTOMapByIds(Collection<Integer> ids) {
+        Map<Integer, UserDTO> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return result;
+        }
+        
+        for (UserDTO dto : convertToDTOList(userRepository.findByIds(distinctIds))) {
+            result.put(dto.getId(), dto);
+        }
+        return result;
+    }
+    
+    /**
+     * 批量获取用户摘要（仅ID、用户名、头像）
+     * @param ids 用户ID集合
+     * @return 用户ID到用户摘要的映射
+     */
+    @Override
+    public Map<Integer, UserDTO> getUserSummaries(Collection<Integer> ids) {
+        Map<Integer, UserDTO> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return result;
+        }
+        
+        for (User user : userRepository.findSummariesByIds(distinctIds)) {
+            result.put(user.getId(), convertToSummary(user));
+        }
+        return result;
+    }
+    
+    /**
+     * 获取单个用户摘要
+     * @param id 用户ID
+     * @return 用户摘要，如果不存在则返回null
+     */
+    @Override
+    public UserDTO getUserSummaryById(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        return getUserSummaries(Collections.singletonList(id)).get(id);
+    }
+    
+    /**
+     * 将User实体转换为仅包含ID、用户名、头像的摘要DTO
+     * @param user 用户实体
+     * @return 用户摘要DTO
+     */
+    private UserDTO convertToSummary(User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setAvatar(user.getAvatar());
+        return dto;
+    }
 
     
 } 
\ No newline at end of file
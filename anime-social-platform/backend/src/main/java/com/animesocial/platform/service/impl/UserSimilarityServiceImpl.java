@@ -0,0 +1,345 @@
+package com.animesocial.platform.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.UserTag;
+import com.animesocial.platform.repository.UserTagRepository;
+import com.animesocial.platform.service.UserSimilarityService;
+import com.animesocial.platform.util.AfterCommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户相似度服务实现类
+ * 标签到用户的倒排索引使用RoaringBitmap保存，候选用户由用户各标签位图求并集、
+ * 再与排除位图求差集得到；每个候选用户的共同标签数通过两个有序标签数组归并计算，
+ * 只用大小为K的最小堆保留前K名，不对全部候选排序。
+ * 索引在首次查询时全量构建，之后随用户标签变化增量维护，并定期全量重建兜底。
+ */
+@Service
+@Slf4j
+public class UserSimilarityServiceImpl implements UserSimilarityService {
+
+    /**
+     * 全量构建时每次读取的关联记录数量
+     */
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private static final int[] NO_TAGS = new int[0];
+
+    /**
+     * 相似度排序：共同标签数降序、Jaccard系数降序、用户ID升序
+     */
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparingInt((Candidate c) -> c.overlap).reversed()
+            .thenComparing(Comparator.comparingDouble((Candidate c) -> c.jaccard).reversed())
+            .thenComparingInt(c -> c.userId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 标签ID → 关联了该标签的用户ID位图
+     */
+    private Map<Integer, RoaringBitmap> tagUsers = new HashMap<>();
+
+    /**
+     * 用户ID → 升序排列的标签ID数组
+     */
+    private Map<Integer, int[]> userTags = new HashMap<>();
+
+    private volatile boolean loaded;
+
+    private volatile boolean rebuilding;
+
+    /**
+     * 全量重建期间标签发生变化的用户，重建完成后重新应用
+     */
+    private final Set<Integer> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private UserTagRepository userTagRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 注册索引规模的监控指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("user.similarity.index.users", this, UserSimilarityServiceImpl::indexedUserCount);
+        meterRegistry.gauge("user.similarity.index.tags", this, UserSimilarityServiceImpl::indexedTagCount);
+    }
+
+    @Override
+    public List<Integer> getSimilarUsers(Integer userId, int limit, Collection<Integer> excludeUserIds) {
+        if (userId == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        ensureLoaded();
+
+        RoaringBitmap excluded = new RoaringBitmap();
+        excluded.add(userId);
+        if (excludeUserIds != null) {
+            for (Integer id : excludeUserIds) {
+                if (id != null) {
+                    excluded.add(id);
+                }
+            }
+        }
+
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            int[] mine = userTags.getOrDefault(userId, NO_TAGS);
+            if (mine.length == 0) {
+                return Collections.emptyList();
+            }
+
+            // 各标签位图的并集即为至少有一个共同标签的用户
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (int tagId : mine) {
+                RoaringBitmap users = tagUsers.get(tagId);
+                if (users != null) {
+                    candidates.or(users);
+                }
+            }
+            candidates.andNot(excluded);
+
+            PeekableIntIterator iterator = candidates.getIntIterator();
+            while (iterator.hasNext()) {
+                int candidateId = iterator.next();
+                int[] theirs = userTags.getOrDefault(candidateId, NO_TAGS);
+                int overlap = intersectionSize(mine, theirs);
+                if (overlap == 0) {
+                    continue;
+                }
+                double jaccard = (double) overlap / (mine.length + theirs.length - overlap);
+                Candidate candidate = new Candidate(candidateId, overlap, jaccard);
+                if (heap.size() < limit) {
+                    heap.offer(candidate);
+                } else if (RANKING.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.offer(candidate);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> top = new ArrayList<>(heap);
+        top.sort(RANKING);
+        List<Integer> result = new ArrayList<>(top.size());
+        for (Candidate candidate : top) {
+            result.add(candidate.userId);
+        }
+        return result;
+    }
+
+    @Override
+    public void refreshUser(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        // 在事务内调用时标签变更尚未提交，提前更新会让回滚的变更留在索引里，
+        // 因此只在提交后读取最新标签更新索引，回滚时索引保持不变
+        AfterCommit.run(() -> applyRefresh(userId));
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        int userCount;
+        try {
+            Map<Integer, RoaringBitmap> newTagUsers = new HashMap<>();
+            Map<Integer, RoaringBitmap> userTagBits = new HashMap<>();
+            int lastId = 0;
+            List<UserTag> chunk;
+            do {
+                chunk = userTagRepository.findAfterId(lastId, LOAD_BATCH_SIZE);
+                for (UserTag userTag : chunk) {
+                    newTagUsers.computeIfAbsent(userTag.getTagId(), id -> new RoaringBitmap()).add(userTag.getUserId());
+                    userTagBits.computeIfAbsent(userTag.getUserId(), id -> new RoaringBitmap()).add(userTag.getTagId());
+                }
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == LOAD_BATCH_SIZE);
+
+            newTagUsers.values().forEach(RoaringBitmap::runOptimize);
+            Map<Integer, int[]> newUserTags = new HashMap<>(userTagBits.size() * 2);
+            userTagBits.forEach((id, bits) -> newUserTags.put(id, bits.toArray()));
+            userCount = newUserTags.size();
+
+            lock.writeLock().lock();
+            try {
+                tagUsers = newTagUsers;
+                userTags = newUserTags;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding = false;
+        }
+
+        // 重建期间读到的可能是旧数据，按最新标签重新应用一次
+        for (Integer userId : changedDuringRebuild) {
+            applyRefresh(userId);
+        }
+        changedDuringRebuild.clear();
+
+        log.info("用户标签倒排索引重建完成: {}个用户, 耗时{}ms", userCount, System.currentTimeMillis() - start);
+        return userCount;
+    }
+
+    /**
+     * 定期全量重建，修正多实例部署时其他实例上的标签变化
+     */
+    @Scheduled(initialDelayString = "${app.user-similarity.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.user-similarity.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (!loaded) {
+            return; // 尚未使用过的索引等首次查询时再构建
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("用户标签倒排索引定期重建失败", e);
+        }
+    }
+
+    /**
+     * 首次查询时全量构建索引
+     */
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取用户最新标签并更新索引
+     * 索引尚未构建时无需维护，首次查询会全量加载
+     */
+    private void applyRefresh(Integer userId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(userId);
+        }
+        if (!loaded) {
+            return;
+        }
+        int[] latest = userTagRepository.findTagIdsByUserId(userId).stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .distinct()
+                .toArray();
+
+        lock.writeLock().lock();
+        try {
+            int[] previous = userTags.getOrDefault(userId, NO_TAGS);
+            for (int tagId : previous) {
+                if (Arrays.binarySearch(latest, tagId) < 0) {
+                    RoaringBitmap users = tagUsers.get(tagId);
+                    if (users != null) {
+                        users.remove(userId);
+                        if (users.isEmpty()) {
+                            tagUsers.remove(tagId);
+                        }
+                    }
+                }
+            }
+            for (int tagId : latest) {
+                if (Arrays.binarySearch(previous, tagId) < 0) {
+                    tagUsers.computeIfAbsent(tagId, id -> new RoaringBitmap()).add(userId);
+                }
+            }
+            if (latest.length == 0) {
+                userTags.remove(userId);
+            } else {
+                userTags.put(userId, latest);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 两个升序数组的交集大小
+     */
+    private static int intersectionSize(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private double indexedUserCount() {
+        lock.readLock().lock();
+        try {
+            return userTags.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double indexedTagCount() {
+        lock.readLock().lock();
+        try {
+            return tagUsers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 相似用户候选
+     */
+    private static final class Candidate {
+        private final int userId;
+        private final int overlap;
+        private final double jaccard;
+
+        private Candidate(int userId, int overlap, double jaccard) {
+            this.userId = userId;
+            this.overlap = overlap;
+            this.jaccard = jaccard;
+        }
+    }
+}
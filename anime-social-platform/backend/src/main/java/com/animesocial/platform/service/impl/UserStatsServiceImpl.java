@@ -0,0 +1,102 @@
+package com.animesocial.platform.service.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.animesocial.platform.model.UserStats;
+import com.animesocial.platform.repository.UserStatsRepository;
+import com.animesocial.platform.service.UserStatsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户统计服务实现类
+ * 计数调整由调用方的事务包裹，与业务写操作一同提交或回滚；
+ * 定时对账任务按用户ID分段重建，修正异常路径导致的计数偏差
+ */
+@Service
+@Slf4j
+public class UserStatsServiceImpl implements UserStatsService {
+    
+    /**
+     * 对账时每批处理的用户ID跨度
+     */
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+    
+    @Override
+    public void adjustPostCount(Integer userId, int delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        userStatsRepository.adjustPostCount(userId, delta);
+    }
+    
+    @Override
+    public void adjustFollowCount(Integer userId, Integer targetId, int delta) {
+        if (userId == null || targetId == null || delta == 0) {
+            return;
+        }
+        userStatsRepository.adjustFollowingCount(userId, delta);
+        userStatsRepository.adjustFollowerCount(targetId, delta);
+    }
+    
+    @Override
+    public void adjustFavoriteCount(Integer userId, int delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        userStatsRepository.adjustFavoriteCount(userId, delta);
+    }
+    
+    @Override
+    public void onResourceDeleted(Integer resourceId) {
+        if (resourceId == null) {
+            return;
+        }
+        userStatsRepository.decrementFavoriteCountByResourceId(resourceId);
+    }
+    
+    @Override
+    public Map<Integer, UserStats> getStatsMap(Collection<Integer> userIds) {
+        Map<Integer, UserStats> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+        
+        // 只读取统计表：没有统计行说明该用户还没有任何计数变化，由调用方按0处理，
+        // 历史用户的统计行由建表迁移和定时对账补齐，读路径不写库
+        for (UserStats stats : userStatsRepository.findByUserIds(userIds)) {
+            result.put(stats.getUserId(), stats);
+        }
+        return result;
+    }
+    
+    /**
+     * 定时对账，默认每天凌晨3点30分执行
+     */
+    @Override
+    @Scheduled(cron = "${app.user-stats.reconcile-cron:0 30 3 * * ?}")
+    public int reconcileAll() {
+        int maxId = userStatsRepository.findMaxUserId();
+        int processed = 0;
+        long start = System.currentTimeMillis();
+        for (int minId = 1; minId <= maxId; minId += RECONCILE_BATCH_SIZE) {
+            try {
+                processed += userStatsRepository.rebuildByUserIdRange(minId, minId + RECONCILE_BATCH_SIZE - 1);
+            } catch (Exception e) {
+                log.error("用户统计对账失败, 区间: [{}, {}]", minId, minId + RECONCILE_BATCH_SIZE - 1, e);
+            }
+        }
+        log.info("用户统计对账完成, 最大用户ID: {}, 影响行数: {}, 耗时: {}ms",
+                maxId, processed, System.currentTimeMillis() - start);
+        return processed;
+    }
+}
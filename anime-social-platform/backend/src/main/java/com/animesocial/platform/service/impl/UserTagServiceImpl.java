@@ -1,11 +1,14 @@
 package com.animesocial.platform.service.impl;
 
 import com.animesocial.platform.exception.BusinessException;
+import com.animesocial.platform.model.EsOutboxEvent;
 import com.animesocial.platform.model.Tag;
 import com.animesocial.platform.model.UserTag;
 import com.animesocial.platform.repository.TagRepository;
 import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.repository.UserTagRepository;
+import com.animesocial.platform.service.EsOutboxService;
+import com.animesocial.platform.service.UserSimilarityService;
 import com.animesocial.platform.service.UserTagService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -32,6 +35,12 @@ public class UserTagServiceImpl implements UserTagService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EsOutboxService esOutboxService;
+
+    @Autowired
+    private UserSimilarityService userSimilarityService;
+
     @Override
     @Transactional
     public boolean addUserTag(Integer userId, Integer tagId) {
@@ -53,6 +62,8 @@ public class UserTagServiceImpl implements UserTagService {
         
         // 添加用户标签关联
         userTagRepository.save(userId, tagId);
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, userId);
+        userSimilarityService.refreshUser(userId);
         return true;
     }
 
@@ -67,6 +78,8 @@ public class UserTagServiceImpl implements UserTagService {
         // 如果标签ID列表为空，则移除所有标签
         if (tagIds == null || tagIds.isEmpty()) {
             userTagRepository.deleteByUserId(userId);
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, userId);
+            userSimilarityService.refreshUser(userId);
             return new ArrayList<>();
         }
         
@@ -91,6 +104,8 @@ public class UserTagServiceImpl implements UserTagService {
         if (!validTagIds.isEmpty()) {
             userTagRepository.batchSave(userId, validTagIds);
         }
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, userId);
+        userSimilarityService.refreshUser(userId);
         
         // 返回更新后的标签列表
         return validTags;
@@ -113,6 +128,8 @@ public class UserTagServiceImpl implements UserTagService {
         if (tagIds == null || tagIds.isEmpty()) {
             // 删除特定类型的标签
             userTagRepository.deleteByUserIdAndTagType(userId, tagType);
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, userId);
+            userSimilarityService.refreshUser(userId);
             return new ArrayList<>();
         }
         
@@ -137,6 +154,8 @@ public class UserTagServiceImpl implements UserTagService {
         if (!validTagIds.isEmpty()) {
             userTagRepository.batchSave(userId, validTagIds);
         }
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, userId);
+        userSimilarityService.refreshUser(userId);
         
         // 返回更新后的标签列表
         return validTags;
@@ -163,6 +182,10 @@ public class UserTagServiceImpl implements UserTagService {
         
         // 移除用户标签关联
         int result = userTagRepository.delete(userId, tagId);
+        if (result > 0) {
+            esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, userId);
+            userSimilarityService.refreshUser(userId);
+        }
         return result > 0;
     }
 
@@ -233,55 +256,4 @@ public class UserTagServiceImpl implements UserTagService {
         
         return result;
     }
-
-    /**
-     * 获取与指定用户标签相似的用户
-     * 注意：这是一个内部辅助方法，仅供包内其他服务调用
-     * 
-     * @param userId 用户ID
-     * @param limit 限制数量
-     * @return 相似用户ID列表，按相似度排序
-     */
-    List<Integer> getSimilarUsers(Integer userId, Integer limit) {
-        // 检查用户是否存在
-        if (!userRepository.existsByIdOrUsername(userId, null)) {
-            throw new BusinessException("用户不存在");
-        }
-        
-        // 获取用户的标签
-        List<Tag> userTags = getUserTags(userId);
-        if (userTags.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        // 提取标签ID
-        List<Integer> userTagIds = userTags.stream()
-                .map(Tag::getId)
-                .toList();
-        
-        // 查找具有相似标签的用户
-        Map<Integer, Integer> userScores = new HashMap<>();
-        
-        // 为每个标签查找关联的用户
-        for (Integer tagId : userTagIds) {
-            List<Integer> usersWithTag = userTagRepository.findUserIdsByTagId(tagId);
-            for (Integer otherUserId : usersWithTag) {
-                // 排除自己
-                if (!otherUserId.equals(userId)) {
-                    // 增加用户的相似度分数
-                    userScores.put(otherUserId, userScores.getOrDefault(otherUserId, 0) + 1);
-                }
-            }
-        }
-        
-        // 按相似度分数排序
-        List<Map.Entry<Integer, Integer>> sortedUsers = new ArrayList<>(userScores.entrySet());
-        sortedUsers.sort((a, b) -> b.getValue().compareTo(a.getValue()));
-        
-        // 提取用户ID并限制结果数量
-        return sortedUsers.stream()
-                .map(Map.Entry::getKey)
-                .limit(limit != null && limit > 0 ? limit : 10)
-                .toList();
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.animesocial.platform.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交后执行工具类
+ * 缓存失效、内存索引更新等副作用必须在数据真正提交后执行，事务回滚时不执行
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     * @param action 要执行的操作
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 立即失效缓存，并在当前事务提交后再失效一次，
+     * 避免提交前其他请求读到旧数据后重新写入缓存
+     * @param eviction 缓存失效操作
+     */
+    public static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            run(eviction);
+        }
+    }
+}
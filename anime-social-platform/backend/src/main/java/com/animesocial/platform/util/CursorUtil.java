@@ -0,0 +1,118 @@
+package com.animesocial.platform.util;
+
+import com.animesocial.platform.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页工具类
+ * 游标由"排序方式|排序键值|ID"组成并做Base64编码，对客户端不透明。
+ * 排序键值加上ID构成唯一的键集(keyset)，查询时用 WHERE (key, id) &lt; (游标值) 定位，
+ * 代替 LIMIT offset, size，使任意深度的翻页开销与第一页相同。
+ */
+public final class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 未指定每页数量时的默认值
+     */
+    public static final int DEFAULT_PAGE_SIZE = 10;
+
+    /**
+     * 每页数量上限
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorUtil() {
+    }
+
+    /**
+     * 将每页数量限制在 [1, MAX_PAGE_SIZE] 内，未指定时使用默认值
+     * @param size 请求的每页数量
+     * @return 可用于查询的每页数量
+     */
+    public static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 生成游标
+     * @param sort 排序方式
+     * @param sortValue 最后一条记录的排序键值（时间或计数）
+     * @param id 最后一条记录的ID
+     * @return 编码后的游标
+     */
+    public static String encode(String sort, Object sortValue, Integer id) {
+        String raw = sort + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * @param cursor 编码后的游标，为空表示第一页
+     * @param sort 当前请求的排序方式，必须与生成游标时一致
+     * @return 游标对象，cursor为空时返回null
+     * @throws BusinessException 游标格式错误或与排序方式不匹配
+     */
+    public static Cursor decode(String cursor, String sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(sort)) {
+                throw new BusinessException("无效的分页游标");
+            }
+            return new Cursor(parts[1], Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 已解析的游标
+     */
+    public static class Cursor {
+        private final String value;
+        private final Integer id;
+
+        Cursor(String value, Integer id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        /**
+         * 以时间类型读取排序键值
+         */
+        public LocalDateTime getTimeValue() {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new BusinessException("无效的分页游标");
+            }
+        }
+
+        /**
+         * 以计数类型读取排序键值
+         */
+        public Integer getCountValue() {
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new BusinessException("无效的分页游标");
+            }
+        }
+    }
+}
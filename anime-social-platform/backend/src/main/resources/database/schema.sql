@@ -13,7 +13,8 @@ CREATE TABLE IF NOT EXISTS users (
     is_admin TINYINT(1) DEFAULT 0,
     status TINYINT(1) DEFAULT 1,
     register_time DATETIME NOT NULL,
-    last_login_time DATETIME DEFAULT NULL
+    last_login_time DATETIME DEFAULT NULL,
+    INDEX idx_users_last_login (last_login_time)
 );
 
 -- 帖子表
@@ -22,12 +23,21 @@ CREATE TABLE IF NOT EXISTS posts (
     user_id INT NOT NULL,
     title VARCHAR(100) NOT NULL,
     content TEXT NOT NULL,
+    -- 正文摘要，写入时计算，列表查询只读取此列不读取正文
+    excerpt VARCHAR(300) DEFAULT NULL,
     created_at DATETIME NOT NULL,
     updated_at DATETIME DEFAULT NULL,
     view_count INT DEFAULT 0,
     like_count INT DEFAULT 0,
+    -- 评论数（含回复），由评论的增删原子维护，定时对账修正
+    comment_count INT DEFAULT 0,
     is_top TINYINT(1) DEFAULT 0,
-    FOREIGN KEY (user_id) REFERENCES users(id)
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    -- 游标分页使用的 (排序字段, id) 复合索引
+    INDEX idx_posts_created_id (created_at, id),
+    INDEX idx_posts_views_id (view_count, id),
+    INDEX idx_posts_likes_id (like_count, id),
+    INDEX idx_posts_updated_at (updated_at)
 );
 
 -- 评论表
@@ -38,6 +48,9 @@ CREATE TABLE IF NOT EXISTS comments (
     content TEXT NOT NULL,
     created_at DATETIME NOT NULL,
     parent_id INT DEFAULT NULL,
+    -- 直接回复数，由回复的增删原子维护，定时对账修正
+    reply_count INT DEFAULT 0,
+    INDEX idx_comments_post_created (post_id, created_at, id),
     FOREIGN KEY (post_id) REFERENCES posts(id) ON DELETE CASCADE,
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (parent_id) REFERENCES comments(id) ON DELETE SET NULL
@@ -56,7 +69,11 @@ CREATE TABLE IF NOT EXISTS resources (
     upload_time DATETIME NOT NULL,
     download_count INT DEFAULT 0,
     like_count INT DEFAULT 0,
-    FOREIGN KEY (user_id) REFERENCES users(id)
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    -- 游标分页使用的 (排序字段, id) 复合索引
+    INDEX idx_resources_upload_id (upload_time, id),
+    INDEX idx_resources_downloads_id (download_count, id),
+    INDEX idx_resources_likes_id (like_count, id)
 );
 
 -- 好友关系表
@@ -80,7 +97,11 @@ CREATE TABLE IF NOT EXISTS messages (
     send_time DATETIME NOT NULL,
     read_status TINYINT(1) DEFAULT 0,
     FOREIGN KEY (sender_id) REFERENCES users(id),
-    FOREIGN KEY (receiver_id) REFERENCES users(id)
+    FOREIGN KEY (receiver_id) REFERENCES users(id),
+    -- 收件箱、发件箱、聊天记录游标分页使用的复合索引
+    INDEX idx_messages_receiver_time (receiver_id, send_time, id),
+    INDEX idx_messages_sender_time (sender_id, send_time, id),
+    INDEX idx_messages_conversation (sender_id, receiver_id, send_time, id)
 );
 
 -- 收藏表
@@ -91,7 +112,8 @@ CREATE TABLE IF NOT EXISTS favorites (
     created_at DATETIME NOT NULL,
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (resource_id) REFERENCES resources(id) ON DELETE CASCADE,
-    UNIQUE KEY (user_id, resource_id)
+    UNIQUE KEY (user_id, resource_id),
+    INDEX idx_favorites_user_created (user_id, created_at, id)
 );
 
 -- 标签表
@@ -144,7 +166,8 @@ CREATE TABLE IF NOT EXISTS resource_likes (
     created_at DATETIME NOT NULL,
     FOREIGN KEY (resource_id) REFERENCES resources(id) ON DELETE CASCADE,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    UNIQUE KEY (resource_id, user_id)
+    UNIQUE KEY (resource_id, user_id),
+    INDEX idx_resource_likes_user_created (user_id, created_at, id)
 );
 
 -- 活动表
@@ -169,4 +192,212 @@ CREATE TABLE IF NOT EXISTS event_participations (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE,
     UNIQUE KEY (user_id, event_id) -- 防止重复报名
-); 
\ No newline at end of file
+); 
+-- 用户统计表
+-- 冗余存储用户的帖子数、关注数、粉丝数、收藏数，在相关写操作的事务中同步维护
+-- 由定时对账任务定期与源表核对修正
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id INT PRIMARY KEY,
+    post_count INT NOT NULL DEFAULT 0,
+    following_count INT NOT NULL DEFAULT 0,
+    follower_count INT NOT NULL DEFAULT 0,
+    favorite_count INT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    INDEX idx_user_stats_followers (follower_count),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- 为建表前已存在的用户补齐统计行，已有统计行的用户保持不变
+INSERT IGNORE INTO user_stats (user_id, post_count, following_count, follower_count, favorite_count, updated_at)
+SELECT u.id,
+    (SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id),
+    (SELECT COUNT(*) FROM friendships f WHERE f.user_id = u.id),
+    (SELECT COUNT(*) FROM friendships f WHERE f.friend_id = u.id),
+    (SELECT COUNT(*) FROM favorites fa WHERE fa.user_id = u.id),
+    NOW()
+FROM users u;
+
+-- ES同步发件箱表
+-- 帖子、资源、用户的变更在业务事务中写入此表，由后台任务批量同步到ElasticSearch
+-- 同步成功后删除记录，失败时按指数退避推迟下次重试时间
+CREATE TABLE IF NOT EXISTS es_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL, -- post, resource, user
+    entity_id INT NOT NULL,
+    operation VARCHAR(10) NOT NULL, -- upsert, delete
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500) DEFAULT NULL,
+    created_at DATETIME NOT NULL,
+    next_attempt_at DATETIME NOT NULL,
+    INDEX idx_es_outbox_next_attempt (next_attempt_at, id)
+);
+
+-- ES同步水位表
+-- 记录每类实体已同步到ElasticSearch的最大ID和同步时间，由全量重建和启动追赶写入
+-- 应用启动时只追赶水位之后新增或修改的数据
+CREATE TABLE IF NOT EXISTS es_sync_state (
+    entity_type VARCHAR(20) PRIMARY KEY, -- post, resource, user
+    max_id INT NOT NULL DEFAULT 0,
+    synced_at DATETIME NOT NULL
+);
+
+-- 关注时间线收件箱表
+-- 发帖时把帖子ID写入每个粉丝的收件箱（写扩散），每个用户只保留最新的若干条，由定时任务裁剪
+-- 粉丝数超过阈值的作者不写入收件箱，读取时间线时直接查询其帖子（读扩散）
+-- 帖子ID随发布时间递增，按 (user_id, post_id) 主键倒序即为时间线顺序
+CREATE TABLE IF NOT EXISTS timeline_inbox (
+    user_id INT NOT NULL,
+    post_id INT NOT NULL,
+    author_id INT NOT NULL,
+    created_at DATETIME NOT NULL,
+    PRIMARY KEY (user_id, post_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (post_id) REFERENCES posts(id) ON DELETE CASCADE
+);
+
+-- 时间线读扩散作者表
+-- 作者发帖时粉丝数超过阈值、帖子未写入收件箱，即登记到此表；读取时间线时只合并此表中作者的帖子。
+-- 作者粉丝数回落后再次发帖时，把登记以来的帖子补入粉丝收件箱再移除登记，读写两侧始终以此表为准
+CREATE TABLE IF NOT EXISTS timeline_pull_authors (
+    author_id INT PRIMARY KEY,
+    since_post_id INT NOT NULL, -- 第一篇未写扩散的帖子ID
+    created_at DATETIME NOT NULL,
+    FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- 登记表建立前已按粉丝数走读扩散的作者（默认阈值2000），其全部帖子都需要读取时合并
+INSERT IGNORE INTO timeline_pull_authors (author_id, since_post_id, created_at)
+SELECT user_id, 0, NOW() FROM user_stats WHERE follower_count > 2000;
+
+-- 帖子列表读模型表
+-- 冗余存储列表展示所需的作者、标签、计数和摘要，列表接口单表查询即可返回
+-- 由帖子、标签、用户、评论、点赞和浏览量的写操作登记到 post_feed_dirty，后台任务异步重算
+CREATE TABLE IF NOT EXISTS post_feed_view (
+    post_id INT PRIMARY KEY,
+    user_id INT NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    avatar VARCHAR(255) DEFAULT NULL,
+    title VARCHAR(100) NOT NULL,
+    excerpt VARCHAR(300) NOT NULL,
+    tags JSON DEFAULT NULL, -- [{"id":1,"name":"...","category":"..."}]
+    view_count INT NOT NULL DEFAULT 0,
+    like_count INT NOT NULL DEFAULT 0,
+    comment_count INT NOT NULL DEFAULT 0,
+    is_top TINYINT(1) NOT NULL DEFAULT 0,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME DEFAULT NULL,
+    projected_at DATETIME NOT NULL,
+    INDEX idx_post_feed_created_id (created_at, post_id),
+    INDEX idx_post_feed_views_id (view_count, post_id),
+    INDEX idx_post_feed_likes_id (like_count, post_id),
+    FOREIGN KEY (post_id) REFERENCES posts(id) ON DELETE CASCADE
+);
+
+-- 帖子读模型待重算表
+-- 每个帖子一行，重复登记只递增版本号；重算完成后按版本号删除，期间再次登记的帖子会保留到下一轮
+CREATE TABLE IF NOT EXISTS post_feed_dirty (
+    post_id INT PRIMARY KEY,
+    version INT NOT NULL DEFAULT 1,
+    marked_at DATETIME NOT NULL,
+    INDEX idx_post_feed_dirty_marked (marked_at)
+);
+
+-- 已有数据库升级
+-- 上面的 CREATE TABLE IF NOT EXISTS 不会修改已存在的表，以下语句为旧库补齐新增的列和索引。
+-- 每条语句先查询 information_schema，列或索引已存在时跳过，脚本可以重复执行
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts' AND COLUMN_NAME = 'excerpt') = 0,
+    'ALTER TABLE posts ADD COLUMN excerpt VARCHAR(300) DEFAULT NULL', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts' AND COLUMN_NAME = 'comment_count') = 0,
+    'ALTER TABLE posts ADD COLUMN comment_count INT DEFAULT 0', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'comments' AND COLUMN_NAME = 'reply_count') = 0,
+    'ALTER TABLE comments ADD COLUMN reply_count INT DEFAULT 0', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users' AND INDEX_NAME = 'idx_users_last_login') = 0,
+    'CREATE INDEX idx_users_last_login ON users (last_login_time)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts' AND INDEX_NAME = 'idx_posts_created_id') = 0,
+    'CREATE INDEX idx_posts_created_id ON posts (created_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts' AND INDEX_NAME = 'idx_posts_views_id') = 0,
+    'CREATE INDEX idx_posts_views_id ON posts (view_count, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts' AND INDEX_NAME = 'idx_posts_likes_id') = 0,
+    'CREATE INDEX idx_posts_likes_id ON posts (like_count, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts' AND INDEX_NAME = 'idx_posts_updated_at') = 0,
+    'CREATE INDEX idx_posts_updated_at ON posts (updated_at)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'comments' AND INDEX_NAME = 'idx_comments_post_created') = 0,
+    'CREATE INDEX idx_comments_post_created ON comments (post_id, created_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'resources' AND INDEX_NAME = 'idx_resources_upload_id') = 0,
+    'CREATE INDEX idx_resources_upload_id ON resources (upload_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'resources' AND INDEX_NAME = 'idx_resources_downloads_id') = 0,
+    'CREATE INDEX idx_resources_downloads_id ON resources (download_count, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'resources' AND INDEX_NAME = 'idx_resources_likes_id') = 0,
+    'CREATE INDEX idx_resources_likes_id ON resources (like_count, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'messages' AND INDEX_NAME = 'idx_messages_receiver_time') = 0,
+    'CREATE INDEX idx_messages_receiver_time ON messages (receiver_id, send_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'messages' AND INDEX_NAME = 'idx_messages_sender_time') = 0,
+    'CREATE INDEX idx_messages_sender_time ON messages (sender_id, send_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'messages' AND INDEX_NAME = 'idx_messages_conversation') = 0,
+    'CREATE INDEX idx_messages_conversation ON messages (sender_id, receiver_id, send_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'favorites' AND INDEX_NAME = 'idx_favorites_user_created') = 0,
+    'CREATE INDEX idx_favorites_user_created ON favorites (user_id, created_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'resource_likes' AND INDEX_NAME = 'idx_resource_likes_user_created') = 0,
+    'CREATE INDEX idx_resource_likes_user_created ON resource_likes (user_id, created_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- 回填新增的计数列，只更新与实际数量不一致的行；摘要由应用启动后的后台任务分批回填
+UPDATE comments c
+LEFT JOIN (SELECT parent_id, COUNT(*) AS cnt FROM comments WHERE parent_id IS NOT NULL GROUP BY parent_id) r
+    ON r.parent_id = c.id
+SET c.reply_count = COALESCE(r.cnt, 0)
+WHERE NOT (c.reply_count <=> COALESCE(r.cnt, 0));
+
+UPDATE posts p
+LEFT JOIN (SELECT post_id, COUNT(*) AS cnt FROM comments GROUP BY post_id) c ON c.post_id = p.id
+SET p.comment_count = COALESCE(c.cnt, 0)
+WHERE NOT (p.comment_count <=> COALESCE(c.cnt, 0));
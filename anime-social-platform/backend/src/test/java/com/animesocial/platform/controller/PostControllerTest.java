@@ -88,7 +88,7 @@ class PostControllerTest {
     @DisplayName("测试获取帖子详情")
     @WithMockUser
     void testGetPost() throws Exception {
-        when(postService.getPostById(anyInt())).thenReturn(testPostDTO);
+        when(postService.getPostById(anyInt(), any())).thenReturn(testPostDTO);
 
         mockMvc.perform(get("/api/posts/1"))
                 .andExpect(status().isOk())
@@ -101,7 +101,7 @@ class PostControllerTest {
     @DisplayName("测试获取帖子列表")
     @WithMockUser
     void testGetPosts() throws Exception {
-        when(postService.getAllPosts(anyInt(), anyInt(), any(), anyString()))
+        when(postService.getAllPosts(anyInt(), anyInt(), any(), anyString(), any()))
                 .thenReturn(postListResponse);
 
         mockMvc.perform(get("/api/posts")
@@ -131,7 +131,7 @@ class PostControllerTest {
     @DisplayName("测试更新帖子")
     @WithMockUser
     void testUpdatePost() throws Exception {
-        when(postService.updatePost(anyInt(), any(CreatePostRequest.class))).thenReturn(testPostDTO);
+        when(postService.updatePost(anyInt(), any(CreatePostRequest.class), any())).thenReturn(testPostDTO);
 
         mockMvc.perform(put("/api/posts/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -155,7 +155,7 @@ class PostControllerTest {
     @DisplayName("测试点赞帖子")
     @WithMockUser
     void testLikePost() throws Exception {
-        when(postService.likePost(anyInt(), anyInt())).thenReturn("点赞成功");
+        when(postService.likePost(anyInt(), anyInt())).thenReturn(1);
 
         mockMvc.perform(post("/api/posts/1/like"))
                 .andExpect(status().isOk());
@@ -165,7 +165,7 @@ class PostControllerTest {
     @DisplayName("测试取消点赞帖子")
     @WithMockUser
     void testUnlikePost() throws Exception {
-        when(postService.unlikePost(anyInt(), anyInt())).thenReturn("取消点赞成功");
+        when(postService.unlikePost(anyInt(), anyInt())).thenReturn(0);
 
         mockMvc.perform(delete("/api/posts/1/like"))
                 .andExpect(status().isOk());
@@ -187,7 +187,7 @@ class PostControllerTest {
     @DisplayName("测试获取用户帖子")
     @WithMockUser
     void testGetUserPosts() throws Exception {
-        when(postService.getPostsByUserId(anyInt(), anyInt(), anyInt()))
+        when(postService.getPostsByUserId(anyInt(), anyInt(), anyInt(), any()))
                 .thenReturn(Arrays.asList(testPostDTO));
 
         mockMvc.perform(get("/api/posts/user/1")
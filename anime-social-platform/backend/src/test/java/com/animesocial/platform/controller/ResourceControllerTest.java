@@ -81,7 +81,7 @@ class ResourceControllerTest {
     @DisplayName("测试获取资源详情")
     @WithMockUser
     void testGetResource() throws Exception {
-        when(resourceService.getResourceById(anyInt())).thenReturn(testResourceDTO);
+        when(resourceService.getResourceById(anyInt(), any())).thenReturn(testResourceDTO);
 
         mockMvc.perform(get("/api/resources/1"))
                 .andExpect(status().isOk())
@@ -94,7 +94,7 @@ class ResourceControllerTest {
     @DisplayName("测试获取资源列表")
     @WithMockUser
     void testGetResources() throws Exception {
-        when(resourceService.getAllResources(anyInt(), anyInt(), any(), anyString()))
+        when(resourceService.getAllResources(anyInt(), anyInt(), any(), anyString(), any()))
                 .thenReturn(resourceListResponse);
 
         mockMvc.perform(get("/api/resources")
@@ -132,7 +132,7 @@ class ResourceControllerTest {
     @DisplayName("测试更新资源")
     @WithMockUser
     void testUpdateResource() throws Exception {
-        when(resourceService.updateResource(anyInt(), anyString(), anyString(), anyList()))
+        when(resourceService.updateResource(anyInt(), anyString(), anyString(), anyList(), any()))
                 .thenReturn(testResourceDTO);
 
         mockMvc.perform(put("/api/resources/1")
@@ -168,7 +168,7 @@ class ResourceControllerTest {
     @DisplayName("测试点赞资源")
     @WithMockUser
     void testLikeResource() throws Exception {
-        when(resourceService.likeResource(anyInt(), anyInt())).thenReturn("点赞成功");
+        when(resourceService.likeResource(anyInt(), anyInt())).thenReturn(1);
 
         mockMvc.perform(post("/api/resources/1/like"))
                 .andExpect(status().isOk());
@@ -178,7 +178,7 @@ class ResourceControllerTest {
     @DisplayName("测试取消点赞资源")
     @WithMockUser
     void testUnlikeResource() throws Exception {
-        when(resourceService.unlikeResource(anyInt(), anyInt())).thenReturn("取消点赞成功");
+        when(resourceService.unlikeResource(anyInt(), anyInt())).thenReturn(0);
 
         mockMvc.perform(delete("/api/resources/1/like"))
                 .andExpect(status().isOk());
@@ -21,6 +21,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.animesocial.platform.model.dto.SearchPages;
 import com.animesocial.platform.model.es.PostDocument;
 import com.animesocial.platform.model.es.ResourceDocument;
 import com.animesocial.platform.model.es.UserDocument;
@@ -89,9 +90,11 @@ class SearchControllerTest {
         Page<ResourceDocument> resourcePage = new PageImpl<>(Arrays.asList(testResourceDocument));
         Page<UserDocument> userPage = new PageImpl<>(Arrays.asList(testUserDocument));
 
-        when(elasticsearchService.searchPosts(anyString(), anyInt(), anyInt())).thenReturn(postPage);
-        when(elasticsearchService.searchResources(anyString(), anyInt(), anyInt())).thenReturn(resourcePage);
-        when(elasticsearchService.searchUsers(anyString(), anyInt(), anyInt())).thenReturn(userPage);
+        SearchPages pages = new SearchPages();
+        pages.setPosts(postPage);
+        pages.setResources(resourcePage);
+        pages.setUsers(userPage);
+        when(elasticsearchService.searchAllTypes(anyString(), anyInt(), anyInt())).thenReturn(pages);
 
         mockMvc.perform(get("/api/search")
                 .param("keyword", "测试")
@@ -109,7 +112,9 @@ class SearchControllerTest {
     @WithMockUser
     void testSearchPosts() throws Exception {
         Page<PostDocument> postPage = new PageImpl<>(Arrays.asList(testPostDocument));
-        when(elasticsearchService.searchPosts(anyString(), anyInt(), anyInt())).thenReturn(postPage);
+        SearchPages pages = new SearchPages();
+        pages.setPosts(postPage);
+        when(elasticsearchService.searchAllTypes(anyString(), anyInt(), anyInt())).thenReturn(pages);
 
         mockMvc.perform(get("/api/search")
                 .param("keyword", "测试")
@@ -126,7 +131,9 @@ class SearchControllerTest {
     @WithMockUser
     void testSearchResources() throws Exception {
         Page<ResourceDocument> resourcePage = new PageImpl<>(Arrays.asList(testResourceDocument));
-        when(elasticsearchService.searchResources(anyString(), anyInt(), anyInt())).thenReturn(resourcePage);
+        SearchPages pages = new SearchPages();
+        pages.setResources(resourcePage);
+        when(elasticsearchService.searchAllTypes(anyString(), anyInt(), anyInt())).thenReturn(pages);
 
         mockMvc.perform(get("/api/search")
                 .param("keyword", "测试")
@@ -143,7 +150,9 @@ class SearchControllerTest {
     @WithMockUser
     void testSearchUsers() throws Exception {
         Page<UserDocument> userPage = new PageImpl<>(Arrays.asList(testUserDocument));
-        when(elasticsearchService.searchUsers(anyString(), anyInt(), anyInt())).thenReturn(userPage);
+        SearchPages pages = new SearchPages();
+        pages.setUsers(userPage);
+        when(elasticsearchService.searchAllTypes(anyString(), anyInt(), anyInt())).thenReturn(pages);
 
         mockMvc.perform(get("/api/search")
                 .param("keyword", "测试")
@@ -161,7 +161,7 @@ class UserControllerTest {
     @DisplayName("测试获取用户详情")
     @WithMockUser
     void testGetUserDetail() throws Exception {
-        when(userService.getUserDetail(anyInt())).thenReturn(userDetailResponse);
+        when(userService.getUserDetail(anyInt(), any())).thenReturn(userDetailResponse);
 
         mockMvc.perform(get("/api/users/1/detail"))
                 .andExpect(status().isOk())
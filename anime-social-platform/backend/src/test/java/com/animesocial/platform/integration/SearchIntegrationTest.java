@@ -16,6 +16,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.animesocial.platform.model.EsOutboxEvent;
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.Resource;
 import com.animesocial.platform.model.User;
@@ -25,7 +26,7 @@ import com.animesocial.platform.model.es.UserDocument;
 import com.animesocial.platform.repository.PostRepository;
 import com.animesocial.platform.repository.ResourceRepository;
 import com.animesocial.platform.repository.UserRepository;
-import com.animesocial.platform.service.ElasticsearchService;
+import com.animesocial.platform.service.EsOutboxService;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -36,7 +37,7 @@ class SearchIntegrationTest {
     private MockMvc mockMvc;
 
     @Autowired
-    private ElasticsearchService elasticsearchService;
+    private EsOutboxService esOutboxService;
 
     @Autowired
     private ElasticsearchOperations elasticsearchOperations;
@@ -85,10 +86,11 @@ class SearchIntegrationTest {
         testResource.setUploadTime(LocalDateTime.now());
         resourceRepository.insert(testResource);
 
-        // 同步数据到 Elasticsearch
-        elasticsearchService.syncUserToEs(testUser.getId());
-        elasticsearchService.syncPostToEs(testPost.getId());
-        elasticsearchService.syncResourceToEs(testResource.getId());
+        // 经发件箱同步数据到 Elasticsearch
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_USER, testUser.getId());
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_POST, testPost.getId());
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_RESOURCE, testResource.getId());
+        esOutboxService.drain();
     }
 
     @Test
@@ -174,8 +176,9 @@ class SearchIntegrationTest {
         newPost.setUpdatedAt(LocalDateTime.now());
         postRepository.save(newPost);
 
-        // 同步到 Elasticsearch
-        elasticsearchService.syncPostToEs(newPost.getId());
+        // 经发件箱同步到 Elasticsearch
+        esOutboxService.enqueueUpsert(EsOutboxEvent.TYPE_POST, newPost.getId());
+        esOutboxService.drain();
 
         // 等待索引刷新
         Thread.sleep(1000);
@@ -0,0 +1,122 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.repository.UserRepository;
+import com.animesocial.platform.repository.UserStatsRepository;
+import com.animesocial.platform.service.impl.ActiveUserPoolServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveUserPoolServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ActiveUserPoolServiceImpl activeUserPoolServiceImpl;
+
+    private ActiveUserPoolService activeUserPoolService;
+
+    @BeforeEach
+    void setUp() {
+        activeUserPoolService = activeUserPoolServiceImpl;
+        ReflectionTestUtils.setField(activeUserPoolServiceImpl, "poolSize", 100);
+        ReflectionTestUtils.setField(activeUserPoolServiceImpl, "activeDays", 30);
+        activeUserPoolServiceImpl.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("测试用户池合并活跃用户和高粉丝用户")
+    void testRefresh() {
+        // 配置mock行为
+        when(userRepository.findRecentlyActiveIds(any(LocalDateTime.class), eq(100))).thenReturn(Arrays.asList(1, 2, 3));
+        when(userStatsRepository.findTopFollowedUserIds(97)).thenReturn(Arrays.asList(3, 4));
+
+        // 执行测试
+        int size = activeUserPoolService.refresh();
+
+        // 验证结果：重复的用户只计一次
+        assertEquals(4, size);
+        assertEquals(4.0, meterRegistry.get("active.user.pool.size").gauge().value());
+        verify(userRepository, never()).findNewestIds(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试没有活跃用户时退回最新注册用户")
+    void testRefreshFallsBackToNewestUsers() {
+        // 配置mock行为
+        when(userRepository.findRecentlyActiveIds(any(LocalDateTime.class), eq(100))).thenReturn(List.of());
+        when(userStatsRepository.findTopFollowedUserIds(100)).thenReturn(List.of());
+        when(userRepository.findNewestIds(100)).thenReturn(Arrays.asList(9, 8));
+
+        // 执行测试
+        List<Integer> result = activeUserPoolService.sample(5, null);
+
+        // 验证结果：首次抽样时加载用户池
+        assertEquals(Set.of(8, 9), new HashSet<>(result));
+    }
+
+    @Test
+    @DisplayName("测试抽样数量正确、不重复并排除指定用户")
+    void testSample() {
+        // 配置mock行为
+        List<Integer> active = IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+        when(userRepository.findRecentlyActiveIds(any(LocalDateTime.class), eq(100))).thenReturn(active);
+        activeUserPoolService.refresh();
+
+        for (int round = 0; round < 50; round++) {
+            // 执行测试
+            List<Integer> result = activeUserPoolService.sample(10, Arrays.asList(1, 2, 3, 500));
+
+            // 验证结果
+            assertEquals(10, result.size());
+            assertEquals(10, new HashSet<>(result).size());
+            assertFalse(result.contains(1) || result.contains(2) || result.contains(3));
+            assertTrue(result.stream().allMatch(id -> id >= 1 && id <= 100));
+        }
+    }
+
+    @Test
+    @DisplayName("测试用户池中可选用户不足时返回全部可选用户")
+    void testSampleFromSmallPool() {
+        // 配置mock行为
+        when(userRepository.findRecentlyActiveIds(any(LocalDateTime.class), eq(100))).thenReturn(Arrays.asList(1, 2, 3));
+        when(userStatsRepository.findTopFollowedUserIds(97)).thenReturn(List.of());
+        activeUserPoolService.refresh();
+
+        // 执行测试
+        List<Integer> result = activeUserPoolService.sample(10, Arrays.asList(2));
+
+        // 验证结果
+        assertEquals(Set.of(1, 3), new HashSet<>(result));
+    }
+}
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,8 +20,11 @@ import com.animesocial.platform.model.Comment;
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.User;
 import com.animesocial.platform.model.dto.CommentDTO;
+import com.animesocial.platform.model.dto.CommentListResponse;
 import com.animesocial.platform.model.dto.CreateCommentRequest;
 import com.animesocial.platform.repository.CommentRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.service.impl.CommentServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,12 +33,21 @@ class CommentServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private UserService userService;
 
     @Mock
     private PostService postService;
 
+    @Mock
+    private PostFeedViewService postFeedViewService;
+
     @InjectMocks
     private CommentServiceImpl commentServiceImpl;
 
@@ -84,7 +97,7 @@ class CommentServiceTest {
     void testGetCommentById() {
         // 配置mock行为
         when(commentRepository.findById(anyInt())).thenReturn(testComment);
-        when(userService.getUserDTOById(anyInt())).thenReturn(null);
+        when(userService.getUserSummaryById(anyInt())).thenReturn(null);
 
         // 执行测试
         CommentDTO result = commentService.getCommentById(1);
@@ -98,9 +111,9 @@ class CommentServiceTest {
     @DisplayName("测试根据帖子ID获取评论列表")
     void testGetCommentsByPostId() {
         // 配置mock行为
-        when(commentRepository.findByPostId(anyInt(), isNull())).thenReturn(Arrays.asList(testComment));
-        when(commentRepository.findByPostId(anyInt(), anyInt())).thenReturn(Arrays.asList());
-        when(userService.getUserDTOById(anyInt())).thenReturn(null);
+        when(postRepository.findById(anyInt())).thenReturn(testPost);
+        when(commentRepository.findAllByPostId(anyInt())).thenReturn(Arrays.asList(testComment));
+        when(userService.getUserSummaries(anyCollection())).thenReturn(Collections.emptyMap());
 
         // 执行测试
         List<CommentDTO> result = commentService.getCommentsByPostId(1);
@@ -109,14 +122,65 @@ class CommentServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testComment.getContent(), result.get(0).getContent());
+        verify(commentRepository, times(1)).findAllByPostId(1);
+    }
+
+    private Comment comment(int id, Integer parentId, int userId) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setPostId(1);
+        comment.setUserId(userId);
+        comment.setParentId(parentId);
+        comment.setContent("评论" + id);
+        comment.setCreatedAt(LocalDateTime.now());
+        return comment;
+    }
+
+    @Test
+    @DisplayName("测试分页获取评论树")
+    void testGetCommentThreads() {
+        // 两条一级评论：1有三条回复且回复2下还有子回复，5没有回复
+        List<Comment> comments = Arrays.asList(
+                comment(1, null, 1),
+                comment(2, 1, 2),
+                comment(3, 1, 3),
+                comment(4, 2, 4),
+                comment(5, null, 5),
+                comment(6, 1, 6));
+        when(postRepository.findById(anyInt())).thenReturn(testPost);
+        when(commentRepository.findAllByPostId(1)).thenReturn(comments);
+        when(userService.getUserSummaries(anyCollection())).thenReturn(Collections.emptyMap());
+
+        // 第一页一条评论，内联两条回复
+        CommentListResponse firstPage = commentService.getCommentThreads(1, 1, 1, 2);
+
+        assertEquals(2, firstPage.getTotal());
+        assertEquals(1, firstPage.getItems().size());
+        CommentDTO thread = firstPage.getItems().get(0);
+        assertEquals(1, thread.getId());
+        assertEquals(3, thread.getReplyCount());
+        assertEquals(2, thread.getReplies().size());
+        assertEquals(2, thread.getReplies().get(0).getId());
+        assertEquals(4, thread.getReplies().get(0).getReplies().get(0).getId());
+        // 只为可见评论加载作者
+        verify(userService).getUserSummaries(argThat(ids -> ids.size() == 4 && !ids.contains(6) && !ids.contains(5)));
+
+        // 第二页
+        CommentListResponse secondPage = commentService.getCommentThreads(1, 2, 1, 2);
+        assertEquals(5, secondPage.getItems().get(0).getId());
+        assertEquals(0, secondPage.getItems().get(0).getReplyCount());
+        verify(commentRepository, times(2)).findAllByPostId(1);
+        verify(commentRepository, never()).findByPostId(anyInt(), any());
     }
 
     @Test
     @DisplayName("测试创建评论")
     void testCreateComment() {
         // 配置mock行为
+        when(userRepository.existsByIdOrUsername(1, null)).thenReturn(true);
+        when(postRepository.findById(1)).thenReturn(testPost);
         doNothing().when(commentRepository).insert(any(Comment.class));
-        when(userService.getUserDTOById(anyInt())).thenReturn(null);
+        when(userService.getUserSummaryById(anyInt())).thenReturn(null);
 
         // 执行测试
         CommentDTO result = commentService.createComment(1, testCreateRequest);
@@ -125,6 +189,26 @@ class CommentServiceTest {
         assertNotNull(result);
         assertEquals(testCreateRequest.getContent(), result.getContent());
         verify(commentRepository).insert(any(Comment.class));
+        verify(postRepository).adjustCommentCount(1, 1);
+        verify(commentRepository, never()).adjustReplyCount(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试回复评论时维护父评论回复数")
+    void testCreateReplyAdjustsReplyCount() {
+        // 配置mock行为
+        when(userRepository.existsByIdOrUsername(1, null)).thenReturn(true);
+        when(postRepository.findById(1)).thenReturn(testPost);
+        when(commentRepository.findById(1)).thenReturn(testComment);
+        when(userService.getUserSummaryById(anyInt())).thenReturn(null);
+        testCreateRequest.setParentId(1);
+
+        // 执行测试
+        commentService.createComment(1, testCreateRequest);
+
+        // 验证结果
+        verify(postRepository).adjustCommentCount(1, 1);
+        verify(commentRepository).adjustReplyCount(1, 1);
     }
 
     @Test
@@ -132,26 +216,66 @@ class CommentServiceTest {
     void testDeleteComment() {
         // 配置mock行为
         when(commentRepository.findById(anyInt())).thenReturn(testComment);
-        doNothing().when(commentRepository).delete(anyInt());
+        when(commentRepository.deleteByParentId(1)).thenReturn(2);
+        when(commentRepository.delete(1)).thenReturn(1);
 
         // 执行测试
         assertDoesNotThrow(() -> commentService.deleteComment(1));
 
-        // 验证mock调用
+        // 验证mock调用：一级评论连同两条回复一起扣减
         verify(commentRepository).delete(1);
+        verify(postRepository).adjustCommentCount(1, -3);
+        verify(commentRepository, never()).adjustReplyCount(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试删除回复时扣减父评论回复数")
+    void testDeleteReplyAdjustsReplyCount() {
+        // 配置mock行为
+        Comment reply = comment(2, 1, 2);
+        when(commentRepository.findById(2)).thenReturn(reply);
+        when(commentRepository.delete(2)).thenReturn(1);
+
+        // 执行测试
+        commentService.deleteComment(2);
+
+        // 验证结果
+        verify(commentRepository, never()).deleteByParentId(anyInt());
+        verify(commentRepository).adjustReplyCount(1, -1);
+        verify(postRepository).adjustCommentCount(1, -1);
     }
 
     @Test
     @DisplayName("测试获取帖子评论数量")
     void testGetCommentCountByPostId() {
         // 配置mock行为
-        when(commentRepository.countByPostId(anyInt())).thenReturn(1);
+        when(postRepository.findCommentCount(1)).thenReturn(1);
 
         // 执行测试
         Integer result = commentService.getCommentCountByPostId(1);
 
         // 验证结果
         assertEquals(1, result);
+        verify(commentRepository, never()).countByPostId(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试评论计数对账")
+    void testReconcileCounts() {
+        // 配置mock行为
+        when(postRepository.findMaxId()).thenReturn(1);
+        when(postRepository.findCommentCountDriftByIdRange(1, 500)).thenReturn(Arrays.asList(1));
+        when(postRepository.rebuildCommentCounts(Arrays.asList(1))).thenReturn(1);
+        when(commentRepository.findMaxId()).thenReturn(600);
+        when(commentRepository.rebuildReplyCountsByIdRange(1, 500)).thenReturn(2);
+        when(commentRepository.rebuildReplyCountsByIdRange(501, 1000)).thenReturn(0);
+
+        // 执行测试
+        int fixed = commentService.reconcileCounts();
+
+        // 验证结果
+        assertEquals(3, fixed);
+        verify(postFeedViewService).markPostsDirty(Arrays.asList(1));
     }
 
     @Test
@@ -173,7 +297,7 @@ class CommentServiceTest {
         // 配置mock行为
         when(commentRepository.findById(anyInt())).thenReturn(testComment);
         when(commentRepository.findByParentId(anyInt())).thenReturn(Arrays.asList(testComment));
-        when(userService.getUserDTOById(anyInt())).thenReturn(null);
+        when(userService.getUserSummaries(anyCollection())).thenReturn(Collections.emptyMap());
 
         // 执行测试
         List<CommentDTO> result = commentService.getRepliesByCommentId(1);
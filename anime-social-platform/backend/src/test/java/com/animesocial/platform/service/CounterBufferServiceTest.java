@@ -0,0 +1,97 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.service.impl.CounterBufferServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CounterBufferServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private PostFeedViewService postFeedViewService;
+
+    @InjectMocks
+    private CounterBufferServiceImpl counterBufferServiceImpl;
+
+    private CounterBufferService counterBufferService;
+
+    @BeforeEach
+    void setUp() {
+        counterBufferServiceImpl.registerMetrics();
+        counterBufferService = counterBufferServiceImpl;
+    }
+
+    @Test
+    @DisplayName("测试计数合并后批量写回")
+    void testFlushAggregatesDeltas() {
+        counterBufferService.incrementPostView(1);
+        counterBufferService.incrementPostView(1);
+        counterBufferService.incrementPostView(2);
+        counterBufferService.incrementResourceDownload(3);
+        assertEquals(3.0, meterRegistry.get("counter.buffer.pending").tag("type", "post_view").gauge().value());
+
+        long flushed = counterBufferService.flush();
+
+        assertEquals(4, flushed);
+        verify(postRepository).batchIncreaseViewCount(Map.of(1, 2L, 2, 1L));
+        verify(resourceRepository).batchIncrementDownloadCount(Map.of(3, 1L));
+        assertEquals(0.0, meterRegistry.get("counter.buffer.pending").tag("type", "post_view").gauge().value());
+
+        // 没有新增量时不再访问数据库
+        assertEquals(0, counterBufferService.flush());
+        verifyNoMoreInteractions(postRepository, resourceRepository);
+    }
+
+    @Test
+    @DisplayName("测试写回失败后增量保留到下次刷新")
+    void testFlushFailureKeepsDeltas() {
+        counterBufferService.incrementPostView(1);
+        doThrow(new RuntimeException("db down")).doNothing().when(postRepository).batchIncreaseViewCount(anyMap());
+
+        assertEquals(0, counterBufferService.flush());
+        assertEquals(1, counterBufferService.flush());
+
+        verify(postRepository, times(2)).batchIncreaseViewCount(Map.of(1, 1L));
+        assertEquals(1.0, meterRegistry.get("counter.buffer.flush.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("测试写回成功后标记失败不重复计数")
+    void testMarkDirtyFailureDoesNotRequeue() {
+        counterBufferService.incrementPostView(1);
+        doThrow(new RuntimeException("projection down")).when(postFeedViewService).markPostsDirty(anySet());
+
+        assertEquals(1, counterBufferService.flush());
+        assertEquals(0, counterBufferService.flush());
+
+        verify(postRepository, times(1)).batchIncreaseViewCount(anyMap());
+        assertEquals(0.0, meterRegistry.get("counter.buffer.pending").tag("type", "post_view").gauge().value());
+    }
+}
@@ -3,25 +3,40 @@ package com.animesocial.platform.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.animesocial.platform.model.Post;
 import com.animesocial.platform.model.Resource;
-import com.animesocial.platform.model.Tag;
+import com.animesocial.platform.model.User;
+import com.animesocial.platform.model.UserTag;
+import com.animesocial.platform.model.dto.ReindexProgress;
+import com.animesocial.platform.model.dto.SearchPages;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.model.es.PostDocument;
@@ -29,6 +44,7 @@ import com.animesocial.platform.model.es.ResourceDocument;
 import com.animesocial.platform.model.es.UserDocument;
 import com.animesocial.platform.repository.PostRepository;
 import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.repository.UserTagRepository;
 import com.animesocial.platform.repository.es.PostDocumentRepository;
 import com.animesocial.platform.repository.es.ResourceDocumentRepository;
@@ -53,6 +69,9 @@ class ElasticsearchServiceTest {
     @Mock
     private ResourceRepository resourceRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private UserService userService;
 
@@ -62,6 +81,12 @@ class ElasticsearchServiceTest {
     @Mock
     private UserTagRepository userTagRepository;
 
+    @Mock
+    private EsReindexService esReindexService;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
     @InjectMocks
     private ElasticsearchServiceImpl elasticsearchServiceImpl;
 
@@ -78,6 +103,8 @@ class ElasticsearchServiceTest {
     void setUp() {
         // 将实现类赋值给接口变量
         elasticsearchService = elasticsearchServiceImpl;
+        ReflectionTestUtils.setField(elasticsearchServiceImpl, "searchExecutor", Executors.newFixedThreadPool(3));
+        ReflectionTestUtils.setField(elasticsearchServiceImpl, "searchTimeoutMs", 500L);
 
         // 初始化测试数据
         testPost = new Post();
@@ -158,152 +185,184 @@ class ElasticsearchServiceTest {
     @Test
     @DisplayName("测试初始化索引")
     void testInitIndices() {
-        // 配置mock行为
-        when(postRepository.findAllPosts(anyInt(), anyInt())).thenReturn(Arrays.asList(testPost));
-        when(resourceRepository.findAll(anyString(), anyInt(), anyInt())).thenReturn(Arrays.asList(testResource));
-        when(userService.getAllUsers(anyInt(), anyInt())).thenReturn(Arrays.asList(testUser));
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUser);
-        when(tagService.getPostTags(anyInt())).thenReturn(Arrays.asList(new TagDTO()));
-        when(tagService.getResourceTags(anyInt())).thenReturn(Arrays.asList(new TagDTO()));
-        when(userTagRepository.findTagsByUserId(anyInt())).thenReturn(Arrays.asList(new Tag()));
-        doNothing().when(postDocumentRepository).save(any(PostDocument.class));
-        doNothing().when(resourceDocumentRepository).save(any(ResourceDocument.class));
-        doNothing().when(userDocumentRepository).save(any(UserDocument.class));
-
         // 执行测试
         assertDoesNotThrow(() -> {
             elasticsearchService.initIndices();
         });
+
+        // 验证同步执行全量重建
+        verify(esReindexService).reindexNow();
     }
 
     @Test
     @DisplayName("测试重建索引")
     void testRebuildIndices() {
         // 配置mock行为
-        doNothing().when(postDocumentRepository).deleteAll();
-        doNothing().when(resourceDocumentRepository).deleteAll();
-        doNothing().when(userDocumentRepository).deleteAll();
-        when(postRepository.findAllPosts(anyInt(), anyInt())).thenReturn(Arrays.asList(testPost));
-        when(resourceRepository.findAll(anyString(), anyInt(), anyInt())).thenReturn(Arrays.asList(testResource));
-        when(userService.getAllUsers(anyInt(), anyInt())).thenReturn(Arrays.asList(testUser));
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUser);
-        when(tagService.getPostTags(anyInt())).thenReturn(Arrays.asList(new TagDTO()));
-        when(tagService.getResourceTags(anyInt())).thenReturn(Arrays.asList(new TagDTO()));
-        when(userTagRepository.findTagsByUserId(anyInt())).thenReturn(Arrays.asList(new Tag()));
-        doNothing().when(postDocumentRepository).save(any(PostDocument.class));
-        doNothing().when(resourceDocumentRepository).save(any(ResourceDocument.class));
-        doNothing().when(userDocumentRepository).save(any(UserDocument.class));
+        when(esReindexService.startReindex()).thenReturn(new ReindexProgress());
 
         // 执行测试
         assertDoesNotThrow(() -> {
             elasticsearchService.rebuildIndices();
         });
+
+        // 验证后台启动重建任务
+        verify(esReindexService).startReindex();
     }
 
     @Test
-    @DisplayName("测试同步帖子到ES")
-    void testSyncPostToEs() {
+    @DisplayName("测试批量同步帖子到ES")
+    void testBulkSyncPosts() {
         // 配置mock行为
-        when(postRepository.findById(anyInt())).thenReturn(testPost);
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUser);
-        when(tagService.getPostTags(anyInt())).thenReturn(Arrays.asList(new TagDTO()));
-        doNothing().when(postDocumentRepository).save(any(PostDocument.class));
+        TagDTO tag = new TagDTO();
+        tag.setName("测试标签");
+        when(postRepository.findByIds(anyCollection())).thenReturn(Arrays.asList(testPost));
+        when(userService.getUserSummaries(anyCollection())).thenReturn(Map.of(1, testUser));
+        when(tagService.getPostTagsMap(anyList())).thenReturn(Map.of(1, Arrays.asList(tag)));
 
         // 执行测试
-        assertDoesNotThrow(() -> {
-            elasticsearchService.syncPostToEs(1);
-        });
+        elasticsearchService.bulkSync("post", Arrays.asList(1), Collections.emptyList());
+
+        // 验证结果
+        ArgumentCaptor<List<PostDocument>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postDocumentRepository).saveAll(captor.capture());
+        PostDocument document = captor.getValue().get(0);
+        assertEquals("测试帖子", document.getTitle());
+        assertEquals("testuser", document.getUsername());
+        assertEquals(Arrays.asList("测试标签"), document.getTags());
+        verify(postDocumentRepository, never()).deleteAllById(anyIterable());
     }
 
     @Test
-    @DisplayName("测试同步资源到ES")
-    void testSyncResourceToEs() {
+    @DisplayName("测试批量同步资源到ES")
+    void testBulkSyncResources() {
         // 配置mock行为
-        when(resourceRepository.findById(anyInt())).thenReturn(testResource);
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUser);
-        when(tagService.getResourceTags(anyInt())).thenReturn(Arrays.asList(new TagDTO()));
-        doNothing().when(resourceDocumentRepository).save(any(ResourceDocument.class));
+        when(resourceRepository.findByIds(anyList())).thenReturn(Arrays.asList(testResource));
+        when(userService.getUserSummaries(anyCollection())).thenReturn(Map.of(1, testUser));
+        when(tagService.getResourceTagsMap(anyList())).thenReturn(Collections.emptyMap());
 
         // 执行测试
-        assertDoesNotThrow(() -> {
-            elasticsearchService.syncResourceToEs(1);
-        });
+        elasticsearchService.bulkSync("resource", Arrays.asList(1), Collections.emptyList());
+
+        // 验证结果
+        ArgumentCaptor<List<ResourceDocument>> captor = ArgumentCaptor.forClass(List.class);
+        verify(resourceDocumentRepository).saveAll(captor.capture());
+        ResourceDocument document = captor.getValue().get(0);
+        assertEquals("测试资源", document.getTitle());
+        assertEquals("testuser", document.getUsername());
+        assertTrue(document.getTags().isEmpty());
     }
 
     @Test
-    @DisplayName("测试同步用户到ES")
-    void testSyncUserToEs() {
+    @DisplayName("测试批量同步用户到ES")
+    void testBulkSyncUsers() {
         // 配置mock行为
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUser);
-        when(userTagRepository.findTagsByUserId(anyInt())).thenReturn(Arrays.asList(new Tag()));
-        doNothing().when(userDocumentRepository).save(any(UserDocument.class));
+        User user = new User();
+        user.setId(1);
+        user.setUsername("testuser");
+        UserTag userTag = new UserTag();
+        userTag.setUserId(1);
+        userTag.setTagName("测试标签");
+        when(userRepository.findByIds(anyCollection())).thenReturn(Arrays.asList(user));
+        when(userTagRepository.findDetailsByUserIds(anyList())).thenReturn(Arrays.asList(userTag));
 
         // 执行测试
-        assertDoesNotThrow(() -> {
-            elasticsearchService.syncUserToEs(1);
-        });
+        elasticsearchService.bulkSync("user", Arrays.asList(1), Collections.emptyList());
+
+        // 验证结果
+        ArgumentCaptor<List<UserDocument>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userDocumentRepository).saveAll(captor.capture());
+        UserDocument document = captor.getValue().get(0);
+        assertEquals("testuser", document.getUsername());
+        assertEquals(Arrays.asList("测试标签"), document.getTags());
     }
 
     @Test
-    @DisplayName("测试从ES删除帖子")
-    void testDeletePostFromEs() {
-        // 配置mock行为
-        doNothing().when(postDocumentRepository).deleteById(anyInt());
+    @DisplayName("测试批量同步删除帖子")
+    void testBulkSyncDeletesPosts() {
+        // 执行测试
+        elasticsearchService.bulkSync("post", Collections.emptyList(), Arrays.asList(1));
+
+        // 验证结果：只有删除时不查询数据库
+        verify(postRepository, never()).findByIds(anyCollection());
+        verify(postDocumentRepository, never()).saveAll(anyIterable());
+        verify(postDocumentRepository).deleteAllById(Set.of(1));
+    }
+
+    @Test
+    @DisplayName("测试批量同步删除数据库中已不存在的资源")
+    void testBulkSyncDeletesMissingResources() {
+        // 配置mock行为：资源2已被删除
+        when(resourceRepository.findByIds(anyList())).thenReturn(Arrays.asList(testResource));
+        when(userService.getUserSummaries(anyCollection())).thenReturn(Map.of(1, testUser));
+        when(tagService.getResourceTagsMap(anyList())).thenReturn(Collections.emptyMap());
 
         // 执行测试
-        assertDoesNotThrow(() -> {
-            elasticsearchService.deletePostFromEs(1);
-        });
+        elasticsearchService.bulkSync("resource", Arrays.asList(1, 2), Collections.emptyList());
+
+        // 验证结果
+        verify(resourceDocumentRepository).saveAll(anyList());
+        verify(resourceDocumentRepository).deleteAllById(Set.of(2));
     }
 
     @Test
-    @DisplayName("测试从ES删除资源")
-    void testDeleteResourceFromEs() {
-        // 配置mock行为
-        doNothing().when(resourceDocumentRepository).deleteById(anyInt());
+    @DisplayName("测试批量同步删除用户")
+    void testBulkSyncDeletesUsers() {
+        // 执行测试
+        elasticsearchService.bulkSync("user", Collections.emptyList(), Arrays.asList(1));
+
+        // 验证结果
+        verify(userDocumentRepository).deleteAllById(Set.of(1));
+        verify(esReindexService).recordChange("user", Set.of(1));
+    }
 
+    @Test
+    @DisplayName("测试批量同步不支持的实体类型")
+    void testBulkSyncUnsupportedType() {
         // 执行测试
-        assertDoesNotThrow(() -> {
-            elasticsearchService.deleteResourceFromEs(1);
-        });
+        assertThrows(IllegalArgumentException.class,
+                () -> elasticsearchService.bulkSync("comment", Arrays.asList(1), Collections.emptyList()));
     }
 
     @Test
-    @DisplayName("测试从ES删除用户")
-    void testDeleteUserFromEs() {
+    @DisplayName("测试批量同步先记录变更再读取和写入")
+    void testBulkSyncRecordsChangeBeforeWrite() {
         // 配置mock行为
-        doNothing().when(userDocumentRepository).deleteById(anyInt());
+        when(postRepository.findByIds(anyCollection())).thenReturn(Collections.emptyList());
 
         // 执行测试
-        assertDoesNotThrow(() -> {
-            elasticsearchService.deleteUserFromEs(1);
-        });
+        elasticsearchService.bulkSync("post", Arrays.asList(1), Arrays.asList(2));
+
+        // 验证结果：重建期间的变更记录先于读取数据库和写入索引
+        InOrder inOrder = inOrder(esReindexService, postRepository, postDocumentRepository);
+        inOrder.verify(esReindexService).recordChange("post", Set.of(1, 2));
+        inOrder.verify(postRepository).findByIds(Arrays.asList(1));
+        inOrder.verify(postDocumentRepository).deleteAllById(Set.of(1, 2));
     }
 
     @Test
     @DisplayName("测试搜索帖子")
     void testSearchPosts() {
         // 配置mock行为
-        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<PostDocument> page = new PageImpl<>(Arrays.asList(testPostDocument));
-        when(postDocumentRepository.findByTitleOrContentOrderByCreateTimeDesc(anyString(), any(PageRequest.class))).thenReturn(page);
+        when(elasticsearchOperations.search(any(Query.class), eq(PostDocument.class))).thenReturn(hits(testPostDocument));
 
         // 执行测试
         Page<PostDocument> result = elasticsearchService.searchPosts("测试", 1, 10);
 
-        // 验证结果
+        // 验证结果：超时参数随查询发送给ES
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals("测试帖子", result.getContent().get(0).getTitle());
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(PostDocument.class));
+        assertEquals(Duration.ofMillis(500), captor.getValue().getTimeout());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt"), captor.getValue().getSort());
     }
 
     @Test
     @DisplayName("测试搜索资源")
     void testSearchResources() {
         // 配置mock行为
-        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "uploadTime"));
-        Page<ResourceDocument> page = new PageImpl<>(Arrays.asList(testResourceDocument));
-        when(resourceDocumentRepository.findByTitleOrDescriptionOrderByUploadTimeDesc(anyString(), any(PageRequest.class))).thenReturn(page);
+        when(elasticsearchOperations.search(any(Query.class), eq(ResourceDocument.class))).thenReturn(hits(testResourceDocument));
 
         // 执行测试
         Page<ResourceDocument> result = elasticsearchService.searchResources("测试", 1, 10);
@@ -318,9 +377,7 @@ class ElasticsearchServiceTest {
     @DisplayName("测试搜索用户")
     void testSearchUsers() {
         // 配置mock行为
-        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "registerTime"));
-        Page<UserDocument> page = new PageImpl<>(Arrays.asList(testUserDocument));
-        when(userDocumentRepository.findByUsernameOrBioOrderByCreateTimeDesc(anyString(), any(PageRequest.class))).thenReturn(page);
+        when(elasticsearchOperations.search(any(Query.class), eq(UserDocument.class))).thenReturn(hits(testUserDocument));
 
         // 执行测试
         Page<UserDocument> result = elasticsearchService.searchUsers("测试", 1, 10);
@@ -331,17 +388,27 @@ class ElasticsearchServiceTest {
         assertEquals("testuser", result.getContent().get(0).getUsername());
     }
 
+    @Test
+    @DisplayName("测试搜索失败时返回空页")
+    void testSearchPostsFailure() {
+        // 配置mock行为
+        when(elasticsearchOperations.search(any(Query.class), eq(PostDocument.class)))
+                .thenThrow(new RuntimeException("index unavailable"));
+
+        // 执行测试
+        Page<PostDocument> result = elasticsearchService.searchPosts("测试", 1, 10);
+
+        // 验证结果
+        assertTrue(result.isEmpty());
+    }
+
     @Test
     @DisplayName("测试全文搜索")
     void testSearchAll() {
         // 配置mock行为
-        PageRequest pageRequest = PageRequest.of(0, 10);
-        Page<PostDocument> postPage = new PageImpl<>(Arrays.asList(testPostDocument));
-        Page<ResourceDocument> resourcePage = new PageImpl<>(Arrays.asList(testResourceDocument));
-        Page<UserDocument> userPage = new PageImpl<>(Arrays.asList(testUserDocument));
-        when(postDocumentRepository.findByTitleOrContentOrderByCreateTimeDesc(anyString(), any(PageRequest.class))).thenReturn(postPage);
-        when(resourceDocumentRepository.findByTitleOrDescriptionOrderByUploadTimeDesc(anyString(), any(PageRequest.class))).thenReturn(resourcePage);
-        when(userDocumentRepository.findByUsernameOrBioOrderByCreateTimeDesc(anyString(), any(PageRequest.class))).thenReturn(userPage);
+        when(elasticsearchOperations.search(any(Query.class), eq(PostDocument.class))).thenReturn(hits(testPostDocument));
+        when(elasticsearchOperations.search(any(Query.class), eq(ResourceDocument.class))).thenReturn(hits(testResourceDocument));
+        when(elasticsearchOperations.search(any(Query.class), eq(UserDocument.class))).thenReturn(hits(testUserDocument));
 
         // 执行测试
         List<Object> result = elasticsearchService.searchAll("测试", 1, 10);
@@ -350,4 +417,34 @@ class ElasticsearchServiceTest {
         assertNotNull(result);
         assertEquals(3, result.size());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("测试综合搜索超时和失败时返回部分结果")
+    void testSearchAllTypesPartial() {
+        // 帖子正常返回，资源查询超时，用户查询失败
+        when(elasticsearchOperations.search(any(Query.class), eq(PostDocument.class))).thenReturn(hits(testPostDocument));
+        when(elasticsearchOperations.search(any(Query.class), eq(ResourceDocument.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(5000);
+                    return hits(testResourceDocument);
+                });
+        when(elasticsearchOperations.search(any(Query.class), eq(UserDocument.class)))
+                .thenThrow(new RuntimeException("index unavailable"));
+
+        // 执行测试
+        long start = System.currentTimeMillis();
+        SearchPages result = elasticsearchService.searchAllTypes("测试", 1, 10);
+
+        // 验证结果
+        assertTrue(System.currentTimeMillis() - start < 3000);
+        assertEquals(1, result.getPosts().getContent().size());
+        assertTrue(result.getResources().isEmpty());
+        assertTrue(result.getUsers().isEmpty());
+        assertEquals(Arrays.asList(SearchPages.TYPE_RESOURCE, SearchPages.TYPE_USER), result.getFailedTypes());
+    }
+
+    private <T> SearchHits<T> hits(T document) {
+        SearchHit<T> hit = new SearchHit<>(null, null, null, 1.0f, null, null, null, null, null, null, document);
+        return new SearchHitsImpl<>(1, TotalHitsRelation.EQUAL_TO, 1.0f, null, null, Arrays.asList(hit), null, null);
+    }
+}
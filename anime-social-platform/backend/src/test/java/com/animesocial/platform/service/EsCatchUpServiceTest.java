@@ -0,0 +1,135 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.model.EsOutboxEvent;
+import com.animesocial.platform.model.EsSyncState;
+import com.animesocial.platform.repository.EsSyncStateRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.UserRepository;
+import com.animesocial.platform.service.impl.EsCatchUpServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class EsCatchUpServiceTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchService elasticsearchService;
+
+    @Mock
+    private EsReindexService esReindexService;
+
+    @Mock
+    private EsSyncStateRepository esSyncStateRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @InjectMocks
+    private EsCatchUpServiceImpl esCatchUpServiceImpl;
+
+    private EsCatchUpService esCatchUpService;
+
+    private final LocalDateTime syncedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(esCatchUpServiceImpl, "batchSize", 2);
+        esCatchUpService = esCatchUpServiceImpl;
+        when(elasticsearchOperations.indexOps(any(Class.class))).thenReturn(indexOperations);
+    }
+
+    @Test
+    @DisplayName("测试索引不存在时执行全量重建")
+    void testCatchUpWithoutIndex() {
+        when(indexOperations.exists()).thenReturn(false);
+
+        assertFalse(esCatchUpService.isCaughtUp());
+        esCatchUpService.catchUp();
+
+        assertTrue(esCatchUpService.isCaughtUp());
+        assertEquals("reindex", esCatchUpService.getStatus().get("mode"));
+        verify(esReindexService).reindexNow();
+        verify(elasticsearchService, never()).bulkSync(anyString(), anyCollection(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试按同步水位增量追赶")
+    void testCatchUpIncremental() {
+        when(indexOperations.exists()).thenReturn(true);
+        when(esSyncStateRepository.findByEntityType(EsOutboxEvent.TYPE_POST))
+                .thenReturn(new EsSyncState(EsOutboxEvent.TYPE_POST, 10, syncedAt));
+        when(esSyncStateRepository.findByEntityType(EsOutboxEvent.TYPE_RESOURCE))
+                .thenReturn(new EsSyncState(EsOutboxEvent.TYPE_RESOURCE, 5, syncedAt));
+        when(esSyncStateRepository.findByEntityType(EsOutboxEvent.TYPE_USER))
+                .thenReturn(new EsSyncState(EsOutboxEvent.TYPE_USER, 3, syncedAt));
+        // 水位之后新增的帖子分两批读取
+        when(postRepository.findIdsAfterId(10, 2)).thenReturn(Arrays.asList(11, 12));
+        when(postRepository.findIdsAfterId(12, 2)).thenReturn(Collections.singletonList(13));
+        // 修改过的帖子中ID超过水位的已作为新增同步
+        when(postRepository.findIdsUpdatedAfter(syncedAt, 0, 2)).thenReturn(Arrays.asList(4, 11));
+        when(resourceRepository.findIdsAfterId(5, 2)).thenReturn(Collections.emptyList());
+        when(userRepository.findIdsAfterId(3, 2)).thenReturn(Collections.singletonList(4));
+
+        esCatchUpService.catchUp();
+
+        assertTrue(esCatchUpService.isCaughtUp());
+        verify(elasticsearchService).bulkSync(EsOutboxEvent.TYPE_POST, Arrays.asList(11, 12), Collections.emptyList());
+        verify(elasticsearchService).bulkSync(EsOutboxEvent.TYPE_POST, Collections.singletonList(13), Collections.emptyList());
+        verify(elasticsearchService).bulkSync(EsOutboxEvent.TYPE_POST, Collections.singletonList(4), Collections.emptyList());
+        verify(elasticsearchService).bulkSync(EsOutboxEvent.TYPE_USER, Collections.singletonList(4), Collections.emptyList());
+        verify(esSyncStateRepository).save(eq(EsOutboxEvent.TYPE_POST), eq(13), any(LocalDateTime.class));
+        verify(esSyncStateRepository).save(eq(EsOutboxEvent.TYPE_RESOURCE), eq(5), any(LocalDateTime.class));
+        verify(esSyncStateRepository).save(eq(EsOutboxEvent.TYPE_USER), eq(4), any(LocalDateTime.class));
+        verify(esReindexService, never()).reindexNow();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> synced = (Map<String, Integer>) esCatchUpService.getStatus().get("synced");
+        assertEquals(4, synced.get(EsOutboxEvent.TYPE_POST));
+        assertEquals(0, synced.get(EsOutboxEvent.TYPE_RESOURCE));
+        assertEquals(1, synced.get(EsOutboxEvent.TYPE_USER));
+    }
+
+    @Test
+    @DisplayName("测试追赶失败时保持降级状态")
+    void testCatchUpFailure() {
+        when(indexOperations.exists()).thenReturn(false);
+        doThrow(new RuntimeException("es down")).when(esReindexService).reindexNow();
+
+        esCatchUpService.catchUp();
+
+        assertFalse(esCatchUpService.isCaughtUp());
+        assertEquals(EsCatchUpServiceImpl.STATUS_FAILED, esCatchUpService.getStatus().get("status"));
+        assertEquals("es down", esCatchUpService.getStatus().get("error"));
+    }
+}
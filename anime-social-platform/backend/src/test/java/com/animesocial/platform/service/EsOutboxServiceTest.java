@@ -0,0 +1,98 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.model.EsOutboxEvent;
+import com.animesocial.platform.repository.EsOutboxRepository;
+import com.animesocial.platform.service.impl.EsOutboxServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class EsOutboxServiceTest {
+
+    @Mock
+    private EsOutboxRepository esOutboxRepository;
+
+    @Mock
+    private ElasticsearchService elasticsearchService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private EsOutboxServiceImpl esOutboxServiceImpl;
+
+    private EsOutboxService esOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(esOutboxServiceImpl, "batchSize", 500);
+        ReflectionTestUtils.setField(esOutboxServiceImpl, "retryBaseSeconds", 5);
+        ReflectionTestUtils.setField(esOutboxServiceImpl, "retryMaxSeconds", 600);
+        esOutboxServiceImpl.registerMetrics();
+        esOutboxService = esOutboxServiceImpl;
+    }
+
+    private EsOutboxEvent event(long id, String type, int entityId, String operation) {
+        EsOutboxEvent event = new EsOutboxEvent();
+        event.setId(id);
+        event.setEntityType(type);
+        event.setEntityId(entityId);
+        event.setOperation(operation);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    @Test
+    @DisplayName("测试同一实体的多次变更合并为一次同步")
+    void testDrainCoalescesEvents() {
+        when(esOutboxRepository.findDue(500)).thenReturn(Arrays.asList(
+                event(1, EsOutboxEvent.TYPE_POST, 10, EsOutboxEvent.OP_UPSERT),
+                event(2, EsOutboxEvent.TYPE_POST, 10, EsOutboxEvent.OP_UPSERT),
+                event(3, EsOutboxEvent.TYPE_POST, 11, EsOutboxEvent.OP_UPSERT),
+                event(4, EsOutboxEvent.TYPE_POST, 11, EsOutboxEvent.OP_DELETE),
+                event(5, EsOutboxEvent.TYPE_USER, 7, EsOutboxEvent.OP_UPSERT)));
+
+        assertEquals(5, esOutboxService.drain());
+
+        verify(elasticsearchService).bulkSync(EsOutboxEvent.TYPE_POST, Set.of(10), Set.of(11));
+        verify(elasticsearchService).bulkSync(EsOutboxEvent.TYPE_USER, Set.of(7), Collections.emptySet());
+        verify(esOutboxRepository).deleteByIds(List.of(1L, 2L, 3L, 4L));
+        verify(esOutboxRepository).deleteByIds(List.of(5L));
+    }
+
+    @Test
+    @DisplayName("测试同步失败时记录保留并退避重试")
+    void testDrainFailureSchedulesRetry() {
+        when(esOutboxRepository.findDue(500)).thenReturn(Arrays.asList(
+                event(1, EsOutboxEvent.TYPE_RESOURCE, 3, EsOutboxEvent.OP_UPSERT)));
+        doThrow(new RuntimeException("es unavailable")).when(elasticsearchService)
+                .bulkSync(eq(EsOutboxEvent.TYPE_RESOURCE), anyCollection(), anyCollection());
+
+        esOutboxService.drain();
+
+        verify(esOutboxRepository, never()).deleteByIds(anyCollection());
+        verify(esOutboxRepository).markFailed(List.of(1L), "es unavailable", 5, 600);
+        assertEquals(1.0, meterRegistry.get("es.outbox.failures").counter().count());
+    }
+}
@@ -0,0 +1,177 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.model.Post;
+import com.animesocial.platform.model.dto.ReindexProgress;
+import com.animesocial.platform.model.es.PostDocument;
+import com.animesocial.platform.model.es.ResourceDocument;
+import com.animesocial.platform.model.es.UserDocument;
+import com.animesocial.platform.repository.EsSyncStateRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.UserRepository;
+import com.animesocial.platform.service.impl.EsReindexServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class EsReindexServiceTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchService elasticsearchService;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EsSyncStateRepository esSyncStateRepository;
+
+    @Mock
+    private IndexOperations documentOps;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @InjectMocks
+    private EsReindexServiceImpl esReindexServiceImpl;
+
+    private EsReindexService esReindexService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(esReindexServiceImpl, "chunkSize", 2);
+        ReflectionTestUtils.setField(esReindexServiceImpl, "threads", 2);
+        esReindexService = esReindexServiceImpl;
+
+        Map<Class<?>, String> aliases = Map.of(
+                PostDocument.class, "posts", ResourceDocument.class, "resources", UserDocument.class, "users");
+        lenient().when(elasticsearchOperations.getIndexCoordinatesFor(any()))
+                .thenAnswer(invocation -> IndexCoordinates.of(aliases.get(invocation.getArgument(0, Class.class))));
+        lenient().when(elasticsearchOperations.indexOps(any(Class.class))).thenReturn(documentOps);
+        lenient().when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOps);
+        lenient().when(documentOps.createSettings()).thenReturn(new Settings());
+        lenient().when(documentOps.createMapping()).thenReturn(Document.create());
+    }
+
+    private Post post(int id) {
+        Post post = new Post();
+        post.setId(id);
+        return post;
+    }
+
+    @Test
+    @DisplayName("测试分块写入新索引并切换别名")
+    void testReindexNow() {
+        // 三条帖子分两块读取，资源和用户为空
+        List<Post> firstChunk = Arrays.asList(post(1), post(2));
+        List<Post> secondChunk = Collections.singletonList(post(3));
+        when(postRepository.count()).thenReturn(3);
+        when(postRepository.findAfterId(0, 2)).thenReturn(firstChunk);
+        when(postRepository.findAfterId(2, 2)).thenReturn(secondChunk);
+        when(elasticsearchService.buildPostDocuments(anyList())).thenAnswer(invocation -> {
+            List<?> posts = invocation.getArgument(0);
+            return Collections.nCopies(posts.size(), new PostDocument());
+        });
+        when(resourceRepository.findAfterId(anyInt(), anyInt())).thenReturn(Collections.emptyList());
+        when(userRepository.findAfterId(anyInt(), anyInt())).thenReturn(Collections.emptyList());
+        when(indexOps.exists()).thenReturn(false);
+
+        esReindexService.reindexNow();
+
+        ReindexProgress progress = esReindexService.getProgress();
+        assertEquals(ReindexProgress.STATUS_COMPLETED, progress.getStatus());
+        ReindexProgress.EntityProgress posts = progress.getEntities().get(0);
+        assertEquals("posts", posts.getAlias());
+        assertTrue(posts.getTargetIndex().startsWith("posts_v"));
+        assertEquals(3, posts.getTotal());
+        assertEquals(3, posts.getIndexed());
+        verify(elasticsearchOperations, times(2)).save(anyList(), any(IndexCoordinates.class));
+        verify(indexOps, times(3)).create(any(Map.class), any(Document.class));
+        verify(indexOps, times(3)).alias(any(AliasActions.class));
+        verify(esSyncStateRepository).save(eq("post"), eq(3), any(LocalDateTime.class));
+        verify(esSyncStateRepository).save(eq("user"), eq(0), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("测试重建失败后删除新索引并释放任务")
+    void testReindexFailure() {
+        when(postRepository.findAfterId(anyInt(), anyInt())).thenThrow(new RuntimeException("db down"));
+
+        assertThrows(RuntimeException.class, () -> esReindexService.reindexNow());
+
+        ReindexProgress progress = esReindexService.getProgress();
+        assertEquals(ReindexProgress.STATUS_FAILED, progress.getStatus());
+        assertEquals("db down", progress.getError());
+        verify(indexOps).delete();
+        verify(indexOps, never()).alias(any(AliasActions.class));
+
+        // 失败后可以再次启动
+        reset(postRepository);
+        assertDoesNotThrow(() -> esReindexService.reindexNow());
+        assertEquals(ReindexProgress.STATUS_COMPLETED, esReindexService.getProgress().getStatus());
+    }
+
+    @Test
+    @DisplayName("测试切换别名时记录的变更补写到新索引")
+    void testChangeRecordedDuringSwapIsReplayed() {
+        // 重建期间帖子5发生变更，切换别名的同时帖子7发生变更
+        when(postRepository.findAfterId(0, 2)).thenAnswer(invocation -> {
+            esReindexService.recordChange("post", Collections.singletonList(5));
+            return Collections.emptyList();
+        });
+        when(resourceRepository.findAfterId(anyInt(), anyInt())).thenReturn(Collections.emptyList());
+        when(userRepository.findAfterId(anyInt(), anyInt())).thenReturn(Collections.emptyList());
+        when(indexOps.exists()).thenReturn(false);
+        doAnswer(invocation -> {
+            esReindexService.recordChange("post", Collections.singletonList(7));
+            return true;
+        }).when(indexOps).alias(any(AliasActions.class));
+        when(postRepository.findByIds(anyCollection())).thenReturn(Collections.emptyList());
+
+        esReindexService.reindexNow();
+
+        // 两次变更都按数据库状态补写（已不存在的从新索引删除）
+        verify(postRepository).findByIds(Collections.singletonList(5));
+        verify(postRepository).findByIds(Collections.singletonList(7));
+        verify(elasticsearchOperations).delete(eq("5"), any(IndexCoordinates.class));
+        verify(elasticsearchOperations).delete(eq("7"), any(IndexCoordinates.class));
+    }
+
+    @Test
+    @DisplayName("测试未在重建时忽略变更记录")
+    void testRecordChangeWithoutReindex() {
+        assertDoesNotThrow(() -> esReindexService.recordChange("post", Arrays.asList(1, 2)));
+        assertEquals(ReindexProgress.STATUS_IDLE, esReindexService.getProgress().getStatus());
+    }
+}
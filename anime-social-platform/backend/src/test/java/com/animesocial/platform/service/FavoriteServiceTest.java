@@ -18,12 +18,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.animesocial.platform.model.Favorite;
 import com.animesocial.platform.model.Resource;
 import com.animesocial.platform.model.User;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.ResourceDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
 import com.animesocial.platform.repository.FavoriteRepository;
 import com.animesocial.platform.repository.ResourceRepository;
 import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.service.impl.FavoriteServiceImpl;
+import com.animesocial.platform.util.CursorUtil;
 
 @ExtendWith(MockitoExtension.class)
 class FavoriteServiceTest {
@@ -40,6 +42,12 @@ class FavoriteServiceTest {
     @Mock
     private ResourceService resourceService;
 
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private InteractionStatusService interactionStatusService;
+
     @InjectMocks
     private FavoriteServiceImpl favoriteServiceImpl;
 
@@ -156,11 +164,11 @@ class FavoriteServiceTest {
     }
 
     @Test
-    @DisplayName("测试获取用户收藏列表")
+    @DisplayName("测试获取用户收藏列表只加载一页")
     void testGetUserFavorites() {
-        // 配置mock行为
-        when(favoriteRepository.findResourceIdsByUserId(anyInt())).thenReturn(Arrays.asList(1));
-        when(resourceService.getResourceById(anyInt())).thenReturn(testResourceDTO);
+        // 配置mock行为：最多加载 MAX_PAGE_SIZE 条
+        when(resourceService.getFavoritedResources(1, 1, CursorUtil.MAX_PAGE_SIZE))
+                .thenReturn(new ResourceListResponse(Arrays.asList(testResourceDTO), 1));
 
         // 执行测试
         ResourceListResponse result = favoriteService.getUserFavorites(1);
@@ -175,23 +183,51 @@ class FavoriteServiceTest {
     @DisplayName("测试分页获取用户收藏列表")
     void testGetUserFavoritesWithPagination() {
         // 配置mock行为
-        when(favoriteRepository.findResourceIdsByUserIdWithPagination(anyInt(), anyInt(), anyInt())).thenReturn(Arrays.asList(1));
-        when(resourceService.getResourceById(anyInt())).thenReturn(testResourceDTO);
+        when(resourceService.getFavoritedResources(1, 1, 10))
+                .thenReturn(new ResourceListResponse(Arrays.asList(testResourceDTO), 25));
 
         // 执行测试
         ResourceListResponse result = favoriteService.getUserFavoritesWithPagination(1, 1, 10);
 
-        // 验证结果
+        // 验证结果：总数为收藏总数而不是当前页数量
         assertNotNull(result);
         assertEquals(1, result.getItems().size());
+        assertEquals(25, result.getTotal());
         assertEquals(testResourceDTO.getTitle(), result.getItems().get(0).getTitle());
+        verify(resourceService, never()).getResourceById(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("测试按游标获取用户收藏列表")
+    void testGetUserFavoritesByCursor() {
+        // 配置mock行为：多返回一条收藏记录表示还有下一页
+        Favorite older = new Favorite(2, 1, 3, testFavorite.getCreatedAt().minusHours(1));
+        when(favoriteRepository.findByUserIdByCursor(1, null, null, 2)).thenReturn(Arrays.asList(testFavorite, older));
+        when(resourceService.findByIds(List.of(1), 1)).thenReturn(Arrays.asList(testResourceDTO));
+
+        // 执行测试
+        CursorPage<ResourceDTO> first = favoriteService.getUserFavoritesByCursor(1, null, 1);
+
+        // 验证结果
+        assertTrue(first.getHasMore());
+        assertEquals(1, first.getItems().size());
+        assertTrue(first.getItems().get(0).getIsFavorited());
+
+        // 第二页使用上一页最后一条收藏记录的 (收藏时间, ID) 定位
+        when(favoriteRepository.findByUserIdByCursor(1, testFavorite.getCreatedAt(), 1, 2)).thenReturn(Arrays.asList(older));
+        when(resourceService.findByIds(List.of(3), 1)).thenReturn(Arrays.asList());
+
+        CursorPage<ResourceDTO> second = favoriteService.getUserFavoritesByCursor(1, first.getNextCursor(), 1);
+
+        assertFalse(second.getHasMore());
+        assertNull(second.getNextCursor());
     }
 
     @Test
     @DisplayName("测试获取资源被收藏次数")
     void testGetResourceFavoriteCount() {
         // 配置mock行为
-        when(favoriteRepository.findByResourceId(anyInt())).thenReturn(Arrays.asList(testFavorite));
+        when(favoriteRepository.countByResourceId(anyInt())).thenReturn(1);
 
         // 执行测试
         int result = favoriteService.getResourceFavoriteCount(1);
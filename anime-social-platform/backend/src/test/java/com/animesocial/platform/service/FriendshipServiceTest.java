@@ -35,6 +35,12 @@ class FriendshipServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private TimelineService timelineService;
+
     @InjectMocks
     private FriendshipServiceImpl friendshipServiceImpl;
 
@@ -133,6 +139,7 @@ class FriendshipServiceTest {
         when(userService.getUserDTOById(anyInt())).thenReturn(testFriendDTO);
         when(friendshipRepository.exists(anyInt(), anyInt())).thenReturn(true);
         when(friendshipRepository.isMutualFollow(anyInt(), anyInt())).thenReturn(false);
+        when(friendshipRepository.delete(1, 2)).thenReturn(1);
 
         // 执行测试
         String result = friendshipService.unfollow(1, 2);
@@ -140,6 +147,24 @@ class FriendshipServiceTest {
         // 验证结果
         assertEquals("取消关注成功", result);
         verify(friendshipRepository).delete(anyInt(), anyInt());
+        verify(userStatsService).adjustFollowCount(1, 2, -1);
+    }
+
+    @Test
+    @DisplayName("测试并发取消关注时只减少一次计数")
+    void testConcurrentUnfollowAdjustsOnce() {
+        // 配置mock行为：关系已被另一个请求删除
+        when(userService.getUserDTOById(anyInt())).thenReturn(testFriendDTO);
+        when(friendshipRepository.exists(anyInt(), anyInt())).thenReturn(true);
+        when(friendshipRepository.isMutualFollow(anyInt(), anyInt())).thenReturn(false);
+        when(friendshipRepository.delete(1, 2)).thenReturn(0);
+
+        // 执行测试
+        String result = friendshipService.unfollow(1, 2);
+
+        // 验证结果
+        assertEquals("取消关注成功", result);
+        verify(userStatsService, never()).adjustFollowCount(anyInt(), anyInt(), anyInt());
     }
 
     @Test
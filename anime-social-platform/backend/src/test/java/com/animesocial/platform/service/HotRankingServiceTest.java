@@ -0,0 +1,112 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.model.ContentHeat;
+import com.animesocial.platform.model.ContentTag;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.ResourceRepository;
+import com.animesocial.platform.repository.TagRepository;
+import com.animesocial.platform.service.impl.HotRankingServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class HotRankingServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private HotRankingServiceImpl hotRankingServiceImpl;
+
+    private HotRankingService hotRankingService;
+
+    @BeforeEach
+    void setUp() {
+        hotRankingService = hotRankingServiceImpl;
+        ReflectionTestUtils.setField(hotRankingServiceImpl, "rankingSize", 2);
+        ReflectionTestUtils.setField(hotRankingServiceImpl, "windowDays", 90);
+        ReflectionTestUtils.setField(hotRankingServiceImpl, "gravity", 1.5);
+        hotRankingServiceImpl.registerMetrics();
+    }
+
+    private ContentHeat postHeat(int id, int hoursAgo, int likes, int views, int comments) {
+        return new ContentHeat(id, LocalDateTime.now().minusHours(hoursAgo), likes, views, comments, null, null);
+    }
+
+    private ContentTag contentTag(String contentType, int contentId, int tagId) {
+        ContentTag contentTag = new ContentTag();
+        contentTag.setContentType(contentType);
+        contentTag.setContentId(contentId);
+        contentTag.setTagId(tagId);
+        return contentTag;
+    }
+
+    @Test
+    @DisplayName("测试热度按时间衰减并只保留前N名")
+    void testHotPostsDecayWithAge() {
+        // 配置mock行为：帖子1互动最多但发布已久，帖子2较新且互动适中，帖子3刚发布但没有互动
+        when(postRepository.findHeatAfterId(any(LocalDateTime.class), eq(0), anyInt())).thenReturn(Arrays.asList(
+                postHeat(1, 24 * 30, 100, 1000, 20),
+                postHeat(2, 2, 10, 100, 5),
+                postHeat(3, 0, 0, 0, 0)));
+        when(resourceRepository.findHeatAfterId(any(LocalDateTime.class), eq(0), anyInt())).thenReturn(List.of());
+        when(tagRepository.findContentTags(eq("post"), anyCollection())).thenReturn(Arrays.asList(
+                contentTag("post", 1, 7), contentTag("post", 3, 7)));
+
+        // 执行测试
+        List<Integer> hot = hotRankingService.getHotPostIds(null, 10);
+
+        // 验证结果：旧帖子的分数被衰减到新帖子之下，排行容量为2
+        assertEquals(Arrays.asList(2, 1), hot);
+        assertEquals(Arrays.asList(1, 3), hotRankingService.getHotPostIds(7, 10));
+        assertTrue(hotRankingService.getHotPostIds(8, 10).isEmpty());
+        assertEquals(Arrays.asList(2), hotRankingService.getHotPostIds(null, 1));
+    }
+
+    @Test
+    @DisplayName("测试读取时使用快照，不重复计算")
+    void testRankingSnapshotIsReused() {
+        // 配置mock行为
+        when(postRepository.findHeatAfterId(any(LocalDateTime.class), eq(0), anyInt())).thenReturn(List.of());
+        when(resourceRepository.findHeatAfterId(any(LocalDateTime.class), eq(0), anyInt())).thenReturn(Arrays.asList(
+                new ContentHeat(5, LocalDateTime.now().minusHours(1), 2, null, null, 10, 1)));
+        when(tagRepository.findContentTags(eq("resource"), anyCollection())).thenReturn(List.of());
+
+        // 执行测试
+        hotRankingService.getHotResourceIds(null, 10);
+        List<Integer> hot = hotRankingService.getHotResourceIds(null, 10);
+
+        // 验证结果
+        assertEquals(Arrays.asList(5), hot);
+        verify(resourceRepository, times(1)).findHeatAfterId(any(LocalDateTime.class), anyInt(), anyInt());
+        assertEquals(1, meterRegistry.get("hot.ranking.recompute").timer().count());
+    }
+}
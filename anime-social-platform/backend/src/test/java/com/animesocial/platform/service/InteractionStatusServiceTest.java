@@ -0,0 +1,125 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.repository.FavoriteRepository;
+import com.animesocial.platform.repository.PostLikeRepository;
+import com.animesocial.platform.repository.ResourceLikeRepository;
+import com.animesocial.platform.service.impl.InteractionStatusServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class InteractionStatusServiceTest {
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    @Mock
+    private ResourceLikeRepository resourceLikeRepository;
+
+    @Mock
+    private FavoriteRepository favoriteRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private InteractionStatusServiceImpl interactionStatusServiceImpl;
+
+    private InteractionStatusService interactionStatusService;
+
+    @BeforeEach
+    void setUp() {
+        interactionStatusService = interactionStatusServiceImpl;
+        ReflectionTestUtils.setField(interactionStatusServiceImpl, "maxUsers", 100L);
+        ReflectionTestUtils.setField(interactionStatusServiceImpl, "maxIdsPerUser", 10);
+        ReflectionTestUtils.setField(interactionStatusServiceImpl, "ttlSeconds", 600L);
+        interactionStatusServiceImpl.initCaches();
+    }
+
+    @Test
+    @DisplayName("测试点赞数量少的用户从缓存判断点赞状态")
+    void testLikedPostIdsFromCache() {
+        // 配置mock行为
+        when(postLikeRepository.findPostIdsByUserIdLimit(1, 11)).thenReturn(Arrays.asList(2, 4, 6));
+
+        // 执行测试：两页帖子只读取一次用户的点赞记录
+        Set<Integer> first = interactionStatusService.getLikedPostIds(1, Arrays.asList(1, 2, 3, 4));
+        Set<Integer> second = interactionStatusService.getLikedPostIds(1, Arrays.asList(5, 6));
+
+        // 验证结果
+        assertEquals(Set.of(2, 4), first);
+        assertEquals(Set.of(6), second);
+        verify(postLikeRepository, times(1)).findPostIdsByUserIdLimit(anyInt(), anyInt());
+        verify(postLikeRepository, never()).findLikedPostIds(anyInt(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试点赞数量超过上限的用户按页查询")
+    void testLikedResourceIdsOverLimit() {
+        // 配置mock行为
+        List<Integer> many = IntStream.rangeClosed(1, 11).boxed().collect(Collectors.toList());
+        List<Integer> page = Arrays.asList(3, 20);
+        when(resourceLikeRepository.findResourceIdsByUserIdLimit(1, 11)).thenReturn(many);
+        when(resourceLikeRepository.findLikedResourceIds(1, page)).thenReturn(Arrays.asList(3));
+
+        // 执行测试
+        Set<Integer> first = interactionStatusService.getLikedResourceIds(1, page);
+        Set<Integer> second = interactionStatusService.getLikedResourceIds(1, page);
+
+        // 验证结果：超过上限的用户只记录标记，不再重复读取全部点赞记录
+        assertEquals(Set.of(3), first);
+        assertEquals(Set.of(3), second);
+        verify(resourceLikeRepository, times(1)).findResourceIdsByUserIdLimit(anyInt(), anyInt());
+        verify(resourceLikeRepository, times(2)).findLikedResourceIds(anyInt(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试收藏变化后失效缓存")
+    void testEvictFavorites() {
+        // 配置mock行为
+        when(favoriteRepository.findResourceIdsByUserIdLimit(1, 11))
+                .thenReturn(Arrays.asList(1))
+                .thenReturn(Arrays.asList(1, 2));
+
+        // 执行测试
+        Set<Integer> before = interactionStatusService.getFavoritedResourceIds(1, Arrays.asList(1, 2));
+        interactionStatusService.evictFavorites(1);
+        Set<Integer> after = interactionStatusService.getFavoritedResourceIds(1, Arrays.asList(1, 2));
+
+        // 验证结果
+        assertEquals(Set.of(1), before);
+        assertEquals(Set.of(1, 2), after);
+    }
+
+    @Test
+    @DisplayName("测试未登录用户不查询数据库")
+    void testAnonymousUser() {
+        // 执行测试
+        Set<Integer> result = interactionStatusService.getLikedPostIds(null, Arrays.asList(1, 2));
+
+        // 验证结果
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(postLikeRepository);
+    }
+}
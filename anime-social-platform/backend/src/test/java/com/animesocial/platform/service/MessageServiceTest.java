@@ -18,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.animesocial.platform.exception.BusinessException;
 import com.animesocial.platform.model.Message;
 import com.animesocial.platform.model.User;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.MessageDTO;
 import com.animesocial.platform.repository.MessageRepository;
 import com.animesocial.platform.repository.UserRepository;
@@ -252,4 +253,47 @@ class MessageServiceTest {
         // 验证结果
         assertEquals(3, result);
     }
+
+    @Test
+    @DisplayName("测试按游标获取收件箱消息")
+    void testGetInboxMessagesByCursor() {
+        // 准备两条已带用户信息的消息，每页1条
+        LocalDateTime sendTime = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+        Message first = new Message();
+        first.setId(5);
+        first.setSenderId(1);
+        first.setReceiverId(2);
+        first.setSendTime(sendTime);
+        first.setSender(testSender);
+        first.setReceiver(testReceiver);
+        Message second = new Message();
+        second.setId(4);
+        second.setSenderId(1);
+        second.setReceiverId(2);
+        second.setSendTime(sendTime);
+        second.setSender(testSender);
+        second.setReceiver(testReceiver);
+        when(messageRepository.getInboxMessagesByCursor(2, null, null, 2)).thenReturn(Arrays.asList(first, second));
+
+        // 第一页
+        CursorPage<MessageDTO> page = messageService.getInboxMessagesByCursor(2, null, 1);
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.getHasMore());
+        assertNotNull(page.getNextCursor());
+
+        // 第二页使用上一页最后一条消息的 (发送时间, id) 定位
+        when(messageRepository.getInboxMessagesByCursor(2, sendTime, 5, 2)).thenReturn(Arrays.asList(second));
+        CursorPage<MessageDTO> next = messageService.getInboxMessagesByCursor(2, page.getNextCursor(), 1);
+        assertEquals(1, next.getItems().size());
+        assertEquals(4, next.getItems().get(0).getId());
+        assertFalse(next.getHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试无效游标")
+    void testGetInboxMessagesByInvalidCursor() {
+        assertThrows(BusinessException.class, () -> messageService.getInboxMessagesByCursor(2, "not-a-cursor", 10));
+        verify(messageRepository, never()).getInboxMessagesByCursor(anyInt(), any(), any(), anyInt());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.model.Post;
+import com.animesocial.platform.model.PostFeedDirty;
+import com.animesocial.platform.repository.PostFeedViewRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.service.impl.PostFeedViewServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PostFeedViewServiceTest {
+
+    @Mock
+    private PostFeedViewRepository postFeedViewRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PostFeedViewServiceImpl postFeedViewServiceImpl;
+
+    private PostFeedViewService postFeedViewService;
+
+    @BeforeEach
+    void setUp() {
+        postFeedViewService = postFeedViewServiceImpl;
+        ReflectionTestUtils.setField(postFeedViewServiceImpl, "batchSize", 200);
+        ReflectionTestUtils.setField(postFeedViewServiceImpl, "excerptLength", 200);
+        postFeedViewServiceImpl.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("测试重算后按版本号删除登记记录")
+    void testDrainProjectsAndDeletesByVersion() {
+        // 配置mock行为
+        List<PostFeedDirty> entries = Arrays.asList(new PostFeedDirty(1, 2), new PostFeedDirty(5, 1));
+        when(postFeedViewRepository.findDirty(200)).thenReturn(entries);
+
+        // 执行测试
+        int processed = postFeedViewService.drain();
+
+        // 验证结果
+        assertEquals(2, processed);
+        verify(postFeedViewRepository).project(Arrays.asList(1, 5));
+        verify(postFeedViewRepository).deleteDirty(entries);
+    }
+
+    @Test
+    @DisplayName("测试重算失败时保留登记记录")
+    void testDrainFailureKeepsEntries() {
+        // 配置mock行为
+        when(postFeedViewRepository.findDirty(200)).thenReturn(Arrays.asList(new PostFeedDirty(1, 1)));
+        when(postFeedViewRepository.project(anyCollection())).thenThrow(new RuntimeException("db down"));
+
+        // 执行测试
+        int processed = postFeedViewService.drain();
+
+        // 验证结果
+        assertEquals(0, processed);
+        verify(postFeedViewRepository, never()).deleteDirty(anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试启动补齐先分批补齐历史摘要再登记缺失行")
+    void testCatchUpBackfillsExcerpts() {
+        // 配置mock行为：第一批补满，第二批不足一批即结束
+        when(postRepository.backfillExcerpts(200, 200)).thenReturn(200, 3);
+        when(postFeedViewRepository.markMissing()).thenReturn(4);
+
+        // 执行测试
+        int marked = postFeedViewService.catchUp();
+
+        // 验证结果
+        assertEquals(4, marked);
+        verify(postRepository, times(2)).backfillExcerpts(200, 200);
+    }
+
+    @Test
+    @DisplayName("测试摘要长度不超过列宽")
+    void testCatchUpClampsExcerptLength() {
+        // 配置mock行为
+        ReflectionTestUtils.setField(postFeedViewServiceImpl, "excerptLength", 1000);
+
+        // 执行测试
+        postFeedViewService.catchUp();
+
+        // 验证结果
+        verify(postRepository).backfillExcerpts(Post.EXCERPT_MAX_LENGTH, 200);
+    }
+
+    @Test
+    @DisplayName("测试空列表不登记")
+    void testMarkEmptyPosts() {
+        // 执行测试
+        postFeedViewService.markPostsDirty(Collections.emptyList());
+
+        // 验证结果
+        verifyNoInteractions(postFeedViewRepository);
+    }
+}
@@ -5,7 +5,10 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,23 +17,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.animesocial.platform.exception.BusinessException;
 import com.animesocial.platform.model.Post;
+import com.animesocial.platform.model.PostFeedView;
 import com.animesocial.platform.model.Tag;
 import com.animesocial.platform.model.dto.CreatePostRequest;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.PostDTO;
 import com.animesocial.platform.model.dto.PostListResponse;
+import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.dto.UserDTO;
+import com.animesocial.platform.repository.PostFeedViewRepository;
 import com.animesocial.platform.repository.PostLikeRepository;
 import com.animesocial.platform.repository.PostRepository;
 import com.animesocial.platform.repository.TagRepository;
 import com.animesocial.platform.service.impl.PostServiceImpl;
 
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
-
 @ExtendWith(MockitoExtension.class)
 class PostServiceTest {
 
@@ -50,10 +54,28 @@ class PostServiceTest {
     private UserService userService;
 
     @Mock
-    private HttpServletRequest request;
+    private UserStatsService userStatsService;
+
+    @Mock
+    private CounterBufferService counterBufferService;
+
+    @Mock
+    private EsOutboxService esOutboxService;
+
+    @Mock
+    private HotRankingService hotRankingService;
+
+    @Mock
+    private InteractionStatusService interactionStatusService;
 
     @Mock
-    private HttpSession session;
+    private TimelineService timelineService;
+
+    @Mock
+    private PostFeedViewService postFeedViewService;
+
+    @Mock
+    private PostFeedViewRepository postFeedViewRepository;
 
     @InjectMocks
     private PostServiceImpl postServiceImpl;
@@ -70,6 +92,7 @@ class PostServiceTest {
     void setUp() {
         // 将实现类赋值给接口变量
         postService = postServiceImpl;
+        ReflectionTestUtils.setField(postServiceImpl, "excerptLength", 5);
 
         // 初始化测试数据
         testPost = new Post();
@@ -107,10 +130,6 @@ class PostServiceTest {
         testTag.setName("测试标签");
         testTag.setType("post");
         testTag.setCategory("动漫");
-
-        // 设置RequestContextHolder
-        when(request.getSession()).thenReturn(session);
-        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
     }
 
     @Test
@@ -119,10 +138,10 @@ class PostServiceTest {
         // 配置mock行为
         when(postRepository.findById(anyInt())).thenReturn(testPost);
         when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
-        when(tagRepository.findByPostId(anyInt())).thenReturn(Arrays.asList(testTag));
+        when(tagService.getPostTags(1)).thenReturn(Collections.emptyList());
 
         // 执行测试
-        PostDTO result = postService.getPostById(1);
+        PostDTO result = postService.getPostById(1, 1);
 
         // 验证结果
         assertNotNull(result);
@@ -135,11 +154,10 @@ class PostServiceTest {
     void testGetPostsByUserId() {
         // 配置mock行为
         when(postRepository.findByUserId(anyInt(), anyInt(), anyInt())).thenReturn(Arrays.asList(testPost));
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
-        when(tagRepository.findByPostId(anyInt())).thenReturn(Arrays.asList(testTag));
+        when(userService.getUserDTOMapByIds(any())).thenReturn(Map.of(1, testUserDTO));
 
         // 执行测试
-        List<PostDTO> result = postService.getPostsByUserId(1, 1, 10);
+        List<PostDTO> result = postService.getPostsByUserId(1, 1, 10, 1);
 
         // 验证结果
         assertNotNull(result);
@@ -150,9 +168,11 @@ class PostServiceTest {
     @Test
     @DisplayName("测试创建帖子")
     void testCreatePost() {
-        // 配置mock行为
-        doNothing().when(postRepository).save(any(Post.class));
-        when(tagRepository.findById(anyInt())).thenReturn(testTag);
+        // 配置mock行为：保存时回填自增ID
+        doAnswer(invocation -> {
+            invocation.<Post>getArgument(0).setId(1);
+            return null;
+        }).when(postRepository).save(any(Post.class));
         when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
 
         // 执行测试
@@ -162,7 +182,123 @@ class PostServiceTest {
         assertNotNull(result);
         assertEquals(testCreateRequest.getTitle(), result.getTitle());
         assertEquals(testCreateRequest.getContent(), result.getContent());
-        verify(postRepository).save(any(Post.class));
+        verify(postRepository).save(argThat(post -> "测试内容".equals(post.getExcerpt())));
+        verify(tagService).updatePostTags(any(), eq(testCreateRequest.getTagIds()));
+        verify(timelineService).fanOut(any(), eq(1), any());
+    }
+
+    @Test
+    @DisplayName("测试创建帖子时按长度截取摘要")
+    void testCreatePostStoresExcerpt() {
+        // 配置mock行为
+        doAnswer(invocation -> {
+            invocation.<Post>getArgument(0).setId(1);
+            return null;
+        }).when(postRepository).save(any(Post.class));
+        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
+        testCreateRequest.setContent("😀一二三四五六");
+
+        // 执行测试
+        PostDTO result = postService.createPost(1, testCreateRequest);
+
+        // 验证结果：摘要按字符截取，不拆开表情的代理对，返回值仍为完整正文
+        verify(postRepository).save(argThat(post -> "😀一二三四".equals(post.getExcerpt())));
+        assertEquals("😀一二三四五六", result.getContent());
+    }
+
+    @Test
+    @DisplayName("测试列表使用摘要投影作为正文")
+    void testListUsesExcerptProjection() {
+        // 配置mock行为：摘要投影不含正文
+        Post summary = new Post();
+        summary.setId(1);
+        summary.setUserId(1);
+        summary.setTitle("测试帖子");
+        summary.setExcerpt("测试摘要");
+        when(postRepository.findTopPosts()).thenReturn(Arrays.asList(summary));
+        when(userService.getUserDTOMapByIds(any())).thenReturn(Map.of(1, testUserDTO));
+
+        // 执行测试
+        List<PostDTO> result = postService.getTopPosts(1);
+
+        // 验证结果
+        assertEquals("测试摘要", result.get(0).getContent());
+        verify(postRepository, never()).findById(anyInt());
+    }
+
+    private Post post(int id, int userId) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle("帖子" + id);
+        return post;
+    }
+
+    @Test
+    @DisplayName("测试帖子列表批量查询作者、标签和点赞状态")
+    void testPostListBatchesLookups() {
+        // 配置mock行为：三条帖子来自两位作者，按传入ID顺序返回
+        UserDTO otherUser = new UserDTO();
+        otherUser.setId(2);
+        otherUser.setUsername("otheruser");
+        TagDTO tag = new TagDTO();
+        tag.setId(1);
+        tag.setName("测试标签");
+        when(postRepository.findSummariesByIds(Arrays.asList(12, 10, 11)))
+                .thenReturn(Arrays.asList(post(10, 1), post(11, 2), post(12, 1)));
+        when(userService.getUserDTOMapByIds(Set.of(1, 2))).thenReturn(Map.of(1, testUserDTO, 2, otherUser));
+        when(tagService.getPostTagsMap(Set.of(10, 11, 12))).thenReturn(Map.of(11, List.of(tag)));
+        when(interactionStatusService.getLikedPostIds(1, Set.of(10, 11, 12))).thenReturn(Set.of(12));
+
+        // 执行测试
+        List<PostDTO> result = postService.findByIds(Arrays.asList(12, 10, 11), 1);
+
+        // 验证结果：每类信息只查询一次，并对应到正确的帖子
+        assertEquals(Arrays.asList(12, 10, 11), result.stream().map(PostDTO::getId).toList());
+        assertEquals("testuser", result.get(0).getUserDTO().getUsername());
+        assertEquals("otheruser", result.get(2).getUserDTO().getUsername());
+        assertEquals(Arrays.asList(tag), result.get(2).getTags());
+        assertTrue(result.get(1).getTags().isEmpty());
+        assertTrue(result.get(0).getIsLiked());
+        assertFalse(result.get(1).getIsLiked());
+        verify(userService, times(1)).getUserDTOMapByIds(any());
+        verify(tagService, times(1)).getPostTagsMap(any());
+        verify(interactionStatusService, times(1)).getLikedPostIds(any(), any());
+        verify(userService, never()).getUserDTOById(anyInt());
+        verify(tagService, never()).getPostTags(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试帖子列表中作者不存在时抛出异常")
+    void testPostListWithMissingAuthor() {
+        // 配置mock行为：帖子11的作者已不存在
+        when(postRepository.findTopPosts()).thenReturn(Arrays.asList(post(10, 1), post(11, 2)));
+        when(userService.getUserDTOMapByIds(Set.of(1, 2))).thenReturn(Map.of(1, testUserDTO));
+
+        // 执行测试
+        BusinessException exception = assertThrows(BusinessException.class, () -> postService.getTopPosts(null));
+
+        // 验证结果
+        assertEquals("用户不存在", exception.getMessage());
+        verify(userService, times(1)).getUserDTOMapByIds(any());
+    }
+
+    @Test
+    @DisplayName("测试管理后台搜索返回完整正文")
+    void testSearchPostsForAdmin() {
+        // 配置mock行为
+        when(postRepository.searchPostsForAdmin("测试", 0, 10)).thenReturn(Arrays.asList(testPost));
+        when(postRepository.countSearchPosts("测试")).thenReturn(1);
+        when(userService.getUserDTOMapByIds(any())).thenReturn(Map.of(1, testUserDTO));
+
+        // 执行测试
+        PostListResponse result = postService.searchPostsForAdmin("测试", 1, 10);
+
+        // 验证结果
+        assertEquals(1, result.getTotal());
+        assertEquals("测试内容", result.getItems().get(0).getContent());
+        verify(postRepository, never()).searchPosts(anyString(), anyInt(), anyInt());
+        verify(interactionStatusService).getLikedPostIds(null, Set.of(1));
     }
 
     @Test
@@ -171,17 +307,17 @@ class PostServiceTest {
         // 配置mock行为
         when(postRepository.findById(anyInt())).thenReturn(testPost);
         doNothing().when(postRepository).update(any(Post.class));
-        when(tagRepository.findById(anyInt())).thenReturn(testTag);
         when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
 
         // 执行测试
-        PostDTO result = postService.updatePost(1, testCreateRequest);
+        PostDTO result = postService.updatePost(1, testCreateRequest, 1);
 
         // 验证结果
         assertNotNull(result);
         assertEquals(testCreateRequest.getTitle(), result.getTitle());
         assertEquals(testCreateRequest.getContent(), result.getContent());
         verify(postRepository).update(any(Post.class));
+        verify(tagService).updatePostTags(1, testCreateRequest.getTagIds());
     }
 
     @Test
@@ -202,35 +338,57 @@ class PostServiceTest {
     @DisplayName("测试点赞帖子")
     void testLikePost() {
         // 配置mock行为
-        when(postRepository.findById(anyInt())).thenReturn(testPost);
-        when(postLikeRepository.exists(anyInt(), anyInt())).thenReturn(false);
-        doNothing().when(postLikeRepository).save(anyInt(), anyInt());
+        when(postLikeRepository.saveIfAbsent(1, 1)).thenReturn(1);
         doNothing().when(postRepository).increaseLikeCount(anyInt());
+        when(postRepository.findLikeCount(1)).thenReturn(1);
 
         // 执行测试
-        String result = postService.likePost(1, 1);
+        Integer result = postService.likePost(1, 1);
 
         // 验证结果
-        assertNotNull(result);
-        verify(postLikeRepository).save(1, 1);
+        assertEquals(1, result);
         verify(postRepository).increaseLikeCount(1);
     }
 
+    @Test
+    @DisplayName("测试重复点赞不重复计数")
+    void testLikePostTwice() {
+        // 配置mock行为
+        when(postLikeRepository.saveIfAbsent(1, 1)).thenReturn(0);
+        when(postRepository.findLikeCount(1)).thenReturn(1);
+
+        // 执行测试
+        Integer result = postService.likePost(1, 1);
+
+        // 验证结果
+        assertEquals(1, result);
+        verify(postRepository, never()).increaseLikeCount(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试点赞不存在的帖子")
+    void testLikeMissingPost() {
+        // 配置mock行为
+        when(postLikeRepository.saveIfAbsent(99, 1)).thenReturn(0);
+        when(postRepository.findLikeCount(99)).thenReturn(null);
+
+        // 执行测试并验证结果
+        assertThrows(BusinessException.class, () -> postService.likePost(99, 1));
+    }
+
     @Test
     @DisplayName("测试取消点赞")
     void testUnlikePost() {
         // 配置mock行为
-        when(postRepository.findById(anyInt())).thenReturn(testPost);
-        when(postLikeRepository.exists(anyInt(), anyInt())).thenReturn(true);
-        doNothing().when(postLikeRepository).delete(anyInt(), anyInt());
+        when(postLikeRepository.delete(1, 1)).thenReturn(1);
         doNothing().when(postRepository).decreaseLikeCount(anyInt());
+        when(postRepository.findLikeCount(1)).thenReturn(0);
 
         // 执行测试
-        String result = postService.unlikePost(1, 1);
+        Integer result = postService.unlikePost(1, 1);
 
         // 验证结果
-        assertNotNull(result);
-        verify(postLikeRepository).delete(1, 1);
+        assertEquals(0, result);
         verify(postRepository).decreaseLikeCount(1);
     }
 
@@ -254,8 +412,7 @@ class PostServiceTest {
         // 配置mock行为
         when(postRepository.findLikedPostsByUserIdPaged(anyInt(), anyInt(), anyInt())).thenReturn(Arrays.asList(testPost));
         when(postRepository.countLikedPostsByUserId(anyInt())).thenReturn(1);
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
-        when(tagRepository.findByPostId(anyInt())).thenReturn(Arrays.asList(testTag));
+        when(userService.getUserDTOMapByIds(any())).thenReturn(Map.of(1, testUserDTO));
 
         // 执行测试
         PostListResponse result = postService.getLikedPosts(1, 1, 10);
@@ -270,14 +427,43 @@ class PostServiceTest {
     @DisplayName("测试增加帖子浏览量")
     void testIncreaseViewCount() {
         // 配置mock行为
-        when(postRepository.findById(anyInt())).thenReturn(testPost);
-        doNothing().when(postRepository).increaseViewCount(anyInt());
+        when(postRepository.existsById(1)).thenReturn(true);
 
         // 执行测试
         assertDoesNotThrow(() -> postService.increaseViewCount(1));
 
-        // 验证mock调用
-        verify(postRepository).increaseViewCount(1);
+        // 验证浏览量计入缓冲而不是直接更新数据库
+        verify(counterBufferService).incrementPostView(1);
+        verify(postRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试重复浏览同一帖子只查询一次是否存在")
+    void testIncreaseViewCountCachesExistence() {
+        // 配置mock行为
+        when(postRepository.existsById(1)).thenReturn(true);
+
+        // 执行测试
+        postService.increaseViewCount(1);
+        postService.increaseViewCount(1);
+
+        // 验证结果
+        verify(postRepository, times(1)).existsById(1);
+        verify(counterBufferService, times(2)).incrementPostView(1);
+    }
+
+    @Test
+    @DisplayName("测试增加不存在帖子的浏览量")
+    void testIncreaseViewCountPostNotFound() {
+        // 配置mock行为
+        when(postRepository.existsById(99)).thenReturn(false);
+
+        // 执行测试
+        BusinessException exception = assertThrows(BusinessException.class, () -> postService.increaseViewCount(99));
+
+        // 验证结果
+        assertEquals("帖子不存在", exception.getMessage());
+        verify(counterBufferService, never()).incrementPostView(anyInt());
     }
 
     @Test
@@ -298,12 +484,12 @@ class PostServiceTest {
     @DisplayName("测试获取置顶帖子列表")
     void testGetTopPosts() {
         // 配置mock行为
+        testPost.setIsTop(true);
         when(postRepository.findTopPosts()).thenReturn(Arrays.asList(testPost));
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
-        when(tagRepository.findByPostId(anyInt())).thenReturn(Arrays.asList(testTag));
+        when(userService.getUserDTOMapByIds(any())).thenReturn(Map.of(1, testUserDTO));
 
         // 执行测试
-        List<PostDTO> result = postService.getTopPosts();
+        List<PostDTO> result = postService.getTopPosts(1);
 
         // 验证结果
         assertNotNull(result);
@@ -317,11 +503,10 @@ class PostServiceTest {
         // 配置mock行为
         when(postRepository.searchPosts(anyString(), anyInt(), anyInt())).thenReturn(Arrays.asList(testPost));
         when(postRepository.countSearchPosts(anyString())).thenReturn(1);
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
-        when(tagRepository.findByPostId(anyInt())).thenReturn(Arrays.asList(testTag));
+        when(userService.getUserDTOMapByIds(any())).thenReturn(Map.of(1, testUserDTO));
 
         // 执行测试
-        PostListResponse result = postService.searchPosts("测试", 1, 10);
+        PostListResponse result = postService.searchPosts("测试", 1, 10, 1);
 
         // 验证结果
         assertNotNull(result);
@@ -333,16 +518,137 @@ class PostServiceTest {
     @DisplayName("测试获取热门帖子")
     void testGetHotPosts() {
         // 配置mock行为
-        when(postRepository.findHotPosts(anyInt())).thenReturn(Arrays.asList(testPost));
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
-        when(tagRepository.findByPostId(anyInt())).thenReturn(Arrays.asList(testTag));
+        when(hotRankingService.getHotPostIds(null, 10)).thenReturn(Arrays.asList(1));
+        when(postFeedViewRepository.findByIds(Arrays.asList(1))).thenReturn(Arrays.asList(testFeedView()));
 
         // 执行测试
-        PostListResponse result = postService.getHotPosts(10);
+        PostListResponse result = postService.getHotPosts(10, null, 1);
 
         // 验证结果
         assertNotNull(result);
         assertEquals(1, result.getItems().size());
         assertEquals(1, result.getTotal());
     }
+
+    @Test
+    @DisplayName("测试从读模型分页获取帖子")
+    void testGetAllPostsFromFeedView() {
+        // 配置mock行为
+        when(postFeedViewRepository.findPage(null, 0, 10, "latest")).thenReturn(Arrays.asList(testFeedView()));
+        when(postFeedViewRepository.count(null)).thenReturn(1);
+        when(interactionStatusService.getLikedPostIds(eq(1), any())).thenReturn(Set.of(1));
+
+        // 执行测试
+        PostListResponse result = postService.getAllPosts(1, 10, null, "latest", 1);
+
+        // 验证结果：作者、标签和计数直接来自读模型，不再查询用户和标签
+        PostDTO dto = result.getItems().get(0);
+        assertEquals(1, result.getTotal());
+        assertEquals("测试摘要", dto.getContent());
+        assertEquals("testuser", dto.getUserDTO().getUsername());
+        assertEquals(1, dto.getTags().size());
+        assertEquals("测试标签", dto.getTags().get(0).getName());
+        assertEquals(3, dto.getCommentCount());
+        assertTrue(dto.getIsLiked());
+        verifyNoInteractions(userService, tagService);
+        verify(postRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("测试按标签分页时总数来自读模型")
+    void testGetAllPostsByTagCountsFeedView() {
+        // 配置mock行为
+        when(postFeedViewRepository.findPage(5, 0, 10, "latest")).thenReturn(Arrays.asList(testFeedView()));
+        when(postFeedViewRepository.count(5)).thenReturn(1);
+
+        // 执行测试
+        PostListResponse result = postService.getAllPosts(1, 10, 5, "latest", null);
+
+        // 验证结果
+        assertEquals(1, result.getTotal());
+        verify(postRepository, never()).countByTagId(anyInt());
+    }
+
+    private PostFeedView feedView(int id, LocalDateTime createdAt) {
+        PostFeedView view = testFeedView();
+        view.setPostId(id);
+        view.setCreatedAt(createdAt);
+        return view;
+    }
+
+    @Test
+    @DisplayName("测试按游标翻页直到最后一页")
+    void testGetPostsByCursorToLastPage() {
+        // 配置mock行为：每页一条，第一页多查出的一条用于判断还有下一页
+        LocalDateTime newer = LocalDateTime.of(2024, 1, 2, 12, 0);
+        LocalDateTime older = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(postFeedViewRepository.findByCursor(null, "latest", null, null, null, 2))
+                .thenReturn(Arrays.asList(feedView(2, newer), feedView(1, older)));
+        when(postFeedViewRepository.findByCursor(null, "latest", newer, null, 2, 2))
+                .thenReturn(Arrays.asList(feedView(1, older)));
+
+        // 执行测试
+        CursorPage<PostDTO> first = postService.getPostsByCursor(null, 1, null, "latest", 1);
+        CursorPage<PostDTO> last = postService.getPostsByCursor(first.getNextCursor(), 1, null, "latest", 1);
+
+        // 验证结果
+        assertEquals(1, first.getItems().size());
+        assertEquals(2, first.getItems().get(0).getId());
+        assertTrue(first.getHasMore());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, last.getItems().size());
+        assertEquals(1, last.getItems().get(0).getId());
+        assertFalse(last.getHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试按游标获取空页")
+    void testGetPostsByCursorEmptyPage() {
+        // 配置mock行为
+        when(postFeedViewRepository.findByCursor(null, "latest", null, null, null, 11)).thenReturn(Collections.emptyList());
+
+        // 执行测试
+        CursorPage<PostDTO> page = postService.getPostsByCursor(null, 10, null, "latest", 1);
+
+        // 验证结果
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试游标分页限制每页数量")
+    void testGetPostsByCursorClampsSize() {
+        // 配置mock行为：size=0按1处理，size过大按上限处理
+        when(postFeedViewRepository.findByCursor(null, "latest", null, null, null, 2))
+                .thenReturn(Arrays.asList(feedView(2, LocalDateTime.now()), feedView(1, LocalDateTime.now())));
+
+        // 执行测试
+        CursorPage<PostDTO> page = postService.getPostsByCursor(null, 0, null, "latest", 1);
+        postService.getPostsByCursor(null, 1000, null, "latest", 1);
+        postService.getPostsByCursor(null, -5, null, "latest", 1);
+
+        // 验证结果
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.getHasMore());
+        verify(postFeedViewRepository).findByCursor(null, "latest", null, null, null, 101);
+        verify(postFeedViewRepository, times(2)).findByCursor(null, "latest", null, null, null, 2);
+    }
+
+    private PostFeedView testFeedView() {
+        PostFeedView view = new PostFeedView();
+        view.setPostId(1);
+        view.setUserId(1);
+        view.setUsername("testuser");
+        view.setTitle("测试帖子");
+        view.setExcerpt("测试摘要");
+        view.setTags("[{\"id\": 1, \"name\": \"测试标签\", \"category\": \"动漫\"}]");
+        view.setViewCount(0);
+        view.setLikeCount(0);
+        view.setCommentCount(3);
+        view.setIsTop(false);
+        view.setCreatedAt(LocalDateTime.now());
+        return view;
+    }
 } 
\ No newline at end of file
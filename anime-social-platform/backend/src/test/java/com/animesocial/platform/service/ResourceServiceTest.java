@@ -6,7 +6,10 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,9 +22,13 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.animesocial.platform.exception.BusinessException;
+import com.animesocial.platform.model.IdCount;
 import com.animesocial.platform.model.Resource;
+import com.animesocial.platform.model.ResourceLike;
+import com.animesocial.platform.model.dto.CursorPage;
 import com.animesocial.platform.model.dto.ResourceDTO;
 import com.animesocial.platform.model.dto.ResourceListResponse;
+import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.model.dto.UserDTO;
 import com.animesocial.platform.repository.FavoriteRepository;
 import com.animesocial.platform.repository.ResourceLikeRepository;
@@ -54,6 +61,21 @@ class ResourceServiceTest {
     @Mock
     private FileStorageUtil fileStorageUtil;
 
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private CounterBufferService counterBufferService;
+
+    @Mock
+    private EsOutboxService esOutboxService;
+
+    @Mock
+    private HotRankingService hotRankingService;
+
+    @Mock
+    private InteractionStatusService interactionStatusService;
+
     @InjectMocks
     private ResourceServiceImpl resourceServiceImpl;
 
@@ -112,12 +134,12 @@ class ResourceServiceTest {
     void testGetResourceById() {
         // 配置mock行为
         when(resourceRepository.findById(anyInt())).thenReturn(testResource);
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
+        when(userService.getUserSummaryById(anyInt())).thenReturn(testUserDTO);
         when(tagService.getResourceTags(anyInt())).thenReturn(Arrays.asList());
-        when(favoriteRepository.findByResourceId(anyInt())).thenReturn(Arrays.asList());
+        when(favoriteRepository.countByResourceId(anyInt())).thenReturn(0);
 
         // 执行测试
-        ResourceDTO result = resourceService.getResourceById(1);
+        ResourceDTO result = resourceService.getResourceById(1, 1);
 
         // 验证结果
         assertNotNull(result);
@@ -134,7 +156,7 @@ class ResourceServiceTest {
 
         // 执行测试并验证异常
         assertThrows(BusinessException.class, () -> {
-            resourceService.getResourceById(999);
+            resourceService.getResourceById(999, 1);
         });
     }
 
@@ -161,7 +183,7 @@ class ResourceServiceTest {
         when(resourceRepository.count()).thenReturn(1);
 
         // 执行测试
-        ResourceListResponse result = resourceService.getAllResources(1, 10, null, "latest");
+        ResourceListResponse result = resourceService.getAllResources(1, 10, null, "latest", 1);
 
         // 验证结果
         assertNotNull(result);
@@ -173,7 +195,7 @@ class ResourceServiceTest {
     @DisplayName("测试上传资源")
     void testUploadResource() throws IOException {
         // 配置mock行为
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
+        when(userService.getUserSummaryById(anyInt())).thenReturn(testUserDTO);
         when(fileStorageUtil.storeResourceFile(any(), anyString())).thenReturn("test.jpg");
         when(fileStorageUtil.getPublicUrl(anyString())).thenReturn("http://example.com/test.jpg");
         doNothing().when(resourceRepository).insert(any(Resource.class));
@@ -195,12 +217,12 @@ class ResourceServiceTest {
         when(resourceRepository.findById(anyInt())).thenReturn(testResource);
         doNothing().when(resourceRepository).update(any(Resource.class));
         doNothing().when(tagService).updateResourceTags(anyInt(), anyList());
-        when(userService.getUserDTOById(anyInt())).thenReturn(testUserDTO);
+        when(userService.getUserSummaryById(anyInt())).thenReturn(testUserDTO);
         when(tagService.getResourceTags(anyInt())).thenReturn(Arrays.asList());
-        when(favoriteRepository.findByResourceId(anyInt())).thenReturn(Arrays.asList());
+        when(favoriteRepository.countByResourceId(anyInt())).thenReturn(0);
 
         // 执行测试
-        ResourceDTO result = resourceService.updateResource(1, "更新后的标题", "更新后的描述", Arrays.asList(1, 2));
+        ResourceDTO result = resourceService.updateResource(1, "更新后的标题", "更新后的描述", Arrays.asList(1, 2), 1);
 
         // 验证结果
         assertNotNull(result);
@@ -228,32 +250,46 @@ class ResourceServiceTest {
     @DisplayName("测试点赞资源")
     void testLikeResource() {
         // 配置mock行为
-        when(resourceRepository.findById(anyInt())).thenReturn(testResource);
-        when(resourceLikeRepository.exists(anyInt(), anyInt())).thenReturn(false);
-        doNothing().when(resourceLikeRepository).save(anyInt(), anyInt());
+        when(resourceLikeRepository.saveIfAbsent(1, 2)).thenReturn(1);
         doNothing().when(resourceRepository).incrementLikeCount(anyInt());
+        when(resourceRepository.findLikeCount(1)).thenReturn(1);
+
+        // 执行测试
+        Integer result = resourceService.likeResource(1, 2);
+
+        // 验证结果
+        assertEquals(1, result);
+        verify(resourceRepository).incrementLikeCount(1);
+    }
+
+    @Test
+    @DisplayName("测试重复取消点赞不重复扣减")
+    void testUnlikeResourceTwice() {
+        // 配置mock行为
+        when(resourceLikeRepository.delete(1, 2)).thenReturn(0);
+        when(resourceRepository.findLikeCount(1)).thenReturn(0);
 
         // 执行测试
-        String result = resourceService.likeResource(1, 2);
+        Integer result = resourceService.unlikeResource(1, 2);
 
         // 验证结果
-        assertEquals("点赞成功", result);
+        assertEquals(0, result);
+        verify(resourceRepository, never()).decrementLikeCount(anyInt());
     }
 
     @Test
     @DisplayName("测试取消点赞")
     void testUnlikeResource() {
         // 配置mock行为
-        when(resourceRepository.findById(anyInt())).thenReturn(testResource);
-        when(resourceLikeRepository.exists(anyInt(), anyInt())).thenReturn(true);
-        doNothing().when(resourceLikeRepository).delete(anyInt(), anyInt());
+        when(resourceLikeRepository.delete(1, 2)).thenReturn(1);
         doNothing().when(resourceRepository).decrementLikeCount(anyInt());
+        when(resourceRepository.findLikeCount(1)).thenReturn(0);
 
         // 执行测试
-        String result = resourceService.unlikeResource(1, 2);
+        Integer result = resourceService.unlikeResource(1, 2);
 
         // 验证结果
-        assertEquals("取消点赞成功", result);
+        assertEquals(0, result);
     }
 
     @Test
@@ -273,9 +309,8 @@ class ResourceServiceTest {
     @DisplayName("测试获取用户点赞的资源列表")
     void testGetLikedResources() {
         // 配置mock行为
-        when(resourceLikeRepository.findResourceIdsByUserId(anyInt())).thenReturn(Arrays.asList(1));
-        when(resourceRepository.findByIds(anyList())).thenReturn(Arrays.asList(testResource));
-        when(resourceRepository.count()).thenReturn(1);
+        when(resourceRepository.findLikedByUserIdPaged(1, 0, 10)).thenReturn(Arrays.asList(testResource));
+        when(resourceLikeRepository.countByUserId(1)).thenReturn(1);
 
         // 执行测试
         ResourceListResponse result = resourceService.getLikedResources(1, 1, 10);
@@ -284,6 +319,59 @@ class ResourceServiceTest {
         assertNotNull(result);
         assertEquals(1, result.getItems().size());
         assertEquals(1, result.getTotal());
+        assertTrue(result.getItems().get(0).getIsLiked());
+        verify(resourceRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试获取用户收藏的资源列表")
+    void testGetFavoritedResources() {
+        // 配置mock行为
+        when(favoriteRepository.countByUserId(1)).thenReturn(11);
+        when(resourceRepository.findFavoritesByUserId(1, 10, 10)).thenReturn(Arrays.asList(testResource));
+
+        // 执行测试
+        ResourceListResponse result = resourceService.getFavoritedResources(1, 2, 10);
+
+        // 验证结果：总数来自收藏计数，当前页只有一条
+        assertEquals(11, result.getTotal());
+        assertEquals(1, result.getItems().size());
+        assertTrue(result.getItems().get(0).getIsFavorited());
+        verify(resourceRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试按游标获取用户点赞的资源列表")
+    void testGetLikedResourcesByCursor() {
+        // 配置mock行为：按点赞时间倒序返回两条点赞记录，多出的一条用于判断下一页
+        LocalDateTime likedAt = LocalDateTime.of(2024, 1, 2, 10, 0);
+        Resource other = new Resource();
+        other.setId(2);
+        other.setUserId(1);
+        other.setTitle("另一个资源");
+        when(resourceLikeRepository.findByUserIdByCursor(1, null, null, 2)).thenReturn(Arrays.asList(
+                new ResourceLike(8, 2, 1, likedAt), new ResourceLike(5, 1, 1, likedAt.minusDays(1))));
+        when(resourceRepository.findByIds(List.of(2))).thenReturn(Arrays.asList(other));
+
+        // 执行测试
+        CursorPage<ResourceDTO> first = resourceService.getLikedResourcesByCursor(1, null, 1);
+
+        // 验证结果
+        assertTrue(first.getHasMore());
+        assertEquals(1, first.getItems().size());
+        assertEquals(2, first.getItems().get(0).getId());
+        assertNotNull(first.getNextCursor());
+
+        // 第二页使用上一页最后一条点赞记录的 (点赞时间, ID) 定位
+        when(resourceLikeRepository.findByUserIdByCursor(1, likedAt, 8, 2)).thenReturn(Arrays.asList(
+                new ResourceLike(5, 1, 1, likedAt.minusDays(1))));
+        when(resourceRepository.findByIds(List.of(1))).thenReturn(Arrays.asList(testResource));
+
+        CursorPage<ResourceDTO> second = resourceService.getLikedResourcesByCursor(1, first.getNextCursor(), 1);
+
+        assertFalse(second.getHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(1, second.getItems().get(0).getId());
     }
 
     @Test
@@ -294,7 +382,7 @@ class ResourceServiceTest {
         when(resourceRepository.countSearch(anyString())).thenReturn(1);
 
         // 执行测试
-        ResourceListResponse result = resourceService.searchResources("测试", 1, 10);
+        ResourceListResponse result = resourceService.searchResources("测试", 1, 10, 1);
 
         // 验证结果
         assertNotNull(result);
@@ -302,19 +390,149 @@ class ResourceServiceTest {
         assertEquals(1, result.getTotal());
     }
 
+    @Test
+    @DisplayName("测试资源列表批量补充标签与收藏数量")
+    void testResourceListBatchesDetails() {
+        // 配置mock行为
+        Resource other = new Resource();
+        other.setId(2);
+        other.setUserId(1);
+        other.setTitle("另一个资源");
+        when(resourceRepository.findAll(anyString(), anyInt(), anyInt())).thenReturn(Arrays.asList(testResource, other));
+        when(resourceRepository.count()).thenReturn(2);
+        when(userService.getUserSummaries(anyCollection())).thenReturn(Map.of(1, testUserDTO));
+        TagDTO tag = new TagDTO();
+        tag.setId(1);
+        tag.setName("原创");
+        when(tagService.getResourceTagsMap(anyCollection())).thenReturn(Map.of(1, List.of(tag), 2, List.of()));
+        when(favoriteRepository.countByResourceIds(anyCollection())).thenReturn(List.of(new IdCount(1, 3)));
+
+        // 执行测试
+        ResourceListResponse result = resourceService.getAllResources(1, 10, null, "latest", 1);
+
+        // 验证结果：每类信息只查询一次，未被收藏的资源计为0
+        assertEquals(2, result.getItems().size());
+        assertEquals(3, result.getItems().get(0).getFavoriteCount());
+        assertEquals(1, result.getItems().get(0).getTags().size());
+        assertEquals(0, result.getItems().get(1).getFavoriteCount());
+        assertEquals("testuser", result.getItems().get(1).getUsername());
+        verify(favoriteRepository, times(1)).countByResourceIds(anyCollection());
+        verify(tagService, times(1)).getResourceTagsMap(anyCollection());
+        verify(favoriteRepository, never()).findByResourceId(anyInt());
+        verify(tagService, never()).getResourceTags(anyInt());
+    }
+
+    @Test
+    @DisplayName("测试资源列表批量查询上传者并对应到正确的资源")
+    void testResourceListBatchesAuthors() {
+        // 配置mock行为：三条资源来自三位上传者，其中用户9已不存在
+        Resource first = resource(1, LocalDateTime.now());
+        Resource second = resource(2, LocalDateTime.now());
+        second.setUserId(2);
+        Resource orphan = resource(3, LocalDateTime.now());
+        orphan.setUserId(9);
+        UserDTO otherUser = new UserDTO();
+        otherUser.setId(2);
+        otherUser.setUsername("otheruser");
+        otherUser.setAvatar("other.png");
+        when(resourceRepository.findByIds(Arrays.asList(3, 2, 1))).thenReturn(Arrays.asList(first, second, orphan));
+        when(userService.getUserSummaries(Set.of(1, 2, 9))).thenReturn(Map.of(1, testUserDTO, 2, otherUser));
+
+        // 执行测试
+        List<ResourceDTO> result = resourceService.findByIds(Arrays.asList(3, 2, 1), 1);
+
+        // 验证结果：保持传入顺序，上传者不存在的资源仍然返回但不带用户名
+        assertEquals(Arrays.asList(3, 2, 1), result.stream().map(ResourceDTO::getId).toList());
+        assertNull(result.get(0).getUsername());
+        assertEquals("otheruser", result.get(1).getUsername());
+        assertEquals("other.png", result.get(1).getUserAvatar());
+        assertEquals("testuser", result.get(2).getUsername());
+        verify(userService, times(1)).getUserSummaries(anyCollection());
+        verify(userService, never()).getUserDTOById(anyInt());
+    }
+
     @Test
     @DisplayName("测试获取热门资源")
     void testGetHotResources() {
         // 配置mock行为
-        when(resourceRepository.findAll(anyString(), anyInt(), anyInt())).thenReturn(Arrays.asList(testResource));
-        when(resourceRepository.count()).thenReturn(1);
+        when(hotRankingService.getHotResourceIds(null, 10)).thenReturn(Arrays.asList(1));
+        when(resourceRepository.findByIds(Arrays.asList(1))).thenReturn(Arrays.asList(testResource));
 
         // 执行测试
-        ResourceListResponse result = resourceService.getHotResources(10);
+        ResourceListResponse result = resourceService.getHotResources(10, null, 1);
 
         // 验证结果
         assertNotNull(result);
         assertEquals(1, result.getItems().size());
         assertEquals(1, result.getTotal());
     }
-} 
\ No newline at end of file
+
+    private Resource resource(int id, LocalDateTime uploadTime) {
+        Resource resource = new Resource();
+        resource.setId(id);
+        resource.setUserId(1);
+        resource.setTitle("资源" + id);
+        resource.setUploadTime(uploadTime);
+        resource.setDownloadCount(0);
+        resource.setLikeCount(0);
+        return resource;
+    }
+
+    @Test
+    @DisplayName("测试按游标翻页直到最后一页")
+    void testGetResourcesByCursorToLastPage() {
+        // 配置mock行为：每页一条，第一页多查出的一条用于判断还有下一页
+        LocalDateTime newer = LocalDateTime.of(2024, 1, 2, 12, 0);
+        LocalDateTime older = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(resourceRepository.findByCursor(null, "latest", null, null, null, 2))
+                .thenReturn(Arrays.asList(resource(2, newer), resource(1, older)));
+        when(resourceRepository.findByCursor(null, "latest", newer, null, 2, 2))
+                .thenReturn(Arrays.asList(resource(1, older)));
+
+        // 执行测试
+        CursorPage<ResourceDTO> first = resourceService.getResourcesByCursor(null, 1, null, "latest", 1);
+        CursorPage<ResourceDTO> last = resourceService.getResourcesByCursor(first.getNextCursor(), 1, null, "latest", 1);
+
+        // 验证结果
+        assertEquals(1, first.getItems().size());
+        assertEquals(2, first.getItems().get(0).getId());
+        assertTrue(first.getHasMore());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, last.getItems().size());
+        assertEquals(1, last.getItems().get(0).getId());
+        assertFalse(last.getHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试按游标获取空页")
+    void testGetResourcesByCursorEmptyPage() {
+        // 配置mock行为
+        when(resourceRepository.findByCursor(null, "latest", null, null, null, 11)).thenReturn(Collections.emptyList());
+
+        // 执行测试
+        CursorPage<ResourceDTO> page = resourceService.getResourcesByCursor(null, 10, null, "latest", 1);
+
+        // 验证结果
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("测试游标分页限制每页数量")
+    void testGetResourcesByCursorClampsSize() {
+        // 配置mock行为：size=0按1处理，size过大按上限处理
+        when(resourceRepository.findByCursor(null, "latest", null, null, null, 2))
+                .thenReturn(Arrays.asList(resource(2, LocalDateTime.now()), resource(1, LocalDateTime.now())));
+
+        // 执行测试
+        CursorPage<ResourceDTO> page = resourceService.getResourcesByCursor(null, 0, null, "latest", 1);
+        resourceService.getResourcesByCursor(null, 1000, null, "latest", 1);
+
+        // 验证结果
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.getHasMore());
+        verify(resourceRepository).findByCursor(null, "latest", null, null, null, 101);
+    }
+}
@@ -0,0 +1,112 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.model.Tag;
+import com.animesocial.platform.repository.TagRepository;
+import com.animesocial.platform.repository.UserTagRepository;
+import com.animesocial.platform.service.impl.TagFeedServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class TagFeedServiceTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private UserTagRepository userTagRepository;
+
+    @InjectMocks
+    private TagFeedServiceImpl tagFeedServiceImpl;
+
+    private TagFeedService tagFeedService;
+
+    @BeforeEach
+    void setUp() {
+        tagFeedService = tagFeedServiceImpl;
+        ReflectionTestUtils.setField(tagFeedServiceImpl, "perTagSize", 5);
+
+        Tag first = new Tag();
+        first.setId(1);
+        Tag second = new Tag();
+        second.setId(2);
+        when(tagRepository.findByType("post")).thenReturn(Arrays.asList(first, second));
+        when(tagRepository.findRecentPostIdsByTagId(1, 5)).thenReturn(Arrays.asList(30, 20, 10));
+        when(tagRepository.findRecentPostIdsByTagId(2, 5)).thenReturn(Arrays.asList(25, 20, 15, 5));
+        tagFeedService.rebuild();
+    }
+
+    @Test
+    @DisplayName("测试多个标签的帖子按ID降序归并并去重")
+    void testMergeAndDedupe() {
+        // 配置mock行为
+        when(userTagRepository.findTagIdsByUserId(1)).thenReturn(Arrays.asList(1, 2, 3));
+
+        // 执行测试
+        List<Integer> first = tagFeedService.getPostIds(1, null, 4);
+        List<Integer> second = tagFeedService.getPostIds(1, first.get(first.size() - 1), 4);
+
+        // 验证结果：同时属于两个标签的帖子20只出现一次，没有帖子的标签被忽略
+        assertEquals(Arrays.asList(30, 25, 20, 15), first);
+        assertEquals(Arrays.asList(10, 5), second);
+    }
+
+    @Test
+    @DisplayName("测试帖子标签变化后增量更新")
+    void testPostTagsChanged() {
+        // 配置mock行为
+        when(userTagRepository.findTagIdsByUserId(1)).thenReturn(Arrays.asList(1));
+
+        // 执行测试：新帖子40加入标签1，帖子20移出标签1
+        tagFeedService.onPostTagsChanged(40, Collections.emptyList(), Arrays.asList(1));
+        tagFeedService.onPostTagsChanged(20, Arrays.asList(1), Collections.emptyList());
+
+        // 验证结果
+        assertEquals(Arrays.asList(40, 30, 10), tagFeedService.getPostIds(1, null, 10));
+    }
+
+    @Test
+    @DisplayName("测试重建期间的标签变化不会被重建覆盖")
+    void testChangeDuringRebuildIsReplayed() {
+        // 配置mock行为：重建读取标签1时，帖子40加入标签1、帖子30移出标签1，读到的仍是旧数据
+        when(tagRepository.findRecentPostIdsByTagId(1, 5)).thenAnswer(invocation -> {
+            tagFeedService.onPostTagsChanged(40, Collections.emptyList(), Arrays.asList(1));
+            tagFeedService.onPostTagsChanged(30, Arrays.asList(1), Collections.emptyList());
+            return Arrays.asList(30, 20, 10);
+        });
+        when(userTagRepository.findTagIdsByUserId(1)).thenReturn(Arrays.asList(1));
+
+        // 执行测试
+        tagFeedService.rebuild();
+
+        // 验证结果
+        assertEquals(Arrays.asList(40, 20, 10), tagFeedService.getPostIds(1, null, 10));
+    }
+
+    @Test
+    @DisplayName("测试没有关注标签的用户返回空列表")
+    void testNoTags() {
+        // 配置mock行为
+        when(userTagRepository.findTagIdsByUserId(1)).thenReturn(Collections.emptyList());
+
+        // 执行测试
+        List<Integer> result = tagFeedService.getPostIds(1, null, 10);
+
+        // 验证结果
+        assertTrue(result.isEmpty());
+    }
+}
@@ -4,27 +4,50 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.animesocial.platform.model.ContentTag;
+import com.animesocial.platform.model.IdCount;
 import com.animesocial.platform.model.Tag;
 import com.animesocial.platform.model.dto.TagDTO;
 import com.animesocial.platform.repository.TagRepository;
 import com.animesocial.platform.service.impl.TagServiceImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class TagServiceTest {
 
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private EsOutboxService esOutboxService;
+
+    @Mock
+    private TagFeedService tagFeedService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private PostFeedViewService postFeedViewService;
+
     @InjectMocks
     private TagServiceImpl tagServiceImpl;
 
@@ -37,6 +60,9 @@ class TagServiceTest {
     void setUp() {
         // 将实现类赋值给接口变量
         tagService = tagServiceImpl;
+        ReflectionTestUtils.setField(tagServiceImpl, "cacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(tagServiceImpl, "cacheTtlSeconds", 600L);
+        tagServiceImpl.initCaches();
 
         // 初始化测试数据
         testTag = new Tag();
@@ -216,4 +242,71 @@ class TagServiceTest {
         verify(tagRepository).deleteResourceTags(1);
         verify(tagRepository).saveResourceTags(eq(1), anyList());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("测试标签缓存命中")
+    void testGetTagByIdCached() {
+        when(tagRepository.findById(1)).thenReturn(testTag);
+
+        tagService.getTagById(1);
+        tagService.getTagById(1);
+
+        // 标签实体和使用次数都只查询一次
+        verify(tagRepository, times(1)).findById(1);
+        verify(tagRepository, times(1)).countContentByTagIds(anyCollection());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tag.entity").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("测试批量获取内容标签只查询未缓存的内容")
+    void testGetPostTagsMapCached() {
+        ContentTag contentTag = new ContentTag();
+        contentTag.setContentId(1);
+        contentTag.setTagId(1);
+        contentTag.setTagName("测试标签");
+        contentTag.setTagType("post");
+        when(tagRepository.findContentTags(eq("post"), anyCollection())).thenReturn(Arrays.asList(contentTag));
+        IdCount count = new IdCount();
+        count.setId(1);
+        count.setCount(5);
+        when(tagRepository.countContentByTagIds(anyCollection())).thenReturn(Arrays.asList(count));
+
+        Map<Integer, List<TagDTO>> first = tagService.getPostTagsMap(Arrays.asList(1, 2));
+        Map<Integer, List<TagDTO>> second = tagService.getPostTagsMap(Arrays.asList(1, 2));
+
+        assertEquals(1, first.get(1).size());
+        assertEquals(5, first.get(1).get(0).getContentCount());
+        assertTrue(first.get(2).isEmpty());
+        assertEquals(first, second);
+        verify(tagRepository, times(1)).findContentTags(eq("post"), anyCollection());
+        verify(tagRepository, times(1)).countContentByTagIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("测试更新帖子标签后缓存失效")
+    @SuppressWarnings("unchecked")
+    void testUpdatePostTagsEvictsCache() {
+        Tag otherTag = new Tag();
+        otherTag.setId(2);
+        otherTag.setName("其他标签");
+        otherTag.setType("post");
+        when(tagRepository.findByPostId(1))
+                .thenReturn(Arrays.asList(testTag))
+                .thenReturn(Arrays.asList(testTag))
+                .thenReturn(Arrays.asList(testTag, otherTag));
+        when(tagRepository.findById(2)).thenReturn(otherTag);
+
+        assertEquals("测试标签", tagService.getPostTags(1).get(0).getName());
+
+        tagService.updatePostTags(1, Arrays.asList(2));
+
+        assertEquals(2, tagService.getPostTags(1).size());
+        // 原标签的使用次数已失效，与新标签一起重新统计
+        ArgumentCaptor<Collection<Integer>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(tagRepository, times(2)).countContentByTagIds(captor.capture());
+        assertTrue(captor.getAllValues().get(1).containsAll(Arrays.asList(1, 2)));
+        // 标签信息流移除原标签、加入新标签
+        verify(tagFeedService).onPostTagsChanged(1, Set.of(1), Set.of(2));
+    }
+}
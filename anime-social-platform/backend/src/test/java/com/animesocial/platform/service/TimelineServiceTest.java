@@ -0,0 +1,175 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.animesocial.platform.model.UserStats;
+import com.animesocial.platform.repository.FriendshipRepository;
+import com.animesocial.platform.repository.PostRepository;
+import com.animesocial.platform.repository.TimelineRepository;
+import com.animesocial.platform.repository.UserStatsRepository;
+import com.animesocial.platform.service.impl.TimelineServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    @Mock
+    private TimelineRepository timelineRepository;
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @InjectMocks
+    private TimelineServiceImpl timelineServiceImpl;
+
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        timelineService = timelineServiceImpl;
+        ReflectionTestUtils.setField(timelineServiceImpl, "inboxCapacity", 500);
+        ReflectionTestUtils.setField(timelineServiceImpl, "fanOutMaxFollowers", 1000);
+        ReflectionTestUtils.setField(timelineServiceImpl, "backfillSize", 20);
+    }
+
+    private UserStats statsWithFollowers(int followerCount) {
+        UserStats stats = new UserStats();
+        stats.setFollowerCount(followerCount);
+        return stats;
+    }
+
+    @Test
+    @DisplayName("测试发帖时分批写入粉丝收件箱")
+    void testFanOutInBatches() {
+        // 配置mock行为：700个粉丝分两批写入
+        List<Integer> followerIds = IntStream.rangeClosed(1, 700).boxed().collect(Collectors.toList());
+        LocalDateTime createdAt = LocalDateTime.now();
+        when(userStatsRepository.findByUserId(9)).thenReturn(statsWithFollowers(700));
+        when(friendshipRepository.findFollowerIds(9)).thenReturn(followerIds);
+
+        // 执行测试
+        timelineService.fanOut(100, 9, createdAt);
+
+        // 验证结果
+        verify(timelineRepository).insertBatch(followerIds.subList(0, 500), 100, 9, createdAt);
+        verify(timelineRepository).insertBatch(followerIds.subList(500, 700), 100, 9, createdAt);
+    }
+
+    @Test
+    @DisplayName("测试粉丝数超过阈值的作者不写扩散")
+    void testFanOutSkippedForLargeAuthor() {
+        // 配置mock行为
+        when(userStatsRepository.findByUserId(9)).thenReturn(statsWithFollowers(5000));
+
+        // 执行测试
+        timelineService.fanOut(100, 9, LocalDateTime.now());
+
+        // 验证结果：不写收件箱，登记为读扩散作者
+        verify(friendshipRepository, never()).findFollowerIds(anyInt());
+        verify(timelineRepository).markPullAuthor(9, 100);
+        verifyNoMoreInteractions(timelineRepository);
+    }
+
+    @Test
+    @DisplayName("测试作者粉丝数回落后补推读扩散期间的帖子")
+    void testFanOutAfterReturningToPush() {
+        // 配置mock行为：作者登记为读扩散作者，起始帖子为80，粉丝数已回落到阈值以内
+        List<Integer> followerIds = Arrays.asList(1, 2);
+        LocalDateTime createdAt = LocalDateTime.now();
+        when(userStatsRepository.findByUserId(9)).thenReturn(statsWithFollowers(800));
+        when(friendshipRepository.findFollowerIds(9)).thenReturn(followerIds);
+        when(timelineRepository.findPullSincePostId(9)).thenReturn(80);
+
+        // 执行测试
+        timelineService.fanOut(100, 9, createdAt);
+
+        // 验证结果：先补推登记以来的帖子，再推送新帖并移除登记
+        verify(timelineRepository).backfillFollowers(followerIds, 9, 80, 500);
+        verify(timelineRepository).insertBatch(followerIds, 100, 9, createdAt);
+        verify(timelineRepository).deletePullAuthor(9);
+    }
+
+    @Test
+    @DisplayName("测试关注读扩散作者时不补入收件箱")
+    void testOnFollowPullAuthor() {
+        // 配置mock行为
+        when(timelineRepository.findPullSincePostId(9)).thenReturn(80);
+        when(timelineRepository.findPullSincePostId(8)).thenReturn(null);
+
+        // 执行测试
+        timelineService.onFollow(1, 9);
+        timelineService.onFollow(1, 8);
+
+        // 验证结果
+        verify(timelineRepository, never()).backfill(1, 9, 20);
+        verify(timelineRepository).backfill(1, 8, 20);
+    }
+
+    @Test
+    @DisplayName("测试时间线归并收件箱与读扩散作者的帖子")
+    void testTimelineMergesPulledAuthors() {
+        // 配置mock行为
+        when(timelineRepository.findPostIds(1, 50, 4)).thenReturn(Arrays.asList(48, 45, 41, 30));
+        when(timelineRepository.findFollowingPullAuthorIds(1)).thenReturn(Arrays.asList(9));
+        when(postRepository.findIdsByUserIdsBeforeId(Arrays.asList(9), 50, 4)).thenReturn(Arrays.asList(49, 45, 40, 39));
+
+        // 执行测试
+        List<Integer> result = timelineService.getTimelinePostIds(1, 50, 4);
+
+        // 验证结果：按ID降序归并并去重
+        assertEquals(Arrays.asList(49, 48, 45, 41), result);
+    }
+
+    @Test
+    @DisplayName("测试没有读扩散作者时只读取收件箱")
+    void testTimelineFromInboxOnly() {
+        // 配置mock行为
+        when(timelineRepository.findPostIds(1, null, 11)).thenReturn(Arrays.asList(3, 2, 1));
+        when(timelineRepository.findFollowingPullAuthorIds(1)).thenReturn(Collections.emptyList());
+
+        // 执行测试
+        List<Integer> result = timelineService.getTimelinePostIds(1, null, 11);
+
+        // 验证结果
+        assertEquals(Arrays.asList(3, 2, 1), result);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("测试裁剪超过容量的收件箱")
+    void testTrimInboxes() {
+        // 配置mock行为
+        when(timelineRepository.findUserIdsOverCapacity(500, 200)).thenReturn(Arrays.asList(1, 2));
+        when(timelineRepository.trim(1, 499)).thenReturn(3);
+        when(timelineRepository.trim(2, 499)).thenReturn(5);
+
+        // 执行测试
+        int removed = timelineService.trimInboxes();
+
+        // 验证结果
+        assertEquals(8, removed);
+    }
+}
@@ -16,6 +16,7 @@ import com.animesocial.platform.model.User;
 import com.animesocial.platform.model.dto.LoginRequest;
 import com.animesocial.platform.model.dto.RegisterRequest;
 import com.animesocial.platform.model.dto.UserDTO;
+import com.animesocial.platform.repository.FriendshipRepository;
 import com.animesocial.platform.repository.UserRepository;
 import com.animesocial.platform.service.impl.UserServiceImpl;
 
@@ -28,6 +29,21 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private EsOutboxService esOutboxService;
+
+    @Mock
+    private PostFeedViewService postFeedViewService;
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    @Mock
+    private TimelineService timelineService;
+
     @InjectMocks
     private UserServiceImpl userServiceImpl;
 
@@ -148,4 +164,43 @@ class UserServiceTest {
         assertTrue(existingResult);
         assertFalse(newResult);
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("测试切换关注 - 关注时补入时间线")
+    void testToggleFollowFollows() {
+        // 配置mock行为
+        when(userRepository.existsByIdOrUsername(anyInt(), isNull())).thenReturn(true);
+        when(friendshipRepository.exists(1, 2)).thenReturn(false);
+        when(friendshipRepository.exists(2, 1)).thenReturn(false);
+
+        // 执行测试
+        String result = userService.toggleFollow(1, 2);
+
+        // 验证结果
+        assertEquals("关注成功", result);
+        verify(friendshipRepository).insert(1, 2);
+        verify(userStatsService).adjustFollowCount(1, 2, 1);
+        verify(timelineService).onFollow(1, 2);
+        verify(timelineService, never()).onUnfollow(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试切换关注 - 取消关注时移出时间线")
+    void testToggleFollowUnfollows() {
+        // 配置mock行为
+        when(userRepository.existsByIdOrUsername(anyInt(), isNull())).thenReturn(true);
+        when(friendshipRepository.exists(1, 2)).thenReturn(true);
+        when(friendshipRepository.exists(2, 1)).thenReturn(false);
+        when(friendshipRepository.delete(1, 2)).thenReturn(1);
+
+        // 执行测试
+        String result = userService.toggleFollow(1, 2);
+
+        // 验证结果
+        assertEquals("已取消关注", result);
+        verify(friendshipRepository).delete(1, 2);
+        verify(userStatsService).adjustFollowCount(1, 2, -1);
+        verify(timelineService).onUnfollow(1, 2);
+        verify(timelineService, never()).onFollow(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,180 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.animesocial.platform.model.UserTag;
+import com.animesocial.platform.repository.UserTagRepository;
+import com.animesocial.platform.service.impl.UserSimilarityServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserSimilarityServiceTest {
+
+    @Mock
+    private UserTagRepository userTagRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private UserSimilarityServiceImpl userSimilarityServiceImpl;
+
+    private UserSimilarityService userSimilarityService;
+
+    @BeforeEach
+    void setUp() {
+        userSimilarityService = userSimilarityServiceImpl;
+        userSimilarityServiceImpl.registerMetrics();
+    }
+
+    /**
+     * 构造用户标签关联数据：用户1{1,2,3}，用户2{1,2,3}，用户3{1,2,4,5,6}，用户4{1}，用户5{7}
+     */
+    private List<UserTag> sampleUserTags() {
+        int[][] pairs = {
+            {1, 1}, {1, 2}, {1, 3},
+            {2, 1}, {2, 2}, {2, 3},
+            {3, 1}, {3, 2}, {3, 4}, {3, 5}, {3, 6},
+            {4, 1},
+            {5, 7}
+        };
+        List<UserTag> userTags = new ArrayList<>();
+        for (int i = 0; i < pairs.length; i++) {
+            UserTag userTag = new UserTag();
+            userTag.setId(i + 1);
+            userTag.setUserId(pairs[i][0]);
+            userTag.setTagId(pairs[i][1]);
+            userTags.add(userTag);
+        }
+        return userTags;
+    }
+
+    @Test
+    @DisplayName("测试按共同标签数和Jaccard系数排序相似用户")
+    void testGetSimilarUsers() {
+        // 配置mock行为
+        when(userTagRepository.findAfterId(0, 5000)).thenReturn(sampleUserTags());
+
+        // 执行测试
+        List<Integer> result = userSimilarityService.getSimilarUsers(1, 10, null);
+
+        // 验证结果：用户2共同标签3个；用户3共同标签2个；用户4共同标签1个；用户5没有共同标签
+        assertEquals(Arrays.asList(2, 3, 4), result);
+        assertEquals(5.0, meterRegistry.get("user.similarity.index.users").gauge().value());
+    }
+
+    @Test
+    @DisplayName("测试只保留前K个相似用户并排除指定用户")
+    void testGetSimilarUsersWithLimitAndExclusion() {
+        // 配置mock行为
+        when(userTagRepository.findAfterId(0, 5000)).thenReturn(sampleUserTags());
+
+        // 执行测试
+        List<Integer> top = userSimilarityService.getSimilarUsers(1, 2, null);
+        List<Integer> excluded = userSimilarityService.getSimilarUsers(1, 2, Arrays.asList(2));
+
+        // 验证结果：索引只在首次查询时构建一次
+        assertEquals(Arrays.asList(2, 3), top);
+        assertEquals(Arrays.asList(3, 4), excluded);
+        verify(userTagRepository, times(1)).findAfterId(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试用户标签变化后增量更新索引")
+    void testRefreshUser() {
+        // 配置mock行为
+        when(userTagRepository.findAfterId(0, 5000)).thenReturn(sampleUserTags());
+        when(userTagRepository.findTagIdsByUserId(5)).thenReturn(Arrays.asList(3, 2, 1));
+        when(userTagRepository.findTagIdsByUserId(2)).thenReturn(Arrays.asList());
+        userSimilarityService.rebuild();
+
+        // 执行测试：用户5改为与用户1完全相同的标签，用户2清空标签
+        userSimilarityService.refreshUser(5);
+        userSimilarityService.refreshUser(2);
+        List<Integer> result = userSimilarityService.getSimilarUsers(1, 10, null);
+
+        // 验证结果
+        assertEquals(Arrays.asList(5, 3, 4), result);
+        assertTrue(userSimilarityService.getSimilarUsers(2, 10, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试事务内的标签变化只在提交后更新索引")
+    void testRefreshUserAppliesAfterCommit() {
+        // 配置mock行为
+        when(userTagRepository.findAfterId(0, 5000)).thenReturn(sampleUserTags());
+        when(userTagRepository.findTagIdsByUserId(5)).thenReturn(Arrays.asList(1, 2, 3));
+        userSimilarityService.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // 执行测试：提交前索引不变
+            userSimilarityService.refreshUser(5);
+            assertEquals(Arrays.asList(2, 3, 4), userSimilarityService.getSimilarUsers(1, 10, null));
+            verify(userTagRepository, never()).findTagIdsByUserId(anyInt());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // 验证结果：提交后用户5与用户1、用户2标签完全相同，同分时按用户ID升序
+        assertEquals(Arrays.asList(2, 5, 3, 4), userSimilarityService.getSimilarUsers(1, 10, null));
+    }
+
+    @Test
+    @DisplayName("测试事务回滚后索引保持不变")
+    void testRefreshUserIgnoredOnRollback() {
+        // 配置mock行为
+        when(userTagRepository.findAfterId(0, 5000)).thenReturn(sampleUserTags());
+        userSimilarityService.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // 执行测试：事务回滚只会触发完成回调
+            userSimilarityService.refreshUser(2);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // 验证结果
+        verify(userTagRepository, never()).findTagIdsByUserId(anyInt());
+        assertEquals(Arrays.asList(2, 3, 4), userSimilarityService.getSimilarUsers(1, 10, null));
+    }
+
+    @Test
+    @DisplayName("测试没有标签的用户")
+    void testGetSimilarUsersWithoutTags() {
+        // 配置mock行为
+        when(userTagRepository.findAfterId(0, 5000)).thenReturn(sampleUserTags());
+
+        // 执行测试
+        List<Integer> result = userSimilarityService.getSimilarUsers(99, 10, null);
+
+        // 验证结果
+        assertTrue(result.isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+package com.animesocial.platform.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.animesocial.platform.model.UserStats;
+import com.animesocial.platform.repository.UserStatsRepository;
+import com.animesocial.platform.service.impl.UserStatsServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatsServiceTest {
+
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @InjectMocks
+    private UserStatsServiceImpl userStatsServiceImpl;
+
+    private UserStatsService userStatsService;
+
+    @BeforeEach
+    void setUp() {
+        userStatsService = userStatsServiceImpl;
+    }
+
+    private UserStats stats(int userId, int postCount) {
+        UserStats stats = new UserStats();
+        stats.setUserId(userId);
+        stats.setPostCount(postCount);
+        return stats;
+    }
+
+    @Test
+    @DisplayName("测试增加和减少计数")
+    void testAdjustCounts() {
+        // 执行测试
+        userStatsService.adjustPostCount(1, 1);
+        userStatsService.adjustPostCount(1, -1);
+        userStatsService.adjustFavoriteCount(1, -2);
+        userStatsService.adjustFollowCount(1, 2, 1);
+
+        // 验证结果：关注同时调整关注者的关注数和被关注者的粉丝数
+        verify(userStatsRepository).adjustPostCount(1, 1);
+        verify(userStatsRepository).adjustPostCount(1, -1);
+        verify(userStatsRepository).adjustFavoriteCount(1, -2);
+        verify(userStatsRepository).adjustFollowingCount(1, 1);
+        verify(userStatsRepository).adjustFollowerCount(2, 1);
+    }
+
+    @Test
+    @DisplayName("测试变化量为0或用户为空时不写库")
+    void testAdjustCountsIgnoresNoop() {
+        // 执行测试
+        userStatsService.adjustPostCount(1, 0);
+        userStatsService.adjustPostCount(null, 1);
+        userStatsService.adjustFavoriteCount(1, 0);
+        userStatsService.adjustFollowCount(1, null, 1);
+
+        // 验证结果
+        verifyNoInteractions(userStatsRepository);
+    }
+
+    @Test
+    @DisplayName("测试批量读取统计时缺少统计行的用户不写库")
+    void testGetStatsMapWithMissingRow() {
+        // 配置mock行为：用户2没有统计行
+        when(userStatsRepository.findByUserIds(Arrays.asList(1, 2))).thenReturn(Arrays.asList(stats(1, 3)));
+
+        // 执行测试
+        Map<Integer, UserStats> result = userStatsService.getStatsMap(Arrays.asList(1, 2));
+
+        // 验证结果：读路径只查询一次，不重建缺失的统计行
+        assertEquals(1, result.size());
+        assertEquals(3, result.get(1).getPostCount());
+        assertNull(result.get(2));
+        verify(userStatsRepository, times(1)).findByUserIds(anyCollection());
+        verifyNoMoreInteractions(userStatsRepository);
+    }
+
+    @Test
+    @DisplayName("测试空用户列表不查询")
+    void testGetStatsMapEmpty() {
+        // 执行测试
+        Map<Integer, UserStats> result = userStatsService.getStatsMap(Collections.emptyList());
+
+        // 验证结果
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userStatsRepository);
+    }
+
+    @Test
+    @DisplayName("测试对账按用户ID分段重建且单段失败不影响后续分段")
+    void testReconcileAll() {
+        // 配置mock行为：最大用户ID为1200，分为三段，第二段失败
+        when(userStatsRepository.findMaxUserId()).thenReturn(1200);
+        when(userStatsRepository.rebuildByUserIdRange(1, 500)).thenReturn(500);
+        when(userStatsRepository.rebuildByUserIdRange(501, 1000)).thenThrow(new RuntimeException("lock timeout"));
+        when(userStatsRepository.rebuildByUserIdRange(1001, 1500)).thenReturn(200);
+
+        // 执行测试
+        int processed = userStatsService.reconcileAll();
+
+        // 验证结果
+        assertEquals(700, processed);
+        verify(userStatsRepository, times(3)).rebuildByUserIdRange(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("测试没有用户时对账不执行重建")
+    void testReconcileAllWithoutUsers() {
+        // 配置mock行为
+        when(userStatsRepository.findMaxUserId()).thenReturn(0);
+
+        // 执行测试
+        int processed = userStatsService.reconcileAll();
+
+        // 验证结果
+        assertEquals(0, processed);
+        verify(userStatsRepository, never()).rebuildByUserIdRange(anyInt(), anyInt());
+    }
+}
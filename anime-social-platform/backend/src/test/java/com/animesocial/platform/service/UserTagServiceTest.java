@@ -33,6 +33,12 @@ class UserTagServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EsOutboxService esOutboxService;
+
+    @Mock
+    private UserSimilarityService userSimilarityService;
+
     @InjectMocks
     private UserTagServiceImpl userTagServiceImpl;
 